@@ -0,0 +1,176 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.jpmc.theater.BookingService;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Load generator for BookingService. Starts the given number of concurrent clients at once and has every client book the given
+ * number of times in a row. A connection is only reused once its request has been answered, so the peak number of open
+ * connections is the number of clients. Prints the throughput, the latency percentiles and the count of every response status.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.jpmc.theater.benchmarks.BookingLoadGenerator [clients] [requests per client] [port]
+ * </pre>
+ *
+ * Without a port the service is started in the same process on a theater with 1000 showings, so every client uses two file
+ * descriptors and the open file limit must be more than twice the number of clients. Giving the port of a service started with
+ * BookingServer in another process halves that.
+ *
+ * @author Ray Wang
+ */
+public final class BookingLoadGenerator {
+	/** Number of showings in the theater of an in-process service */
+	static final int SHOWINGS = 1000;
+	/**
+	 * System property that lets HttpClient retry a booking sent on a connection the server had already closed as idle. The server
+	 * never read such a booking, so retrying it cannot book twice
+	 */
+	private static final String RETRY_PROPERTY = "jdk.httpclient.enableAllMethodRetry";
+
+	/** Prevents instantiation of the main class */
+	private BookingLoadGenerator() { }
+
+	/**
+	 * Runs the load.
+	 * @param args number of clients, requests per client and, optionally, the port of a running service
+	 * @throws Exception if the load cannot be run
+	 */
+	public static void main(String[] args) throws Exception {
+		System.setProperty(RETRY_PROPERTY, "true");
+		BookingServer.disableNagle();
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int requests = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		BookingService service = args.length > 2 ? null : BookingServer.start(0);
+		int port = service == null ? Integer.parseInt(args[2]) : service.getPort();
+		try {
+			run(clients, requests, port);
+		} finally {
+			if(service != null) {
+				service.close();
+			}
+		}
+	}
+
+	/**
+	 * Runs the load against the service on the given port and prints the results.
+	 * @param clients number of concurrent clients
+	 * @param requests number of bookings made by each client
+	 * @param port of the service
+	 */
+	private static void run(int clients, int requests, int port) {
+		List<Showing> showings = Fixtures.theater(SHOWINGS).getSchedule();
+		HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(60)).build();
+		URI reserve = URI.create("http://localhost:" + port + "/reserve");
+		long[] latencies = new long[clients * requests];
+		AtomicInteger recorded = new AtomicInteger();
+		ConcurrentHashMap<String, AtomicInteger> statuses = new ConcurrentHashMap<String, AtomicInteger>();
+		AtomicLongArray inFlight = new AtomicLongArray(2);
+
+		long start = System.nanoTime();
+		CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+		for(int client = 0; client < clients; client++) {
+			CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+			for(int i = 0; i < requests; i++) {
+				Showing showing = showings.get((client * requests + i) % showings.size());
+				String booking = "{\"name\": \"Customer " + client + "\", \"date\": \"" + showing.getStartTime().toLocalDate() + "\", \"screen\": "
+						+ showing.getScreen().getNumber() + ", \"sequence\": " + showing.getSequenceOfTheDay() + ", \"tickets\": 1}";
+				HttpRequest request = HttpRequest.newBuilder(reserve).timeout(Duration.ofSeconds(120))
+						.POST(HttpRequest.BodyPublishers.ofString(booking)).build();
+				chain = chain.thenCompose(ignored -> {
+					long sent = System.nanoTime();
+					long open = inFlight.incrementAndGet(0);
+					inFlight.accumulateAndGet(1, open, Math::max);
+					return http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).handle((response, failure) -> {
+						inFlight.decrementAndGet(0);
+						latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+						Throwable cause = failure == null || failure.getCause() == null ? failure : failure.getCause();
+						String status = failure == null ? String.valueOf(response.statusCode()) : cause.toString();
+						statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+						return null;
+					});
+				});
+			}
+			done[client] = chain;
+		}
+		CompletableFuture.allOf(done).join();
+		long elapsed = System.nanoTime() - start;
+
+		long[] sorted = Arrays.copyOf(latencies, recorded.get());
+		Arrays.sort(sorted);
+		System.out.printf("%d clients x %d requests in %.2f s: %.0f requests/s, peak %d requests in flight%n", clients, requests,
+				elapsed / 1e9, sorted.length / (elapsed / 1e9), inFlight.get(1));
+		System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", percentile(sorted, 0.5), percentile(sorted, 0.99),
+				sorted[sorted.length - 1] / 1e6);
+		System.out.println("statuses " + statuses);
+	}
+
+	/**
+	 * Helper method to return a percentile of sorted latencies in milliseconds.
+	 * @param sorted latencies in nanoseconds
+	 * @param fraction of the latencies, between 0 and 1
+	 * @return the percentile in milliseconds
+	 */
+	private static double percentile(long[] sorted, double fraction) {
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * fraction) - 1)] / 1e6;
+	}
+
+	/**
+	 * Runs a BookingService in its own process, so the load generator and the service each have their own open file limit.
+	 *
+	 * <pre>
+	 * java -cp target/benchmarks.jar com.jpmc.theater.benchmarks.BookingLoadGenerator$BookingServer [port]
+	 * </pre>
+	 */
+	public static final class BookingServer {
+		/** Prevents instantiation of the main class */
+		private BookingServer() { }
+
+		/**
+		 * Starts the service and keeps it running until the process is stopped.
+		 * @param args optionally, the port to listen on
+		 * @throws IOException if the service cannot be started
+		 */
+		public static void main(String[] args) throws IOException {
+			disableNagle();
+			BookingService service = start(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+			System.out.println("Booking service listening on port " + service.getPort() + (service.usesVirtualThreads() ? " with" : " without")
+					+ " virtual threads");
+		}
+
+		/**
+		 * Disables Nagle's algorithm on the connections of the service, unless the property was given on the command line. Must
+		 * be called before the service is started.
+		 */
+		static void disableNagle() {
+			if(System.getProperty(BookingService.NO_DELAY_PROPERTY) == null) {
+				System.setProperty(BookingService.NO_DELAY_PROPERTY, "true");
+			}
+		}
+
+		/**
+		 * Starts a service on a theater with SHOWINGS showings of unlimited capacity.
+		 * @param port to listen on, or 0 for a free port
+		 * @return the service
+		 * @throws IOException if the service cannot be started
+		 */
+		static BookingService start(int port) throws IOException {
+			Theater theater = Fixtures.theater(SHOWINGS);
+			return new BookingService(theater, new InetSocketAddress("localhost", port));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.jpmc.theater.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.DemandPricing;
+import com.jpmc.theater.DemandTier;
+import com.jpmc.theater.Showing;
+
+/**
+ * Measures quoting 1000 showings of 100 seats that start tomorrow, with and without demand pricing. quote reads the cached
+ * prices, which with demand pricing also checks the clock for the markdown window. reserveAndQuote claims a seat, quotes and
+ * returns the seat on every showing; half of each showing is sold beforehand, so with demand pricing every claim and return
+ * crosses the surge threshold and every quote recalculates the price, which is the worst case.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DemandPricingBenchmark {
+	/** Number of showings quoted per invocation */
+	private static final int SHOWINGS = 1000;
+	/** Seats of every showing */
+	private static final int CAPACITY = 100;
+
+	/** Whether the showings use demand pricing */
+	@Param({ "false", "true" })
+	public boolean demand;
+
+	/** Showings being quoted */
+	private Showing[] showings;
+
+	/**
+	 * Builds the showings, sells 49 seats of each and sets the demand pricing.
+	 */
+	@Setup
+	public void setUp() {
+		DemandPricing pricing = demand ? DemandPricing.of(List.of(DemandTier.surge(50, 20), DemandTier.markdown(30, Duration.ofHours(2), 25)))
+				: DemandPricing.none();
+		LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+		showings = new Showing[SHOWINGS];
+		for(int i = 0; i < SHOWINGS; i++) {
+			showings[i] = new Showing(Fixtures.MOVIES[i % Fixtures.MOVIES.length], i + 1, tomorrow, CAPACITY);
+			showings[i].tryReserveSeats(CAPACITY / 2 - 1);
+			showings[i].setDemandPricing(pricing);
+		}
+	}
+
+	/**
+	 * Quotes every showing.
+	 * @return the sum of the prices in cents
+	 */
+	@Benchmark
+	public long quote() {
+		long total = 0;
+		for(Showing showing : showings) {
+			total += showing.getTicketPriceCents();
+		}
+		return total;
+	}
+
+	/**
+	 * Claims a seat, quotes and returns the seat on every showing.
+	 * @return the sum of the prices in cents
+	 */
+	@Benchmark
+	public long reserveAndQuote() {
+		long total = 0;
+		for(Showing showing : showings) {
+			showing.tryReserveSeats(1);
+			total += showing.getTicketPriceCents();
+			showing.releaseSeats(1);
+		}
+		return total;
+	}
+}
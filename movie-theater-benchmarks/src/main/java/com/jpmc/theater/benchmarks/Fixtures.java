@@ -0,0 +1,66 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.jpmc.theater.Movie;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Builds the data sets shared by the benchmarks. Schedules are deterministic so results are comparable between runs.
+ *
+ * @author Ray Wang
+ */
+final class Fixtures {
+	/** Movies that the generated showings cycle through, covering the special and regular pricing paths */
+	static final Movie[] MOVIES = {
+			new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1),
+			new Movie("Turning Red", Duration.ofMinutes(85), 11, 0),
+			new Movie("The Batman", Duration.ofMinutes(95), 9, 0)
+	};
+
+	/** First day of the generated schedules. The 7th is included so the day-of-month discount is exercised */
+	private static final LocalDateTime FIRST_SHOWING = LocalDateTime.of(LocalDate.of(2023, 4, 1), LocalTime.of(9, 0));
+
+	/** Prevents instantiation of the helper class */
+	private Fixtures() { }
+
+	/**
+	 * Creates showings numbered from 1 that start 20 minutes apart.
+	 * @param count number of showings to create
+	 * @return the showings
+	 */
+	static Showing[] showings(int count) {
+		Showing[] showings = new Showing[count];
+		for(int i = 0; i < count; i++) {
+			showings[i] = new Showing(MOVIES[i % MOVIES.length], i + 1, FIRST_SHOWING.plusMinutes(20L * i));
+		}
+		return showings;
+	}
+
+	/**
+	 * Creates a theater whose schedule holds the given number of showings.
+	 * @param count number of showings in the schedule
+	 * @return the theater
+	 */
+	static Theater theater(int count) {
+		Theater theater = new Theater();
+		for(Showing showing : showings(count)) {
+			theater.addShowingToSchedule(showing);
+		}
+		return theater;
+	}
+
+	/**
+	 * Returns a print stream that discards everything written to it. Used to keep console printing out of the measurements.
+	 * @return the discarding print stream
+	 */
+	static PrintStream nullPrintStream() {
+		return new PrintStream(OutputStream.nullOutputStream());
+	}
+}
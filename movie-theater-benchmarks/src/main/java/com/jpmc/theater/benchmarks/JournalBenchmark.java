@@ -0,0 +1,156 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.Reservation;
+import com.jpmc.theater.ReservationJournal;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures the reservation journal. replay recovers a journal of the given number of entries into a new theater, as on startup.
+ * reserveDurable books from every core with each booking waiting for its group commit, so the result shows how many bookings
+ * share each fsync at the given commit window.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class JournalBenchmark {
+	/** Number of showings in the schedule */
+	private static final int SHOWINGS = 1000;
+	/** Number of reservations written to the journal in each record while preparing it */
+	private static final int ENTRIES_PER_RECORD = 1000;
+
+	/** Number of entries in the journal that is replayed */
+	@Param({ "100000", "1000000" })
+	public int entries;
+	/** Commit window of the journal booked through, in milliseconds */
+	@Param({ "0", "1" })
+	public int commitWindowMillis;
+
+	/** Customer making the reservations */
+	private final Customer customer = new Customer("John Doe", "johndoe123");
+	/** Directory holding the journals */
+	private Path directory;
+	/** Journal that is replayed */
+	private Path replayPath;
+	/** Theater the journal is replayed into */
+	private Theater restored;
+	/** Theater booked through the journal */
+	private Theater theater;
+	/** Journal the bookings are written to */
+	private ReservationJournal journal;
+
+	/**
+	 * Writes the journal that is replayed.
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Setup(Level.Trial)
+	public void writeJournal() throws IOException {
+		directory = Files.createTempDirectory("journal-benchmark");
+		replayPath = directory.resolve("replay.journal");
+		Showing[] showings = Fixtures.theater(SHOWINGS).getSchedule().toArray(new Showing[0]);
+		try (ReservationJournal writing = new ReservationJournal(replayPath, Duration.ZERO)) {
+			List<Reservation> record = new ArrayList<Reservation>(ENTRIES_PER_RECORD);
+			for(int i = 0; i < entries; i++) {
+				record.add(new Reservation(customer, showings[i % SHOWINGS], 1));
+				if(record.size() == ENTRIES_PER_RECORD || i == entries - 1) {
+					writing.recordReservations(record).join();
+					record.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the theater the journal is replayed into.
+	 */
+	@Setup(Level.Invocation)
+	public void createRestored() {
+		restored = Fixtures.theater(SHOWINGS);
+	}
+
+	/**
+	 * Opens a fresh journal to book through.
+	 * @throws IOException if the journal cannot be opened
+	 */
+	@Setup(Level.Iteration)
+	public void openJournal() throws IOException {
+		theater = Fixtures.theater(SHOWINGS);
+		journal = new ReservationJournal(Files.createTempFile(directory, "bookings", ".journal"), Duration.ofMillis(commitWindowMillis));
+		theater.setReservationJournal(journal);
+	}
+
+	/**
+	 * Closes and deletes the journal booked through.
+	 * @throws IOException if the journal cannot be closed
+	 */
+	@TearDown(Level.Iteration)
+	public void closeJournal() throws IOException {
+		journal.close();
+		Files.delete(journal.getPath());
+	}
+
+	/**
+	 * Deletes the replayed journal.
+	 * @throws IOException if the journal cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void deleteJournals() throws IOException {
+		Files.deleteIfExists(replayPath);
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * Opens and replays the whole journal.
+	 * @return the number of restored entries
+	 * @throws IOException if the journal cannot be read
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public long replay() throws IOException {
+		try (ReservationJournal replaying = new ReservationJournal(replayPath)) {
+			return replaying.replay(restored);
+		}
+	}
+
+	/**
+	 * Books one ticket and waits for it to be durable.
+	 * @return the reservation
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Threads(Threads.MAX)
+	public Reservation reserveDurable() {
+		return theater.reserve(customer, 1, 1);
+	}
+}
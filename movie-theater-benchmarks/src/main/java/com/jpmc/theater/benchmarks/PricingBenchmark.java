@@ -0,0 +1,116 @@
+package com.jpmc.theater.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.DiscountPolicy;
+import com.jpmc.theater.PricingColumns;
+import com.jpmc.theater.Reservation;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.TheaterMetrics;
+
+/**
+ * Measures Movie.calculateTicketPrice and Reservation.totalFee over schedules of different sizes. Each invocation prices every
+ * showing, or totals one reservation per showing, once. Running with metrics enabled and disabled shows the cost of the
+ * instrumentation around ticket pricing. priceCents prices the same showings in bulk from columns laid out in setup, and
+ * layOutAndPriceCents includes laying out the columns from the showings.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+	/** Number of showings priced per invocation */
+	@Param({ "10", "1000", "100000" })
+	public int size;
+	/** Whether TheaterMetrics records ticket pricing */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	/** Showings being priced */
+	private Showing[] showings;
+	/** One reservation per showing, used to measure fee calculation */
+	private Reservation[] reservations;
+	/** The showings as a list, as the schedule returns them */
+	private List<Showing> showingList;
+	/** Pricing facts of the showings, used to measure bulk pricing */
+	private PricingColumns columns;
+
+	/**
+	 * Builds the showings for the current size.
+	 */
+	@Setup
+	public void setUp() {
+		TheaterMetrics.getInstance().setEnabled(metrics);
+		showings = Fixtures.showings(size);
+		Customer customer = new Customer("John Doe", "johndoe123");
+		reservations = new Reservation[size];
+		for(int i = 0; i < size; i++) {
+			reservations[i] = new Reservation(customer, showings[i], 4);
+		}
+		showingList = Arrays.asList(showings);
+		columns = PricingColumns.of(showingList);
+	}
+
+	/**
+	 * Prices every showing and returns the sum so the work cannot be eliminated.
+	 * @return the sum of the ticket prices
+	 */
+	@Benchmark
+	public double calculateTicketPrice() {
+		double total = 0;
+		for(Showing showing : showings) {
+			total += showing.getMovie().calculateTicketPrice(showing);
+		}
+		return total;
+	}
+
+	/**
+	 * Totals the fee of every reservation, as an end of day revenue report does.
+	 * @return the sum of the fees
+	 */
+	@Benchmark
+	public double totalFee() {
+		double total = 0;
+		for(Reservation reservation : reservations) {
+			total += reservation.totalFee();
+		}
+		return total;
+	}
+
+	/**
+	 * Prices every showing in bulk from the columns.
+	 * @return the ticket prices in cents
+	 */
+	@Benchmark
+	public long[] priceCents() {
+		return DiscountPolicy.defaultPolicy().priceCents(columns);
+	}
+
+	/**
+	 * Lays out the columns of every showing and prices them in bulk.
+	 * @return the ticket prices in cents
+	 */
+	@Benchmark
+	public long[] layOutAndPriceCents() {
+		return DiscountPolicy.defaultPolicy().priceCents(showingList);
+	}
+}
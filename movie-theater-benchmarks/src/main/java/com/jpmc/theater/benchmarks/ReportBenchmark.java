@@ -0,0 +1,78 @@
+package com.jpmc.theater.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+import com.jpmc.theater.TheaterReport;
+
+/**
+ * Measures TheaterReport built sequentially and in parallel over theaters with a growing number of reservations spread across
+ * 1000 showings. The size where the parallel score drops below the sequential one is the crossover point that
+ * TheaterReport.PARALLEL_THRESHOLD is set from; it depends on the number of cores, so run it on the target hardware.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+	/** Number of showings in the schedule */
+	private static final int SHOWINGS = 1000;
+
+	/** Number of reservations in the theater */
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int reservations;
+
+	/** Theater being reported on */
+	private Theater theater;
+
+	/**
+	 * Books the theater with the given number of reservations.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		theater = Fixtures.theater(SHOWINGS);
+		List<Showing> showings = theater.getSchedule();
+		Customer customer = new Customer("John Doe", "johndoe123");
+		for(int i = 0; i < reservations; i++) {
+			theater.reserve(customer, showings.get(i % SHOWINGS).getSequenceOfTheDay(), 1);
+		}
+	}
+
+	/**
+	 * Builds the report on the calling thread.
+	 * @return the report
+	 */
+	@Benchmark
+	public TheaterReport sequential() {
+		return TheaterReport.of(theater, false);
+	}
+
+	/**
+	 * Builds the report on the common fork/join pool.
+	 * @return the report
+	 */
+	@Benchmark
+	public TheaterReport parallel() {
+		return TheaterReport.of(theater, true);
+	}
+}
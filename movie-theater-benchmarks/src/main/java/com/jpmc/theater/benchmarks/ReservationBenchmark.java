@@ -0,0 +1,139 @@
+package com.jpmc.theater.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.Reservation;
+import com.jpmc.theater.ReservationRequest;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures Theater.reserve against schedules and reservation books of different sizes. The theater is rebuilt for every
+ * iteration with the given number of showings, each already holding reservations, so the reservation book does not grow without
+ * bound during measurement. reserveBatch books a group of 100 requests in one call and reports the cost per booking so it can
+ * be compared with single reservations directly. The multi-threaded variant gives every thread its own showing to show how throughput scales across
+ * cores when bookings do not contend.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationBenchmark {
+	/** Number of showings in the schedule and of reservations made before measuring */
+	@Param({ "10", "1000", "100000" })
+	public int size;
+
+	/** Theater being booked */
+	private Theater theater;
+	/** Customer making the reservations */
+	private final Customer customer = new Customer("John Doe", "johndoe123");
+	/** Number of requests in each batch booking */
+	private static final int BATCH_SIZE = 100;
+
+	/** Batch of requests spread over the schedule */
+	private List<ReservationRequest> batch;
+	/** Hands out a distinct showing to each benchmark thread */
+	private final AtomicInteger nextThreadShowing = new AtomicInteger();
+
+	/**
+	 * Per-thread state holding the sequence that thread books and a cursor used to spread single-threaded bookings.
+	 */
+	@State(Scope.Thread)
+	public static class Booker {
+		/** Sequence of the showing owned by this thread */
+		int ownSequence;
+		/** Cursor over the schedule */
+		int cursor;
+
+		/**
+		 * Claims a showing for this thread.
+		 * @param benchmark shared benchmark state
+		 */
+		@Setup(Level.Iteration)
+		public void setUp(ReservationBenchmark benchmark) {
+			ownSequence = benchmark.nextThreadShowing.getAndIncrement() % benchmark.size + 1;
+		}
+	}
+
+	/**
+	 * Rebuilds the theater and fills its reservation book.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		theater = Fixtures.theater(size);
+		nextThreadShowing.set(0);
+		for(int i = 0; i < size; i++) {
+			theater.reserve(customer, i + 1, 2);
+		}
+		batch = new ArrayList<ReservationRequest>(BATCH_SIZE);
+		for(int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(new ReservationRequest(customer, i % size + 1, 1));
+		}
+	}
+
+	/**
+	 * Books one ticket, moving through the schedule on each call.
+	 * @param booker per-thread state
+	 * @return the reservation made
+	 */
+	@Benchmark
+	public Reservation reserve(Booker booker) {
+		booker.cursor = booker.cursor == size ? 1 : booker.cursor + 1;
+		return theater.reserve(customer, booker.cursor, 1);
+	}
+
+	/**
+	 * Books and cancels a reservation so the reservation book stays the same size.
+	 * @param booker per-thread state
+	 * @return the reservation that was cancelled
+	 */
+	@Benchmark
+	public Reservation reserveAndRemove(Booker booker) {
+		booker.cursor = booker.cursor == size ? 1 : booker.cursor + 1;
+		theater.reserve(customer, booker.cursor, 3);
+		return theater.removeReservation(customer, booker.cursor, 3);
+	}
+
+	/**
+	 * Books a group of requests with all-or-nothing semantics.
+	 * @return the reservations made
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public List<Reservation> reserveBatch() {
+		return theater.reserveBatch(batch);
+	}
+
+	/**
+	 * Books one ticket from every available core, each thread on its own showing.
+	 * @param booker per-thread state
+	 * @return the reservation made
+	 */
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Reservation reserveConcurrently(Booker booker) {
+		return theater.reserve(customer, booker.ownSequence, 1);
+	}
+}
@@ -0,0 +1,106 @@
+package com.jpmc.theater.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.ColumnarReservationStore;
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.IndexedReservationStore;
+import com.jpmc.theater.Reservation;
+import com.jpmc.theater.ReservationStore;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Compares the reservation stores holding the given number of reservations, each made by its own customer object as it would be
+ * when bookings arrive from outside. The retained heap per reservation is printed once the store is filled, and totalFees
+ * measures a reporting scan that adds up the fees of every reservation.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class ReservationStoreBenchmark {
+	/** Number of showings in the schedule */
+	private static final int SHOWINGS = 1000;
+	/** Number of distinct customers making the reservations */
+	private static final int CUSTOMERS = 10_000;
+
+	/** Store being measured */
+	@Param({ "indexed", "columnar" })
+	public String store;
+	/** Number of reservations in the store */
+	@Param({ "1000000" })
+	public int reservations;
+
+	/** Theater holding the reservations */
+	private Theater theater;
+	/** Showings of the theater */
+	private List<Showing> showings;
+
+	/**
+	 * Books the theater and prints the heap retained per reservation.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		long before = usedHeap();
+		ReservationStore reservationStore = "columnar".equals(store) ? new ColumnarReservationStore() : new IndexedReservationStore();
+		theater = new Theater(reservationStore);
+		for(Showing showing : Fixtures.showings(SHOWINGS)) {
+			theater.addShowingToSchedule(showing);
+		}
+		showings = theater.getSchedule();
+		for(int i = 0; i < reservations; i++) {
+			int customer = i % CUSTOMERS;
+			theater.reserve(new Customer("Customer " + customer, "customer" + customer), showings.get(i % SHOWINGS).getSequenceOfTheDay(), 1);
+		}
+		System.out.printf("%n%s store: %.1f heap bytes per reservation%n", store, (double) (usedHeap() - before) / reservations);
+	}
+
+	/**
+	 * Adds up the fees of every reservation.
+	 * @return the total fees in cents
+	 */
+	@Benchmark
+	public long totalFees() {
+		if(theater.getReservationStore() instanceof ColumnarReservationStore) {
+			return ((ColumnarReservationStore) theater.getReservationStore()).totalFeeCents();
+		}
+		long total = 0;
+		for(Showing showing : showings) {
+			for(Reservation reservation : theater.getReservations(showing)) {
+				total += reservation.totalFeeCents();
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Helper method to return the heap in use after a full collection.
+	 * @return the used heap in bytes
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,87 @@
+package com.jpmc.theater.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Movie;
+import com.jpmc.theater.Screen;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures scheduling a showing on a screen that already has the given number of showings, five a day at 10:00, 13:00, 16:00,
+ * 19:00 and 22:00 with a 15 minute cleaning gap. scheduleAndUnschedule schedules a one hour showing at 08:00 on the next day in
+ * turn, which checks it for overlaps and renumbers the five showings after it, then unschedules it again. If the overlap check
+ * is O(log n), the time stays nearly flat as the screen fills up.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+	/** Showings scheduled every day */
+	private static final int SHOWINGS_PER_DAY = 5;
+	/** First day of the schedule */
+	private static final LocalDate FIRST_DAY = LocalDate.of(2023, 4, 1);
+	/** Screen every showing plays on */
+	private static final Screen SCREEN = new Screen(1);
+	/** Movie of the showing that is scheduled and unscheduled */
+	private static final Movie SHORT = new Movie("Short", Duration.ofMinutes(60), 8, 0);
+
+	/** Number of showings already on the screen */
+	@Param({ "1000", "100000" })
+	public int showings;
+
+	/** Theater the showings are scheduled in */
+	private Theater theater;
+	/** Number of days the schedule covers */
+	private int days;
+	/** Day the next showing is scheduled on */
+	private int day;
+
+	/**
+	 * Fills the screen with showings.
+	 */
+	@Setup
+	public void setUp() {
+		theater = new Theater();
+		theater.setCleaningGap(Duration.ofMinutes(15));
+		days = showings / SHOWINGS_PER_DAY;
+		for(int i = 0; i < days * SHOWINGS_PER_DAY; i++) {
+			LocalDateTime start = FIRST_DAY.plusDays(i / SHOWINGS_PER_DAY).atTime(LocalTime.of(10 + 3 * (i % SHOWINGS_PER_DAY), 0));
+			theater.scheduleShowing(Fixtures.MOVIES[i % Fixtures.MOVIES.length], SCREEN, start);
+		}
+	}
+
+	/**
+	 * Schedules a showing before the first showing of a day and unschedules it again.
+	 * @return the showing that was scheduled
+	 */
+	@Benchmark
+	public Showing scheduleAndUnschedule() {
+		LocalDate date = FIRST_DAY.plusDays(day);
+		day = (day + 1) % days;
+		Showing showing = theater.scheduleShowing(SHORT, SCREEN, date.atTime(8, 0));
+		theater.unscheduleShowing(date, SCREEN.getNumber(), showing.getSequenceOfTheDay());
+		return showing;
+	}
+}
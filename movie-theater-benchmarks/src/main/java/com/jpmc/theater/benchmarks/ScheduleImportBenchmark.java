@@ -0,0 +1,100 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Movie;
+import com.jpmc.theater.ScheduleImporter;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures importing a month of schedules for a 16 screen multiplex, 30 days of 6 showings per screen, into an empty theater
+ * from CSV and from JSON. Run with -prof gc to see the bytes allocated per imported file.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleImportBenchmark {
+	/** Number of days in the schedule */
+	private static final int DAYS = 30;
+	/** Number of screens in the multiplex */
+	private static final int SCREENS = 16;
+	/** Number of showings per screen day, three hours apart */
+	private static final int SHOWINGS_PER_DAY = 6;
+
+	/** Schedule in CSV format */
+	private String csv;
+	/** Schedule in JSON format */
+	private String json;
+
+	/**
+	 * Writes the schedule in both formats.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		StringBuilder csvText = new StringBuilder("date,start,screen,capacity,title,runningTime,ticketPrice,specialCode\n");
+		StringBuilder jsonText = new StringBuilder("[");
+		LocalDate first = LocalDate.of(2023, 4, 1);
+		int count = 0;
+		for(int day = 0; day < DAYS; day++) {
+			for(int screen = 1; screen <= SCREENS; screen++) {
+				for(int i = 0; i < SHOWINGS_PER_DAY; i++) {
+					Movie movie = Fixtures.MOVIES[count++ % Fixtures.MOVIES.length];
+					String date = first.plusDays(day).toString();
+					String start = LocalTime.of(9 + 2 * i, 0).toString();
+					csvText.append(date).append(',').append(start).append(',').append(screen).append(",200,\"").append(movie.getTitle())
+							.append("\",").append(movie.getRunningTime().toMinutes()).append(',').append(movie.getTicketPrice()).append(',')
+							.append(movie.getSpecialCode()).append('\n');
+					jsonText.append(count == 1 ? "" : ",").append("{\"date\":\"").append(date).append("\",\"start\":\"").append(start)
+							.append("\",\"screen\":").append(screen).append(",\"capacity\":200,\"title\":\"").append(movie.getTitle())
+							.append("\",\"runningTime\":").append(movie.getRunningTime().toMinutes()).append(",\"ticketPrice\":")
+							.append(movie.getTicketPrice()).append(",\"specialCode\":").append(movie.getSpecialCode()).append('}');
+				}
+			}
+		}
+		csv = csvText.toString();
+		json = jsonText.append(']').toString();
+	}
+
+	/**
+	 * Imports the CSV schedule.
+	 * @return the imported showings
+	 * @throws IOException never, the file is in memory
+	 */
+	@Benchmark
+	public List<Showing> importCsv() throws IOException {
+		return ScheduleImporter.importCsv(new Theater(), new StringReader(csv));
+	}
+
+	/**
+	 * Imports the JSON schedule.
+	 * @return the imported showings
+	 * @throws IOException never, the file is in memory
+	 */
+	@Benchmark
+	public List<Showing> importJson() throws IOException {
+		return ScheduleImporter.importJson(new Theater(), new StringReader(json));
+	}
+}
@@ -0,0 +1,110 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.ScheduleSnapshot;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures rendering the whole schedule with Theater.printScheduleText and Theater.printScheduleJson, which are served from the
+ * cached schedule snapshot, and with the streaming writeScheduleText and writeScheduleJson methods, which render the schedule on
+ * every call to a discarding Writer. renderSnapshot measures rebuilding the snapshot after a schedule change. Standard output is
+ * replaced with a discarding stream for the duration of the benchmark so only formatting cost is measured.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleRenderingBenchmark {
+	/** Number of showings in the rendered schedule */
+	@Param({ "10", "1000", "100000" })
+	public int size;
+
+	/** Theater whose schedule is rendered */
+	private Theater theater;
+	/** Standard output before the benchmark replaced it */
+	private PrintStream originalOut;
+	/** Writer that discards the rendered schedule */
+	private final Writer nullWriter = Writer.nullWriter();
+
+	/**
+	 * Builds the theater and silences standard output.
+	 */
+	@Setup
+	public void setUp() {
+		theater = Fixtures.theater(size);
+		originalOut = System.out;
+		System.setOut(Fixtures.nullPrintStream());
+	}
+
+	/**
+	 * Restores standard output.
+	 */
+	@TearDown
+	public void tearDown() {
+		System.setOut(originalOut);
+	}
+
+	/**
+	 * Renders the schedule as text.
+	 */
+	@Benchmark
+	public void printScheduleText() {
+		theater.printScheduleText();
+	}
+
+	/**
+	 * Renders the schedule as json.
+	 */
+	@Benchmark
+	public void printScheduleJson() {
+		theater.printScheduleJson();
+	}
+
+	/**
+	 * Streams the schedule as text to a writer.
+	 * @throws IOException never, the writer discards its input
+	 */
+	@Benchmark
+	public void writeScheduleText() throws IOException {
+		theater.writeScheduleText(nullWriter);
+	}
+
+	/**
+	 * Streams the schedule as json to a writer.
+	 * @throws IOException never, the writer discards its input
+	 */
+	@Benchmark
+	public void writeScheduleJson() throws IOException {
+		theater.writeScheduleJson(nullWriter);
+	}
+
+	/**
+	 * Renders a new text and json snapshot of the schedule, as happens on the first read after the schedule changes.
+	 * @return the rendered snapshot
+	 */
+	@Benchmark
+	public ScheduleSnapshot renderSnapshot() {
+		return ScheduleSnapshot.render(0, theater.getSchedule());
+	}
+}
@@ -0,0 +1,109 @@
+package com.jpmc.theater.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+
+/**
+ * Measures seat holds at the given number of pending holds. holdAll makes every hold with a timeout that does not pass during
+ * the measurement, so it is the cost of adding holds to the timer wheel; holdAndExpireAll makes holds that expire at the next
+ * tick and advances the wheel until their seats are back, which includes waiting up to one 10 ms tick. If holds cost the same
+ * however many are pending, the time per hold stays flat as the number of holds grows.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SeatHoldBenchmark {
+	/** Number of showings the holds are spread over */
+	private static final int SHOWINGS = 1000;
+	/** Customer the seats are held for */
+	private static final Customer CUSTOMER = new Customer("John Doe", "johndoe123");
+
+	/** Number of holds made */
+	@Param({ "100000", "400000" })
+	public int holds;
+
+	/** Theater the seats are held on, rebuilt for every invocation */
+	private Theater theater;
+	/** Date of every showing */
+	private LocalDate[] dates;
+	/** Screen of every showing */
+	private int[] screens;
+	/** Sequence of every showing */
+	private int[] sequences;
+
+	/**
+	 * Builds an empty theater.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		theater = Fixtures.theater(SHOWINGS);
+		dates = new LocalDate[SHOWINGS];
+		screens = new int[SHOWINGS];
+		sequences = new int[SHOWINGS];
+		int i = 0;
+		for(Showing showing : theater.getSchedule()) {
+			dates[i] = showing.getStartTime().toLocalDate();
+			screens[i] = showing.getScreen().getNumber();
+			sequences[i] = showing.getSequenceOfTheDay();
+			i++;
+		}
+	}
+
+	/**
+	 * Holds a seat on every showing in turn with a timeout of an hour.
+	 * @return the number of pending holds
+	 */
+	@Benchmark
+	public int holdAll() {
+		hold(Duration.ofHours(1));
+		return theater.getHoldCount();
+	}
+
+	/**
+	 * Holds a seat on every showing in turn with a timeout that passes at once, and expires them all.
+	 * @return the number of holds expired
+	 */
+	@Benchmark
+	public int holdAndExpireAll() {
+		hold(Duration.ofNanos(1));
+		int expired = 0;
+		while(theater.getHoldCount() > 0) {
+			expired += theater.expireHolds();
+		}
+		return expired;
+	}
+
+	/**
+	 * Helper method to make the holds.
+	 * @param timeout of every hold
+	 */
+	private void hold(Duration timeout) {
+		for(int i = 0; i < holds; i++) {
+			int showing = i % SHOWINGS;
+			theater.holdSeats(CUSTOMER, dates[showing], screens[showing], sequences[showing], 1, timeout);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.jpmc.theater.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.SeatBlock;
+import com.jpmc.theater.SeatMap;
+
+/**
+ * Measures finding seats for a party of 6 in a 400 seat auditorium, laid out as 20 rows of 20 seats or as 4 rows of 100 seats,
+ * with the given share of seats already held at random. findBest only searches; allocateAndRelease also holds the block and
+ * returns it, so the seat map is the same for every invocation.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatMapBenchmark {
+	/** Size of the party */
+	private static final int PARTY = 6;
+
+	/** Seats per row, with 400 seats in total */
+	@Param({ "20", "100" })
+	public int seatsPerRow;
+	/** Percentage of the seats held before the party is seated */
+	@Param({ "0", "70" })
+	public int heldPercent;
+
+	/** Seat map being searched */
+	private SeatMap seatMap;
+
+	/**
+	 * Builds the seat map and holds seats at random until the share of held seats is reached.
+	 */
+	@Setup
+	public void setUp() {
+		int rows = 400 / seatsPerRow;
+		seatMap = new SeatMap(rows, seatsPerRow);
+		Random random = new Random(21);
+		while(seatMap.getSeatsAvailable() > 400 * (100 - heldPercent) / 100) {
+			seatMap.hold(new SeatBlock(random.nextInt(rows), random.nextInt(seatsPerRow), 1));
+		}
+	}
+
+	/**
+	 * Finds the best block for the party without holding it.
+	 * @return the block
+	 */
+	@Benchmark
+	public SeatBlock findBest() {
+		return seatMap.findBest(PARTY);
+	}
+
+	/**
+	 * Holds the best block for the party and releases it again.
+	 * @return the block
+	 */
+	@Benchmark
+	public SeatBlock allocateAndRelease() {
+		SeatBlock block = seatMap.allocate(PARTY);
+		if(block != null) {
+			seatMap.release(block);
+		}
+		return block;
+	}
+}
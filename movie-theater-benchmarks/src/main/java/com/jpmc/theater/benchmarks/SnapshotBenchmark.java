@@ -0,0 +1,120 @@
+package com.jpmc.theater.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jpmc.theater.Customer;
+import com.jpmc.theater.Showing;
+import com.jpmc.theater.Theater;
+import com.jpmc.theater.TheaterSnapshot;
+
+/**
+ * Measures theater snapshots holding the given number of reservations. load is the startup cost of a theater whose reservations
+ * stay in the mapped file, loadAndReadAll also reads every reservation back, and write is the cost of one background snapshot.
+ *
+ * @author Ray Wang
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SnapshotBenchmark {
+	/** Number of showings in the schedule */
+	private static final int SHOWINGS = 1000;
+	/** Number of distinct customers making the reservations */
+	private static final int CUSTOMERS = 10_000;
+
+	/** Number of reservations in the snapshot */
+	@Param({ "100000", "1000000" })
+	public int reservations;
+
+	/** Theater that is written */
+	private Theater theater;
+	/** Directory holding the snapshot */
+	private Path directory;
+	/** Snapshot file */
+	private Path path;
+
+	/**
+	 * Books the theater and writes the snapshot that is loaded.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		theater = Fixtures.theater(SHOWINGS);
+		List<Showing> showings = theater.getSchedule();
+		Customer[] customers = new Customer[CUSTOMERS];
+		for(int i = 0; i < CUSTOMERS; i++) {
+			customers[i] = new Customer("Customer " + i, "customer" + i);
+		}
+		for(int i = 0; i < reservations; i++) {
+			theater.reserve(customers[i % CUSTOMERS], showings.get(i % SHOWINGS).getSequenceOfTheDay(), 1);
+		}
+		directory = Files.createTempDirectory("snapshot-benchmark");
+		path = directory.resolve("theater.snapshot");
+		theater.writeSnapshot(path);
+	}
+
+	/**
+	 * Deletes the snapshot.
+	 * @throws IOException if the snapshot cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(path);
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * Loads the theater without reading its reservations.
+	 * @return the loaded theater
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	@Benchmark
+	public Theater load() throws IOException {
+		return TheaterSnapshot.load(path);
+	}
+
+	/**
+	 * Loads the theater and reads every reservation.
+	 * @return the number of reservations read
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	@Benchmark
+	public int loadAndReadAll() throws IOException {
+		Theater loaded = TheaterSnapshot.load(path);
+		int read = 0;
+		for(Showing showing : loaded.getSchedule()) {
+			read += loaded.getReservations(showing).size();
+		}
+		return read;
+	}
+
+	/**
+	 * Writes a snapshot of the booked theater.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Benchmark
+	public void write() throws IOException {
+		theater.writeSnapshot(path);
+	}
+}
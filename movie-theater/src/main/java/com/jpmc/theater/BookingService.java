@@ -0,0 +1,468 @@
+package com.jpmc.theater;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class represents a lightweight HTTP booking service in front of a Theater, built on the JDK's HttpServer. It has five json
+ * endpoints:
+ *
+ * <pre>
+ * GET  /schedule?date=2023-04-17&amp;screen=1                     showings of a date, or of one screen on the date
+ * GET  /quote?date=2023-04-17&amp;screen=1&amp;sequence=2&amp;tickets=3    price of tickets without reserving them
+ * GET  /reservations?customer=johndoe123&amp;name=John%20Doe      reservations of a customer
+ * POST /reserve {"name", "id", "date", "screen", "sequence", "tickets"}
+ * POST /cancel  {"reservationId", "id"} or {"name", "id", "date", "screen", "sequence", "tickets"}
+ * </pre>
+ *
+ * Every reservation in a response has its reservationId, which cancels it without matching the showing and ticket count, and
+ * its seats, such as "C5-C10", when the showing sells assigned seats. A reservation is only listed or cancelled for the customer
+ * who made it: cancelling by id needs the customer id too, and listing needs the customer's name as well as the id. A
+ * reservation of another customer is answered as if it did not exist, so responses do not reveal which ids are in use.
+ *
+ * The theater is safe to use from many threads, so requests are never serialized behind a lock. Each request runs on its own
+ * virtual thread when the JDK has them, and on a bounded pool of platform threads otherwise; connections are accepted and parsed
+ * by the HttpServer's selector thread either way, so the number of open clients is not limited by the number of threads. Invalid
+ * requests, including bookings for a showing that does not exist, are answered with 400, quotes for a showing that does not
+ * exist and cancellations of a reservation that does not exist with 404, and bookings for a sold out showing with 409. Any other
+ * failure is answered with a generic 500 and logged, so internal details never reach the client.
+ *
+ * The JVM should be started with -Dsun.net.httpserver.nodelay=true. HttpServer writes the response headers and body separately,
+ * so with Nagle's algorithm every response waits for the client's delayed acknowledgement, about 40 ms. The property is read
+ * once, when the first HttpServer of the JVM is created, and affects every HttpServer in it, so the service leaves setting it to
+ * the launcher.
+ *
+ * @author Ray Wang
+ */
+public class BookingService implements AutoCloseable {
+	/** Number of pending connections the server socket queues */
+	private static final int BACKLOG = 4096;
+	/** Number of platform threads used when the JDK does not have virtual threads */
+	private static final int PLATFORM_THREADS = 256;
+	/** Gson instance used to read and write request and response bodies */
+	private static final Gson GSON = new Gson();
+	/** System property that makes HttpServer disable Nagle's algorithm on the connections it accepts */
+	public static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+	/** Logger of failed requests */
+	private static final Logger LOGGER = Logger.getLogger(BookingService.class.getName());
+
+	/** Theater the bookings are made in */
+	private final Theater theater;
+	/** Server handling the requests */
+	private final HttpServer server;
+	/** Executor running the requests */
+	private final ExecutorService executor;
+
+	/**
+	 * Constructs the service and starts listening on the given address.
+	 * @param theater to make the bookings in
+	 * @param address to listen on. Port 0 picks a free port
+	 * @throws IOException if the server cannot be started
+	 */
+	public BookingService(Theater theater, InetSocketAddress address) throws IOException {
+		this.theater = theater;
+		this.executor = newExecutor();
+		this.server = HttpServer.create(address, BACKLOG);
+		server.setExecutor(executor);
+		server.createContext("/schedule", exchange -> handle(exchange, "GET", this::schedule));
+		server.createContext("/quote", exchange -> handle(exchange, "GET", this::quote));
+		server.createContext("/reservations", exchange -> handle(exchange, "GET", this::reservations));
+		server.createContext("/reserve", exchange -> handle(exchange, "POST", this::reserve));
+		server.createContext("/cancel", exchange -> handle(exchange, "POST", this::cancel));
+		server.start();
+	}
+
+	/**
+	 * Returns the port the service is listening on
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Returns whether requests run on virtual threads
+	 * @return true if requests run on virtual threads, false if they run on platform threads
+	 */
+	public boolean usesVirtualThreads() {
+		return !(executor instanceof ThreadPoolExecutor);
+	}
+
+	/**
+	 * Stops accepting requests, waits up to a second for the requests being handled, and stops the request threads.
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the showings of the date in the query, or of one screen on the date if a screen is given. The date defaults to the
+	 * current date.
+	 * @param request to answer
+	 * @return the response
+	 */
+	private Response schedule(Request request) {
+		LocalDate date = request.has("date") ? request.date() : theater.provider.currentDate();
+		List<Showing> showings = request.has("screen") ? theater.getSchedule(date, request.intValue("screen")) : theater.getSchedule(date);
+		List<Map<String, Object>> body = new ArrayList<Map<String, Object>>(showings.size());
+		for(Showing showing : showings) {
+			Map<String, Object> entry = new LinkedHashMap<String, Object>();
+			entry.put("date", showing.getStartTime().toLocalDate().toString());
+			entry.put("screen", showing.getScreen().getNumber());
+			entry.put("sequence", showing.getSequenceOfTheDay());
+			entry.put("startTime", showing.getStartTime().toLocalTime().toString());
+			entry.put("title", showing.getMovie().getTitle());
+			entry.put("runningTime", ScheduleWriter.humanReadableFormat(showing.getMovie().getRunningTime()));
+			entry.put("ticketPrice", showing.getTicketPrice());
+			entry.put("seatsAvailable", showing.getSeatsAvailable());
+			body.add(entry);
+		}
+		return new Response(200, body);
+	}
+
+	/**
+	 * Returns the price of the tickets in the query, and the discount rule applied to them.
+	 * @param request to answer
+	 * @return the response
+	 */
+	private Response quote(Request request) {
+		int tickets = request.intValue("tickets");
+		if(tickets < 1) {
+			throw new IllegalArgumentException("Invalid ticket count. At least one ticket must be quoted: " + tickets);
+		}
+		Showing showing = theater.getShowing(request.date(), request.intValue("screen"), request.intValue("sequence"));
+		if(showing == null) {
+			return Response.error(404, "There is no such showing");
+		}
+		DiscountRule applied = showing.getDiscountPolicy().appliedRule(showing.getMovie(), showing);
+		Map<String, Object> body = new LinkedHashMap<String, Object>();
+		body.put("ticketPrice", showing.getTicketPrice());
+		body.put("tickets", tickets);
+		body.put("totalFee", Money.toDollars(showing.getTicketPriceCents() * tickets));
+		body.put("discount", applied == null ? null : applied.getName());
+		body.put("seatsAvailable", showing.getSeatsAvailable());
+		return new Response(200, body);
+	}
+
+	/**
+	 * Returns the reservations of the customer id in the query that were made under the customer name in the query.
+	 * @param request to answer
+	 * @return the response
+	 */
+	private Response reservations(Request request) {
+		if(!request.has("customer") || !request.has("name")) {
+			throw new IllegalArgumentException("Invalid request. The query parameters customer and name are required");
+		}
+		Customer customer = new Customer(request.query.get("name"), request.query.get("customer"));
+		List<Reservation> found = theater.getCustomerReservations(customer.getId());
+		List<Map<String, Object>> body = new ArrayList<Map<String, Object>>(found.size());
+		for(Reservation reservation : found) {
+			if(reservation.getCustomer().equals(customer)) {
+				body.add(describe(reservation));
+			}
+		}
+		return new Response(200, body);
+	}
+
+	/**
+	 * Reserves the tickets in the request body.
+	 * @param request to answer
+	 * @return the response
+	 */
+	private Response reserve(Request request) {
+		Booking booking = request.booking();
+		Reservation reservation = theater.reserve(booking.customer(), booking.day(), booking.screen, booking.sequence, booking.tickets);
+		return new Response(201, describe(reservation));
+	}
+
+	/**
+	 * Cancels the reservation with the id in the request body if it belongs to the customer id in the body, or else the first
+	 * reservation matching the booking in it.
+	 * @param request to answer
+	 * @return the response
+	 */
+	private Response cancel(Request request) {
+		Booking booking = GSON.fromJson(request.body, Booking.class);
+		Reservation removed;
+		if(booking != null && booking.reservationId != 0) {
+			if(booking.id == null) {
+				throw new IllegalArgumentException("Invalid request. The customer id is required to cancel a reservation by id");
+			}
+			removed = theater.cancelReservation(booking.reservationId, booking.id);
+		} else {
+			booking = request.booking();
+			removed = theater.removeReservation(booking.customer(), booking.day(), booking.screen, booking.sequence, booking.tickets);
+		}
+		if(removed == null) {
+			return Response.error(404, "There is no such reservation");
+		}
+		return new Response(200, describe(removed));
+	}
+
+	/**
+	 * Helper method to describe a reservation in a response body.
+	 * @param reservation to describe
+	 * @return the description
+	 */
+	private static Map<String, Object> describe(Reservation reservation) {
+		Showing showing = reservation.getShowing();
+		Map<String, Object> body = new LinkedHashMap<String, Object>();
+		body.put("reservationId", reservation.getId());
+		body.put("name", reservation.getCustomer().getName());
+		body.put("id", reservation.getCustomer().getId());
+		body.put("date", showing.getStartTime().toLocalDate().toString());
+		body.put("screen", showing.getScreen().getNumber());
+		body.put("sequence", showing.getSequenceOfTheDay());
+		body.put("tickets", reservation.getAudienceCount());
+		body.put("totalFee", reservation.totalFee());
+		if(reservation.getSeats() != null) {
+			body.put("seats", reservation.getSeats().toString());
+		}
+		return body;
+	}
+
+	/**
+	 * Helper method to run an endpoint for an exchange and send its response. Exceptions thrown by the theater are turned into
+	 * error responses. Unexpected exceptions are logged and answered without their details.
+	 * @param exchange to answer
+	 * @param method the endpoint accepts
+	 * @param endpoint to run
+	 * @throws IOException if the response cannot be sent
+	 */
+	private static void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+		Response response;
+		try {
+			if(!method.equals(exchange.getRequestMethod())) {
+				response = Response.error(405, "Only " + method + " is supported");
+			} else {
+				response = endpoint.answer(new Request(exchange));
+			}
+		} catch (IllegalArgumentException | DateTimeParseException | JsonParseException e) {
+			response = Response.error(400, e.getMessage());
+		} catch (IllegalStateException e) {
+			response = Response.error(409, e.getMessage());
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.SEVERE, "Request to " + exchange.getRequestURI().getPath() + " failed", e);
+			response = Response.error(500, "Internal server error");
+		}
+		byte[] body = GSON.toJson(response.body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(response.status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Helper method to create the executor requests run on: one virtual thread per request if the JDK has them, otherwise a
+	 * bounded pool of daemon platform threads.
+	 * @return the executor
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtual.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threads = new AtomicInteger();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), task -> {
+						Thread thread = new Thread(task, "booking-service-" + threads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			pool.allowCoreThreadTimeOut(true);
+			return pool;
+		}
+	}
+
+	/**
+	 * An endpoint of the service.
+	 */
+	private interface Endpoint {
+		/**
+		 * Answers a request.
+		 * @param request to answer
+		 * @return the response
+		 */
+		Response answer(Request request);
+	}
+
+	/**
+	 * The query parameters and body of a request.
+	 */
+	private static final class Request {
+		/** Query parameters of the request */
+		private final Map<String, String> query;
+		/** Body of the request */
+		private final String body;
+
+		/**
+		 * Reads the query parameters and body of an exchange.
+		 * @param exchange to read
+		 * @throws UncheckedIOException if the body cannot be read
+		 */
+		private Request(HttpExchange exchange) {
+			this.query = new HashMap<String, String>();
+			String raw = exchange.getRequestURI().getRawQuery();
+			if(raw != null) {
+				for(String parameter : raw.split("&")) {
+					int equals = parameter.indexOf('=');
+					if(equals > 0) {
+						query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+								URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+					}
+				}
+			}
+			try {
+				this.body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * @param name of a query parameter
+		 * @return true if the query has the parameter
+		 */
+		private boolean has(String name) {
+			return query.containsKey(name);
+		}
+
+		/**
+		 * Returns an integer query parameter.
+		 * @param name of the parameter
+		 * @return the value
+		 * @throws IllegalArgumentException if the parameter is missing or not an integer
+		 */
+		private int intValue(String name) {
+			String value = query.get(name);
+			if(value == null) {
+				throw new IllegalArgumentException("Invalid request. The query parameter " + name + " is missing");
+			}
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid request. The query parameter " + name + " is not a number: " + value);
+			}
+		}
+
+		/**
+		 * Returns the date query parameter.
+		 * @return the date
+		 * @throws IllegalArgumentException if the parameter is missing
+		 */
+		private LocalDate date() {
+			String value = query.get("date");
+			if(value == null) {
+				throw new IllegalArgumentException("Invalid request. The query parameter date is missing");
+			}
+			return LocalDate.parse(value);
+		}
+
+		/**
+		 * Returns the booking in the body of the request.
+		 * @return the booking
+		 * @throws IllegalArgumentException if the body is empty or the booking has no date
+		 */
+		private Booking booking() {
+			Booking booking = GSON.fromJson(body, Booking.class);
+			if(booking == null || booking.date == null) {
+				throw new IllegalArgumentException("Invalid request. The body must be a booking with a date");
+			}
+			return booking;
+		}
+	}
+
+	/**
+	 * The json body of a reserve or cancel request.
+	 */
+	private static final class Booking {
+		/** Id of the reservation to cancel, or 0 to match the other fields */
+		private long reservationId;
+		/** Name of the customer */
+		private String name;
+		/** Id of the customer */
+		private String id;
+		/** Date of the showing */
+		private String date;
+		/** Screen of the showing */
+		private int screen;
+		/** Sequence of the showing on its screen day */
+		private int sequence;
+		/** Number of tickets */
+		private int tickets;
+
+		/**
+		 * @return the customer making the booking
+		 */
+		private Customer customer() {
+			return new Customer(name, id);
+		}
+
+		/**
+		 * @return the date of the showing
+		 */
+		private LocalDate day() {
+			return LocalDate.parse(date);
+		}
+	}
+
+	/**
+	 * The status and json body of a response.
+	 */
+	private static final class Response {
+		/** HTTP status of the response */
+		private final int status;
+		/** Object written as the json body */
+		private final Object body;
+
+		/**
+		 * Constructs the response.
+		 * @param status of the response
+		 * @param body written as json
+		 */
+		private Response(int status, Object body) {
+			this.status = status;
+			this.body = body;
+		}
+
+		/**
+		 * Creates an error response with a message.
+		 * @param status of the response
+		 * @param message describing the error
+		 * @return the response
+		 */
+		private static Response error(int status, String message) {
+			Map<String, Object> body = new LinkedHashMap<String, Object>();
+			body.put("error", message);
+			return new Response(status, body);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package com.jpmc.theater;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class represents an in-process feed of the changes made to a Theater. Events are numbered with consecutive offsets and
+ * kept in a bounded ring buffer, so publishing never allocates more than the event itself, never waits for a subscriber, and
+ * only takes a lock when a subscriber is blocked waiting for the next event.
+ *
+ * Each subscriber reads the ring at its own pace from the offset it subscribed at. A subscriber that falls more than the capacity
+ * of the ring behind skips ahead to the oldest event still kept and counts the events it missed, so a slow subscriber loses old
+ * events instead of stalling bookings. A subscriber that stores the offset after the last event it handled can resume from it
+ * with subscribe, as long as the event is still in the ring.
+ *
+ * @author Ray Wang
+ */
+public final class ChangeFeed {
+	/** Number of events kept by the feed of a Theater */
+	public static final int DEFAULT_CAPACITY = 16_384;
+
+	/** Most recent events, each in the slot of its offset modulo the capacity */
+	private final AtomicReferenceArray<TheaterEvent> ring;
+	/** Capacity of the ring minus one, used to find the slot of an offset */
+	private final int mask;
+	/** Offset of the next event to be published */
+	private final AtomicLong nextOffset;
+	/** Number of subscribers blocked waiting for an event */
+	private final AtomicInteger waiting;
+	/** Lock held to wait for and to signal a published event */
+	private final ReentrantLock lock;
+	/** Signalled when an event is published while a subscriber is waiting */
+	private final Condition published;
+
+	/**
+	 * Constructs an empty feed.
+	 * @param capacity number of events kept, a power of two
+	 * @throws IllegalArgumentException if the capacity is not a positive power of two
+	 */
+	public ChangeFeed(int capacity) {
+		if(capacity < 1 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Invalid capacity. The capacity must be a positive power of two: " + capacity);
+		}
+		this.ring = new AtomicReferenceArray<TheaterEvent>(capacity);
+		this.mask = capacity - 1;
+		this.nextOffset = new AtomicLong();
+		this.waiting = new AtomicInteger();
+		this.lock = new ReentrantLock();
+		this.published = lock.newCondition();
+	}
+
+	/**
+	 * Publishes an event, overwriting the oldest event once the ring is full.
+	 * @param type of the event
+	 * @param showing that changed, or null
+	 * @param reservation that changed, or null
+	 * @return the offset of the event
+	 */
+	long publish(TheaterEvent.Type type, Showing showing, Reservation reservation) {
+		long offset = nextOffset.getAndIncrement();
+		TheaterEvent event = new TheaterEvent(offset, type, showing, reservation);
+		int slot = (int) offset & mask;
+		// A publisher a whole ring ahead may have written the slot already; newer events are never replaced by older ones
+		TheaterEvent current = ring.get(slot);
+		while((current == null || current.getOffset() < offset) && !ring.compareAndSet(slot, current, event)) {
+			current = ring.get(slot);
+		}
+		if(waiting.get() > 0) {
+			lock.lock();
+			try {
+				published.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the offset the next event will be published at
+	 * @return the next offset
+	 */
+	public long getNextOffset() {
+		return nextOffset.get();
+	}
+
+	/**
+	 * Returns the offset of the oldest event that is still kept
+	 * @return the oldest offset
+	 */
+	public long getOldestOffset() {
+		return Math.max(0, nextOffset.get() - ring.length());
+	}
+
+	/**
+	 * Returns the number of events kept by the feed
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return ring.length();
+	}
+
+	/**
+	 * Subscribes to the events published from now on.
+	 * @return the subscription
+	 */
+	public Subscription subscribe() {
+		return new Subscription(nextOffset.get());
+	}
+
+	/**
+	 * Subscribes to the events published from the given offset on. If the event at the offset is no longer kept, the subscription
+	 * starts at the oldest event and counts the ones before it as missed.
+	 * @param fromOffset of the first event to read
+	 * @return the subscription
+	 * @throws IllegalArgumentException if the offset is negative or has not been published yet
+	 */
+	public Subscription subscribe(long fromOffset) {
+		if(fromOffset < 0 || fromOffset > nextOffset.get()) {
+			throw new IllegalArgumentException("Invalid offset. The offset must be between 0 and " + nextOffset.get() + ": " + fromOffset);
+		}
+		return new Subscription(fromOffset);
+	}
+
+	/**
+	 * A reader of the feed with its own position. A subscription is meant to be read by one thread at a time and holds nothing
+	 * the feed has to keep, so it can simply be dropped when it is no longer needed.
+	 */
+	public final class Subscription {
+		/** Offset of the next event to read */
+		private long offset;
+		/** Number of events that were overwritten before they were read */
+		private long missed;
+
+		/**
+		 * Constructs a subscription at an offset.
+		 * @param offset of the first event to read
+		 */
+		private Subscription(long offset) {
+			this.offset = offset;
+		}
+
+		/**
+		 * Returns the next event without waiting.
+		 * @return the event, or null if it has not been published yet
+		 */
+		public TheaterEvent poll() {
+			while(true) {
+				TheaterEvent event = ring.get((int) offset & mask);
+				if(event == null || event.getOffset() < offset) {
+					return null;
+				}
+				if(event.getOffset() == offset) {
+					offset++;
+					return event;
+				}
+				// The event was overwritten, so skip ahead to the oldest event still kept
+				long oldest = Math.max(offset + 1, nextOffset.get() - ring.length());
+				missed += oldest - offset;
+				offset = oldest;
+			}
+		}
+
+		/**
+		 * Returns the next event, waiting up to the given time for it to be published.
+		 * @param timeout how long to wait
+		 * @param unit of the timeout
+		 * @return the event, or null if none was published in time
+		 * @throws InterruptedException if the thread is interrupted while waiting
+		 */
+		public TheaterEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+			TheaterEvent event = poll();
+			if(event != null) {
+				return event;
+			}
+			long remaining = unit.toNanos(timeout);
+			// Publishers only signal while someone is waiting, so register before checking again under the lock
+			waiting.incrementAndGet();
+			lock.lock();
+			try {
+				while((event = poll()) == null && remaining > 0) {
+					remaining = published.awaitNanos(remaining);
+				}
+				return event;
+			} finally {
+				lock.unlock();
+				waiting.decrementAndGet();
+			}
+		}
+
+		/**
+		 * Returns the offset of the next event to read, which is the offset to resume from after the events read so far
+		 * @return the offset
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Returns the number of events that were overwritten before this subscription read them
+		 * @return the number of missed events
+		 */
+		public long getMissed() {
+			return missed;
+		}
+	}
+}
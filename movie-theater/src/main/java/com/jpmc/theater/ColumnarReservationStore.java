@@ -0,0 +1,406 @@
+package com.jpmc.theater;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a reservation store that keeps reservations as rows of parallel primitive arrays instead of objects: the
+ * reservation id, the showing index, the customer index, the audience count, the packed seat block and the fee charged in cents.
+ * Showings and customers are interned, so each distinct customer is kept once however many reservations it makes. A row takes
+ * 44 bytes plus its entry in a primitive id index, several times less than a Reservation object with its own Customer and index
+ * entries, and scans for reporting walk the arrays sequentially.
+ *
+ * The rows of each showing are chained both ways in the order they were added, so the reservations of one showing are found
+ * without scanning the others and a row found by id is unlinked in constant time. The rows of each customer id are chained the
+ * same way in a single direction. Removed rows are put on a free list and reused. Reservation objects are created as views of a
+ * row when they are asked for, and keep the id of the reservation that was added.
+ *
+ * Every method is synchronized. The store trades booking concurrency for memory and scan speed; the IndexedReservationStore
+ * remains the better choice when many threads book at once.
+ *
+ * @author Ray Wang
+ */
+public class ColumnarReservationStore implements ReservationStore {
+	/** Marks the end of a row chain */
+	private static final int NONE = -1;
+	/** Number of rows the arrays start with */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** Index of every interned showing */
+	private final Map<Showing, Integer> showingIndexes;
+	/** Interned showings by index */
+	private final List<Showing> showings;
+	/** Index of every interned customer */
+	private final Map<Customer, Integer> customerIndexes;
+	/** Interned customers by index */
+	private final List<Customer> customers;
+	/** Index of every customer id that has been seen */
+	private final Map<String, Integer> customerIdIndexes;
+	/** Row of each reservation id */
+	private final LongIntHashMap rowsById;
+
+	/** Reservation id of each row */
+	private long[] idOf;
+	/** Showing index of each row */
+	private int[] showingOf;
+	/** Customer index of each row */
+	private int[] customerOf;
+	/** Audience count of each row, or 0 if the row is free */
+	private int[] audienceCount;
+	/** Packed seat block of each row, or NONE if its seats are not assigned */
+	private int[] seatsOf;
+	/** Fee charged for each row in cents */
+	private long[] feeCents;
+	/** Next row of the same showing, or the next free row */
+	private int[] nextRow;
+	/** Previous row of the same showing */
+	private int[] previousRow;
+	/** Next row of the same customer id */
+	private int[] nextOfCustomerId;
+	/** First row of each showing */
+	private int[] firstRow;
+	/** Last row of each showing */
+	private int[] lastRow;
+	/** Customer id index of each interned customer, or NONE if the customer has no id */
+	private int[] customerIdOf;
+	/** First row of each customer id */
+	private int[] firstOfCustomerId;
+	/** Last row of each customer id */
+	private int[] lastOfCustomerId;
+	/** Number of rows ever used, free or not */
+	private int rowCount;
+	/** First free row */
+	private int freeRow;
+	/** Number of reservations in the store */
+	private int size;
+
+	/**
+	 * Constructs an empty columnar reservation store.
+	 */
+	public ColumnarReservationStore() {
+		this.showingIndexes = new IdentityHashMap<Showing, Integer>();
+		this.showings = new ArrayList<Showing>();
+		this.customerIndexes = new HashMap<Customer, Integer>();
+		this.customers = new ArrayList<Customer>();
+		this.customerIdIndexes = new HashMap<String, Integer>();
+		this.rowsById = new LongIntHashMap();
+		this.idOf = new long[INITIAL_CAPACITY];
+		this.showingOf = new int[INITIAL_CAPACITY];
+		this.customerOf = new int[INITIAL_CAPACITY];
+		this.audienceCount = new int[INITIAL_CAPACITY];
+		this.seatsOf = new int[INITIAL_CAPACITY];
+		this.feeCents = new long[INITIAL_CAPACITY];
+		this.nextRow = new int[INITIAL_CAPACITY];
+		this.previousRow = new int[INITIAL_CAPACITY];
+		this.nextOfCustomerId = new int[INITIAL_CAPACITY];
+		this.firstRow = new int[16];
+		this.lastRow = new int[16];
+		this.customerIdOf = new int[16];
+		this.firstOfCustomerId = new int[16];
+		this.lastOfCustomerId = new int[16];
+		this.freeRow = NONE;
+	}
+
+	/**
+	 * Adds a row for the reservation at the end of its showing's and its customer id's chains. The fee is the reservation's fee
+	 * at the ticket price it was booked at.
+	 */
+	@Override
+	public synchronized void add(Reservation reservation) {
+		int showing = internShowing(reservation.getShowing());
+		int customer = internCustomer(reservation.getCustomer());
+		int row = allocateRow();
+		idOf[row] = reservation.getId();
+		showingOf[row] = showing;
+		customerOf[row] = customer;
+		audienceCount[row] = reservation.getAudienceCount();
+		seatsOf[row] = reservation.getSeats() == null ? NONE : reservation.getSeats().pack();
+		feeCents[row] = reservation.totalFeeCents();
+		nextRow[row] = NONE;
+		previousRow[row] = lastRow[showing];
+		if(lastRow[showing] == NONE) {
+			firstRow[showing] = row;
+		} else {
+			nextRow[lastRow[showing]] = row;
+		}
+		lastRow[showing] = row;
+		int customerId = customerIdOf[customer];
+		nextOfCustomerId[row] = NONE;
+		if(customerId != NONE) {
+			if(lastOfCustomerId[customerId] == NONE) {
+				firstOfCustomerId[customerId] = row;
+			} else {
+				nextOfCustomerId[lastOfCustomerId[customerId]] = row;
+			}
+			lastOfCustomerId[customerId] = row;
+		}
+		rowsById.put(reservation.getId(), row);
+		size++;
+	}
+
+	/**
+	 * Removes the row of the reservation's id.
+	 */
+	@Override
+	public synchronized boolean remove(Reservation reservation) {
+		int row = rowsById.get(reservation.getId());
+		if(row == LongIntHashMap.MISSING) {
+			return false;
+		}
+		unlink(row);
+		return true;
+	}
+
+	/**
+	 * Removes the first matching row from its showing's chain and frees it.
+	 */
+	@Override
+	public synchronized Reservation removeFirst(Showing showing, Customer customer, int audienceCount) {
+		Integer showingIndex = showingIndexes.get(showing);
+		Integer customerIndex = customerIndexes.get(customer);
+		if(showingIndex == null || customerIndex == null) {
+			return null;
+		}
+		for(int row = firstRow[showingIndex]; row != NONE; row = nextRow[row]) {
+			if(customerOf[row] == customerIndex && this.audienceCount[row] == audienceCount) {
+				Reservation removed = view(row);
+				unlink(row);
+				return removed;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns views of the rows of the showing.
+	 */
+	@Override
+	public synchronized List<Reservation> reservations(Showing showing) {
+		Integer showingIndex = showingIndexes.get(showing);
+		if(showingIndex == null) {
+			return new ArrayList<Reservation>();
+		}
+		List<Reservation> found = new ArrayList<Reservation>();
+		for(int row = firstRow[showingIndex]; row != NONE; row = nextRow[row]) {
+			found.add(view(row));
+		}
+		return found;
+	}
+
+	/**
+	 * Returns a view of the row of the id.
+	 */
+	@Override
+	public synchronized Reservation get(long reservationId) {
+		int row = rowsById.get(reservationId);
+		return row == LongIntHashMap.MISSING ? null : view(row);
+	}
+
+	/**
+	 * Returns views of the rows chained to the customer id.
+	 */
+	@Override
+	public synchronized List<Reservation> reservations(String customerId) {
+		List<Reservation> found = new ArrayList<Reservation>();
+		Integer customerIdIndex = customerId == null ? null : customerIdIndexes.get(customerId);
+		if(customerIdIndex != null) {
+			for(int row = firstOfCustomerId[customerIdIndex]; row != NONE; row = nextOfCustomerId[row]) {
+				found.add(view(row));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the number of reservations in the store.
+	 */
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the total fees charged for every reservation in the store, with a single sequential scan of the fee and audience
+	 * columns.
+	 * @return the total fees in cents
+	 */
+	public synchronized long totalFeeCents() {
+		long total = 0;
+		for(int row = 0; row < rowCount; row++) {
+			// Free rows have their fee cleared, so they add nothing
+			total += feeCents[row];
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the total fees charged for the reservations of a showing.
+	 * @param showing to total
+	 * @return the total fees in cents
+	 */
+	public synchronized long totalFeeCents(Showing showing) {
+		Integer showingIndex = showingIndexes.get(showing);
+		long total = 0;
+		if(showingIndex != null) {
+			for(int row = firstRow[showingIndex]; row != NONE; row = nextRow[row]) {
+				total += feeCents[row];
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the number of distinct customers that have been interned.
+	 * @return the number of customers
+	 */
+	public synchronized int getCustomerCount() {
+		return customers.size();
+	}
+
+	/**
+	 * Helper method to create a Reservation view of a row. The view is priced from the stored fee, so it reports the same fee as
+	 * the reservation that was added.
+	 * @param row to view
+	 * @return the reservation
+	 */
+	private Reservation view(int row) {
+		SeatBlock seats = seatsOf[row] == NONE ? null : SeatBlock.unpack(seatsOf[row], audienceCount[row]);
+		return new Reservation(idOf[row], customers.get(customerOf[row]), showings.get(showingOf[row]), audienceCount[row], seats,
+				feeCents[row] / audienceCount[row]);
+	}
+
+	/**
+	 * Helper method to remove a row from its chains and the id index, and put it on the free list. Only the customer id's chain
+	 * is walked, to find the row before it.
+	 * @param row to remove
+	 */
+	private void unlink(int row) {
+		int showing = showingOf[row];
+		int previous = previousRow[row];
+		int next = nextRow[row];
+		if(previous == NONE) {
+			firstRow[showing] = next;
+		} else {
+			nextRow[previous] = next;
+		}
+		if(next == NONE) {
+			lastRow[showing] = previous;
+		} else {
+			previousRow[next] = previous;
+		}
+		int customerId = customerIdOf[customerOf[row]];
+		if(customerId != NONE) {
+			int before = NONE;
+			for(int current = firstOfCustomerId[customerId]; current != row; current = nextOfCustomerId[current]) {
+				before = current;
+			}
+			if(before == NONE) {
+				firstOfCustomerId[customerId] = nextOfCustomerId[row];
+			} else {
+				nextOfCustomerId[before] = nextOfCustomerId[row];
+			}
+			if(lastOfCustomerId[customerId] == row) {
+				lastOfCustomerId[customerId] = before;
+			}
+		}
+		rowsById.remove(idOf[row]);
+		idOf[row] = 0;
+		audienceCount[row] = 0;
+		feeCents[row] = 0;
+		nextRow[row] = freeRow;
+		freeRow = row;
+		size--;
+	}
+
+	/**
+	 * Helper method to take a row from the free list, or a new row at the end of the arrays.
+	 * @return the row
+	 */
+	private int allocateRow() {
+		if(freeRow != NONE) {
+			int row = freeRow;
+			freeRow = nextRow[row];
+			return row;
+		}
+		if(rowCount == showingOf.length) {
+			int capacity = showingOf.length * 2;
+			idOf = Arrays.copyOf(idOf, capacity);
+			showingOf = Arrays.copyOf(showingOf, capacity);
+			customerOf = Arrays.copyOf(customerOf, capacity);
+			audienceCount = Arrays.copyOf(audienceCount, capacity);
+			seatsOf = Arrays.copyOf(seatsOf, capacity);
+			feeCents = Arrays.copyOf(feeCents, capacity);
+			nextRow = Arrays.copyOf(nextRow, capacity);
+			previousRow = Arrays.copyOf(previousRow, capacity);
+			nextOfCustomerId = Arrays.copyOf(nextOfCustomerId, capacity);
+		}
+		return rowCount++;
+	}
+
+	/**
+	 * Helper method to return the index of a showing, interning it the first time it is seen.
+	 * @param showing to intern
+	 * @return the index of the showing
+	 */
+	private int internShowing(Showing showing) {
+		Integer index = showingIndexes.get(showing);
+		if(index != null) {
+			return index;
+		}
+		int added = showings.size();
+		showings.add(showing);
+		showingIndexes.put(showing, added);
+		if(added == firstRow.length) {
+			firstRow = Arrays.copyOf(firstRow, added * 2);
+			lastRow = Arrays.copyOf(lastRow, added * 2);
+		}
+		firstRow[added] = NONE;
+		lastRow[added] = NONE;
+		return added;
+	}
+
+	/**
+	 * Helper method to return the index of a customer, interning it and its id the first time it is seen.
+	 * @param customer to intern
+	 * @return the index of the customer
+	 */
+	private int internCustomer(Customer customer) {
+		Integer index = customerIndexes.get(customer);
+		if(index != null) {
+			return index;
+		}
+		int added = customers.size();
+		customers.add(customer);
+		customerIndexes.put(customer, added);
+		if(added == customerIdOf.length) {
+			customerIdOf = Arrays.copyOf(customerIdOf, added * 2);
+		}
+		customerIdOf[added] = customer.getId() == null ? NONE : internCustomerId(customer.getId());
+		return added;
+	}
+
+	/**
+	 * Helper method to return the index of a customer id, interning it the first time it is seen.
+	 * @param customerId to intern
+	 * @return the index of the customer id
+	 */
+	private int internCustomerId(String customerId) {
+		Integer index = customerIdIndexes.get(customerId);
+		if(index != null) {
+			return index;
+		}
+		int added = customerIdIndexes.size();
+		customerIdIndexes.put(customerId, added);
+		if(added == firstOfCustomerId.length) {
+			firstOfCustomerId = Arrays.copyOf(firstOfCustomerId, added * 2);
+			lastOfCustomerId = Arrays.copyOf(lastOfCustomerId, added * 2);
+		}
+		firstOfCustomerId[added] = NONE;
+		lastOfCustomerId[added] = NONE;
+		return added;
+	}
+}
@@ -19,12 +19,28 @@ public class Customer {
      * @param id customer id
      */
     public Customer(String name, String id) {
-        this.id = id; // NOTE - id is not used anywhere at the moment
+        this.id = id; // Reservations are indexed by this id
 
         this.name = name;
 
         }
 
+    /**
+     * Returns the name of the customer
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the id of the customer
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
     /**
      * Checks if customer objects are equal or not.
      */
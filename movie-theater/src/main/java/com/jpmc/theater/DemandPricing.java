@@ -0,0 +1,130 @@
+package com.jpmc.theater;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * This class represents an immutable set of demand pricing tiers. The base ticket price of a showing is raised or lowered by the
+ * first tier that applies to the showing's current sell-through and time to start, and the discount policy is then applied to
+ * the adjusted price, so the largest discount still wins on top of demand pricing. Without tiers the price is not adjusted.
+ *
+ * Prices are not recalculated on every quote. The adjustment only changes when the number of reserved seats crosses one of the
+ * seat thresholds of the tiers, or when the time to start enters the time window of a tier, so a showing caches its price and
+ * only discards it when a reservation or cancellation crosses a threshold or the next time window begins.
+ *
+ * @author Ray Wang
+ */
+public final class DemandPricing {
+	/** Demand pricing that never adjusts the price */
+	private static final DemandPricing NONE = new DemandPricing(Collections.<DemandTier>emptyList());
+
+	/** The tiers in the order they are matched */
+	private final DemandTier[] tiers;
+
+	/**
+	 * Constructs the demand pricing from the given tiers.
+	 * @param tiers in the order they are matched
+	 */
+	private DemandPricing(List<DemandTier> tiers) {
+		this.tiers = tiers.toArray(new DemandTier[0]);
+	}
+
+	/**
+	 * Returns demand pricing that never adjusts the price.
+	 * @return the empty demand pricing
+	 */
+	public static DemandPricing none() {
+		return NONE;
+	}
+
+	/**
+	 * Compiles the given tiers into demand pricing. The first tier that applies to a showing sets its adjustment.
+	 * @param tiers in the order they are matched
+	 * @return the demand pricing
+	 */
+	public static DemandPricing of(List<DemandTier> tiers) {
+		for(DemandTier tier : tiers) {
+			if(tier == null) {
+				throw new IllegalArgumentException("Invalid demand tier. Tiers cannot be null");
+			}
+		}
+		return new DemandPricing(tiers);
+	}
+
+	/**
+	 * Checks if the demand pricing has no tiers, so prices are never adjusted.
+	 * @return true if there are no tiers
+	 */
+	public boolean isEmpty() {
+		return tiers.length == 0;
+	}
+
+	/**
+	 * Returns the tiers in the order they are matched.
+	 * @return unmodifiable list of the tiers
+	 */
+	public List<DemandTier> getTiers() {
+		return Collections.unmodifiableList(Arrays.asList(tiers));
+	}
+
+	/**
+	 * Adjusts a base ticket price by the first tier that applies to the showing. A markdown never makes the price negative.
+	 * @param ticketPriceCents base ticket price in cents
+	 * @param seatsReserved number of seats reserved for the showing
+	 * @param capacity of the showing. A showing without seats counts as not sold at all
+	 * @param millisToStart time until the showing starts in milliseconds, negative once it has started
+	 * @return the adjusted ticket price in cents
+	 */
+	public long adjust(long ticketPriceCents, int seatsReserved, int capacity, long millisToStart) {
+		int sold = capacity == 0 ? 0 : (int) ((long) seatsReserved * Money.BASIS_POINTS_PER_WHOLE / capacity);
+		for(DemandTier tier : tiers) {
+			if(tier.matches(sold, millisToStart)) {
+				int adjust = tier.getAdjustBasisPoints();
+				long change = Money.percentOf(ticketPriceCents, Math.abs(adjust));
+				return adjust < 0 ? Math.max(0, ticketPriceCents - change) : ticketPriceCents + change;
+			}
+		}
+		return ticketPriceCents;
+	}
+
+	/**
+	 * Returns how long an adjustment stays valid while the seats reserved do not change, which is until the time to start enters
+	 * the next time window of a tier.
+	 * @param millisToStart time until the showing starts in milliseconds
+	 * @return the time in milliseconds until the next window begins, or Long.MAX_VALUE if no window is still ahead
+	 */
+	long millisUntilChange(long millisToStart) {
+		long until = Long.MAX_VALUE;
+		for(DemandTier tier : tiers) {
+			long within = tier.getStartsWithinMillis();
+			if(within < millisToStart) {
+				until = Math.min(until, millisToStart - within);
+			}
+		}
+		return until;
+	}
+
+	/**
+	 * Returns the numbers of reserved seats at which a tier starts or stops applying to a showing with the given capacity. The
+	 * adjustment can only change when the reserved seats reach or fall below one of them.
+	 * @param capacity of the showing
+	 * @return the thresholds in ascending order, each between 1 and the capacity
+	 */
+	int[] seatThresholds(int capacity) {
+		TreeSet<Integer> thresholds = new TreeSet<Integer>();
+		if(capacity > 0) {
+			for(DemandTier tier : tiers) {
+				for(int soldBasisPoints : new int[] { tier.getMinSoldBasisPoints(), tier.getMaxSoldBasisPoints() }) {
+					// The fewest seats whose sell-through reaches the basis points
+					long seats = ((long) soldBasisPoints * capacity + Money.BASIS_POINTS_PER_WHOLE - 1) / Money.BASIS_POINTS_PER_WHOLE;
+					if(seats > 0 && seats <= capacity) {
+						thresholds.add((int) seats);
+					}
+				}
+			}
+		}
+		return thresholds.stream().mapToInt(Integer::intValue).toArray();
+	}
+}
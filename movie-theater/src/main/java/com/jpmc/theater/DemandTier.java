@@ -0,0 +1,126 @@
+package com.jpmc.theater;
+
+import java.time.Duration;
+
+/**
+ * This class represents one tier of demand based pricing. A tier applies to a showing whose sell-through is within its range and,
+ * if the tier has a time window, that starts within the window, and it raises or lowers the base ticket price by a percentage.
+ * Sell-through and percentages are kept in basis points, so matching a tier and adjusting a price only use integer math.
+ *
+ * @author Ray Wang
+ */
+public final class DemandTier {
+	/** Sell-through in basis points above which no showing can be */
+	private static final int SOLD_OUT = Money.BASIS_POINTS_PER_WHOLE;
+	/** Largest surge a tier can add, in percent */
+	private static final double MAX_SURGE_PERCENT = 1000;
+
+	/** Lowest sell-through the tier applies to in basis points, inclusive */
+	private final int minSoldBasisPoints;
+	/** Highest sell-through the tier applies to in basis points, exclusive. Above SOLD_OUT when sold out showings are included */
+	private final int maxSoldBasisPoints;
+	/** How long before the start the tier begins to apply in milliseconds, or Long.MAX_VALUE if it applies at any time */
+	private final long startsWithinMillis;
+	/** Change of the base ticket price in basis points, negative for a markdown */
+	private final int adjustBasisPoints;
+
+	/**
+	 * Constructs a tier.
+	 * @param minPercentSold lowest sell-through the tier applies to, inclusive
+	 * @param maxPercentSold highest sell-through the tier applies to, exclusive except that 100 includes sold out showings
+	 * @param startsWithin how long before the start the tier begins to apply, or null to apply at any time
+	 * @param adjustPercent change of the base ticket price, negative for a markdown
+	 */
+	public DemandTier(double minPercentSold, double maxPercentSold, Duration startsWithin, double adjustPercent) {
+		if(!(minPercentSold < maxPercentSold)) {
+			throw new IllegalArgumentException("Invalid demand tier. The lowest sell-through must be below the highest: " + minPercentSold
+					+ " - " + maxPercentSold);
+		}
+		if(startsWithin != null && startsWithin.isNegative()) {
+			throw new IllegalArgumentException("Invalid demand tier. The time window cannot be negative: " + startsWithin);
+		}
+		if(Double.isNaN(adjustPercent) || adjustPercent < -100 || adjustPercent > MAX_SURGE_PERCENT) {
+			throw new IllegalArgumentException("Invalid demand tier. The adjustment must be between -100% and " + MAX_SURGE_PERCENT + "%: "
+					+ adjustPercent);
+		}
+		this.minSoldBasisPoints = Money.percentToBasisPoints(minPercentSold);
+		int max = Money.percentToBasisPoints(maxPercentSold);
+		this.maxSoldBasisPoints = max == SOLD_OUT ? SOLD_OUT + 1 : max;
+		this.startsWithinMillis = startsWithin == null ? Long.MAX_VALUE : startsWithin.toMillis();
+		this.adjustBasisPoints = (int) Math.round(adjustPercent * 100);
+	}
+
+	/**
+	 * Creates a tier that raises the price of showings that have sold at least the given share of their seats.
+	 * @param percentSold lowest sell-through the tier applies to
+	 * @param surgePercent increase of the base ticket price
+	 * @return the tier
+	 */
+	public static DemandTier surge(double percentSold, double surgePercent) {
+		return new DemandTier(percentSold, 100, null, surgePercent);
+	}
+
+	/**
+	 * Creates a tier that lowers the price of showings that start within the given time and have sold less than the given share
+	 * of their seats.
+	 * @param percentSold sell-through below which the tier applies
+	 * @param startsWithin how long before the start the tier begins to apply
+	 * @param markdownPercent decrease of the base ticket price
+	 * @return the tier
+	 */
+	public static DemandTier markdown(double percentSold, Duration startsWithin, double markdownPercent) {
+		return new DemandTier(0, percentSold, startsWithin, -markdownPercent);
+	}
+
+	/**
+	 * Checks if the tier applies to a showing.
+	 * @param soldBasisPoints sell-through of the showing in basis points
+	 * @param millisToStart time until the showing starts in milliseconds, negative once it has started
+	 * @return true if the tier applies
+	 */
+	boolean matches(int soldBasisPoints, long millisToStart) {
+		return soldBasisPoints >= minSoldBasisPoints && soldBasisPoints < maxSoldBasisPoints && millisToStart <= startsWithinMillis;
+	}
+
+	/**
+	 * Returns the change of the base ticket price in basis points
+	 * @return the adjustment, negative for a markdown
+	 */
+	int getAdjustBasisPoints() {
+		return adjustBasisPoints;
+	}
+
+	/**
+	 * Returns the lowest sell-through the tier applies to in basis points
+	 * @return the lowest sell-through, inclusive
+	 */
+	int getMinSoldBasisPoints() {
+		return minSoldBasisPoints;
+	}
+
+	/**
+	 * Returns the highest sell-through the tier applies to in basis points
+	 * @return the highest sell-through, exclusive
+	 */
+	int getMaxSoldBasisPoints() {
+		return maxSoldBasisPoints;
+	}
+
+	/**
+	 * Returns how long before the start the tier begins to apply
+	 * @return the time window in milliseconds, or Long.MAX_VALUE if the tier applies at any time
+	 */
+	long getStartsWithinMillis() {
+		return startsWithinMillis;
+	}
+
+	/**
+	 * Formats the tier into a string.
+	 */
+	@Override
+	public String toString() {
+		return "Sold " + minSoldBasisPoints / 100.0 + "% - " + Math.min(maxSoldBasisPoints, SOLD_OUT) / 100.0 + "%"
+				+ (startsWithinMillis == Long.MAX_VALUE ? "" : " within " + Duration.ofMillis(startsWithinMillis)) + " "
+				+ (adjustBasisPoints < 0 ? "" : "+") + adjustBasisPoints / 100.0 + "%";
+	}
+}
@@ -0,0 +1,268 @@
+package com.jpmc.theater;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * This class represents an immutable, compiled set of discount rules. The rules are copied into an array once when the policy is
+ * created and every price calculation walks that array applying the "largest discount wins" policy without allocating.
+ * Policies can be built in code or loaded from a json configuration such as:
+ * 
+ * <pre>
+ * [
+ *   { "type": "specialMovie", "specialCode": 1, "percent": 20 },
+ *   { "type": "sequence", "sequence": 1, "amount": 3 },
+ *   { "type": "timeWindow", "start": "11:00", "end": "16:00", "percent": 25 },
+ *   { "type": "dayOfMonth", "day": 7, "amount": 1 }
+ * ]
+ * </pre>
+ * 
+ * A whole schedule can be priced at once with priceCents, which applies the rules one at a time to the PricingColumns of the
+ * showings instead of evaluating every rule for one showing at a time. The prices are exactly those of
+ * Movie.calculateTicketPriceCents.
+ * 
+ * @author Ray Wang
+ */
+public final class DiscountPolicy {
+	/** Policy with the theater's standard discount rules */
+	private static final DiscountPolicy DEFAULT = new DiscountPolicy(Arrays.asList(
+			DiscountRules.specialMovie(Movie.MOVIE_CODE_SPECIAL, 20), // 20% discount for special movie
+			DiscountRules.sequence(1, 3), // 3 dollar discount for first showing of the day
+			DiscountRules.sequence(2, 2), // 2 dollar discount for second showing of the day
+			DiscountRules.timeWindow(LocalTime.of(11, 0), LocalTime.of(16, 0), 25), // 25% discount between 11 AM and 4 PM
+			DiscountRules.dayOfMonth(7, 1))); // 1 dollar discount for showings on the 7th
+	
+	/** Policy that never gives a discount */
+	private static final DiscountPolicy NONE = new DiscountPolicy(Collections.<DiscountRule>emptyList());
+	
+	/** The compiled rules of the policy */
+	private final DiscountRule[] rules;
+	
+	/**
+	 * Constructs the policy from the given rules.
+	 * @param rules of the policy
+	 */
+	private DiscountPolicy(List<DiscountRule> rules) {
+		this.rules = rules.toArray(new DiscountRule[0]);
+	}
+	
+	/**
+	 * Returns the policy with the theater's standard discount rules.
+	 * @return the default policy
+	 */
+	public static DiscountPolicy defaultPolicy() {
+		return DEFAULT;
+	}
+	
+	/**
+	 * Returns a policy that never gives a discount.
+	 * @return the empty policy
+	 */
+	public static DiscountPolicy none() {
+		return NONE;
+	}
+	
+	/**
+	 * Compiles the given rules into a policy.
+	 * @param rules of the policy
+	 * @return the policy
+	 */
+	public static DiscountPolicy of(List<DiscountRule> rules) {
+		for(DiscountRule rule : rules) {
+			if(rule == null) {
+				throw new IllegalArgumentException("Invalid discount rule. Rules cannot be null");
+			}
+		}
+		return new DiscountPolicy(rules);
+	}
+	
+	/**
+	 * Loads a policy from a json array of rule objects. See the class documentation for the format.
+	 * @param reader to read the json configuration from
+	 * @return the policy
+	 * @throws IOException if the configuration cannot be read
+	 * @throws IllegalArgumentException if the configuration contains an invalid rule
+	 */
+	public static DiscountPolicy fromJson(Reader reader) throws IOException {
+		List<DiscountRule> rules = new ArrayList<DiscountRule>();
+		JsonReader json = new JsonReader(reader);
+		json.beginArray();
+		while(json.hasNext()) {
+			rules.add(readRule(json));
+		}
+		json.endArray();
+		return new DiscountPolicy(rules);
+	}
+	
+	/**
+	 * Helper method to read a single rule object from the json configuration.
+	 * @param json reader positioned at the start of the rule object
+	 * @return the rule
+	 * @throws IOException if the configuration cannot be read
+	 */
+	private static DiscountRule readRule(JsonReader json) throws IOException {
+		String type = null;
+		int specialCode = Movie.MOVIE_CODE_SPECIAL;
+		int number = -1;
+		double percent = -1;
+		double amount = -1;
+		String start = null;
+		String end = null;
+		
+		json.beginObject();
+		while(json.hasNext()) {
+			String name = json.nextName();
+			if(json.peek() == JsonToken.NULL) {
+				json.skipValue();
+				continue;
+			}
+			switch(name) {
+			case "type":
+				type = json.nextString();
+				break;
+			case "specialCode":
+				specialCode = json.nextInt();
+				break;
+			case "sequence":
+			case "day":
+				number = json.nextInt();
+				break;
+			case "percent":
+				percent = json.nextDouble();
+				break;
+			case "amount":
+				amount = json.nextDouble();
+				break;
+			case "start":
+				start = json.nextString();
+				break;
+			case "end":
+				end = json.nextString();
+				break;
+			default:
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		
+		if(type == null) {
+			throw new IllegalArgumentException("Invalid discount rule. Every rule needs a type");
+		}
+		switch(type) {
+		case "specialMovie":
+			return DiscountRules.specialMovie(specialCode, percent);
+		case "sequence":
+			return DiscountRules.sequence(number, amount);
+		case "timeWindow":
+			if(start == null || end == null) {
+				throw new IllegalArgumentException("Invalid discount rule. A time window needs a start and an end");
+			}
+			return DiscountRules.timeWindow(LocalTime.parse(start), LocalTime.parse(end), percent);
+		case "dayOfMonth":
+			return DiscountRules.dayOfMonth(number, amount);
+		default:
+			throw new IllegalArgumentException("Invalid discount rule. Unknown type: " + type);
+		}
+	}
+	
+	/**
+	 * Returns the largest discount any rule of the policy gives for the showing of the movie, in cents.
+	 * @param movie being shown
+	 * @param showing of the movie
+	 * @return the largest discount in cents
+	 */
+	public long discount(Movie movie, Showing showing) {
+		LocalDateTime startTime = showing.getStartTime();
+		return discount(movie.getTicketPriceCents(), movie.getSpecialCode(), showing.getSequenceOfTheDay(),
+				startTime.toLocalTime().toNanoOfDay(), startTime.getDayOfMonth());
+	}
+	
+	/**
+	 * Returns the largest discount any rule of the policy gives for the given showing facts, in cents.
+	 * @param ticketPriceCents base ticket price of the movie in cents
+	 * @param specialCode special code of the movie
+	 * @param sequenceOfTheDay sequence of the showing
+	 * @param startNanoOfDay start time of the showing as nanoseconds since midnight
+	 * @param dayOfMonth day of the month the showing starts on
+	 * @return the largest discount in cents
+	 */
+	public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+		long largestDiscount = 0;
+		for(DiscountRule rule : rules) {
+			long discount = rule.discount(ticketPriceCents, specialCode, sequenceOfTheDay, startNanoOfDay, dayOfMonth);
+			if(discount > largestDiscount) {
+				largestDiscount = discount;
+			}
+		}
+		return largestDiscount;
+	}
+	
+	/**
+	 * Returns the ticket price in cents of every showing after applying the largest discount of the policy, as
+	 * Movie.calculateTicketPriceCents does.
+	 * @param showings to price
+	 * @return the discounted prices, in the same order as the showings
+	 */
+	public long[] priceCents(List<Showing> showings) {
+		return priceCents(PricingColumns.of(showings));
+	}
+	
+	/**
+	 * Returns the ticket price in cents of every showing in the columns after applying the largest discount of the policy. A
+	 * discount larger than the ticket price makes the ticket free rather than negative.
+	 * @param columns pricing facts of the showings
+	 * @return the discounted prices, in the same order as the columns
+	 */
+	public long[] priceCents(PricingColumns columns) {
+		long[] prices = new long[columns.size()];
+		for(DiscountRule rule : rules) {
+			rule.applyTo(columns, prices);
+		}
+		// prices holds the largest discounts until they are taken off the ticket prices
+		long[] ticketPrices = columns.ticketPriceCents;
+		for(int i = 0; i < prices.length; i++) {
+			prices[i] = Math.max(0, ticketPrices[i] - prices[i]);
+		}
+		return prices;
+	}
+	
+	/**
+	 * Returns the rule that gives the largest discount for the showing of the movie. When rules tie, the first one in evaluation
+	 * order is returned.
+	 * @param movie being shown
+	 * @param showing of the movie
+	 * @return the applied rule, or null if no rule gives a discount
+	 */
+	public DiscountRule appliedRule(Movie movie, Showing showing) {
+		LocalDateTime startTime = showing.getStartTime();
+		long startNanoOfDay = startTime.toLocalTime().toNanoOfDay();
+		DiscountRule applied = null;
+		long largestDiscount = 0;
+		for(DiscountRule rule : rules) {
+			long discount = rule.discount(movie.getTicketPriceCents(), movie.getSpecialCode(), showing.getSequenceOfTheDay(),
+					startNanoOfDay, startTime.getDayOfMonth());
+			if(discount > largestDiscount) {
+				largestDiscount = discount;
+				applied = rule;
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Returns the rules of the policy in evaluation order.
+	 * @return unmodifiable list of the rules
+	 */
+	public List<DiscountRule> getRules() {
+		return Collections.unmodifiableList(Arrays.asList(rules));
+	}
+}
@@ -0,0 +1,43 @@
+package com.jpmc.theater;
+
+/**
+ * This interface represents a single discount rule. Rules are evaluated against the primitive facts of a showing rather than the
+ * Showing object itself so that evaluating a rule never allocates. Implementations for the theater's standard rules are created
+ * through the factory methods in DiscountRules.
+ * 
+ * Rules can also be evaluated for many showings at once over PricingColumns. The default bulk evaluation calls discount for every
+ * showing; the standard rules override it with loops that select their discount with masks instead of branches.
+ * 
+ * @author Ray Wang
+ */
+public interface DiscountRule {
+	/**
+	 * Returns the discount this rule gives for a showing in cents, or 0 if the rule does not apply.
+	 * @param ticketPriceCents base ticket price of the movie in cents
+	 * @param specialCode special code of the movie
+	 * @param sequenceOfTheDay sequence of the showing
+	 * @param startNanoOfDay start time of the showing as nanoseconds since midnight
+	 * @param dayOfMonth day of the month the showing starts on
+	 * @return the discount in cents
+	 */
+	long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth);
+	
+	/**
+	 * Raises the largest discount of every showing in the columns to the discount this rule gives, where that is larger.
+	 * @param columns pricing facts of the showings
+	 * @param largestDiscounts largest discount found so far for each showing in cents, updated in place
+	 */
+	default void applyTo(PricingColumns columns, long[] largestDiscounts) {
+		for(int i = 0; i < columns.size(); i++) {
+			long discount = discount(columns.ticketPriceCents[i], columns.specialCodes[i], columns.sequences[i],
+					columns.startNanosOfDay[i], columns.daysOfMonth[i]);
+			largestDiscounts[i] = Math.max(largestDiscounts[i], discount);
+		}
+	}
+	
+	/**
+	 * Returns a short human readable name of the rule, used when reporting which rule was applied.
+	 * @return the name of the rule
+	 */
+	String getName();
+}
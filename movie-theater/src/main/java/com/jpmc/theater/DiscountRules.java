@@ -0,0 +1,261 @@
+package com.jpmc.theater;
+
+import java.time.LocalTime;
+
+/**
+ * This class creates the discount rules supported by the theater. Every rule precomputes whatever it needs when it is created
+ * so that evaluating it only compares and multiplies primitives. Dollar amounts are converted to cents and percentages to basis
+ * points up front, so every discount is exact to the cent. Evaluated over PricingColumns, each rule computes its discount for
+ * every showing and keeps it only where an all-ones mask says the rule applies, so the loops have no data dependent branches.
+ * 
+ * @author Ray Wang
+ */
+public final class DiscountRules {
+	
+	/** Private constructor to prevent other classes from creating instances of the factory class */
+	private DiscountRules() { }
+	
+	/**
+	 * Creates a rule that takes a percentage off the ticket price of movies with the given special code.
+	 * @param specialCode of the movies the rule applies to
+	 * @param percent of the ticket price to take off
+	 * @return the rule
+	 */
+	public static DiscountRule specialMovie(int specialCode, double percent) {
+		return new SpecialMovieRule(specialCode, percent);
+	}
+	
+	/**
+	 * Creates a rule that takes a dollar amount off the showing with the given sequence of the day.
+	 * @param sequenceOfTheDay of the showings the rule applies to
+	 * @param amount in dollars to take off
+	 * @return the rule
+	 */
+	public static DiscountRule sequence(int sequenceOfTheDay, double amount) {
+		return new SequenceRule(sequenceOfTheDay, amount);
+	}
+	
+	/**
+	 * Creates a rule that takes a percentage off the ticket price of showings starting strictly after the start and strictly
+	 * before the end of the time window.
+	 * @param start of the time window, exclusive
+	 * @param end of the time window, exclusive
+	 * @param percent of the ticket price to take off
+	 * @return the rule
+	 */
+	public static DiscountRule timeWindow(LocalTime start, LocalTime end, double percent) {
+		if(!start.isBefore(end)) {
+			throw new IllegalArgumentException("Invalid time window. The start must be before the end: " + start + " - " + end);
+		}
+		return new TimeWindowRule(start, end, percent);
+	}
+	
+	/**
+	 * Creates a rule that takes a dollar amount off showings on the given day of the month.
+	 * @param dayOfMonth of the showings the rule applies to
+	 * @param amount in dollars to take off
+	 * @return the rule
+	 */
+	public static DiscountRule dayOfMonth(int dayOfMonth, double amount) {
+		if(dayOfMonth < 1 || dayOfMonth > 31) {
+			throw new IllegalArgumentException("Invalid day of month: " + dayOfMonth);
+		}
+		return new DayOfMonthRule(dayOfMonth, amount);
+	}
+	
+	/**
+	 * Helper method to check that a dollar amount is not negative and convert it to cents.
+	 * @param amount to check
+	 * @return the amount in cents
+	 */
+	private static long toCents(double amount) {
+		if(amount < 0) {
+			throw new IllegalArgumentException("Invalid amount. Discount amount cannot be negative: " + amount);
+		}
+		return Money.ofDollars(amount);
+	}
+	
+	/**
+	 * Helper method to compare two ints without a branch.
+	 * @param a first value
+	 * @param b second value
+	 * @return all ones if the values are equal, 0 otherwise
+	 */
+	private static long equalMask(int a, int b) {
+		int difference = a ^ b;
+		return ~((difference | -difference) >> 31);
+	}
+	
+	/**
+	 * Percentage discount for movies with a special code.
+	 */
+	private static final class SpecialMovieRule implements DiscountRule {
+		/** Special code the rule applies to */
+		private final int specialCode;
+		/** Share of the ticket price to take off in basis points */
+		private final int basisPoints;
+		/** Name of the rule */
+		private final String name;
+		
+		/**
+		 * Constructs the rule.
+		 * @param specialCode the rule applies to
+		 * @param percent of the ticket price to take off
+		 */
+		private SpecialMovieRule(int specialCode, double percent) {
+			this.specialCode = specialCode;
+			this.basisPoints = Money.percentToBasisPoints(percent);
+			this.name = "Special movie " + percent + "%";
+		}
+		
+		@Override
+		public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+			return specialCode == this.specialCode ? Money.percentOf(ticketPriceCents, basisPoints) : 0;
+		}
+		
+		@Override
+		public void applyTo(PricingColumns columns, long[] largestDiscounts) {
+			long[] prices = columns.ticketPriceCents;
+			int[] specialCodes = columns.specialCodes;
+			for(int i = 0; i < largestDiscounts.length; i++) {
+				long discount = Money.percentOf(prices[i], basisPoints) & equalMask(specialCodes[i], specialCode);
+				largestDiscounts[i] = Math.max(largestDiscounts[i], discount);
+			}
+		}
+		
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+	
+	/**
+	 * Dollar discount for the showing with a given sequence of the day.
+	 */
+	private static final class SequenceRule implements DiscountRule {
+		/** Sequence the rule applies to */
+		private final int sequenceOfTheDay;
+		/** Amount to take off in cents */
+		private final long amountCents;
+		/** Name of the rule */
+		private final String name;
+		
+		/**
+		 * Constructs the rule.
+		 * @param sequenceOfTheDay the rule applies to
+		 * @param amount in dollars to take off
+		 */
+		private SequenceRule(int sequenceOfTheDay, double amount) {
+			this.sequenceOfTheDay = sequenceOfTheDay;
+			this.amountCents = toCents(amount);
+			this.name = "Showing " + sequenceOfTheDay + " of the day " + Money.format(amountCents);
+		}
+		
+		@Override
+		public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+			return sequenceOfTheDay == this.sequenceOfTheDay ? amountCents : 0;
+		}
+		
+		@Override
+		public void applyTo(PricingColumns columns, long[] largestDiscounts) {
+			int[] sequences = columns.sequences;
+			for(int i = 0; i < largestDiscounts.length; i++) {
+				largestDiscounts[i] = Math.max(largestDiscounts[i], amountCents & equalMask(sequences[i], sequenceOfTheDay));
+			}
+		}
+		
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+	
+	/**
+	 * Percentage discount for showings starting inside a time window.
+	 */
+	private static final class TimeWindowRule implements DiscountRule {
+		/** Start of the window as nanoseconds since midnight, exclusive */
+		private final long startNanoOfDay;
+		/** End of the window as nanoseconds since midnight, exclusive */
+		private final long endNanoOfDay;
+		/** Share of the ticket price to take off in basis points */
+		private final int basisPoints;
+		/** Name of the rule */
+		private final String name;
+		
+		/**
+		 * Constructs the rule.
+		 * @param start of the window, exclusive
+		 * @param end of the window, exclusive
+		 * @param percent of the ticket price to take off
+		 */
+		private TimeWindowRule(LocalTime start, LocalTime end, double percent) {
+			this.startNanoOfDay = start.toNanoOfDay();
+			this.endNanoOfDay = end.toNanoOfDay();
+			this.basisPoints = Money.percentToBasisPoints(percent);
+			this.name = "Showing between " + start + " and " + end + " " + percent + "%";
+		}
+		
+		@Override
+		public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+			return startNanoOfDay > this.startNanoOfDay && startNanoOfDay < this.endNanoOfDay ? Money.percentOf(ticketPriceCents, basisPoints) : 0;
+		}
+		
+		@Override
+		public void applyTo(PricingColumns columns, long[] largestDiscounts) {
+			long[] prices = columns.ticketPriceCents;
+			long[] starts = columns.startNanosOfDay;
+			for(int i = 0; i < largestDiscounts.length; i++) {
+				// Both differences are negative only inside the window. Times of day are far from overflowing
+				long inside = (startNanoOfDay - starts[i] & starts[i] - endNanoOfDay) >> 63;
+				largestDiscounts[i] = Math.max(largestDiscounts[i], Money.percentOf(prices[i], basisPoints) & inside);
+			}
+		}
+		
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+	
+	/**
+	 * Dollar discount for showings on a given day of the month.
+	 */
+	private static final class DayOfMonthRule implements DiscountRule {
+		/** Day of the month the rule applies to */
+		private final int dayOfMonth;
+		/** Amount to take off in cents */
+		private final long amountCents;
+		/** Name of the rule */
+		private final String name;
+		
+		/**
+		 * Constructs the rule.
+		 * @param dayOfMonth the rule applies to
+		 * @param amount in dollars to take off
+		 */
+		private DayOfMonthRule(int dayOfMonth, double amount) {
+			this.dayOfMonth = dayOfMonth;
+			this.amountCents = toCents(amount);
+			this.name = "Day " + dayOfMonth + " of the month " + Money.format(amountCents);
+		}
+		
+		@Override
+		public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+			return dayOfMonth == this.dayOfMonth ? amountCents : 0;
+		}
+		
+		@Override
+		public void applyTo(PricingColumns columns, long[] largestDiscounts) {
+			int[] days = columns.daysOfMonth;
+			for(int i = 0; i < largestDiscounts.length; i++) {
+				largestDiscounts[i] = Math.max(largestDiscounts[i], amountCents & equalMask(days[i], dayOfMonth));
+			}
+		}
+		
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.jpmc.theater;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * This class represents a hierarchical timer wheel that expires seat holds. Time is counted in ticks, and each of the four
+ * levels has 64 slots: a slot of level 0 is one tick, a slot of level 1 is 64 ticks, and so on, so the wheel covers 64^4 ticks
+ * without growing. A hold is put in the lowest level whose span reaches its deadline, and the slots of a higher level are spread
+ * over the level below when the wheel reaches them, so every hold is moved at most three times before it expires.
+ *
+ * Adding a hold only appends it to a lock-free queue, so making a hold costs the same however many holds are pending. The queue
+ * is drained into the slots by the thread that advances the wheel, and only one thread advances it at a time; the others skip
+ * ahead instead of waiting. Holds that end before they expire are left in their slots and dropped when their slot is reached.
+ *
+ * @author Ray Wang
+ */
+final class HoldTimerWheel {
+	/** Number of bits of a slot index */
+	private static final int SLOT_BITS = 6;
+	/** Number of slots in each level */
+	private static final int SLOTS = 1 << SLOT_BITS;
+	/** Number of levels */
+	private static final int LEVELS = 4;
+
+	/** Length of a tick in nanoseconds */
+	private final long tickNanos;
+	/** System.nanoTime of tick 0 */
+	private final long startNanos;
+	/** Holds added since the wheel was last advanced */
+	private final Queue<SeatHold> added;
+	/** First hold of each slot of each level, chained through SeatHold.nextInSlot */
+	private final SeatHold[][] slots;
+	/** Held by the thread that advances the wheel */
+	private final ReentrantLock lock;
+	/** Last tick that was processed */
+	private long currentTick;
+	/** System.nanoTime at which the next tick is due, read without the lock to skip advancing early */
+	private volatile long nextTickNanos;
+
+	/**
+	 * Constructs an empty wheel.
+	 * @param tickNanos length of a tick in nanoseconds
+	 * @param startNanos System.nanoTime of tick 0
+	 */
+	HoldTimerWheel(long tickNanos, long startNanos) {
+		if(tickNanos < 1) {
+			throw new IllegalArgumentException("Invalid tick. Tick must be positive: " + tickNanos);
+		}
+		this.tickNanos = tickNanos;
+		this.startNanos = startNanos;
+		this.added = new ConcurrentLinkedQueue<SeatHold>();
+		this.slots = new SeatHold[LEVELS][SLOTS];
+		this.lock = new ReentrantLock();
+		this.nextTickNanos = startNanos + tickNanos;
+	}
+
+	/**
+	 * Adds a hold to the wheel. The hold is placed in its slot the next time the wheel is advanced.
+	 * @param hold to expire at its deadline
+	 */
+	void add(SeatHold hold) {
+		added.add(hold);
+	}
+
+	/**
+	 * Advances the wheel to the given time and expires every pending hold whose deadline has passed at a tick boundary. Returns
+	 * right away if no tick is due yet or another thread is advancing the wheel.
+	 * @param nowNanos current System.nanoTime
+	 * @param expire called with every pending hold that expires, returns true if it ended the hold
+	 * @return the number of holds that were expired
+	 */
+	int advance(long nowNanos, Predicate<SeatHold> expire) {
+		if(nowNanos - nextTickNanos < 0 || !lock.tryLock()) {
+			return 0;
+		}
+		try {
+			long target = Math.floorDiv(nowNanos - startNanos, tickNanos);
+			int expired = 0;
+			for(SeatHold hold = added.poll(); hold != null; hold = added.poll()) {
+				expired += schedule(hold, expire);
+			}
+			while(currentTick < target) {
+				currentTick++;
+				// Spread the slots of the higher levels that start at this tick over the levels below, highest first
+				for(int level = LEVELS - 1; level > 0; level--) {
+					if((currentTick & (1L << SLOT_BITS * level) - 1) == 0) {
+						SeatHold hold = take(level, (int) (currentTick >>> SLOT_BITS * level) & SLOTS - 1);
+						while(hold != null) {
+							SeatHold next = hold.nextInSlot;
+							expired += schedule(hold, expire);
+							hold = next;
+						}
+					}
+				}
+				SeatHold hold = take(0, (int) currentTick & SLOTS - 1);
+				while(hold != null) {
+					SeatHold next = hold.nextInSlot;
+					expired += schedule(hold, expire);
+					hold = next;
+				}
+			}
+			nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+			return expired;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Helper method to put a hold in the slot of its deadline, or expire it if the deadline has been reached. Holds that are no
+	 * longer pending are dropped.
+	 * @param hold to schedule
+	 * @param expire called if the hold expires
+	 * @return 1 if the hold was expired, 0 otherwise
+	 */
+	private int schedule(SeatHold hold, Predicate<SeatHold> expire) {
+		hold.nextInSlot = null;
+		if(hold.getState() != SeatHold.State.PENDING) {
+			return 0;
+		}
+		long deadlineTick = Math.floorDiv(hold.getDeadlineNanos() - startNanos + tickNanos - 1, tickNanos);
+		if(deadlineTick <= currentTick) {
+			return expire.test(hold) ? 1 : 0;
+		}
+		// Deadlines past the span of the wheel go to the top level and are placed again when their slot is reached
+		long delta = deadlineTick - currentTick;
+		int level = 0;
+		while(level < LEVELS - 1 && delta >= 1L << SLOT_BITS * (level + 1)) {
+			level++;
+		}
+		int slot = (int) (deadlineTick >>> SLOT_BITS * level) & SLOTS - 1;
+		hold.nextInSlot = slots[level][slot];
+		slots[level][slot] = hold;
+		return 0;
+	}
+
+	/**
+	 * Helper method to empty a slot.
+	 * @param level of the slot
+	 * @param slot to empty
+	 * @return the first hold that was in the slot, or null
+	 */
+	private SeatHold take(int level, int slot) {
+		SeatHold first = slots[level][slot];
+		slots[level][slot] = null;
+		return first;
+	}
+}
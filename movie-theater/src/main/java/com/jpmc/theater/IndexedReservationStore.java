@@ -0,0 +1,197 @@
+package com.jpmc.theater;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents the default reservation store. Reservations are kept as objects in a lock-free queue per showing, so
+ * bookings for different showings never contend and bookings for the same showing do not lock. When the theater was loaded from
+ * a TheaterSnapshot, the reservations of a showing are read from the snapshot the first time they are needed.
+ *
+ * Every reservation is also indexed by its id and by its customer's id, so a reservation is found by id in constant time without
+ * comparing customers, and removing it only walks the queue of its own showing. The bookings of a customer are found in time
+ * proportional to their number. A customer lookup on a loaded theater first reads every showing that is still in the snapshot.
+ *
+ * @author Ray Wang
+ */
+public class IndexedReservationStore implements ReservationStore {
+	/** Reservations grouped by the showing they are for */
+	private final Map<Showing, Queue<Reservation>> reservations;
+	/** Every reservation by id */
+	private final Map<Long, Reservation> byId;
+	/** Reservations grouped by the id of their customer. Unordered, so a customer with many bookings stays cheap to book */
+	private final Map<String, Map<Long, Reservation>> byCustomerId;
+	/** Snapshot the reservations are loaded from, or null */
+	private final TheaterSnapshot loadFrom;
+	/** Set once every showing in the snapshot has been read */
+	private volatile boolean snapshotLoaded;
+	/** Number of reservations added and not removed, not counting ones still in the snapshot */
+	private final AtomicInteger size;
+
+	/**
+	 * Constructs an empty reservation store.
+	 */
+	public IndexedReservationStore() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a reservation store that reads the reservations of each showing from a snapshot when they are first needed.
+	 * @param loadFrom snapshot to read from, or null
+	 */
+	IndexedReservationStore(TheaterSnapshot loadFrom) {
+		this.reservations = new ConcurrentHashMap<Showing, Queue<Reservation>>();
+		this.byId = new ConcurrentHashMap<Long, Reservation>();
+		this.byCustomerId = new ConcurrentHashMap<String, Map<Long, Reservation>>();
+		this.loadFrom = loadFrom;
+		this.snapshotLoaded = loadFrom == null;
+		this.size = new AtomicInteger(loadFrom == null ? 0 : loadFrom.getReservationCount());
+	}
+
+	/**
+	 * Adds a reservation to the queue of its showing and to the indexes.
+	 */
+	@Override
+	public void add(Reservation reservation) {
+		queueFor(reservation.getShowing()).add(reservation);
+		index(reservation);
+		size.incrementAndGet();
+	}
+
+	/**
+	 * Removes the reservation with the given reservation's id from the queue of its showing and from the indexes. Only the thread
+	 * whose removal from the id index succeeds removes the reservation.
+	 */
+	@Override
+	public boolean remove(Reservation reservation) {
+		Reservation removed = byId.remove(reservation.getId());
+		if(removed == null) {
+			return false;
+		}
+		queueFor(removed.getShowing()).remove(removed);
+		String customerId = removed.getCustomer().getId();
+		if(customerId != null) {
+			byCustomerId.get(customerId).remove(removed.getId());
+		}
+		size.decrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Removes the first matching reservation. Only the thread whose removal succeeds returns the reservation.
+	 */
+	@Override
+	public Reservation removeFirst(Showing showing, Customer customer, int audienceCount) {
+		for(Reservation current : queueFor(showing)) {
+			if(current.getAudienceCount() == audienceCount && current.getCustomer().equals(customer) && remove(current)) {
+				return current;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a copy of the queue of the showing.
+	 */
+	@Override
+	public List<Reservation> reservations(Showing showing) {
+		return new ArrayList<Reservation>(queueFor(showing));
+	}
+
+	/**
+	 * Returns the reservation from the id index.
+	 */
+	@Override
+	public Reservation get(long reservationId) {
+		return byId.get(reservationId);
+	}
+
+	/**
+	 * Returns a copy of the reservations in the customer's index entry, sorted by id.
+	 */
+	@Override
+	public List<Reservation> reservations(String customerId) {
+		if(customerId == null) {
+			return new ArrayList<Reservation>();
+		}
+		if(!snapshotLoaded) {
+			loadSnapshot();
+		}
+		Map<Long, Reservation> forCustomer = byCustomerId.get(customerId);
+		if(forCustomer == null) {
+			return new ArrayList<Reservation>();
+		}
+		List<Reservation> found = new ArrayList<Reservation>(forCustomer.values());
+		found.sort(Comparator.comparingLong(Reservation::getId));
+		return found;
+	}
+
+	/**
+	 * Returns the number of reservations in the store.
+	 */
+	@Override
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Helper method to add a reservation to the id and customer indexes.
+	 * @param reservation to index
+	 */
+	private void index(Reservation reservation) {
+		// Box the id once for both indexes
+		Long id = reservation.getId();
+		String customerId = reservation.getCustomer().getId();
+		if(customerId != null) {
+			Map<Long, Reservation> forCustomer = byCustomerId.get(customerId);
+			if(forCustomer == null) {
+				forCustomer = byCustomerId.computeIfAbsent(customerId, key -> new ConcurrentHashMap<Long, Reservation>());
+			}
+			forCustomer.put(id, reservation);
+		}
+		// The id index goes last, since a reservation can only be removed once it is in the id index
+		byId.put(id, reservation);
+	}
+
+	/**
+	 * Helper method to return the queue of a showing, creating it and filling it from the snapshot the first time it is needed.
+	 * @param showing
+	 * @return the queue of the showing
+	 */
+	private Queue<Reservation> queueFor(Showing showing) {
+		Queue<Reservation> forShowing = reservations.get(showing);
+		return forShowing != null ? forShowing : reservations.computeIfAbsent(showing, this::load);
+	}
+
+	/**
+	 * Helper method to create the queue of a showing and index the reservations read for it from the snapshot.
+	 * @param showing
+	 * @return the new queue
+	 */
+	private Queue<Reservation> load(Showing showing) {
+		Queue<Reservation> loaded = new ConcurrentLinkedQueue<Reservation>();
+		if(loadFrom != null) {
+			for(Reservation reservation : loadFrom.loadReservations(showing)) {
+				loaded.add(reservation);
+				index(reservation);
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * Helper method to read every showing that is still in the snapshot, so the customer index is complete.
+	 */
+	private void loadSnapshot() {
+		for(Showing showing : loadFrom.getShowings()) {
+			queueFor(showing);
+		}
+		snapshotLoaded = true;
+	}
+}
@@ -0,0 +1,113 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents the latency statistics of one instrumented entry point at the time they were read. Latencies are in
+ * nanoseconds, and percentiles are rounded up to the bucket of the latency histogram they fall in.
+ *
+ * @author Ray Wang
+ */
+public final class LatencyStats {
+	/** Name of the entry point */
+	private final String name;
+	/** Number of calls that completed */
+	private final long count;
+	/** Number of calls that failed */
+	private final long failures;
+	/** Mean latency of the calls that completed */
+	private final long meanNanos;
+	/** Median latency */
+	private final long p50Nanos;
+	/** 90th percentile latency */
+	private final long p90Nanos;
+	/** 99th percentile latency */
+	private final long p99Nanos;
+	/** Largest latency */
+	private final long maxNanos;
+
+	/**
+	 * Constructs the statistics.
+	 * @param name of the entry point
+	 * @param count of the calls that completed
+	 * @param failures of the calls that failed
+	 * @param meanNanos mean latency
+	 * @param p50Nanos median latency
+	 * @param p90Nanos 90th percentile latency
+	 * @param p99Nanos 99th percentile latency
+	 * @param maxNanos largest latency
+	 */
+	LatencyStats(String name, long count, long failures, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+		this.name = name;
+		this.count = count;
+		this.failures = failures;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p90Nanos = p90Nanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * @return the name of the entry point
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of calls that completed
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of calls that failed
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the mean latency in nanoseconds
+	 */
+	public long getMeanNanos() {
+		return meanNanos;
+	}
+
+	/**
+	 * @return the median latency in nanoseconds
+	 */
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	/**
+	 * @return the 90th percentile latency in nanoseconds
+	 */
+	public long getP90Nanos() {
+		return p90Nanos;
+	}
+
+	/**
+	 * @return the 99th percentile latency in nanoseconds
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	/**
+	 * @return the largest latency in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * Formats the statistics for printing.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: %d calls, %d failed, mean %d ns, p50 %d ns, p90 %d ns, p99 %d ns, max %d ns", name, count, failures,
+				meanNanos, p50Nanos, p90Nanos, p99Nanos, maxNanos);
+	}
+}
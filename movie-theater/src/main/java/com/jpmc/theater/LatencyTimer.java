@@ -0,0 +1,149 @@
+package com.jpmc.theater;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents the latency histogram of one instrumented entry point. Latencies are counted in log-linear buckets: every
+ * power of two is split into eight buckets, so a percentile is never off by more than 12.5% while the whole range of a long fits
+ * in 488 counters. Recording is lock-free and allocation-free.
+ *
+ * Calls are timed with the value returned by TheaterMetrics.start, which is 0 while metrics are disabled, and stop and fail do
+ * nothing for a start of 0.
+ *
+ * @author Ray Wang
+ */
+final class LatencyTimer {
+	/** Number of bits of a latency used to pick the bucket within its power of two */
+	private static final int SUB_BUCKET_BITS = 3;
+	/** Number of buckets within each power of two */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Number of buckets needed for every non-negative long */
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/** Name of the entry point */
+	private final String name;
+	/** Number of calls in each latency bucket */
+	private final AtomicLongArray buckets;
+	/** Number of calls that failed */
+	private final LongAdder failures;
+	/** Total latency of the calls that completed in nanoseconds */
+	private final LongAdder totalNanos;
+	/** Largest latency of a call that completed in nanoseconds */
+	private final LongAccumulator maxNanos;
+
+	/**
+	 * Constructs an empty timer.
+	 * @param name of the entry point
+	 */
+	LatencyTimer(String name) {
+		this.name = name;
+		this.buckets = new AtomicLongArray(BUCKETS);
+		this.failures = new LongAdder();
+		this.totalNanos = new LongAdder();
+		this.maxNanos = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Records a call that completed.
+	 * @param start value returned by TheaterMetrics.start when the call began
+	 */
+	void stop(long start) {
+		if(start == 0) {
+			return;
+		}
+		long nanos = Math.max(0, System.nanoTime() - start);
+		buckets.incrementAndGet(bucket(nanos));
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	/**
+	 * Records a call that failed. Failed calls are counted but their latency is not.
+	 * @param start value returned by TheaterMetrics.start when the call began
+	 */
+	void fail(long start) {
+		if(start != 0) {
+			failures.increment();
+		}
+	}
+
+	/**
+	 * Returns the current statistics of the timer. Calls recorded while the statistics are read may be partly included.
+	 * @return the statistics
+	 */
+	LatencyStats stats() {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for(int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		long max = maxNanos.get();
+		return new LatencyStats(name, total, failures.sum(), total == 0 ? 0 : totalNanos.sum() / total,
+				percentile(counts, total, 0.5, max), percentile(counts, total, 0.9, max), percentile(counts, total, 0.99, max), max);
+	}
+
+	/**
+	 * Clears every count of the timer.
+	 */
+	void reset() {
+		for(int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		failures.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+	}
+
+	/**
+	 * Helper method to return the bucket of a latency.
+	 * @param nanos latency in nanoseconds
+	 * @return index of the bucket
+	 */
+	static int bucket(long nanos) {
+		if(nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Helper method to return the largest latency that falls in a bucket.
+	 * @param bucket index of the bucket
+	 * @return the upper bound of the bucket in nanoseconds
+	 */
+	static long upperBound(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		long lower = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	/**
+	 * Helper method to return the latency below which the given fraction of the calls fall.
+	 * @param counts of the buckets
+	 * @param total number of calls
+	 * @param fraction of the calls, between 0 and 1
+	 * @param max largest latency recorded, which bounds the result
+	 * @return the percentile in nanoseconds, or 0 if there are no calls
+	 */
+	private static long percentile(long[] counts, long total, double fraction, long max) {
+		if(total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * fraction));
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if(seen >= rank) {
+				return Math.min(upperBound(i), max);
+			}
+		}
+		return max;
+	}
+}
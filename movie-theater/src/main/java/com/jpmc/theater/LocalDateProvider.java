@@ -1,15 +1,21 @@
 package com.jpmc.theater;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
- * Provides the local date. Will be used to display date in the final output.
+ * Provides the local date. Will be used to display date in the final output. Also provides the current time used to price
+ * showings by how soon they start. Both are read from a clock that tests can replace.
  * 
  * @author Ray Wang
  */
 public class LocalDateProvider {
 	/** Current instance of LocalDateProvider. Used to maintain singleton instance */
     private static final LocalDateProvider INSTANCE = new LocalDateProvider();
+    
+    /** Clock the date and time are read from */
+    private volatile Clock clock = Clock.systemDefaultZone();
 
     /** Private constructor to prevent other classes from creating instances of LocalDateProvider as it uses the singleton pattern */
     private LocalDateProvider() { }
@@ -27,6 +33,38 @@ public class LocalDateProvider {
      * @return the current date
      */
     public LocalDate currentDate() {
-            return LocalDate.now();
+            return LocalDate.now(clock);
+    }
+    
+    /**
+     * Returns the current date and time
+     * @return the current date and time
+     */
+    public LocalDateTime currentDateTime() {
+    	return LocalDateTime.now(clock);
+    }
+    
+    /**
+     * Returns the current time in milliseconds since the epoch. Cheaper than currentDateTime for checking whether a time has passed.
+     * @return the current time in milliseconds
+     */
+    public long currentTimeMillis() {
+    	return clock.millis();
+    }
+    
+    /**
+     * Returns the clock the date and time are read from
+     * @return the clock
+     */
+    Clock getClock() {
+    	return clock;
+    }
+    
+    /**
+     * Replaces the clock the date and time are read from. Used by tests to fix the time.
+     * @param clock to read the date and time from
+     */
+    void setClock(Clock clock) {
+    	this.clock = clock;
     }
 }
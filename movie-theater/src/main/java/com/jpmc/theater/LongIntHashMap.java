@@ -0,0 +1,140 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents a hash map from positive long keys to int values kept in two primitive arrays, so an entry takes no
+ * objects and between 18 and 36 bytes of heap. Collisions are resolved by linear probing and removals shift the following entries
+ * back, so lookups never pass over deleted entries. Key 0 marks an empty slot. Not safe for concurrent use.
+ *
+ * @author Ray Wang
+ */
+final class LongIntHashMap {
+	/** Returned by get and remove when a key is not in the map */
+	static final int MISSING = -1;
+	/** Number of slots the map starts with */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** Key of each slot, or 0 if the slot is empty */
+	private long[] keys;
+	/** Value of each slot */
+	private int[] values;
+	/** Number of entries in the map */
+	private int size;
+
+	/**
+	 * Constructs an empty map.
+	 */
+	LongIntHashMap() {
+		this.keys = new long[INITIAL_CAPACITY];
+		this.values = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns the value of a key.
+	 * @param key to look up
+	 * @return the value, or MISSING if the key is not in the map
+	 */
+	int get(long key) {
+		int mask = keys.length - 1;
+		for(int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) {
+				return values[slot];
+			}
+		}
+		return MISSING;
+	}
+
+	/**
+	 * Sets the value of a key.
+	 * @param key to set, which must be positive
+	 * @param value of the key
+	 */
+	void put(long key, int value) {
+		if(key <= 0) {
+			throw new IllegalArgumentException("Invalid key. Keys must be positive: " + key);
+		}
+		if((size + 1) * 3L > keys.length * 2L) {
+			resize(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		int slot = slot(key, mask);
+		while(keys[slot] != 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		if(keys[slot] == 0) {
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+	}
+
+	/**
+	 * Removes a key.
+	 * @param key to remove
+	 * @return the value the key had, or MISSING if the key was not in the map
+	 */
+	int remove(long key) {
+		int mask = keys.length - 1;
+		int slot = slot(key, mask);
+		while(keys[slot] != key) {
+			if(keys[slot] == 0) {
+				return MISSING;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int removed = values[slot];
+		// Shift back every following entry that would no longer be found past the emptied slot
+		int empty = slot;
+		for(int next = (slot + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+			int home = slot(keys[next], mask);
+			if(((next - home) & mask) >= ((next - empty) & mask)) {
+				keys[empty] = keys[next];
+				values[empty] = values[next];
+				empty = next;
+			}
+		}
+		keys[empty] = 0;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Returns the number of entries in the map.
+	 * @return the number of entries
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Helper method to return the slot a key is first looked for in.
+	 * @param key
+	 * @param mask of the slot index
+	 * @return the slot
+	 */
+	private static int slot(long key, int mask) {
+		long mixed = key * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32)) & mask;
+	}
+
+	/**
+	 * Helper method to rehash every entry into the given number of slots.
+	 * @param capacity new number of slots, a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		int mask = capacity - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] != 0) {
+				int slot = slot(oldKeys[i], mask);
+				while(keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
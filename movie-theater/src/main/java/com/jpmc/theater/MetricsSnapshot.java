@@ -0,0 +1,92 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents the metrics of the theater's hot paths at the time they were read: the latency statistics of booking,
+ * ticket pricing and schedule rendering, and how often bookings failed because of an invalid sequence or a sold out showing.
+ *
+ * @author Ray Wang
+ */
+public final class MetricsSnapshot {
+	/** Whether metrics were being recorded */
+	private final boolean enabled;
+	/** Latency of Theater.reserve */
+	private final LatencyStats reserve;
+	/** Latency of ticket price calculations */
+	private final LatencyStats ticketPricing;
+	/** Latency of schedule rendering */
+	private final LatencyStats scheduleRendering;
+	/** Number of bookings rejected because no showing had the sequence */
+	private final long invalidSequenceFailures;
+	/** Number of bookings rejected because the showing did not have enough seats */
+	private final long notEnoughSeatsFailures;
+
+	/**
+	 * Constructs the snapshot.
+	 * @param enabled whether metrics were being recorded
+	 * @param reserve latency of Theater.reserve
+	 * @param ticketPricing latency of ticket price calculations
+	 * @param scheduleRendering latency of schedule rendering
+	 * @param invalidSequenceFailures number of bookings rejected because no showing had the sequence
+	 * @param notEnoughSeatsFailures number of bookings rejected because the showing did not have enough seats
+	 */
+	MetricsSnapshot(boolean enabled, LatencyStats reserve, LatencyStats ticketPricing, LatencyStats scheduleRendering,
+			long invalidSequenceFailures, long notEnoughSeatsFailures) {
+		this.enabled = enabled;
+		this.reserve = reserve;
+		this.ticketPricing = ticketPricing;
+		this.scheduleRendering = scheduleRendering;
+		this.invalidSequenceFailures = invalidSequenceFailures;
+		this.notEnoughSeatsFailures = notEnoughSeatsFailures;
+	}
+
+	/**
+	 * @return true if metrics were being recorded
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return the latency of Theater.reserve
+	 */
+	public LatencyStats getReserve() {
+		return reserve;
+	}
+
+	/**
+	 * @return the latency of ticket price calculations
+	 */
+	public LatencyStats getTicketPricing() {
+		return ticketPricing;
+	}
+
+	/**
+	 * @return the latency of rendering the schedule in text or json format
+	 */
+	public LatencyStats getScheduleRendering() {
+		return scheduleRendering;
+	}
+
+	/**
+	 * @return the number of bookings rejected because no showing had the sequence
+	 */
+	public long getInvalidSequenceFailures() {
+		return invalidSequenceFailures;
+	}
+
+	/**
+	 * @return the number of bookings rejected because the showing did not have enough seats
+	 */
+	public long getNotEnoughSeatsFailures() {
+		return notEnoughSeatsFailures;
+	}
+
+	/**
+	 * Formats the snapshot for printing, one entry point per line.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s%n%s%n%s%ninvalid sequence: %d, not enough seats: %d", reserve, ticketPricing, scheduleRendering,
+				invalidSequenceFailures, notEnoughSeatsFailures);
+	}
+}
@@ -0,0 +1,89 @@
+package com.jpmc.theater;
+
+/**
+ * This class holds the helpers for the theater's money representation. Amounts are kept as a primitive long number of cents so
+ * that prices and totals are exact, can be summed without drift, and never allocate. Percentages are expressed in basis points
+ * (1/100 of a percent) so percentage discounts are also calculated with integer math.
+ * 
+ * @author Ray Wang
+ */
+public final class Money {
+	/** Number of cents in a dollar */
+	public static final long CENTS_PER_DOLLAR = 100;
+	/** Number of basis points in 100 percent */
+	public static final int BASIS_POINTS_PER_WHOLE = 10_000;
+	
+	/** Private constructor to prevent other classes from creating instances of the helper class */
+	private Money() { }
+	
+	/**
+	 * Converts a dollar amount to cents, rounding to the nearest cent.
+	 * @param dollars amount to convert
+	 * @return the amount in cents
+	 */
+	public static long ofDollars(double dollars) {
+		if(Double.isNaN(dollars) || Double.isInfinite(dollars)) {
+			throw new IllegalArgumentException("Invalid amount. Amount must be a finite number: " + dollars);
+		}
+		return Math.round(dollars * CENTS_PER_DOLLAR);
+	}
+	
+	/**
+	 * Converts cents to a dollar amount.
+	 * @param cents amount to convert
+	 * @return the amount in dollars
+	 */
+	public static double toDollars(long cents) {
+		return (double) cents / CENTS_PER_DOLLAR;
+	}
+	
+	/**
+	 * Converts a percentage to basis points, rounding to the nearest basis point.
+	 * @param percent to convert, e.g. 25 for 25%
+	 * @return the percentage in basis points
+	 */
+	public static int percentToBasisPoints(double percent) {
+		if(Double.isNaN(percent) || percent < 0 || percent > 100) {
+			throw new IllegalArgumentException("Invalid percent. Percent must be between 0 and 100: " + percent);
+		}
+		return (int) Math.round(percent * 100);
+	}
+	
+	/**
+	 * Returns the given share of an amount, rounding half cents up.
+	 * @param cents amount to take the share of, must not be negative
+	 * @param basisPoints share of the amount in basis points
+	 * @return the share in cents
+	 */
+	public static long percentOf(long cents, int basisPoints) {
+		return (cents * basisPoints + BASIS_POINTS_PER_WHOLE / 2) / BASIS_POINTS_PER_WHOLE;
+	}
+	
+	/**
+	 * Formats an amount as a dollar string, e.g. $12.50.
+	 * @param cents amount to format
+	 * @return the formatted amount
+	 */
+	public static String format(long cents) {
+		return appendTo(new StringBuilder(12), cents).toString();
+	}
+	
+	/**
+	 * Appends an amount formatted as a dollar string, e.g. $12.50, to the given builder.
+	 * @param builder to append to
+	 * @param cents amount to append
+	 * @return the builder
+	 */
+	public static StringBuilder appendTo(StringBuilder builder, long cents) {
+		if(cents < 0) {
+			builder.append('-');
+			cents = -cents;
+		}
+		long remainder = cents % CENTS_PER_DOLLAR;
+		builder.append('$').append(cents / CENTS_PER_DOLLAR).append('.');
+		if(remainder < 10) {
+			builder.append('0');
+		}
+		return builder.append(remainder);
+	}
+}
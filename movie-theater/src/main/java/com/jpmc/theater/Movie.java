@@ -1,7 +1,6 @@
 package com.jpmc.theater;
 
 import java.time.Duration;
-import java.time.LocalTime;
 import java.util.Objects;
 
 /**
@@ -11,7 +10,9 @@ import java.util.Objects;
  */
 public class Movie {
 	/** The special code that can provide customers with a 20% discount for a special movie */
-    private static final int MOVIE_CODE_SPECIAL = 1;
+    public static final int MOVIE_CODE_SPECIAL = 1;
+    /** Instrumentation of ticket price calculations */
+    private static final TheaterMetrics METRICS = TheaterMetrics.getInstance();
     
     /** Title of the movie */
     private String title;
@@ -19,22 +20,22 @@ public class Movie {
     private String description;
     /** Running time of the movie */
     private Duration runningTime;
-    /** Ticket price of the movie */
-    private double ticketPrice;
+    /** Ticket price of the movie in cents */
+    private long ticketPriceCents;
     /** The special code of the movie */
     private int specialCode;
 
     /**
-     * Constructs the Movie object with the provided parameters.
+     * Constructs the Movie object with the provided parameters. The ticket price is rounded to the nearest cent.
      * @param title of the movie
      * @param runningTime of the movie
-     * @param ticketPrice of the movie
+     * @param ticketPrice of the movie in dollars
      * @param specialCode to check for discounts
      */
     public Movie(String title, Duration runningTime, double ticketPrice, int specialCode, String description) {
         this.title = title;
         this.runningTime = runningTime;
-        this.ticketPrice = ticketPrice;
+        this.ticketPriceCents = Money.ofDollars(ticketPrice);
         this.specialCode = specialCode;
         this.description = description;
     }
@@ -68,10 +69,26 @@ public class Movie {
 
     /**
      * Returns the ticket price of the movie
-     * @return the ticket price of the movie
+     * @return the ticket price of the movie in dollars
      */
     public double getTicketPrice() {
-        return this.ticketPrice;
+        return Money.toDollars(this.ticketPriceCents);
+    }
+    
+    /**
+     * Returns the ticket price of the movie in cents
+     * @return the ticket price of the movie in cents
+     */
+    public long getTicketPriceCents() {
+        return this.ticketPriceCents;
+    }
+    
+    /**
+     * Returns the special code of the movie
+     * @return the special code of the movie
+     */
+    public int getSpecialCode() {
+        return this.specialCode;
     }
     
     /**
@@ -82,59 +99,37 @@ public class Movie {
         return this.description;
     }
 
-    /**
-	 * Returns the total discount for the showing in dollar value.
-	 * @param showSequence displays number of times the movie has been shown for the day
-	 * @return the total discount for the showing in dollar value
-	 */
-	private double getDiscount(Showing showing) {
-		// Used to keep track of largest discount. Starts at 0 and if each discount is greater, then set this value to that larger discount.
-		double largestDiscount = 0; 
-		
-		// Checking for special movie discount
-	    if (MOVIE_CODE_SPECIAL == specialCode) {
-	        largestDiscount = ticketPrice * 0.2;  // 20% discount for special movie
-	    }
-	    
-	    // Checking for sequence discount
-	    int showSequence = showing.getSequenceOfTheDay();
-	    if (showSequence == 1) {
-	    	if(3 > largestDiscount) {
-	    		largestDiscount = 3; // 3 dollar discount for first showing of the day
-	    	}
-	    } else if (showSequence == 2) {
-	    	if(2 > largestDiscount) {
-	    		largestDiscount = 2; // 2 dollar discount for second showing of the day
-	    	}
-	    }
-	
-	    // Checking for time discount
-	    LocalTime timeDiscountStart = LocalTime.of(11, 0);
-	    LocalTime timeDiscountEnd = LocalTime.of(16, 0);
-	    LocalTime showingTime = showing.getStartTime().toLocalTime();
-	    if(showingTime.isAfter(timeDiscountStart) && showingTime.isBefore(timeDiscountEnd)) {
-	    	if(ticketPrice * 0.25 > largestDiscount) {
-	    		largestDiscount = ticketPrice * 0.25;
-	    	}
-	    }
-	    
-	    // Checking for 7th day discount
-	    if(showing.getStartTime().getDayOfMonth() == 7) {
-	    	if(1 > largestDiscount) {
-	    		largestDiscount = 1;
-	    	}
-	    }
-	    
-	    return largestDiscount;
-	}
-
 	/**
-     * Calculates the ticket price of the movie after applying the discount.
+     * Calculates the ticket price of the movie after applying the theater's standard discounts.
      * @param showing the movie showing of the day. Used to calculate sequence of the day.
-     * @return Final ticket price after discount.
+     * @return Final ticket price after discount in dollars.
      */
     public double calculateTicketPrice(Showing showing) {
-        return ticketPrice - getDiscount(showing);
+        return Money.toDollars(calculateTicketPriceCents(showing, DiscountPolicy.defaultPolicy()));
+    }
+    
+    /**
+     * Calculates the ticket price of the movie after applying the largest discount of the given policy.
+     * @param showing the movie showing of the day. Used to calculate sequence of the day.
+     * @param policy the discount rules to apply
+     * @return Final ticket price after discount in dollars.
+     */
+    public double calculateTicketPrice(Showing showing, DiscountPolicy policy) {
+        return Money.toDollars(calculateTicketPriceCents(showing, policy));
+    }
+    
+    /**
+     * Calculates the ticket price of the movie in cents after applying the largest discount of the given policy. A discount
+     * larger than the ticket price makes the ticket free rather than negative.
+     * @param showing the movie showing of the day. Used to calculate sequence of the day.
+     * @param policy the discount rules to apply
+     * @return Final ticket price after discount in cents.
+     */
+    public long calculateTicketPriceCents(Showing showing, DiscountPolicy policy) {
+        long start = METRICS.start();
+        long priceCents = Math.max(0, ticketPriceCents - policy.discount(this, showing));
+        METRICS.ticketPricing.stop(start);
+        return priceCents;
     }
 
     /**
@@ -145,7 +140,7 @@ public class Movie {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Movie movie = (Movie) o;
-        return Double.compare(movie.ticketPrice, ticketPrice) == 0
+        return movie.ticketPriceCents == ticketPriceCents
                 && Objects.equals(title, movie.title)
                 && Objects.equals(description, movie.description)
                 && Objects.equals(runningTime, movie.runningTime)
@@ -157,6 +152,6 @@ public class Movie {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(title, description, runningTime, ticketPrice, specialCode);
+        return Objects.hash(title, description, runningTime, ticketPriceCents, specialCode);
     }
 }
\ No newline at end of file
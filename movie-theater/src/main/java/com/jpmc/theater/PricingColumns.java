@@ -0,0 +1,69 @@
+package com.jpmc.theater;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class represents the pricing facts of many showings laid out as primitive columns: the base ticket price and special code
+ * of each showing's movie, its sequence of the day, its start time as nanoseconds since midnight and its day of the month. The
+ * showings are read once when the columns are built, so a DiscountPolicy can price all of them in tight loops over the arrays
+ * instead of calling Movie.calculateTicketPrice and the LocalDateTime accessors showing by showing.
+ *
+ * @author Ray Wang
+ */
+public final class PricingColumns {
+	/** Number of showings */
+	private final int size;
+	/** Base ticket price of every showing's movie in cents */
+	final long[] ticketPriceCents;
+	/** Special code of every showing's movie */
+	final int[] specialCodes;
+	/** Sequence of the day of every showing */
+	final int[] sequences;
+	/** Start time of every showing as nanoseconds since midnight */
+	final long[] startNanosOfDay;
+	/** Day of the month every showing starts on */
+	final int[] daysOfMonth;
+
+	/**
+	 * Constructs empty columns for the given number of showings.
+	 * @param size number of showings
+	 */
+	private PricingColumns(int size) {
+		this.size = size;
+		this.ticketPriceCents = new long[size];
+		this.specialCodes = new int[size];
+		this.sequences = new int[size];
+		this.startNanosOfDay = new long[size];
+		this.daysOfMonth = new int[size];
+	}
+
+	/**
+	 * Lays out the pricing facts of the given showings. The columns are in the same order as the showings.
+	 * @param showings to lay out
+	 * @return the columns
+	 */
+	public static PricingColumns of(List<Showing> showings) {
+		PricingColumns columns = new PricingColumns(showings.size());
+		int i = 0;
+		for(Showing showing : showings) {
+			Movie movie = showing.getMovie();
+			LocalDateTime startTime = showing.getStartTime();
+			columns.ticketPriceCents[i] = movie.getTicketPriceCents();
+			columns.specialCodes[i] = movie.getSpecialCode();
+			columns.sequences[i] = showing.getSequenceOfTheDay();
+			columns.startNanosOfDay[i] = startTime.toLocalTime().toNanoOfDay();
+			columns.daysOfMonth[i] = startTime.getDayOfMonth();
+			i++;
+		}
+		return columns;
+	}
+
+	/**
+	 * Returns the number of showings in the columns
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+}
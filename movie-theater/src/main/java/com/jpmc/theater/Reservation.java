@@ -1,37 +1,135 @@
 package com.jpmc.theater;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * This class represents the Reservation object. It contains fields for the customer of the reservation, the movie
- * showing, and the audience count.
+ * showing, and the audience count. Every reservation is given an id when it is created, which identifies it for the life of
+ * the process; reservations restored from a journal keep the id they were made with, and reservations loaded from a snapshot are
+ * given new ids. A reservation for a showing with a seat map also has the block of seats it holds.
+ * 
+ * The ticket price is fixed when the reservation is made. Demand pricing, discount policy changes and renumbered showings change
+ * the price of later tickets, but never the fee of a reservation that was already made.
  * 
  * @author Ray Wang
  */
 public class Reservation {
+	/** Source of reservation ids. Ids start at 1 so 0 never identifies a reservation */
+	private static final AtomicLong NEXT_ID = new AtomicLong(1);
+	
+	/** Id of the reservation */
+	private long id;
 	/** The customer making the reservation */
     private Customer customer;
     /** The movie showing in the reservation */
     private Showing showing;
     /** The number of people the reservation is for */
     private int audienceCount;
+    /** The seats held by the reservation, or null if its seats are not assigned */
+    private SeatBlock seats;
+    /** The price of a single ticket after discounts in cents, fixed when the reservation was made */
+    private long ticketPriceCents;
 
     /**
-     * Constructs the Reservation based on the given customer, showing, and audience count.
+     * Constructs the Reservation based on the given customer, showing, and audience count. The tickets are priced at the current
+     * ticket price of the showing.
      * @param customer making the reservation
      * @param showing in the reservation
      * @param audienceCount of the reservation
      */
     public Reservation(Customer customer, Showing showing, int audienceCount) {
+        this(customer, showing, audienceCount, null, showing.getTicketPriceCents());
+    }
+    
+    /**
+     * Constructs the Reservation for the given customer, showing, and assigned seats. The audience count is the number of seats,
+     * and the tickets are priced at the current ticket price of the showing.
+     * @param customer making the reservation
+     * @param showing in the reservation
+     * @param seats held by the reservation
+     */
+    public Reservation(Customer customer, Showing showing, SeatBlock seats) {
+        this(customer, showing, seats.getCount(), seats, showing.getTicketPriceCents());
+    }
+    
+    /**
+     * Constructs a Reservation with a new id and the ticket price the customer was quoted.
+     * @param customer making the reservation
+     * @param showing in the reservation
+     * @param audienceCount of the reservation
+     * @param seats held by the reservation, or null
+     * @param ticketPriceCents price of a single ticket after discounts in cents
+     */
+    Reservation(Customer customer, Showing showing, int audienceCount, SeatBlock seats, long ticketPriceCents) {
+        this(NEXT_ID.getAndIncrement(), customer, showing, audienceCount, seats, ticketPriceCents);
+    }
+    
+    /**
+     * Creates a reservation restored from a journal with the id it was given when it was made. Ids given out afterwards are
+     * larger than every restored id, so a restored reservation never shares its id with a new one.
+     * @param id the reservation was made with
+     * @param customer making the reservation
+     * @param showing in the reservation
+     * @param audienceCount of the reservation
+     * @param seats held by the reservation, or null
+     * @param ticketPriceCents price of a single ticket after discounts in cents
+     * @return the restored reservation
+     */
+    static Reservation restore(long id, Customer customer, Showing showing, int audienceCount, SeatBlock seats, long ticketPriceCents) {
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+        return new Reservation(id, customer, showing, audienceCount, seats, ticketPriceCents);
+    }
+    
+    /**
+     * Constructs a Reservation with an id that was already given out. Used by stores that create views of the reservations
+     * they keep.
+     * @param id of the reservation
+     * @param customer making the reservation
+     * @param showing in the reservation
+     * @param audienceCount of the reservation
+     * @param seats held by the reservation, or null
+     * @param ticketPriceCents price of a single ticket after discounts in cents
+     */
+    Reservation(long id, Customer customer, Showing showing, int audienceCount, SeatBlock seats, long ticketPriceCents) {
+        this.id = id;
         this.customer = customer;
         this.showing = showing;
         this.audienceCount = audienceCount;
+        this.seats = seats;
+        this.ticketPriceCents = ticketPriceCents;
     }
     
     /**
      * Calculates and returns the total cost of the reservation. This total fee factors in the discounts and the audience count.
-     * @return the total cost of the reservation
+     * The ticket price was fixed when the reservation was made, so this is a single multiplication.
+     * @return the total cost of the reservation in dollars
      */
     public double totalFee() {
-        return showing.getMovie().calculateTicketPrice(showing) * this.audienceCount;
+        return Money.toDollars(totalFeeCents());
+    }
+    
+    /**
+     * Calculates and returns the exact total cost of the reservation in cents.
+     * @return the total cost of the reservation in cents
+     */
+    public long totalFeeCents() {
+        return ticketPriceCents * this.audienceCount;
+    }
+    
+    /**
+     * Returns the price of a single ticket after discounts, as it was when the reservation was made
+     * @return the ticket price in cents
+     */
+    public long getTicketPriceCents() {
+    	return this.ticketPriceCents;
+    }
+    
+    /**
+     * Returns the id of the reservation
+     * @return the id
+     */
+    public long getId() {
+    	return this.id;
     }
     
     /**
@@ -57,6 +155,14 @@ public class Reservation {
 	public int getAudienceCount() {
 		return audienceCount;
 	}
+	
+	/**
+	 * Return the seats held by the reservation
+	 * @return the seats, or null if the seats are not assigned
+	 */
+	public SeatBlock getSeats() {
+		return seats;
+	}
     
     
 }
\ No newline at end of file
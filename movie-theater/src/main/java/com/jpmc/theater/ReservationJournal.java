@@ -0,0 +1,654 @@
+package com.jpmc.theater;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents the durable journal of a theater's reservations. Every reservation and cancellation is appended to the end
+ * of a file as a length prefixed record with a CRC32 checksum, and the file is never rewritten. Appends from many threads are
+ * handed to a single writer thread that group commits them: the records that arrive within one commit window are written and
+ * forced to disk together, so one fsync is shared by every booking in the batch and a booking waits at most one window plus
+ * one fsync for its record to be durable.
+ *
+ * When the journal is opened, a record that was torn by a crash, i.e. is incomplete or fails its checksum, marks the end of the
+ * journal and is truncated away. The remaining records can then be replayed into a Theater to rebuild its reservations. Showings
+ * are identified in the journal by their screen and start time, so the schedule must be set up before the journal is replayed.
+ * Every reservation is recorded with its id, the ticket price it was made at and the seats it holds, so replayed reservations keep
+ * their ids, fees and seats. Cancellations are recorded with the id of the cancelled reservation and replayed by removing exactly
+ * that reservation.
+ *
+ * @author Ray Wang
+ */
+public class ReservationJournal implements Closeable {
+	/** Commit window used when none is given */
+	public static final Duration DEFAULT_COMMIT_WINDOW = Duration.ofMillis(1);
+
+	/** Marks the start of a journal file */
+	private static final int MAGIC = 0x524A4E4C;
+	/** Version of the record format */
+	private static final int FORMAT_VERSION = 3;
+	/** Size of the file header, the magic number and the format version */
+	private static final int HEADER_BYTES = 8;
+	/** Size of the length and checksum in front of every record */
+	private static final int RECORD_HEADER_BYTES = 8;
+	/**
+	 * Size of the fixed fields of an entry: screen, start second, start nano, ticket count, ticket price in cents, reservation id
+	 * and packed seat block
+	 */
+	private static final int ENTRY_FIXED_BYTES = 40;
+	/** Packed seat block of a reservation without assigned seats. Packed blocks are never negative */
+	private static final int NO_SEATS = -1;
+	/** Largest record that is accepted when reading. Longer lengths can only come from a torn record */
+	private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+	/** Initial size of the buffers used to read and write records */
+	private static final int BUFFER_BYTES = 1 << 20;
+	/** Most appends written in a single group commit */
+	private static final int MAX_BATCH = 4096;
+	/** Record type of reservations */
+	private static final byte RESERVE = 1;
+	/** Record type of cancellations */
+	private static final byte CANCEL = 2;
+	/** Marker queued to stop the writer thread */
+	private static final Append CLOSE = new Append(null);
+
+	/** Path of the journal file */
+	private final Path path;
+	/** Channel the journal is read and written through */
+	private final FileChannel channel;
+	/** How long the writer waits for more appends before committing a batch */
+	private final long commitWindowNanos;
+	/** Appends waiting for the writer thread */
+	private final BlockingQueue<Append> pending;
+	/** Thread that writes and forces the appends to disk */
+	private final Thread writer;
+	/** Lets appends run concurrently with each other but not with closing the journal */
+	private final ReadWriteLock closeLock;
+	/** Number of records in the journal when it was opened */
+	private final long recoveredRecords;
+	/** Number of torn bytes truncated from the end of the journal when it was opened */
+	private final long truncatedBytes;
+	/** True once anything has been appended. The journal can only be replayed before then */
+	private volatile boolean appended;
+	/** True once the journal is closed */
+	private boolean closed;
+	/** First write failure. Once writing has failed, every later append fails as well */
+	private volatile IOException failure;
+
+	/**
+	 * Opens the journal at the given path with the default commit window, creating it if it does not exist.
+	 * @param path of the journal file
+	 * @throws IOException if the file cannot be opened or is not a reservation journal
+	 */
+	public ReservationJournal(Path path) throws IOException {
+		this(path, DEFAULT_COMMIT_WINDOW);
+	}
+
+	/**
+	 * Opens the journal at the given path, creating it if it does not exist. Torn records at the end of the journal are truncated.
+	 * @param path of the journal file
+	 * @param commitWindow how long the writer waits for more appends before committing a batch. Zero commits whatever is
+	 * waiting as soon as the writer is free
+	 * @throws IOException if the file cannot be opened or is not a reservation journal
+	 */
+	public ReservationJournal(Path path, Duration commitWindow) throws IOException {
+		if(commitWindow.isNegative()) {
+			throw new IllegalArgumentException("Invalid commit window. Commit window cannot be negative: " + commitWindow);
+		}
+		this.path = path;
+		this.commitWindowNanos = commitWindow.toNanos();
+		this.pending = new LinkedBlockingQueue<Append>();
+		this.closeLock = new ReentrantReadWriteLock();
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			checkHeader();
+			long[] records = new long[1];
+			long end = read(payload -> records[0]++);
+			this.recoveredRecords = records[0];
+			this.truncatedBytes = channel.size() - end;
+			if(truncatedBytes > 0) {
+				channel.truncate(end);
+				channel.force(true);
+			}
+			channel.position(end);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		this.writer = new Thread(this::writeLoop, "reservation-journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Returns the path of the journal file
+	 * @return the path
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the number of records that were in the journal when it was opened
+	 * @return the number of recovered records
+	 */
+	public long getRecoveredRecords() {
+		return recoveredRecords;
+	}
+
+	/**
+	 * Returns the number of torn bytes that were truncated from the end of the journal when it was opened
+	 * @return the number of truncated bytes
+	 */
+	public long getTruncatedBytes() {
+		return truncatedBytes;
+	}
+
+	/**
+	 * Appends a record of the given reservation. The returned future completes once the record has been forced to disk, or
+	 * completes exceptionally with an UncheckedIOException if it could not be written.
+	 * @param reservation that was made
+	 * @return future completed when the record is durable
+	 * @throws IllegalStateException if the journal is closed
+	 */
+	public CompletableFuture<Void> recordReservation(Reservation reservation) {
+		return append(encode(RESERVE, List.of(reservation)));
+	}
+
+	/**
+	 * Appends a single record of several reservations. The reservations are either all recovered or, if the record is torn,
+	 * none of them are.
+	 * @param reservations that were made
+	 * @return future completed when the record is durable
+	 * @throws IllegalStateException if the journal is closed
+	 */
+	public CompletableFuture<Void> recordReservations(List<Reservation> reservations) {
+		return append(encode(RESERVE, reservations));
+	}
+
+	/**
+	 * Appends a record of the given cancelled reservation.
+	 * @param reservation that was cancelled
+	 * @return future completed when the record is durable
+	 * @throws IllegalStateException if the journal is closed
+	 */
+	public CompletableFuture<Void> recordCancellation(Reservation reservation) {
+		return append(encode(CANCEL, List.of(reservation)));
+	}
+
+	/**
+	 * Replays the journal into the given theater, restoring every reservation and cancellation in the order they were recorded.
+	 * Entries for showings that are not in the theater's schedule, or that no longer fit in their showing, are skipped, and so are
+	 * cancellations of reservations that were not restored. The journal
+	 * must be replayed before anything is appended to it, and the theater should not be writing to a journal while it is replayed.
+	 * @param theater to restore the reservations of
+	 * @return the number of reservations and cancellations that were restored
+	 * @throws IOException if the journal cannot be read
+	 * @throws IllegalStateException if something has already been appended to the journal
+	 */
+	public long replay(Theater theater) throws IOException {
+		if(appended) {
+			throw new IllegalStateException("The journal must be replayed before anything is appended to it");
+		}
+		Replayer replayer = new Replayer(theater);
+		read(replayer);
+		return replayer.restored;
+	}
+
+	/**
+	 * Closes the journal. Appends that are already waiting are committed first; later appends are rejected.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closeLock.writeLock().lock();
+		try {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			pending.add(CLOSE);
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+
+		boolean interrupted = false;
+		while(writer.isAlive()) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		channel.close();
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Helper method to queue an encoded record for the writer thread.
+	 * @param record to write
+	 * @return future completed when the record is durable
+	 */
+	private CompletableFuture<Void> append(byte[] record) {
+		Append toAppend = new Append(record);
+		closeLock.readLock().lock();
+		try {
+			if(closed) {
+				throw new IllegalStateException("The journal is closed");
+			}
+			appended = true;
+			pending.add(toAppend);
+		} finally {
+			closeLock.readLock().unlock();
+		}
+		return toAppend.done;
+	}
+
+	/**
+	 * Helper method run by the writer thread. Waits for an append, collects every append that arrives within the commit window,
+	 * and commits them together until the journal is closed.
+	 */
+	private void writeLoop() {
+		List<Append> batch = new ArrayList<Append>();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+		boolean running = true;
+		try {
+			while(running) {
+				Append next = pending.take();
+				if(next == CLOSE) {
+					break;
+				}
+				batch.add(next);
+				long deadline = System.nanoTime() + commitWindowNanos;
+				while(batch.size() < MAX_BATCH) {
+					long remaining = deadline - System.nanoTime();
+					next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : pending.poll();
+					if(next == null) {
+						break;
+					}
+					if(next == CLOSE) {
+						running = false;
+						break;
+					}
+					batch.add(next);
+				}
+				buffer = commit(batch, buffer);
+				batch.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// Nothing can be queued after the close marker, but fail anything left over if the thread was interrupted
+		for(Append left : batch) {
+			left.done.completeExceptionally(new IllegalStateException("The journal is closed"));
+		}
+		Append left;
+		while((left = pending.poll()) != null) {
+			if(left != CLOSE) {
+				left.done.completeExceptionally(new IllegalStateException("The journal is closed"));
+			}
+		}
+	}
+
+	/**
+	 * Helper method to write a batch of appends with a single write and force, then complete their futures.
+	 * @param batch to write
+	 * @param buffer to copy the records into
+	 * @return the buffer, or a larger one if the batch did not fit
+	 */
+	private ByteBuffer commit(List<Append> batch, ByteBuffer buffer) {
+		try {
+			if(failure != null) {
+				throw failure;
+			}
+			int bytes = 0;
+			for(Append append : batch) {
+				bytes += append.record.length;
+			}
+			if(buffer.capacity() < bytes) {
+				buffer = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2));
+			}
+			buffer.clear();
+			for(Append append : batch) {
+				buffer.put(append.record);
+			}
+			buffer.flip();
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+			for(Append append : batch) {
+				append.done.complete(null);
+			}
+		} catch (IOException e) {
+			if(failure == null) {
+				failure = e;
+			}
+			for(Append append : batch) {
+				append.done.completeExceptionally(new UncheckedIOException(e));
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * Helper method to check the file header, writing it if the journal is new.
+	 * @throws IOException if the file is not a reservation journal
+	 */
+	private void checkHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		if(channel.size() < HEADER_BYTES) {
+			// A new journal, or one whose header was torn before any record could be written after it
+			header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+			channel.truncate(0);
+			while(header.hasRemaining()) {
+				channel.write(header, HEADER_BYTES - header.remaining());
+			}
+			channel.force(true);
+			return;
+		}
+		while(header.hasRemaining() && channel.read(header, header.position()) > 0) { }
+		header.flip();
+		if(header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+			throw new IOException("Not a reservation journal: " + path);
+		}
+	}
+
+	/**
+	 * Helper method to read every valid record in the journal, in order, stopping at the first torn record.
+	 * @param visitor called with the payload of each record
+	 * @return the position just after the last valid record
+	 * @throws IOException if the journal cannot be read
+	 */
+	private long read(RecordVisitor visitor) throws IOException {
+		RecordReader reader = new RecordReader();
+		CRC32 crc = new CRC32();
+		long end = HEADER_BYTES;
+		while(reader.ensure(RECORD_HEADER_BYTES)) {
+			ByteBuffer buffer = reader.buffer;
+			int length = buffer.getInt(buffer.position());
+			int checksum = buffer.getInt(buffer.position() + 4);
+			if(length < 1 || length > MAX_RECORD_BYTES - RECORD_HEADER_BYTES || !reader.ensure(RECORD_HEADER_BYTES + length)) {
+				break;
+			}
+
+			// The buffer may have been compacted while ensuring the whole record was read
+			buffer = reader.buffer;
+			int start = buffer.position() + RECORD_HEADER_BYTES;
+			crc.reset();
+			crc.update(buffer.array(), buffer.arrayOffset() + start, length);
+			if((int) crc.getValue() != checksum) {
+				break;
+			}
+			ByteBuffer payload = buffer.duplicate();
+			payload.limit(start + length).position(start);
+			visitor.visit(payload);
+			buffer.position(start + length);
+			end += RECORD_HEADER_BYTES + length;
+		}
+		return end;
+	}
+
+	/**
+	 * Helper method to encode a record of the given type for the given reservations.
+	 * @param type of the record
+	 * @param reservations in the record
+	 * @return the encoded record including its length and checksum
+	 */
+	private static byte[] encode(byte type, List<Reservation> reservations) {
+		int length = 1 + 4;
+		byte[][] strings = new byte[reservations.size() * 2][];
+		for(int i = 0; i < reservations.size(); i++) {
+			Customer customer = reservations.get(i).getCustomer();
+			strings[2 * i] = utf8(customer.getName());
+			strings[2 * i + 1] = utf8(customer.getId());
+			length += ENTRY_FIXED_BYTES + stringBytes(strings[2 * i]) + stringBytes(strings[2 * i + 1]);
+		}
+		if(length > MAX_RECORD_BYTES - RECORD_HEADER_BYTES) {
+			throw new IllegalArgumentException("Invalid reservations. Too many reservations for a single record: " + reservations.size());
+		}
+
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+		record.putInt(length).putInt(0).put(type).putInt(reservations.size());
+		for(int i = 0; i < reservations.size(); i++) {
+			Reservation reservation = reservations.get(i);
+			LocalDateTime startTime = reservation.getShowing().getStartTime();
+			record.putInt(reservation.getShowing().getScreen().getNumber())
+					.putLong(startTime.toEpochSecond(ZoneOffset.UTC))
+					.putInt(startTime.getNano())
+					.putInt(reservation.getAudienceCount())
+					.putLong(reservation.getTicketPriceCents())
+					.putLong(reservation.getId())
+					.putInt(reservation.getSeats() == null ? NO_SEATS : reservation.getSeats().pack());
+			putString(record, strings[2 * i]);
+			putString(record, strings[2 * i + 1]);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), RECORD_HEADER_BYTES, length);
+		record.putInt(4, (int) crc.getValue());
+		return record.array();
+	}
+
+	/**
+	 * Helper method to encode a string as UTF-8.
+	 * @param value to encode, may be null
+	 * @return the encoded bytes, or null if the value is null
+	 */
+	private static byte[] utf8(String value) {
+		if(value == null) {
+			return null;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if(bytes.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid customer. Names and ids cannot be longer than " + Short.MAX_VALUE + " bytes");
+		}
+		return bytes;
+	}
+
+	/**
+	 * Helper method to return the number of bytes an encoded string takes in a record.
+	 * @param bytes of the string, may be null
+	 * @return the number of bytes including the length prefix
+	 */
+	private static int stringBytes(byte[] bytes) {
+		return 2 + (bytes == null ? 0 : bytes.length);
+	}
+
+	/**
+	 * Helper method to write a length prefixed string to a record. Null is written with a length of -1.
+	 * @param record to write to
+	 * @param bytes of the string, may be null
+	 */
+	private static void putString(ByteBuffer record, byte[] bytes) {
+		if(bytes == null) {
+			record.putShort((short) -1);
+		} else {
+			record.putShort((short) bytes.length).put(bytes);
+		}
+	}
+
+	/**
+	 * Helper method to read a length prefixed string from a record.
+	 * @param payload to read from
+	 * @return the string, or null if a null string was written
+	 */
+	private static String getString(ByteBuffer payload) {
+		int length = payload.getShort();
+		if(length < 0) {
+			return null;
+		}
+		String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+		payload.position(payload.position() + length);
+		return value;
+	}
+
+	/**
+	 * This interface is called with the payload of every valid record read from the journal.
+	 */
+	private interface RecordVisitor {
+		/**
+		 * Visits the payload of one record.
+		 * @param payload positioned at the start of the payload and limited to its end
+		 */
+		void visit(ByteBuffer payload);
+	}
+
+	/**
+	 * This class represents a sequential reader over the journal file. Reads are done in large chunks into a heap buffer so
+	 * records can be checksummed and decoded in place.
+	 */
+	private final class RecordReader {
+		/** Buffer holding the bytes read but not yet consumed */
+		private ByteBuffer buffer;
+		/** Position in the file of the next byte to read into the buffer */
+		private long fileOffset;
+
+		/**
+		 * Constructs a reader positioned at the first record.
+		 */
+		private RecordReader() {
+			this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+			this.buffer.limit(0);
+			this.fileOffset = HEADER_BYTES;
+		}
+
+		/**
+		 * Makes sure at least the given number of unconsumed bytes are in the buffer, reading and growing the buffer as needed.
+		 * @param bytes needed
+		 * @return false if the file ends before the bytes could be read
+		 * @throws IOException if the journal cannot be read
+		 */
+		private boolean ensure(int bytes) throws IOException {
+			if(buffer.capacity() < bytes) {
+				ByteBuffer larger = ByteBuffer.allocate(bytes);
+				larger.put(buffer).flip();
+				buffer = larger;
+			}
+			while(buffer.remaining() < bytes) {
+				buffer.compact();
+				int read = channel.read(buffer, fileOffset);
+				buffer.flip();
+				if(read <= 0) {
+					return false;
+				}
+				fileOffset += read;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * This class represents the visitor that restores the entries of each record into a theater. The showing of the previous entry
+	 * is remembered, since consecutive entries are often for the same showing.
+	 */
+	private static final class Replayer implements RecordVisitor {
+		/** Theater being restored */
+		private final Theater theater;
+		/** Number of entries restored */
+		private long restored;
+		/** Screen of the previous entry */
+		private int lastScreen;
+		/** Start second of the previous entry */
+		private long lastSecond;
+		/** Start nano of the previous entry */
+		private int lastNano;
+		/** Showing of the previous entry, or null if it was not found */
+		private Showing lastShowing;
+
+		/**
+		 * Constructs the replayer.
+		 * @param theater to restore
+		 */
+		private Replayer(Theater theater) {
+			this.theater = theater;
+		}
+
+		/**
+		 * Restores every entry of a record.
+		 */
+		@Override
+		public void visit(ByteBuffer payload) {
+			byte type = payload.get();
+			int entries = payload.getInt();
+			for(int i = 0; i < entries; i++) {
+				int screen = payload.getInt();
+				long second = payload.getLong();
+				int nano = payload.getInt();
+				int ticketCount = payload.getInt();
+				long ticketPriceCents = payload.getLong();
+				long reservationId = payload.getLong();
+				int seats = payload.getInt();
+				String name = getString(payload);
+				String id = getString(payload);
+
+				boolean applied;
+				if(type == RESERVE) {
+					Showing showing = findShowing(screen, second, nano);
+					applied = showing != null && theater.restoreReservation(reservationId, new Customer(name, id), showing, ticketCount,
+							seats == NO_SEATS ? null : SeatBlock.unpack(seats, ticketCount), ticketPriceCents);
+				} else {
+					applied = type == CANCEL && theater.restoreCancellation(reservationId);
+				}
+				if(applied) {
+					restored++;
+				}
+			}
+		}
+
+		/**
+		 * Helper method to find the showing of an entry, reusing the showing of the previous entry when it is the same.
+		 * @param screen of the showing
+		 * @param second start of the showing in epoch seconds
+		 * @param nano start of the showing within the second
+		 * @return the showing, or null if it is not in the schedule
+		 */
+		private Showing findShowing(int screen, long second, int nano) {
+			if(lastShowing == null || screen != lastScreen || second != lastSecond || nano != lastNano) {
+				lastScreen = screen;
+				lastSecond = second;
+				lastNano = nano;
+				lastShowing = theater.findShowing(screen, LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC));
+			}
+			return lastShowing;
+		}
+	}
+
+	/**
+	 * This class represents a record waiting for the writer thread and the future completed once it is durable.
+	 */
+	private static final class Append {
+		/** Encoded record */
+		private final byte[] record;
+		/** Completed once the record has been forced to disk */
+		private final CompletableFuture<Void> done;
+
+		/**
+		 * Constructs the append.
+		 * @param record to write
+		 */
+		private Append(byte[] record) {
+			this.record = record;
+			this.done = new CompletableFuture<Void>();
+		}
+	}
+}
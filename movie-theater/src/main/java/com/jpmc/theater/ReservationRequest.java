@@ -0,0 +1,74 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents a request to reserve tickets for a showing, used to submit many reservations at once through
+ * Theater.reserveBatch.
+ * 
+ * @author Ray Wang
+ */
+public class ReservationRequest {
+	/** The customer making the reservation */
+	private final Customer customer;
+	/** The screen day of the showing to reserve, or null if the sequence alone identifies it */
+	private final ScreenDay screenDay;
+	/** The sequence of the showing to reserve */
+	private final int sequence;
+	/** The number of tickets to reserve */
+	private final int ticketCount;
+	
+	/**
+	 * Constructs the reservation request.
+	 * @param customer making the reservation
+	 * @param sequence of the showing to reserve
+	 * @param ticketCount number of tickets to reserve
+	 */
+	public ReservationRequest(Customer customer, int sequence, int ticketCount) {
+		this(customer, null, sequence, ticketCount);
+	}
+	
+	/**
+	 * Constructs the reservation request for a showing on a given screen day.
+	 * @param customer making the reservation
+	 * @param screenDay of the showing to reserve
+	 * @param sequence of the showing on the screen day
+	 * @param ticketCount number of tickets to reserve
+	 */
+	public ReservationRequest(Customer customer, ScreenDay screenDay, int sequence, int ticketCount) {
+		this.customer = customer;
+		this.screenDay = screenDay;
+		this.sequence = sequence;
+		this.ticketCount = ticketCount;
+	}
+	
+	/**
+	 * Returns the customer making the reservation
+	 * @return the customer
+	 */
+	public Customer getCustomer() {
+		return customer;
+	}
+	
+	/**
+	 * Returns the screen day of the showing to reserve
+	 * @return the screen day, or null if the sequence alone identifies the showing
+	 */
+	public ScreenDay getScreenDay() {
+		return screenDay;
+	}
+	
+	/**
+	 * Returns the sequence of the showing to reserve
+	 * @return the sequence
+	 */
+	public int getSequence() {
+		return sequence;
+	}
+	
+	/**
+	 * Returns the number of tickets to reserve
+	 * @return the ticket count
+	 */
+	public int getTicketCount() {
+		return ticketCount;
+	}
+}
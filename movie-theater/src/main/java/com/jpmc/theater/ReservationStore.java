@@ -0,0 +1,65 @@
+package com.jpmc.theater;
+
+import java.util.List;
+
+/**
+ * This interface represents where a Theater keeps its reservations. The theater claims and releases the seats of a showing itself,
+ * so a store only records which reservations exist. Every method must be safe to call from many threads at once.
+ *
+ * Stores may hand out views of their reservations instead of the objects that were added. Views keep the id of the reservation
+ * they show, and reservations are always found and removed by id. Reservations are also indexed by the id of their customer, so
+ * the bookings of a customer are found without scanning the others.
+ *
+ * @author Ray Wang
+ */
+public interface ReservationStore {
+	/**
+	 * Adds a reservation to the store.
+	 * @param reservation to add
+	 */
+	void add(Reservation reservation);
+
+	/**
+	 * Removes the reservation with the same id as the given reservation from the store.
+	 * @param reservation to remove
+	 * @return true if the reservation was removed, false if it was not in the store
+	 */
+	boolean remove(Reservation reservation);
+
+	/**
+	 * Removes the first reservation for the given showing that was made by the given customer for the given number of people.
+	 * @param showing of the reservation
+	 * @param customer of the reservation
+	 * @param audienceCount of the reservation
+	 * @return the removed reservation, or null if no reservation matched
+	 */
+	Reservation removeFirst(Showing showing, Customer customer, int audienceCount);
+
+	/**
+	 * Returns the reservations for a showing in the order they were added.
+	 * @param showing to return the reservations of
+	 * @return a copy of the reservations
+	 */
+	List<Reservation> reservations(Showing showing);
+
+	/**
+	 * Returns the reservation with the given id.
+	 * @param reservationId of the reservation
+	 * @return the reservation, or null if it is not in the store
+	 */
+	Reservation get(long reservationId);
+	
+	/**
+	 * Returns the reservations made by customers with the given id in the order they were made. Customers without an id are
+	 * not indexed.
+	 * @param customerId of the customer
+	 * @return a copy of the reservations
+	 */
+	List<Reservation> reservations(String customerId);
+	
+	/**
+	 * Returns the number of reservations in the store.
+	 * @return the number of reservations
+	 */
+	int size();
+}
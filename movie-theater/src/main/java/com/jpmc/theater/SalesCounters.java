@@ -0,0 +1,102 @@
+package com.jpmc.theater;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents the running ticket sales of a showing or a movie: the tickets sold, the gross sales at the movie's full
+ * ticket price, the discount given, and the surcharge added by demand pricing. The counters are LongAdders that the theater
+ * updates on every reservation and cancellation, so reading them never scans the reservations and never blocks a booking.
+ *
+ * Each counter is updated separately, so a read made during a booking may see the tickets of the booking but not yet its gross.
+ * Every reservation is counted at the ticket price it was booked at, and a cancellation subtracts exactly what its reservation
+ * added. A ticket sold below the full price counts the difference as discount, and a ticket sold above it counts the difference
+ * as surcharge, so neither counter is ever negative. A demand markup and a discount on the same ticket are netted.
+ *
+ * @author Ray Wang
+ */
+public final class SalesCounters {
+	/** Counters of a showing or movie that has not sold anything. Never updated */
+	static final SalesCounters NONE = new SalesCounters();
+
+	/** Number of tickets sold */
+	private final LongAdder tickets;
+	/** Gross sales at the full ticket price in cents */
+	private final LongAdder grossCents;
+	/** Discount given in cents */
+	private final LongAdder discountCents;
+	/** Surcharge added by demand pricing in cents */
+	private final LongAdder surchargeCents;
+
+	/**
+	 * Constructs counters that start at zero.
+	 */
+	SalesCounters() {
+		this.tickets = new LongAdder();
+		this.grossCents = new LongAdder();
+		this.discountCents = new LongAdder();
+		this.surchargeCents = new LongAdder();
+	}
+
+	/**
+	 * Adds a sale to the counters. Cancellations are recorded with negative values.
+	 * @param ticketCount number of tickets
+	 * @param grossCents gross sales at the full ticket price in cents
+	 * @param discountCents discount given in cents
+	 * @param surchargeCents surcharge added in cents
+	 */
+	void record(int ticketCount, long grossCents, long discountCents, long surchargeCents) {
+		this.tickets.add(ticketCount);
+		this.grossCents.add(grossCents);
+		this.discountCents.add(discountCents);
+		this.surchargeCents.add(surchargeCents);
+	}
+
+	/**
+	 * Returns the number of tickets sold
+	 * @return the number of tickets
+	 */
+	public long getTickets() {
+		return tickets.sum();
+	}
+
+	/**
+	 * Returns the gross sales at the full ticket price in cents
+	 * @return the gross sales in cents
+	 */
+	public long getGrossCents() {
+		return grossCents.sum();
+	}
+
+	/**
+	 * Returns the discount given in cents
+	 * @return the discount in cents
+	 */
+	public long getDiscountCents() {
+		return discountCents.sum();
+	}
+
+	/**
+	 * Returns the surcharge added by demand pricing in cents
+	 * @return the surcharge in cents
+	 */
+	public long getSurchargeCents() {
+		return surchargeCents.sum();
+	}
+
+	/**
+	 * Returns the revenue after discounts and surcharges in cents
+	 * @return the net sales in cents
+	 */
+	public long getNetCents() {
+		return getGrossCents() - getDiscountCents() + getSurchargeCents();
+	}
+
+	/**
+	 * Formats the counters for printing.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d tickets, %s gross, %s discount, %s surcharge", getTickets(), Money.format(getGrossCents()),
+				Money.format(getDiscountCents()), Money.format(getSurchargeCents()));
+	}
+}
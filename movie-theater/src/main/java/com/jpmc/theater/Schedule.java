@@ -0,0 +1,274 @@
+package com.jpmc.theater;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class represents the theater's schedule across many days and screens. The schedule is partitioned by screen day, and each
+ * partition is its own ScheduleIndex with separate sequence numbering. Partitions are kept in a map ordered by date and screen, so
+ * lookups, range queries and rendering only touch the partitions they need. Partitions are created on first use and dropped when
+ * their last showing is removed, so memory stays proportional to the days that are actually scheduled.
+ *
+ * Every screen also has a ShowingIntervalTree of its showings across all days, kept up to date by every mutation, so a showing
+ * that would overlap another on its screen is found in O(log n).
+ *
+ * Reads never block. Mutations are serialized so partitions are not dropped while a showing is being added to them. Searching
+ * for overlaps and renumbering a screen day are serialized with the mutations.
+ *
+ * @author Ray Wang
+ */
+public class Schedule {
+	/** Orders showings from different partitions by start time, then by screen */
+	private static final Comparator<Showing> START_TIME_ORDER = Comparator.comparing(Showing::getStartTime)
+			.thenComparingInt(s -> s.getScreen().getNumber());
+
+	/** Partitions of the schedule keyed by screen day */
+	private final NavigableMap<ScreenDay, ScheduleIndex> partitions;
+	/** Interval tree of the showings of every screen, keyed by screen number */
+	private final Map<Integer, ShowingIntervalTree> timelines;
+
+	/**
+	 * Constructs an empty schedule.
+	 */
+	public Schedule() {
+		this.partitions = new ConcurrentSkipListMap<ScreenDay, ScheduleIndex>();
+		this.timelines = new HashMap<Integer, ShowingIntervalTree>();
+	}
+
+	/**
+	 * Adds a showing to the partition of its screen day. A showing with the same sequence on the same screen day is replaced.
+	 * @param showing to add
+	 * @return the showing that was replaced, or null if the sequence was not in use
+	 */
+	public synchronized Showing add(Showing showing) {
+		Showing replaced = partitions.computeIfAbsent(ScreenDay.of(showing), k -> new ScheduleIndex()).add(showing);
+		ShowingIntervalTree timeline = timelines.computeIfAbsent(showing.getScreen().getNumber(), k -> new ShowingIntervalTree());
+		if(replaced != null) {
+			timeline.remove(replaced);
+		}
+		timeline.add(showing);
+		return replaced;
+	}
+
+	/**
+	 * Returns the showing with the given sequence on the given screen day.
+	 * @param screenDay of the showing
+	 * @param sequence of the showing
+	 * @return the showing, or null if there is no such showing
+	 */
+	public Showing get(ScreenDay screenDay, int sequence) {
+		ScheduleIndex partition = partitions.get(screenDay);
+		return partition == null ? null : partition.get(sequence);
+	}
+
+	/**
+	 * Returns the showing on the given screen that starts at the given time.
+	 * @param screenNumber of the screen
+	 * @param startTime of the showing
+	 * @return the showing, or null if there is no such showing
+	 */
+	public Showing get(int screenNumber, LocalDateTime startTime) {
+		ScheduleIndex partition = partitions.get(new ScreenDay(startTime.toLocalDate(), screenNumber));
+		if(partition == null) {
+			return null;
+		}
+		List<Showing> found = partition.between(startTime, startTime.plusNanos(1));
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	/**
+	 * Returns every showing with the given sequence, on any screen day.
+	 * @param sequence of the showings
+	 * @return the showings in screen day order
+	 */
+	public List<Showing> find(int sequence) {
+		List<Showing> found = new ArrayList<Showing>(1);
+		for(ScheduleIndex partition : partitions.values()) {
+			Showing showing = partition.get(sequence);
+			if(showing != null) {
+				found.add(showing);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Removes the showing with the given sequence from the given screen day.
+	 * @param screenDay of the showing
+	 * @param sequence of the showing
+	 * @return the showing that was removed, or null if there was no such showing
+	 */
+	public synchronized Showing remove(ScreenDay screenDay, int sequence) {
+		ScheduleIndex partition = partitions.get(screenDay);
+		if(partition == null) {
+			return null;
+		}
+		Showing removed = partition.remove(sequence);
+		if(partition.size() == 0) {
+			partitions.remove(screenDay);
+		}
+		if(removed != null) {
+			ShowingIntervalTree timeline = timelines.get(screenDay.getScreenNumber());
+			timeline.remove(removed);
+			if(timeline.size() == 0) {
+				timelines.remove(screenDay.getScreenNumber());
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes every showing from the schedule.
+	 */
+	public synchronized void clear() {
+		partitions.clear();
+		timelines.clear();
+	}
+
+	/**
+	 * Returns a showing on the given screen that runs at some point in the given time range, on any day.
+	 * @param screenNumber of the screen
+	 * @param from start of the range, inclusive
+	 * @param to end of the range, exclusive
+	 * @return a showing that overlaps the range, or null if there is none
+	 */
+	public synchronized Showing findOverlap(int screenNumber, LocalDateTime from, LocalDateTime to) {
+		ShowingIntervalTree timeline = timelines.get(screenNumber);
+		return timeline == null ? null : timeline.findOverlap(from, to);
+	}
+
+	/**
+	 * Numbers the showings of a screen day from 1 in start time order. Only showings whose sequence changes are renumbered. The
+	 * renumbered partition is built beside the current one and swapped in, so concurrent lookups never miss a showing.
+	 * @param screenDay to renumber
+	 * @return the showings that were given a new sequence, in start time order
+	 */
+	public synchronized List<Showing> resequence(ScreenDay screenDay) {
+		ScheduleIndex partition = partitions.get(screenDay);
+		if(partition == null) {
+			return Collections.<Showing>emptyList();
+		}
+		List<Showing> changed = new ArrayList<Showing>();
+		ScheduleIndex renumbered = partition.resequence(changed);
+		if(renumbered != partition) {
+			partitions.put(screenDay, renumbered);
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns the next free sequence on a screen day, one after the highest sequence in use.
+	 * @param screenDay to number
+	 * @return the next sequence
+	 */
+	public int nextSequence(ScreenDay screenDay) {
+		ScheduleIndex partition = partitions.get(screenDay);
+		int highest = 0;
+		if(partition != null) {
+			for(Showing showing : partition.showings()) {
+				highest = Math.max(highest, showing.getSequenceOfTheDay());
+			}
+		}
+		return highest + 1;
+	}
+
+	/**
+	 * Returns the showings of one screen day ordered by start time.
+	 * @param screenDay to return
+	 * @return unmodifiable view of the showings
+	 */
+	public NavigableSet<Showing> showings(ScreenDay screenDay) {
+		ScheduleIndex partition = partitions.get(screenDay);
+		return partition == null ? Collections.<Showing>emptyNavigableSet() : partition.showings();
+	}
+
+	/**
+	 * Returns the showings of every screen on the given date, ordered by start time.
+	 * @param date to return
+	 * @return the showings on the date
+	 */
+	public List<Showing> showings(LocalDate date) {
+		return collect(dayPartitions(date, date));
+	}
+
+	/**
+	 * Returns every showing in the schedule, partition by partition in screen day order and by start time within a partition.
+	 * @return view of the showings
+	 */
+	public Iterable<Showing> showings() {
+		return () -> partitions.values().stream().flatMap(partition -> partition.showings().stream()).iterator();
+	}
+
+	/**
+	 * Returns the showings on any screen that start within the given time range, ordered by start time. Only the partitions for
+	 * the dates in the range are searched.
+	 * @param from start of the range, inclusive
+	 * @param to end of the range, exclusive
+	 * @return the showings starting in the range
+	 */
+	public List<Showing> between(LocalDateTime from, LocalDateTime to) {
+		if(!from.isBefore(to)) {
+			return Collections.emptyList();
+		}
+		List<Showing> found = new ArrayList<Showing>();
+		for(ScheduleIndex partition : dayPartitions(from.toLocalDate(), to.toLocalDate())) {
+			found.addAll(partition.between(from, to));
+		}
+		found.sort(START_TIME_ORDER);
+		return found;
+	}
+
+	/**
+	 * Returns the screen days that have at least one showing.
+	 * @return the screen days in order
+	 */
+	public NavigableSet<ScreenDay> screenDays() {
+		return Collections.unmodifiableNavigableSet(partitions.navigableKeySet());
+	}
+
+	/**
+	 * Returns the number of showings in the schedule.
+	 * @return the number of showings
+	 */
+	public int size() {
+		int size = 0;
+		for(ScheduleIndex partition : partitions.values()) {
+			size += partition.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Helper method to return the partitions of every screen for the dates in the given range.
+	 * @param from first date, inclusive
+	 * @param to last date, inclusive
+	 * @return the partitions in screen day order
+	 */
+	private Collection<ScheduleIndex> dayPartitions(LocalDate from, LocalDate to) {
+		return partitions.subMap(new ScreenDay(from, Integer.MIN_VALUE), true, new ScreenDay(to, Integer.MAX_VALUE), true).values();
+	}
+
+	/**
+	 * Helper method to merge the showings of several partitions ordered by start time.
+	 * @param partitions to merge
+	 * @return the merged showings
+	 */
+	private static List<Showing> collect(Collection<ScheduleIndex> partitions) {
+		List<Showing> found = new ArrayList<Showing>();
+		for(ScheduleIndex partition : partitions) {
+			found.addAll(partition.showings());
+		}
+		found.sort(START_TIME_ORDER);
+		return found;
+	}
+}
@@ -0,0 +1,314 @@
+package com.jpmc.theater;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * This class represents an importer that loads schedule files into a Theater in one batch. Files are read as a stream, one
+ * showing at a time, so only the showings themselves are kept in memory and never the text or a tree of the file. Both formats
+ * have one showing per row or object, with the fields
+ *
+ * <pre>
+ * date         date of the showing, 2023-04-17
+ * start        start time of the showing, 09:00
+ * screen       number of the screen
+ * capacity     number of seats of the screen, optional, unlimited by default
+ * rows         number of rows of seats of the screen, optional, for assigned seating with seatsPerRow
+ * seatsPerRow  number of seats in each row of the screen, optional, for assigned seating with rows
+ * title        title of the movie
+ * runningTime  running time of the movie in minutes
+ * ticketPrice  ticket price of the movie in dollars
+ * specialCode  special code of the movie, optional, 0 by default
+ * description  description of the movie, optional, empty by default
+ * sequence     sequence of the showing on its screen day, optional
+ * </pre>
+ *
+ * A CSV file starts with a header naming its columns in any order, and fields may be quoted. A JSON file is an array of objects.
+ *
+ * Identical movies and screens are shared by every showing that uses them, including the ones already in the theater's schedule.
+ * Showings without a sequence are numbered in start time order after the highest sequence on their screen day. The showings are
+ * added with Theater.addShowingsToSchedule, so a file with overlapping showings or a reused sequence adds nothing.
+ *
+ * @author Ray Wang
+ */
+public final class ScheduleImporter {
+	/** Columns every row must have */
+	private static final String[] REQUIRED = { "date", "start", "screen", "title", "runningTime", "ticketPrice" };
+
+	/** Theater the showings are added to */
+	private final Theater theater;
+	/** Every distinct movie seen so far */
+	private final Map<Movie, Movie> movies;
+	/** Every distinct screen seen so far */
+	private final Map<Screen, Screen> screens;
+	/** Rows read so far, in file order */
+	private final List<Row> rows;
+
+	/**
+	 * Constructs an importer for a theater and seeds it with the movies and screens already in the schedule.
+	 * @param theater to add the showings to
+	 */
+	private ScheduleImporter(Theater theater) {
+		this.theater = theater;
+		this.movies = new HashMap<Movie, Movie>();
+		this.screens = new HashMap<Screen, Screen>();
+		this.rows = new ArrayList<Row>();
+		for(Showing showing : theater.getSchedule()) {
+			movies.putIfAbsent(showing.getMovie(), showing.getMovie());
+			screens.putIfAbsent(showing.getScreen(), showing.getScreen());
+		}
+	}
+
+	/**
+	 * Imports a CSV schedule file into the theater.
+	 * @param theater to add the showings to
+	 * @param reader to read the file from
+	 * @return the showings that were added, in file order
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a row is invalid or the showings cannot be added to the schedule
+	 */
+	public static List<Showing> importCsv(Theater theater, Reader reader) throws IOException {
+		ScheduleImporter importer = new ScheduleImporter(theater);
+		BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		List<String> fields = new ArrayList<String>();
+		int[] line = { 0 };
+		if(!readRecord(in, fields, line)) {
+			return new ArrayList<Showing>();
+		}
+		Map<String, Integer> columns = new HashMap<String, Integer>();
+		for(int i = 0; i < fields.size(); i++) {
+			columns.put(fields.get(i).trim(), i);
+		}
+		for(String column : REQUIRED) {
+			if(!columns.containsKey(column)) {
+				throw new IllegalArgumentException("Invalid schedule. The header has no " + column + " column");
+			}
+		}
+
+		Map<String, String> values = new HashMap<String, String>();
+		while(readRecord(in, fields, line)) {
+			if(fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+				continue;
+			}
+			values.clear();
+			for(Map.Entry<String, Integer> column : columns.entrySet()) {
+				if(column.getValue() < fields.size() && !fields.get(column.getValue()).isEmpty()) {
+					values.put(column.getKey(), fields.get(column.getValue()));
+				}
+			}
+			importer.addRow(values, "Line " + line[0]);
+		}
+		return importer.load();
+	}
+
+	/**
+	 * Imports a JSON schedule file into the theater.
+	 * @param theater to add the showings to
+	 * @param reader to read the file from
+	 * @return the showings that were added, in file order
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a showing is invalid or the showings cannot be added to the schedule
+	 */
+	public static List<Showing> importJson(Theater theater, Reader reader) throws IOException {
+		ScheduleImporter importer = new ScheduleImporter(theater);
+		JsonReader json = new JsonReader(reader);
+		Map<String, String> values = new HashMap<String, String>();
+		try {
+			json.beginArray();
+			for(int index = 1; json.hasNext(); index++) {
+				values.clear();
+				json.beginObject();
+				while(json.hasNext()) {
+					String name = json.nextName();
+					if(json.peek() == JsonToken.NULL) {
+						json.skipValue();
+					} else if(json.peek() == JsonToken.STRING || json.peek() == JsonToken.NUMBER) {
+						// Numbers are read as strings so they are parsed the same way as CSV fields
+						values.put(name, json.nextString());
+					} else {
+						json.skipValue();
+					}
+				}
+				json.endObject();
+				importer.addRow(values, "Showing " + index);
+			}
+			json.endArray();
+		} catch (IllegalStateException | JsonParseException e) {
+			throw new IllegalArgumentException("Invalid schedule. " + e.getMessage(), e);
+		}
+		return importer.load();
+	}
+
+	/**
+	 * Helper method to turn the fields of one showing into a row, sharing its movie and screen with earlier rows.
+	 * @param values of the fields by name
+	 * @param where describes the row in error messages
+	 * @throws IllegalArgumentException if a field is missing or invalid
+	 */
+	private void addRow(Map<String, String> values, String where) {
+		try {
+			for(String column : REQUIRED) {
+				if(!values.containsKey(column)) {
+					throw new IllegalArgumentException("the " + column + " is missing");
+				}
+			}
+			Movie movie = new Movie(values.get("title"), Duration.ofMinutes(Long.parseLong(values.get("runningTime").trim())),
+					Double.parseDouble(values.get("ticketPrice").trim()), intValue(values, "specialCode", 0), values.getOrDefault("description", ""));
+			Screen screen = values.containsKey("rows") || values.containsKey("seatsPerRow")
+					? new Screen(intValue(values, "screen", 0), intValue(values, "rows", 0), intValue(values, "seatsPerRow", 0))
+					: new Screen(intValue(values, "screen", 0), intValue(values, "capacity", Showing.UNLIMITED_CAPACITY));
+			Movie sharedMovie = movies.putIfAbsent(movie, movie);
+			Screen sharedScreen = screens.putIfAbsent(screen, screen);
+			LocalDateTime startTime = LocalDateTime.of(LocalDate.parse(values.get("date").trim()), LocalTime.parse(values.get("start").trim()));
+			rows.add(new Row(sharedMovie == null ? movie : sharedMovie, sharedScreen == null ? screen : sharedScreen, startTime,
+					intValue(values, "sequence", 0)));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid schedule. " + where + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Helper method to number the rows that have no sequence, create their showings and add them to the schedule in one batch.
+	 * @return the showings, in file order
+	 */
+	private List<Showing> load() {
+		Map<ScreenDay, List<Row>> byScreenDay = new TreeMap<ScreenDay, List<Row>>();
+		for(Row row : rows) {
+			byScreenDay.computeIfAbsent(new ScreenDay(row.startTime.toLocalDate(), row.screen.getNumber()), key -> new ArrayList<Row>()).add(row);
+		}
+		for(Map.Entry<ScreenDay, List<Row>> entry : byScreenDay.entrySet()) {
+			int next = theater.nextSequence(entry.getKey());
+			for(Row row : entry.getValue()) {
+				next = Math.max(next, row.sequence + 1);
+			}
+			List<Row> unnumbered = new ArrayList<Row>();
+			for(Row row : entry.getValue()) {
+				if(row.sequence == 0) {
+					unnumbered.add(row);
+				}
+			}
+			unnumbered.sort(Comparator.comparing(row -> row.startTime));
+			for(Row row : unnumbered) {
+				row.sequence = next++;
+			}
+		}
+
+		List<Showing> showings = new ArrayList<Showing>(rows.size());
+		for(Row row : rows) {
+			showings.add(new Showing(row.movie, row.screen, row.sequence, row.startTime));
+		}
+		theater.addShowingsToSchedule(showings);
+		return showings;
+	}
+
+	/**
+	 * Helper method to read an optional integer field.
+	 * @param values of the fields by name
+	 * @param name of the field
+	 * @param missing value used when the field is missing
+	 * @return the value
+	 */
+	private static int intValue(Map<String, String> values, String name, int missing) {
+		String value = values.get(name);
+		return value == null ? missing : Integer.parseInt(value.trim());
+	}
+
+	/**
+	 * Helper method to read one CSV record. Quoted fields may contain commas, doubled quotes and line breaks.
+	 * @param in to read from
+	 * @param fields cleared and filled with the fields of the record
+	 * @param line number of the last line read, updated as lines are read
+	 * @return false if the end of the file was reached before the record
+	 * @throws IOException if the file cannot be read
+	 */
+	private static boolean readRecord(BufferedReader in, List<String> fields, int[] line) throws IOException {
+		String text = in.readLine();
+		if(text == null) {
+			return false;
+		}
+		line[0]++;
+		fields.clear();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for(int i = 0; ; i++) {
+			if(i == text.length()) {
+				if(!quoted) {
+					break;
+				}
+				// A quoted field continues on the next line
+				text = in.readLine();
+				if(text == null) {
+					throw new IllegalArgumentException("Invalid schedule. Line " + line[0] + ": a quoted field is not closed");
+				}
+				line[0]++;
+				field.append('\n');
+				i = -1;
+				continue;
+			}
+			char c = text.charAt(i);
+			if(quoted) {
+				if(c != '"') {
+					field.append(c);
+				} else if(i + 1 < text.length() && text.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if(c == '"') {
+				quoted = true;
+			} else if(c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return true;
+	}
+
+	/**
+	 * One showing read from a file, before it is numbered.
+	 */
+	private static final class Row {
+		/** Movie of the showing, shared with every identical movie */
+		private final Movie movie;
+		/** Screen of the showing, shared with every identical screen */
+		private final Screen screen;
+		/** Start time of the showing */
+		private final LocalDateTime startTime;
+		/** Sequence of the showing, or 0 if it is numbered on load */
+		private int sequence;
+
+		/**
+		 * Constructs the row.
+		 * @param movie of the showing
+		 * @param screen of the showing
+		 * @param startTime of the showing
+		 * @param sequence of the showing, or 0
+		 */
+		private Row(Movie movie, Screen screen, LocalDateTime startTime, int sequence) {
+			this.movie = movie;
+			this.screen = screen;
+			this.startTime = startTime;
+			this.sequence = sequence;
+		}
+	}
+}
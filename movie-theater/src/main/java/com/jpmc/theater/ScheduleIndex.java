@@ -0,0 +1,151 @@
+package com.jpmc.theater;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * This class represents the indexed store behind the Theater schedule. Showings are kept in a hash index keyed by sequence of
+ * the day so lookups by sequence are O(1), and in a navigable index ordered by start time so time-range queries and removals
+ * are O(log n) instead of scanning the whole schedule. Both indexes are concurrent so lookups never block; mutations are
+ * serialized so the two indexes always agree with each other.
+ *
+ * @author Ray Wang
+ */
+public class ScheduleIndex {
+	/** Orders showings by start time, then by sequence so showings starting at the same time are still distinct */
+	private static final Comparator<Showing> START_TIME_ORDER = Comparator.comparing(Showing::getStartTime)
+			.thenComparingInt(Showing::getSequenceOfTheDay);
+
+	/** Hash index of the showings keyed by their sequence of the day */
+	private final Map<Integer, Showing> bySequence;
+	/** Navigable index of the showings ordered by start time */
+	private final NavigableSet<Showing> byStartTime;
+
+	/**
+	 * Constructs an empty schedule index.
+	 */
+	public ScheduleIndex() {
+		this.bySequence = new ConcurrentHashMap<Integer, Showing>();
+		this.byStartTime = new ConcurrentSkipListSet<Showing>(START_TIME_ORDER);
+	}
+
+	/**
+	 * Adds a showing to the index. A showing already indexed under the same sequence is replaced.
+	 * @param showing to add
+	 * @return the showing that was replaced, or null if the sequence was not in use
+	 */
+	public synchronized Showing add(Showing showing) {
+		Showing previous = bySequence.put(showing.getSequenceOfTheDay(), showing);
+		if(previous != null) {
+			byStartTime.remove(previous);
+		}
+		byStartTime.add(showing);
+		return previous;
+	}
+
+	/**
+	 * Returns the showing with the given sequence.
+	 * @param sequence of the showing
+	 * @return the showing, or null if there is no showing with the sequence
+	 */
+	public Showing get(int sequence) {
+		return bySequence.get(sequence);
+	}
+
+	/**
+	 * Removes the showing with the given sequence from the index.
+	 * @param sequence of the showing to remove
+	 * @return the showing that was removed, or null if there was no showing with the sequence
+	 */
+	public synchronized Showing remove(int sequence) {
+		Showing removed = bySequence.remove(sequence);
+		if(removed != null) {
+			byStartTime.remove(removed);
+		}
+		return removed;
+	}
+
+	/**
+	 * Numbers the showings from 1 in start time order into a new index. Showings that already have their sequence are left alone,
+	 * so inserting or removing a showing only renumbers the showings after it. This index is not changed, so a reader that still
+	 * uses it finds every showing until the new index is swapped in, only by its previous sequence.
+	 * @param changed receives the showings that were given a new sequence, in start time order
+	 * @return the renumbered index, or this index if no sequence changed
+	 */
+	public synchronized ScheduleIndex resequence(List<Showing> changed) {
+		List<Integer> sequences = new ArrayList<Integer>();
+		int sequence = 1;
+		for(Showing showing : byStartTime) {
+			if(showing.getSequenceOfTheDay() != sequence) {
+				changed.add(showing);
+				sequences.add(sequence);
+			}
+			sequence++;
+		}
+		if(changed.isEmpty()) {
+			return this;
+		}
+		for(int i = 0; i < changed.size(); i++) {
+			changed.get(i).setSequenceOfTheDay(sequences.get(i));
+		}
+		ScheduleIndex renumbered = new ScheduleIndex();
+		for(Showing showing : byStartTime) {
+			renumbered.add(showing);
+		}
+		return renumbered;
+	}
+
+	/**
+	 * Removes every showing from the index.
+	 */
+	public synchronized void clear() {
+		bySequence.clear();
+		byStartTime.clear();
+	}
+
+	/**
+	 * Returns the showings that start within the given time range, ordered by start time.
+	 * @param from start of the range, inclusive
+	 * @param to end of the range, exclusive
+	 * @return the showings starting in the range
+	 */
+	public List<Showing> between(LocalDateTime from, LocalDateTime to) {
+		if(!from.isBefore(to)) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<Showing>(byStartTime.subSet(probe(from), true, probe(to), false));
+	}
+
+	/**
+	 * Returns every showing in the index ordered by start time.
+	 * @return unmodifiable view of the showings
+	 */
+	public NavigableSet<Showing> showings() {
+		return Collections.unmodifiableNavigableSet(byStartTime);
+	}
+
+	/**
+	 * Returns the number of showings in the index.
+	 * @return the number of showings
+	 */
+	public int size() {
+		return bySequence.size();
+	}
+
+	/**
+	 * Helper method to create a showing that sorts before every real showing starting at the given time. Used as a bound for
+	 * range queries on the navigable index.
+	 * @param startTime of the probe
+	 * @return the probe showing
+	 */
+	private static Showing probe(LocalDateTime startTime) {
+		return new Showing(null, Integer.MIN_VALUE, startTime);
+	}
+}
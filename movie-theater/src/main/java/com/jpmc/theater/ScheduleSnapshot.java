@@ -0,0 +1,100 @@
+package com.jpmc.theater;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class represents an immutable, pre-rendered copy of the movie schedule in text and json format, encoded as UTF-8. A
+ * snapshot is tagged with the schedule version it was rendered from so the owner can tell when it has gone stale.
+ * 
+ * @author Ray Wang
+ */
+public final class ScheduleSnapshot {
+	/** Schedule version the snapshot was rendered from */
+	private final long version;
+	/** The schedule rendered in text format */
+	private final byte[] text;
+	/** The schedule rendered in json format */
+	private final byte[] json;
+	
+	/**
+	 * Constructs the snapshot from already rendered bytes.
+	 * @param version of the schedule
+	 * @param text rendered text schedule
+	 * @param json rendered json schedule
+	 */
+	private ScheduleSnapshot(long version, byte[] text, byte[] json) {
+		this.version = version;
+		this.text = text;
+		this.json = json;
+	}
+	
+	/**
+	 * Renders a snapshot of the given showings.
+	 * @param version of the schedule being rendered
+	 * @param showings to render, in the order they should appear
+	 * @return the snapshot
+	 */
+	public static ScheduleSnapshot render(long version, Iterable<Showing> showings) {
+		try {
+			ByteArrayOutputStream text = new ByteArrayOutputStream();
+			ScheduleWriter.writeText(showings, new OutputStreamWriter(text, StandardCharsets.UTF_8));
+			ByteArrayOutputStream json = new ByteArrayOutputStream();
+			ScheduleWriter.writeJson(showings, new OutputStreamWriter(json, StandardCharsets.UTF_8));
+			return new ScheduleSnapshot(version, text.toByteArray(), json.toByteArray());
+		} catch (IOException e) {
+			// Writing to memory cannot fail
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Returns the schedule version the snapshot was rendered from
+	 * @return the schedule version
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Returns the text schedule as a read-only view of the cached bytes.
+	 * @return the UTF-8 encoded text schedule
+	 */
+	public ByteBuffer getText() {
+		return ByteBuffer.wrap(text).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Returns the json schedule as a read-only view of the cached bytes.
+	 * @return the UTF-8 encoded json schedule
+	 */
+	public ByteBuffer getJson() {
+		return ByteBuffer.wrap(json).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Writes the cached text schedule to the stream. The stream is flushed but not closed.
+	 * @param out stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeText(OutputStream out) throws IOException {
+		out.write(text);
+		out.flush();
+	}
+	
+	/**
+	 * Writes the cached json schedule to the stream. The stream is flushed but not closed.
+	 * @param out stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeJson(OutputStream out) throws IOException {
+		out.write(json);
+		out.flush();
+	}
+
+}
@@ -0,0 +1,284 @@
+package com.jpmc.theater;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * This class renders a movie schedule in text or json format to any Writer. Rendering is a single streaming pass over the
+ * showings: text rows are built in one reused buffer and json is written through a streaming JsonWriter, so memory use does not
+ * grow with the size of the schedule. Output is buffered and flushed once at the end, and the writer is never closed.
+ *
+ * Sequences are only unique within a screen day, so the showings are written in groups of consecutive showings on the same
+ * date and screen, each under its own header naming the date and the screen number. Showings should be given grouped by screen
+ * day, as Schedule.showings() returns them; a showing on another screen day always starts a new group.
+ *
+ * @author Ray Wang
+ */
+public final class ScheduleWriter {
+	/** Gson instance shared by every render. Only used to create pretty printing json writers */
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	/** Separator line of the text schedule */
+	private static final String TEXT_SEPARATOR = "==========================================================================";
+	/** Separator line of the json schedule */
+	private static final String JSON_SEPARATOR = "===================================================";
+	/** Width of the sequence column */
+	private static final int SEQUENCE_WIDTH = 10;
+	/** Width of the start time column */
+	private static final int START_TIME_WIDTH = 12;
+	/** Width of the runtime column */
+	private static final int RUNTIME_WIDTH = 14;
+	/** Width of the price column header */
+	private static final int PRICE_WIDTH = 10;
+	/** Padding added after the longest movie title */
+	private static final int TITLE_PADDING = 3;
+	/** Instrumentation of schedule rendering */
+	private static final TheaterMetrics METRICS = TheaterMetrics.getInstance();
+
+	/** Private constructor to prevent other classes from creating instances of the helper class */
+	private ScheduleWriter() { }
+
+	/**
+	 * Writes the schedule in text format with a header for every screen day. The width of the movie title column is calculated
+	 * once, before any row is written, so the columns of every screen day line up.
+	 * @param showings to write, in the order they should appear
+	 * @param out to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void writeText(Iterable<Showing> showings, Writer out) throws IOException {
+		long start = METRICS.start();
+		try {
+			renderText(showings, out);
+			METRICS.scheduleRendering.stop(start);
+		} catch (IOException | RuntimeException e) {
+			METRICS.scheduleRendering.fail(start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the schedule in json format with a header for every screen day. Each showing is streamed as its own pretty printed
+	 * json object.
+	 * @param showings to write, in the order they should appear
+	 * @param out to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void writeJson(Iterable<Showing> showings, Writer out) throws IOException {
+		long start = METRICS.start();
+		try {
+			renderJson(showings, out);
+			METRICS.scheduleRendering.stop(start);
+		} catch (IOException | RuntimeException e) {
+			METRICS.scheduleRendering.fail(start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Helper method to write the schedule in text format. The width of the movie title column is calculated once, before any row
+	 * is written.
+	 * @param showings to write, in the order they should appear
+	 * @param out to write to
+	 * @throws IOException if writing fails
+	 */
+	private static void renderText(Iterable<Showing> showings, Writer out) throws IOException {
+		Writer buffered = buffer(out);
+		int titleWidth = longestMovieTitle(showings) + TITLE_PADDING;
+
+		StringBuilder line = new StringBuilder(128);
+		Showing groupStart = null;
+		for(Showing s : showings) {
+			line.setLength(0);
+			if(groupStart == null || !sameScreenDay(groupStart, s)) {
+				if(groupStart != null) {
+					line.append(TEXT_SEPARATOR).append('\n');
+				}
+				groupStart = s;
+				appendHeader(line, s).append(TEXT_SEPARATOR).append('\n');
+				pad(line, "Sequence", SEQUENCE_WIDTH);
+				pad(line, "Start Time", START_TIME_WIDTH);
+				pad(line, "Movie Title", titleWidth);
+				pad(line, "Runtime", RUNTIME_WIDTH);
+				padLast(line, "Price", PRICE_WIDTH);
+				buffered.append(line);
+				line.setLength(0);
+			}
+			line.append(s.getSequenceOfTheDay());
+			padTo(line, SEQUENCE_WIDTH).append(' ');
+			pad(line, s.formatStartTime(s.getStartTime()), START_TIME_WIDTH);
+			pad(line, s.getMovie().getTitle(), titleWidth);
+			int start = line.length();
+			appendHumanReadable(line, s.getMovie().getRunningTime());
+			padTo(line, start + RUNTIME_WIDTH).append(' ');
+			Money.appendTo(line, s.getMovie().getTicketPriceCents()).append('\n');
+			buffered.append(line);
+		}
+
+		if(groupStart != null) {
+			buffered.append(TEXT_SEPARATOR).append('\n');
+		}
+		buffered.flush();
+	}
+
+	/**
+	 * Helper method to write the schedule in json format, streaming each showing as its own pretty printed json object.
+	 * @param showings to write, in the order they should appear
+	 * @param out to write to
+	 * @throws IOException if writing fails
+	 */
+	private static void renderJson(Iterable<Showing> showings, Writer out) throws IOException {
+		Writer buffered = buffer(out);
+
+		// The json writer writes straight through to the buffered writer, so headers and separators can be appended between objects.
+		JsonWriter json = GSON.newJsonWriter(buffered);
+		json.setLenient(true);
+		StringBuilder runtime = new StringBuilder(24);
+		StringBuilder header = new StringBuilder(128);
+		Showing groupStart = null;
+		for(Showing s : showings) {
+			runtime.setLength(0);
+			if(groupStart == null || !sameScreenDay(groupStart, s)) {
+				header.setLength(0);
+				if(groupStart != null) {
+					header.append(JSON_SEPARATOR).append('\n');
+				}
+				groupStart = s;
+				buffered.append(appendHeader(header, s).append(JSON_SEPARATOR).append('\n'));
+			}
+			json.beginObject();
+			json.name("sequence").value(s.getSequenceOfTheDay());
+			json.name("startTime").value(s.formatStartTime(s.getStartTime()));
+			json.name("title").value(s.getMovie().getTitle());
+			json.name("runningTime").value(appendHumanReadable(runtime, s.getMovie().getRunningTime()).toString());
+			json.name("ticketPrice").value(s.getMovie().getTicketPrice());
+			json.endObject();
+			buffered.append('\n');
+		}
+
+		if(groupStart != null) {
+			buffered.append(JSON_SEPARATOR).append('\n');
+		}
+		buffered.flush();
+	}
+
+	/**
+	 * Helper method to append the header line of a screen day's group of showings, e.g. Showtimes for 2023-04-17 on screen 1.
+	 * @param builder to append to
+	 * @param showing on the screen day
+	 * @return the builder
+	 */
+	private static StringBuilder appendHeader(StringBuilder builder, Showing showing) {
+		return builder.append("Showtimes for ").append(showing.getStartTime().toLocalDate()).append(" on screen ")
+				.append(showing.getScreen().getNumber()).append('\n');
+	}
+
+	/**
+	 * Helper method to check whether two showings are on the same screen day, and so in the same group of the schedule.
+	 * @param a first showing
+	 * @param b second showing
+	 * @return true if both showings play on the same date and screen
+	 */
+	private static boolean sameScreenDay(Showing a, Showing b) {
+		return a.getScreen().getNumber() == b.getScreen().getNumber()
+				&& a.getStartTime().toLocalDate().equals(b.getStartTime().toLocalDate());
+	}
+
+	/**
+	 * Formats a duration in a human readable form, e.g. 1 hr 30 mins.
+	 * @param duration to format
+	 * @return the duration formatted into a string
+	 */
+	public static String humanReadableFormat(Duration duration) {
+		return appendHumanReadable(new StringBuilder(24), duration).toString();
+	}
+
+	/**
+	 * Helper method to append a duration in a human readable form, e.g. 1 hr 30 mins, to the given builder.
+	 * @param builder to append to
+	 * @param duration to format
+	 * @return the builder
+	 */
+	private static StringBuilder appendHumanReadable(StringBuilder builder, Duration duration) {
+		long hour = duration.toHours();
+		long remainingMin = duration.toMinutes() - TimeUnit.HOURS.toMinutes(hour);
+		builder.append(hour).append(" hr");
+		appendPlural(builder, hour);
+		builder.append(' ').append(remainingMin).append(" min");
+		return appendPlural(builder, remainingMin);
+	}
+
+	/**
+	 * Helper method to append an s character if the value is plural.
+	 * @param builder to append to
+	 * @param value to check
+	 * @return the builder
+	 */
+	private static StringBuilder appendPlural(StringBuilder builder, long value) {
+		return value == 1 ? builder : builder.append('s');
+	}
+
+	/**
+	 * Helper method used to find the length of the longest movie title. Used for aligning the columns of the text schedule.
+	 * @param showings to check
+	 * @return the number of characters in the longest movie title
+	 */
+	private static int longestMovieTitle(Iterable<Showing> showings) {
+		int longest = 0;
+		for(Showing s : showings) {
+			longest = Math.max(longest, s.getMovie().getTitle().length());
+		}
+		return longest;
+	}
+
+	/**
+	 * Helper method to append a column value left aligned in the given width, followed by the column separator.
+	 * @param builder to append to
+	 * @param value of the column
+	 * @param width of the column
+	 */
+	private static void pad(StringBuilder builder, String value, int width) {
+		int start = builder.length();
+		builder.append(value);
+		padTo(builder, start + width).append(' ');
+	}
+
+	/**
+	 * Helper method to append the last column value of a line left aligned in the given width, followed by a line break.
+	 * @param builder to append to
+	 * @param value of the column
+	 * @param width of the column
+	 */
+	private static void padLast(StringBuilder builder, String value, int width) {
+		int start = builder.length();
+		builder.append(value);
+		padTo(builder, start + width).append('\n');
+	}
+
+	/**
+	 * Helper method to append spaces until the builder reaches the given length. Values longer than their column are not cut.
+	 * @param builder to append to
+	 * @param length to pad to
+	 * @return the builder
+	 */
+	private static StringBuilder padTo(StringBuilder builder, int length) {
+		while(builder.length() < length) {
+			builder.append(' ');
+		}
+		return builder;
+	}
+
+	/**
+	 * Helper method to buffer the writer unless it is already buffered.
+	 * @param out to buffer
+	 * @return the buffered writer
+	 */
+	private static Writer buffer(Writer out) {
+		return out instanceof BufferedWriter ? out : new BufferedWriter(out);
+	}
+}
@@ -0,0 +1,139 @@
+package com.jpmc.theater;
+
+import java.util.Objects;
+
+/**
+ * This class represents a screen (auditorium) of the theater. Each screen has a number that identifies it in the schedule and a
+ * seat capacity that limits the reservations of the showings on it. A screen can also have a layout of rows of seats, in which
+ * case every showing on it has a SeatMap and reservations are given contiguous seats in one row.
+ * 
+ * @author Ray Wang
+ */
+public class Screen {
+	/** Number of the screen used when a showing does not name one */
+	public static final int DEFAULT_NUMBER = 1;
+	/** The screen used when a showing does not name one. It does not limit the number of seats */
+	public static final Screen DEFAULT = new Screen(DEFAULT_NUMBER);
+	
+	/** Number of the screen */
+	private final int number;
+	/** Number of seats in the screen */
+	private final int capacity;
+	/** Number of rows of seats, or 0 if the screen has no seat layout */
+	private final int rows;
+	/** Number of seats in each row, or 0 if the screen has no seat layout */
+	private final int seatsPerRow;
+	
+	/**
+	 * Constructs a screen that does not limit the number of seats.
+	 * @param number of the screen
+	 */
+	public Screen(int number) {
+		this(number, Showing.UNLIMITED_CAPACITY);
+	}
+	
+	/**
+	 * Constructs a screen with the given number of seats.
+	 * @param number of the screen
+	 * @param capacity number of seats in the screen
+	 */
+	public Screen(int number, int capacity) {
+		if(number < 1) {
+			throw new IllegalArgumentException("Invalid screen number. Screen numbers start at 1: " + number);
+		}
+		if(capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity. Capacity cannot be negative: " + capacity);
+		}
+		this.number = number;
+		this.capacity = capacity;
+		this.rows = 0;
+		this.seatsPerRow = 0;
+	}
+	
+	/**
+	 * Constructs a screen with assigned seating laid out in rows of the same length. The capacity is the number of seats.
+	 * @param number of the screen
+	 * @param rows number of rows of seats, at most SeatBlock.MAX_ROWS
+	 * @param seatsPerRow number of seats in each row, at most SeatBlock.MAX_SEATS_PER_ROW
+	 */
+	public Screen(int number, int rows, int seatsPerRow) {
+		if(number < 1) {
+			throw new IllegalArgumentException("Invalid screen number. Screen numbers start at 1: " + number);
+		}
+		if(rows < 1 || rows > SeatBlock.MAX_ROWS || seatsPerRow < 1 || seatsPerRow > SeatBlock.MAX_SEATS_PER_ROW) {
+			throw new IllegalArgumentException("Invalid seat layout. A screen has 1 to " + SeatBlock.MAX_ROWS + " rows of 1 to "
+					+ SeatBlock.MAX_SEATS_PER_ROW + " seats: " + rows + " x " + seatsPerRow);
+		}
+		this.number = number;
+		this.capacity = Math.multiplyExact(rows, seatsPerRow);
+		this.rows = rows;
+		this.seatsPerRow = seatsPerRow;
+	}
+	
+	/**
+	 * Returns the number of the screen
+	 * @return the screen number
+	 */
+	public int getNumber() {
+		return number;
+	}
+	
+	/**
+	 * Returns the number of seats in the screen
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Returns whether the screen has a seat layout, so its showings sell assigned seats
+	 * @return true if the screen has rows of seats
+	 */
+	public boolean hasSeatLayout() {
+		return rows > 0;
+	}
+	
+	/**
+	 * Returns the number of rows of seats
+	 * @return the rows, or 0 if the screen has no seat layout
+	 */
+	public int getRows() {
+		return rows;
+	}
+	
+	/**
+	 * Returns the number of seats in each row
+	 * @return the seats per row, or 0 if the screen has no seat layout
+	 */
+	public int getSeatsPerRow() {
+		return seatsPerRow;
+	}
+	
+	/**
+	 * Checks if screen objects are equal by comparing their number, capacity and seat layout.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		Screen screen = (Screen) o;
+		return number == screen.number && capacity == screen.capacity && rows == screen.rows && seatsPerRow == screen.seatsPerRow;
+	}
+	
+	/**
+	 * Hashes the screen object.
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(number, capacity, rows, seatsPerRow);
+	}
+	
+	/**
+	 * Formats the screen into a string.
+	 */
+	@Override
+	public String toString() {
+		return "Screen " + number;
+	}
+}
@@ -0,0 +1,88 @@
+package com.jpmc.theater;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * This class represents one screen on one day. It is the key the schedule is partitioned by, and sequences of the day are
+ * numbered separately for every screen day. Screen days are ordered by date, then by screen number.
+ * 
+ * @author Ray Wang
+ */
+public final class ScreenDay implements Comparable<ScreenDay> {
+	/** Date of the screen day */
+	private final LocalDate date;
+	/** Number of the screen */
+	private final int screenNumber;
+	
+	/**
+	 * Constructs the screen day.
+	 * @param date of the screen day
+	 * @param screenNumber number of the screen
+	 */
+	public ScreenDay(LocalDate date, int screenNumber) {
+		this.date = Objects.requireNonNull(date, "date");
+		this.screenNumber = screenNumber;
+	}
+	
+	/**
+	 * Returns the screen day a showing belongs to.
+	 * @param showing to get the screen day of
+	 * @return the screen day of the showing
+	 */
+	public static ScreenDay of(Showing showing) {
+		return new ScreenDay(showing.getStartTime().toLocalDate(), showing.getScreen().getNumber());
+	}
+	
+	/**
+	 * Returns the date of the screen day
+	 * @return the date
+	 */
+	public LocalDate getDate() {
+		return date;
+	}
+	
+	/**
+	 * Returns the number of the screen
+	 * @return the screen number
+	 */
+	public int getScreenNumber() {
+		return screenNumber;
+	}
+	
+	/**
+	 * Compares screen days by date, then by screen number.
+	 */
+	@Override
+	public int compareTo(ScreenDay other) {
+		int byDate = date.compareTo(other.date);
+		return byDate != 0 ? byDate : Integer.compare(screenNumber, other.screenNumber);
+	}
+	
+	/**
+	 * Checks if screen day objects are equal by comparing their date and screen number.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof ScreenDay)) return false;
+		ScreenDay other = (ScreenDay) o;
+		return screenNumber == other.screenNumber && date.equals(other.date);
+	}
+	
+	/**
+	 * Hashes the screen day object.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * date.hashCode() + screenNumber;
+	}
+	
+	/**
+	 * Formats the screen day into a string.
+	 */
+	@Override
+	public String toString() {
+		return date + " screen " + screenNumber;
+	}
+}
@@ -0,0 +1,121 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents a block of contiguous seats in one row of a screen. Rows and seats are numbered from 0 internally and
+ * shown the way they are signed in the auditorium: rows by letter from the front, A to Z and then AA, AB and so on, and seats by
+ * number from 1, so the block of the first three seats of the third row is C1-C3.
+ *
+ * @author Ray Wang
+ */
+public final class SeatBlock {
+	/** Largest number of rows a screen can have */
+	public static final int MAX_ROWS = 0x7FFF;
+	/** Largest number of seats a row can have */
+	public static final int MAX_SEATS_PER_ROW = 0xFFFF;
+
+	/** Row of the block, from 0 at the front */
+	private final int row;
+	/** First seat of the block, from 0 */
+	private final int firstSeat;
+	/** Number of seats in the block */
+	private final int count;
+
+	/**
+	 * Constructs the block.
+	 * @param row of the block, from 0 at the front
+	 * @param firstSeat of the block, from 0
+	 * @param count number of seats in the block
+	 */
+	public SeatBlock(int row, int firstSeat, int count) {
+		if(row < 0 || row >= MAX_ROWS || firstSeat < 0 || count < 1 || firstSeat + count > MAX_SEATS_PER_ROW) {
+			throw new IllegalArgumentException("Invalid seats. " + count + " seats from seat " + firstSeat + " of row " + row
+					+ " are outside any screen");
+		}
+		this.row = row;
+		this.firstSeat = firstSeat;
+		this.count = count;
+	}
+
+	/**
+	 * Returns the row of the block
+	 * @return the row, from 0 at the front
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * Returns the first seat of the block
+	 * @return the first seat, from 0
+	 */
+	public int getFirstSeat() {
+		return firstSeat;
+	}
+
+	/**
+	 * Returns the number of seats in the block
+	 * @return the count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Packs the row and first seat into one non-negative int, so the block can be stored in a column next to its count.
+	 * @return the packed block
+	 */
+	int pack() {
+		return row << 16 | firstSeat;
+	}
+
+	/**
+	 * Unpacks a block packed with pack.
+	 * @param packed row and first seat
+	 * @param count number of seats in the block
+	 * @return the block
+	 */
+	static SeatBlock unpack(int packed, int count) {
+		return new SeatBlock(packed >>> 16, packed & 0xFFFF, count);
+	}
+
+	/**
+	 * Returns the letters that name a row, A to Z and then AA, AB and so on.
+	 * @param row from 0 at the front
+	 * @return the name of the row
+	 */
+	public static String rowName(int row) {
+		StringBuilder name = new StringBuilder();
+		for(int remaining = row + 1; remaining > 0; remaining = (remaining - 1) / 26) {
+			name.insert(0, (char) ('A' + (remaining - 1) % 26));
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Checks if seat blocks are equal by comparing their row, first seat and count.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		SeatBlock block = (SeatBlock) o;
+		return row == block.row && firstSeat == block.firstSeat && count == block.count;
+	}
+
+	/**
+	 * Hashes the seat block object.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * row + firstSeat) + count;
+	}
+
+	/**
+	 * Formats the block the way it is signed, C5-C10 or C5 for a single seat.
+	 */
+	@Override
+	public String toString() {
+		String rowName = rowName(row);
+		return count == 1 ? rowName + (firstSeat + 1) : rowName + (firstSeat + 1) + "-" + rowName + (firstSeat + count);
+	}
+}
@@ -0,0 +1,151 @@
+package com.jpmc.theater;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class represents seats of a showing held for a customer while they check out. The seats are taken from the showing when
+ * the hold is made, so nobody else can book them, but nothing is reserved until the hold is confirmed. A hold ends exactly once:
+ * it is confirmed into a Reservation, released, or expires when its timeout passes, and the seats of a released or expired hold
+ * go back to the showing. The ticket price is quoted when the hold is made, and a confirmed hold is reserved at that price.
+ *
+ * @author Ray Wang
+ */
+public final class SeatHold {
+	/**
+	 * The stages of a hold.
+	 */
+	public enum State {
+		/** The seats are held and the hold can be confirmed */
+		PENDING,
+		/** The hold was confirmed into a reservation */
+		CONFIRMED,
+		/** The hold was released and its seats returned */
+		RELEASED,
+		/** The timeout passed and the seats were returned */
+		EXPIRED
+	}
+
+	/** Source of hold ids. Ids start at 1 so 0 never identifies a hold */
+	private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+	/** Id of the hold */
+	private final long id;
+	/** Customer the seats are held for */
+	private final Customer customer;
+	/** Showing the seats are held on */
+	private final Showing showing;
+	/** Number of seats held */
+	private final int ticketCount;
+	/** Block of seats held, or null if the showing has no seat map */
+	private final SeatBlock seats;
+	/** Price of a single ticket after discounts in cents, quoted when the hold was made */
+	private final long ticketPriceCents;
+	/** System.nanoTime at which the hold expires */
+	private final long deadlineNanos;
+	/** Stage of the hold, changed only from PENDING */
+	private final AtomicReference<State> state;
+	/** Next hold in the same slot of the timer wheel, only used by the thread that advances the wheel */
+	SeatHold nextInSlot;
+
+	/**
+	 * Constructs a pending hold.
+	 * @param customer the seats are held for
+	 * @param showing the seats are held on
+	 * @param ticketCount number of seats held
+	 * @param seats block of seats held, or null
+	 * @param ticketPriceCents price of a single ticket after discounts in cents
+	 * @param deadlineNanos System.nanoTime at which the hold expires
+	 */
+	SeatHold(Customer customer, Showing showing, int ticketCount, SeatBlock seats, long ticketPriceCents, long deadlineNanos) {
+		this.id = NEXT_ID.getAndIncrement();
+		this.customer = customer;
+		this.showing = showing;
+		this.ticketCount = ticketCount;
+		this.seats = seats;
+		this.ticketPriceCents = ticketPriceCents;
+		this.deadlineNanos = deadlineNanos;
+		this.state = new AtomicReference<State>(State.PENDING);
+	}
+
+	/**
+	 * Returns the id of the hold
+	 * @return the id
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the customer the seats are held for
+	 * @return the customer
+	 */
+	public Customer getCustomer() {
+		return customer;
+	}
+
+	/**
+	 * Returns the showing the seats are held on
+	 * @return the showing
+	 */
+	public Showing getShowing() {
+		return showing;
+	}
+
+	/**
+	 * Returns the number of seats held
+	 * @return the ticket count
+	 */
+	public int getTicketCount() {
+		return ticketCount;
+	}
+
+	/**
+	 * Returns the block of seats held
+	 * @return the seats, or null if the showing has no seat map
+	 */
+	public SeatBlock getSeats() {
+		return seats;
+	}
+
+	/**
+	 * Returns the price of a single ticket quoted when the hold was made
+	 * @return the ticket price in cents
+	 */
+	public long getTicketPriceCents() {
+		return ticketPriceCents;
+	}
+
+	/**
+	 * Returns the stage of the hold
+	 * @return the state
+	 */
+	public State getState() {
+		return state.get();
+	}
+
+	/**
+	 * Returns the System.nanoTime at which the hold expires
+	 * @return the deadline
+	 */
+	long getDeadlineNanos() {
+		return deadlineNanos;
+	}
+
+	/**
+	 * Ends a pending hold. Only one caller can end a hold.
+	 * @param end the state the hold ends in
+	 * @return true if the hold was pending and has now ended
+	 */
+	boolean end(State end) {
+		return state.compareAndSet(State.PENDING, end);
+	}
+
+	/**
+	 * Formats the hold into a string.
+	 */
+	@Override
+	public String toString() {
+		return "Hold " + id + " of " + ticketCount + " seats " + (seats == null ? "" : seats + " ") + state.get();
+	}
+}
@@ -0,0 +1,393 @@
+package com.jpmc.theater;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class represents the seats of one showing on a screen with a seat layout. Every seat is one bit, set while the seat is
+ * held, and each row starts on a new 64 bit word, so a row of up to 64 seats is a single word. Holding and releasing a block of
+ * seats sets or clears its bits with compare-and-set, so concurrent bookings never lock and can never hold the same seat twice.
+ *
+ * The best block for a party is found with word operations instead of testing seats one by one. The starts of every free run
+ * long enough for the party are found by and-ing the free bits of a word with shifted copies of themselves and of the next word,
+ * in as many steps as it takes to double up to the size of the party, and the start nearest the middle of the row is picked
+ * with a leading or trailing zero count. Parties of more than 64 seats are placed by scanning the row run by run.
+ * Rows are tried from the one two thirds of the way back, alternating behind and in front of it.
+ *
+ * @author Ray Wang
+ */
+public final class SeatMap {
+	/** Number of seats in a word */
+	private static final int WORD_SEATS = 64;
+
+	/** Number of rows */
+	private final int rows;
+	/** Number of seats in each row */
+	private final int seatsPerRow;
+	/** Number of words used by each row */
+	private final int wordsPerRow;
+	/** Bits of the seats of the last word of a row that exist, so seats past the end of the row are never free */
+	private final long lastWordMask;
+	/** Rows in the order they are tried */
+	private final int[] rowOrder;
+	/** One bit per seat, set while the seat is held */
+	private final AtomicLongArray held;
+
+	/**
+	 * Constructs a seat map with every seat free.
+	 * @param rows number of rows
+	 * @param seatsPerRow number of seats in each row
+	 */
+	public SeatMap(int rows, int seatsPerRow) {
+		if(rows < 1 || rows > SeatBlock.MAX_ROWS || seatsPerRow < 1 || seatsPerRow > SeatBlock.MAX_SEATS_PER_ROW) {
+			throw new IllegalArgumentException("Invalid seat layout. A screen has 1 to " + SeatBlock.MAX_ROWS + " rows of 1 to "
+					+ SeatBlock.MAX_SEATS_PER_ROW + " seats: " + rows + " x " + seatsPerRow);
+		}
+		this.rows = rows;
+		this.seatsPerRow = seatsPerRow;
+		this.wordsPerRow = (seatsPerRow + WORD_SEATS - 1) / WORD_SEATS;
+		this.lastWordMask = bits(0, seatsPerRow - (wordsPerRow - 1) * WORD_SEATS);
+		this.rowOrder = new int[rows];
+		int best = (rows - 1) * 2 / 3;
+		int next = 0;
+		for(int distance = 0; next < rows; distance++) {
+			if(best + distance < rows) {
+				rowOrder[next++] = best + distance;
+			}
+			if(distance > 0 && best - distance >= 0) {
+				rowOrder[next++] = best - distance;
+			}
+		}
+		this.held = new AtomicLongArray(rows * wordsPerRow);
+	}
+
+	/**
+	 * Constructs a seat map for the layout of a screen.
+	 * @param screen with a seat layout
+	 */
+	SeatMap(Screen screen) {
+		this(screen.getRows(), screen.getSeatsPerRow());
+	}
+
+	/**
+	 * Finds the best free block of contiguous seats in one row for a party, without holding it. The block may be taken by
+	 * another booking before it is held; allocate finds and holds a block in one step.
+	 * @param count number of seats
+	 * @return the block, or null if no row has enough free seats together
+	 * @throws IllegalArgumentException if the count is not positive
+	 */
+	public SeatBlock findBest(int count) {
+		if(count < 1) {
+			throw new IllegalArgumentException("Invalid ticket count. Ticket count must be a positive number: " + count);
+		}
+		if(count > seatsPerRow) {
+			return null;
+		}
+		for(int row : rowOrder) {
+			int first = count <= WORD_SEATS ? findInRow(row, count) : findLongRun(row, count);
+			if(first >= 0) {
+				return new SeatBlock(row, first, count);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the best free block for a party and holds it, retrying if another booking takes the block first.
+	 * @param count number of seats
+	 * @return the block that is now held, or null if no row has enough free seats together
+	 * @throws IllegalArgumentException if the count is not positive
+	 */
+	public SeatBlock allocate(int count) {
+		while(true) {
+			SeatBlock block = findBest(count);
+			if(block == null || hold(block)) {
+				return block;
+			}
+		}
+	}
+
+	/**
+	 * Holds every seat of a block, or none of them if any seat is already held.
+	 * @param block to hold
+	 * @return true if the block is now held, false if a seat was already held
+	 * @throws IllegalArgumentException if the block is outside the seat map
+	 */
+	public boolean hold(SeatBlock block) {
+		checkBlock(block);
+		int index = block.getRow() * wordsPerRow;
+		int end = block.getFirstSeat() + block.getCount();
+		for(int seat = block.getFirstSeat(); seat < end; ) {
+			int to = Math.min(end, (seat / WORD_SEATS + 1) * WORD_SEATS);
+			long mask = bits(seat % WORD_SEATS, to - seat);
+			if(!claim(index + seat / WORD_SEATS, mask)) {
+				// Return the words of the block that were already claimed
+				clear(block.getRow(), block.getFirstSeat(), seat);
+				return false;
+			}
+			seat = to;
+		}
+		return true;
+	}
+
+	/**
+	 * Releases every seat of a block. Seats of the block that are not held are left free.
+	 * @param block to release
+	 * @throws IllegalArgumentException if the block is outside the seat map
+	 */
+	public void release(SeatBlock block) {
+		checkBlock(block);
+		clear(block.getRow(), block.getFirstSeat(), block.getFirstSeat() + block.getCount());
+	}
+
+	/**
+	 * Returns whether a seat is held
+	 * @param row of the seat, from 0 at the front
+	 * @param seat in the row, from 0
+	 * @return true if the seat is held
+	 */
+	public boolean isHeld(int row, int seat) {
+		if(row < 0 || row >= rows || seat < 0 || seat >= seatsPerRow) {
+			throw new IllegalArgumentException("Invalid seat. Seat " + seat + " of row " + row + " is outside the seat map");
+		}
+		return (held.get(row * wordsPerRow + seat / WORD_SEATS) & 1L << seat) != 0;
+	}
+
+	/**
+	 * Returns the number of seats that are not held
+	 * @return the number of free seats
+	 */
+	public int getSeatsAvailable() {
+		int free = rows * seatsPerRow;
+		for(int i = 0; i < held.length(); i++) {
+			free -= Long.bitCount(held.get(i));
+		}
+		return free;
+	}
+
+	/**
+	 * Returns the number of rows
+	 * @return the rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of seats in each row
+	 * @return the seats per row
+	 */
+	public int getSeatsPerRow() {
+		return seatsPerRow;
+	}
+
+	/**
+	 * Renders the availability of every seat, one line per row from the front, with O for a free seat and X for a held one.
+	 * @return the rendered seat map
+	 */
+	public String render() {
+		int labelWidth = SeatBlock.rowName(rows - 1).length() + 1;
+		StringBuilder out = new StringBuilder((labelWidth + seatsPerRow + 1) * (rows + 1));
+		for(int i = 0; i < labelWidth + Math.max(0, (seatsPerRow - 6) / 2); i++) {
+			out.append(' ');
+		}
+		out.append("SCREEN\n");
+		for(int row = 0; row < rows; row++) {
+			String name = SeatBlock.rowName(row);
+			out.append(name);
+			for(int i = name.length(); i < labelWidth; i++) {
+				out.append(' ');
+			}
+			for(int word = 0; word < wordsPerRow; word++) {
+				long bits = held.get(row * wordsPerRow + word);
+				int seats = Math.min(WORD_SEATS, seatsPerRow - word * WORD_SEATS);
+				for(int seat = 0; seat < seats; seat++) {
+					out.append((bits & 1L << seat) != 0 ? 'X' : 'O');
+				}
+			}
+			out.append('\n');
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Formats the seat map into its rendering.
+	 */
+	@Override
+	public String toString() {
+		return render();
+	}
+
+	/**
+	 * Helper method to find the free block nearest the middle of a row for a party of up to 64 seats. The free seats of each word
+	 * are and-ed with shifted copies of themselves and of the next word, so runs that cross into the next word are found too.
+	 * @param row to search
+	 * @param count number of seats, at most 64
+	 * @return the first seat of the block, or -1 if the row has no free block
+	 */
+	private int findInRow(int row, int count) {
+		int middle = (seatsPerRow - count) / 2;
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		long nextFree = free(row, 0);
+		for(int word = 0; word < wordsPerRow; word++) {
+			long starts = nextFree;
+			nextFree = word + 1 < wordsPerRow ? free(row, word + 1) : 0;
+			// Keep the seats that start a free run of at least the seats counted so far, doubling the count each step
+			long following = nextFree;
+			for(int run = 1; run < count && starts != 0; ) {
+				int shift = Math.min(run, count - run);
+				starts &= starts >>> shift | following << (WORD_SEATS - shift);
+				following &= following >>> shift;
+				run += shift;
+			}
+			if(starts == 0) {
+				continue;
+			}
+			int offset = word * WORD_SEATS;
+			// Split the starts into the ones up to the middle and the ones from the middle on
+			long before = starts;
+			long after = 0;
+			if(middle < offset) {
+				before = 0;
+				after = starts;
+			} else if(middle < offset + WORD_SEATS) {
+				before = starts & -1L >>> (WORD_SEATS - 1 - (middle - offset));
+				after = starts & -1L << middle;
+			}
+			if(before != 0) {
+				int previous = offset + WORD_SEATS - 1 - Long.numberOfLeadingZeros(before);
+				if(Math.abs(middle - previous) < bestDistance) {
+					best = previous;
+					bestDistance = Math.abs(middle - previous);
+				}
+			}
+			if(after != 0) {
+				int next = offset + Long.numberOfTrailingZeros(after);
+				if(Math.abs(next - middle) < bestDistance) {
+					best = next;
+				}
+				// Every later word starts further from the middle
+				break;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Helper method to find the free block nearest the middle of a row for a party of more than 64 seats, run by run.
+	 * @param row to search
+	 * @param count number of seats
+	 * @return the first seat of the block, or -1 if the row has no free block
+	 */
+	private int findLongRun(int row, int count) {
+		int middle = (seatsPerRow - count) / 2;
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		int start = next(row, 0, true);
+		while(start >= 0 && start + count <= seatsPerRow) {
+			int end = next(row, start, false);
+			if(end - start >= count) {
+				int first = Math.max(start, Math.min(middle, end - count));
+				if(Math.abs(first - middle) < bestDistance) {
+					best = first;
+					bestDistance = Math.abs(first - middle);
+				}
+				if(first >= middle) {
+					// Every later run starts further from the middle
+					break;
+				}
+			}
+			start = end < seatsPerRow ? next(row, end, true) : -1;
+		}
+		return best;
+	}
+
+	/**
+	 * Helper method to return the free seats of a word of a row. Seats past the end of the row are never free.
+	 * @param row of the word
+	 * @param word of the row
+	 * @return a bit per free seat
+	 */
+	private long free(int row, int word) {
+		return ~held.get(row * wordsPerRow + word) & (word == wordsPerRow - 1 ? lastWordMask : -1L);
+	}
+
+	/**
+	 * Helper method to find the next free or held seat of a row, a word at a time.
+	 * @param row to search
+	 * @param from first seat to look at
+	 * @param free true to find a free seat, false to find a held one
+	 * @return the seat, or -1 if there is no free seat, or the number of seats per row if there is no held seat
+	 */
+	private int next(int row, int from, boolean free) {
+		for(int word = from / WORD_SEATS; word < wordsPerRow; word++) {
+			long valid = word == wordsPerRow - 1 ? lastWordMask : -1L;
+			long bits = held.get(row * wordsPerRow + word);
+			bits = free ? ~bits & valid : bits | ~valid;
+			if(word == from / WORD_SEATS) {
+				bits &= -1L << from;
+			}
+			if(bits != 0) {
+				return word * WORD_SEATS + Long.numberOfTrailingZeros(bits);
+			}
+		}
+		return free ? -1 : seatsPerRow;
+	}
+
+	/**
+	 * Helper method to set bits of a word if none of them is set.
+	 * @param index of the word
+	 * @param mask of the bits
+	 * @return true if the bits were set, false if one was already set
+	 */
+	private boolean claim(int index, long mask) {
+		while(true) {
+			long current = held.get(index);
+			if((current & mask) != 0) {
+				return false;
+			}
+			if(held.compareAndSet(index, current, current | mask)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Helper method to clear the bits of a range of seats in a row.
+	 * @param row of the seats
+	 * @param from first seat to clear
+	 * @param to seat after the last seat to clear
+	 */
+	private void clear(int row, int from, int to) {
+		for(int seat = from; seat < to; ) {
+			int end = Math.min(to, (seat / WORD_SEATS + 1) * WORD_SEATS);
+			long mask = bits(seat % WORD_SEATS, end - seat);
+			int index = row * wordsPerRow + seat / WORD_SEATS;
+			long current;
+			do {
+				current = held.get(index);
+			} while(!held.compareAndSet(index, current, current & ~mask));
+			seat = end;
+		}
+	}
+
+	/**
+	 * Helper method to check that a block is inside the seat map.
+	 * @param block to check
+	 */
+	private void checkBlock(SeatBlock block) {
+		if(block.getRow() >= rows || block.getFirstSeat() + block.getCount() > seatsPerRow) {
+			throw new IllegalArgumentException("Invalid seats. " + block + " is outside the seat map");
+		}
+	}
+
+	/**
+	 * Helper method to return a mask of consecutive bits.
+	 * @param offset of the lowest bit
+	 * @param length number of bits, 1 to 64
+	 * @return the mask
+	 */
+	private static long bits(int offset, int length) {
+		return (length == WORD_SEATS ? -1L : (1L << length) - 1) << offset;
+	}
+}
@@ -1,29 +1,106 @@
 package com.jpmc.theater;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This class represents the movie showing object. Each movie showing has a movie, sequence of the day, and show start time field.
- * This class also formats the start time of the show into a more easily readable String format as well as comparing sequences of
- * showings.
+ * This class represents the movie showing object. Each movie showing has a movie, screen, sequence of the day, show start time,
+ * and seat capacity field. The sequence of the day is counted separately for every screen. This class also formats the start
+ * time of the show into a more easily readable String format as well as comparing sequences of showings. Seats are claimed
+ * through an atomic counter owned by the showing, so reservations on different showings never contend with each other and a
+ * showing can never be oversold. The discounted ticket price is calculated once and cached until something it depends on
+ * changes: the discount policy or demand pricing of the showing, or its sequence of the day when the screen day is renumbered.
+ * A showing on a screen with a seat layout also has a SeatMap of its own, which gives each reservation a block of seats next to
+ * each other.
+ * 
+ * With DemandPricing, the base price is first adjusted by the showing's sell-through and time to start. The cached price is
+ * then also discarded when claiming or returning seats crosses a seat threshold of the demand tiers, and when the next time
+ * window of a tier begins, so quotes are still served from the cache between those changes.
  * 
  * @author Ray Wang
  */
 public class Showing {
+	/** Capacity used for showings that do not limit the number of seats */
+	public static final int UNLIMITED_CAPACITY = Integer.MAX_VALUE;
+	
     private Movie movie;
-    private int sequenceOfTheDay;
+    private volatile int sequenceOfTheDay;
     private LocalDateTime showStartTime;
+    /** The screen the showing is on */
+    private final Screen screen;
+    /** Maximum number of seats that can be reserved for the showing */
+    private final int capacity;
+    /** Number of seats currently reserved for the showing */
+    private final AtomicInteger seatsReserved;
+    /** Seats held by the reservations of the showing, or null if its screen has no seat layout */
+    private final SeatMap seatMap;
+    /** Discount rules used to price tickets for the showing */
+    private volatile DiscountPolicy discountPolicy;
+    /** Demand based adjustment of the base ticket price */
+    private volatile DemandPricing demandPricing;
+    /** Reserved seat counts at which the demand adjustment can change, in ascending order */
+    private volatile int[] demandThresholds;
+    /** Incremented whenever the cached ticket price becomes stale */
+    private volatile int pricingVersion;
+    /** Ticket price calculated for the current pricing version, or null if it has not been calculated yet */
+    private volatile CachedPrice cachedPrice;
     
     /**
-     * Constructs the movie showing with the given movie, sequence of the day, and start time.
+     * Constructs the movie showing with the given movie, sequence of the day, and start time on the default screen. The showing has
+     * unlimited capacity.
      * @param movie
      * @param sequenceOfTheDay
      * @param showStartTime
      */
     public Showing(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime) {
+        this(movie, sequenceOfTheDay, showStartTime, UNLIMITED_CAPACITY);
+    }
+    
+    /**
+     * Constructs the movie showing with the given movie, sequence of the day, start time, and seat capacity on the default screen.
+     * @param movie
+     * @param sequenceOfTheDay
+     * @param showStartTime
+     * @param capacity maximum number of seats that can be reserved
+     */
+    public Showing(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime, int capacity) {
+    	this(movie, Screen.DEFAULT, sequenceOfTheDay, showStartTime, capacity);
+    }
+    
+    /**
+     * Constructs the movie showing with the given movie, screen, sequence of the day on that screen, and start time. The capacity of
+     * the showing is the capacity of the screen.
+     * @param movie
+     * @param screen the showing is on
+     * @param sequenceOfTheDay
+     * @param showStartTime
+     */
+    public Showing(Movie movie, Screen screen, int sequenceOfTheDay, LocalDateTime showStartTime) {
+    	this(movie, screen, sequenceOfTheDay, showStartTime, screen.getCapacity());
+    }
+    
+    /**
+     * Helper constructor that sets every field of the showing. Also used to restore showings from a TheaterSnapshot.
+     * @param movie
+     * @param screen the showing is on
+     * @param sequenceOfTheDay
+     * @param showStartTime
+     * @param capacity maximum number of seats that can be reserved
+     */
+    Showing(Movie movie, Screen screen, int sequenceOfTheDay, LocalDateTime showStartTime, int capacity) {
+    	if(capacity < 0) {
+    		throw new IllegalArgumentException("Invalid capacity. Capacity cannot be negative: " + capacity);
+    	}
         this.movie = movie;
+        this.screen = screen;
         this.sequenceOfTheDay = sequenceOfTheDay;
         this.showStartTime = showStartTime;
+        this.capacity = capacity;
+        this.seatsReserved = new AtomicInteger();
+        this.seatMap = screen.hasSeatLayout() ? new SeatMap(screen) : null;
+        this.discountPolicy = DiscountPolicy.defaultPolicy();
+        this.demandPricing = DemandPricing.none();
+        this.demandThresholds = new int[0];
     }
     
     /**
@@ -33,6 +110,13 @@ public class Showing {
         return movie;
     }
     
+    /**
+     * @return the screen the showing is on
+     */
+    public Screen getScreen() {
+        return screen;
+    }
+    
     /**
      * @return the start time of the movie showing
      */
@@ -83,5 +167,198 @@ public class Showing {
         return this.sequenceOfTheDay == sequence;
     }
 
-
+    /**
+     * Changes the sequence of the showing and discards the cached ticket price, as discounts can depend on the sequence. Only
+     * called by the ScheduleIndex the showing is in, which re-indexes it.
+     * @param sequenceOfTheDay the new sequence
+     */
+    void setSequenceOfTheDay(int sequenceOfTheDay) {
+    	this.sequenceOfTheDay = sequenceOfTheDay;
+    	invalidateTicketPrice();
+    }
+    
+    /**
+     * Returns the price of a single ticket for the showing after discounts.
+     * @return the discounted ticket price in dollars
+     */
+    public double getTicketPrice() {
+    	return Money.toDollars(getTicketPriceCents());
+    }
+    
+    /**
+     * Returns the price of a single ticket for the showing after demand pricing and discounts in cents. The price is calculated
+     * on first use and cached, so later calls do not evaluate the discount rules again until an input of the price changes.
+     * @return the discounted ticket price in cents
+     */
+    public long getTicketPriceCents() {
+    	CachedPrice cached = cachedPrice;
+    	int version = pricingVersion;
+    	if(cached != null && cached.version == version
+    			&& (cached.validUntilMillis == Long.MAX_VALUE || LocalDateProvider.getInstance().currentTimeMillis() < cached.validUntilMillis)) {
+    		return cached.priceCents;
+    	}
+    	// The version is read before pricing, so a price calculated while the cache is invalidated is never treated as current.
+    	DemandPricing demand = demandPricing;
+    	if(demand.isEmpty()) {
+    		long priceCents = movie.calculateTicketPriceCents(this, discountPolicy);
+    		cachedPrice = new CachedPrice(version, priceCents, Long.MAX_VALUE);
+    		return priceCents;
+    	}
+    	LocalDateProvider provider = LocalDateProvider.getInstance();
+    	long now = provider.currentTimeMillis();
+    	long millisToStart = showStartTime.atZone(provider.getClock().getZone()).toInstant().toEpochMilli() - now;
+    	long baseCents = demand.adjust(movie.getTicketPriceCents(), seatsReserved.get(), capacity, millisToStart);
+    	long priceCents = Math.max(0, baseCents - discountPolicy.discount(baseCents, movie.getSpecialCode(), sequenceOfTheDay,
+    			showStartTime.toLocalTime().toNanoOfDay(), showStartTime.getDayOfMonth()));
+    	long untilChange = demand.millisUntilChange(millisToStart);
+    	cachedPrice = new CachedPrice(version, priceCents, untilChange == Long.MAX_VALUE ? Long.MAX_VALUE : now + untilChange);
+    	return priceCents;
+    }
+    
+    /**
+     * Returns the discount rules used to price tickets for the showing
+     * @return the discount policy
+     */
+    public DiscountPolicy getDiscountPolicy() {
+    	return discountPolicy;
+    }
+    
+    /**
+     * Changes the discount rules used to price tickets for the showing and invalidates the cached ticket price.
+     * @param discountPolicy the new discount policy
+     */
+    public void setDiscountPolicy(DiscountPolicy discountPolicy) {
+    	if(discountPolicy == null) {
+    		throw new IllegalArgumentException("Invalid discount policy. Discount policy cannot be null");
+    	}
+    	this.discountPolicy = discountPolicy;
+    	invalidateTicketPrice();
+    }
+    
+    /**
+     * Returns the demand based adjustment of the base ticket price
+     * @return the demand pricing
+     */
+    public DemandPricing getDemandPricing() {
+    	return demandPricing;
+    }
+    
+    /**
+     * Changes the demand based adjustment of the base ticket price and invalidates the cached ticket price.
+     * @param demandPricing the new demand pricing, or DemandPricing.none() to price by the discount policy alone
+     */
+    public void setDemandPricing(DemandPricing demandPricing) {
+    	if(demandPricing == null) {
+    		throw new IllegalArgumentException("Invalid demand pricing. Demand pricing cannot be null");
+    	}
+    	this.demandThresholds = demandPricing.seatThresholds(capacity);
+    	this.demandPricing = demandPricing;
+    	invalidateTicketPrice();
+    }
+    
+    /**
+     * Discards the cached ticket price so it is calculated again on next use. Must be called whenever an input of the ticket
+     * price changes.
+     */
+    public synchronized void invalidateTicketPrice() {
+    	pricingVersion++;
+    	cachedPrice = null;
+    }
+    
+    /**
+     * Returns the seat capacity of the showing
+     * @return the maximum number of seats that can be reserved
+     */
+    public int getCapacity() {
+    	return capacity;
+    }
+    
+    /**
+     * Returns the number of seats currently reserved for the showing
+     * @return the number of reserved seats
+     */
+    public int getSeatsReserved() {
+    	return seatsReserved.get();
+    }
+    
+    /**
+     * Returns the number of seats that can still be reserved for the showing
+     * @return the number of available seats
+     */
+    public int getSeatsAvailable() {
+    	return capacity - seatsReserved.get();
+    }
+    
+    /**
+     * Returns the seats held by the reservations of the showing
+     * @return the seat map, or null if the screen of the showing has no seat layout
+     */
+    public SeatMap getSeatMap() {
+    	return seatMap;
+    }
+    
+    /**
+     * Atomically claims the given number of seats. The claim either succeeds completely or leaves the showing unchanged.
+     * @param count number of seats to claim
+     * @return true if the seats were claimed, false if there are not enough seats available
+     */
+    public boolean tryReserveSeats(int count) {
+    	while(true) {
+    		int reserved = seatsReserved.get();
+    		if(count > capacity - reserved) {
+    			return false;
+    		}
+    		if(seatsReserved.compareAndSet(reserved, reserved + count)) {
+    			seatsChanged(reserved, reserved + count);
+    			return true;
+    		}
+    	}
+    }
+    
+    /**
+     * Returns previously claimed seats to the showing.
+     * @param count number of seats to release
+     */
+    public void releaseSeats(int count) {
+    	int reserved = seatsReserved.addAndGet(-count);
+    	seatsChanged(reserved, reserved + count);
+    }
+    
+    /**
+     * Helper method to discard the cached ticket price if the reserved seats moved across a demand pricing threshold.
+     * @param low the smaller of the reserved seat counts before and after the change
+     * @param high the larger of the reserved seat counts before and after the change
+     */
+    private void seatsChanged(int low, int high) {
+    	for(int threshold : demandThresholds) {
+    		if(threshold > low && threshold <= high) {
+    			invalidateTicketPrice();
+    			return;
+    		}
+    	}
+    }
+    
+    /**
+     * Ticket price together with the pricing version it was calculated for and the time it stays valid until.
+     */
+    private static final class CachedPrice {
+    	/** Pricing version the price was calculated for */
+    	private final int version;
+    	/** The discounted ticket price in cents */
+    	private final long priceCents;
+    	/** Time in milliseconds since the epoch from which the price is stale, or Long.MAX_VALUE if it does not go stale with time */
+    	private final long validUntilMillis;
+    	
+    	/**
+    	 * Constructs the cached price.
+    	 * @param version the price was calculated for
+    	 * @param priceCents the discounted ticket price in cents
+    	 * @param validUntilMillis time from which the price is stale, or Long.MAX_VALUE
+    	 */
+    	private CachedPrice(int version, long priceCents, long validUntilMillis) {
+    		this.version = version;
+    		this.priceCents = priceCents;
+    		this.validUntilMillis = validUntilMillis;
+    	}
+    }
 }
@@ -0,0 +1,258 @@
+package com.jpmc.theater;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class represents the showings of one screen as an interval tree: an AVL tree ordered by start time in which every node
+ * also keeps the latest end time in its subtree. A showing that overlaps a time range is found by descending a single path,
+ * so checking a new showing against every showing on the screen takes O(log n), and adding or removing a showing rebalances
+ * in O(log n). The tree covers every day, so showings that run past midnight are checked against the next day's showings.
+ *
+ * The tree is not thread safe; the Schedule that owns it serializes every access.
+ *
+ * @author Ray Wang
+ */
+final class ShowingIntervalTree {
+	/** Root of the tree, or null if it is empty */
+	private Node root;
+	/** Node of every showing in the tree, so a showing is found for removal without comparing showings */
+	private final Map<Showing, Node> nodes;
+	/** Tie breaker for showings that start at the same time, incremented for every node */
+	private long nextOrder;
+
+	/**
+	 * Constructs an empty tree.
+	 */
+	ShowingIntervalTree() {
+		this.nodes = new IdentityHashMap<Showing, Node>();
+	}
+
+	/**
+	 * Adds a showing to the tree. A showing that is already in the tree is not added again.
+	 * @param showing to add
+	 */
+	void add(Showing showing) {
+		if(nodes.containsKey(showing)) {
+			return;
+		}
+		Node node = new Node(showing, nextOrder++);
+		nodes.put(showing, node);
+		root = insert(root, node);
+	}
+
+	/**
+	 * Removes a showing from the tree.
+	 * @param showing to remove
+	 * @return true if the showing was in the tree
+	 */
+	boolean remove(Showing showing) {
+		Node node = nodes.remove(showing);
+		if(node == null) {
+			return false;
+		}
+		root = delete(root, node);
+		return true;
+	}
+
+	/**
+	 * Returns a showing that runs at some point in the given time range.
+	 * @param from start of the range, inclusive
+	 * @param to end of the range, exclusive
+	 * @return a showing that overlaps the range, or null if there is none
+	 */
+	Showing findOverlap(LocalDateTime from, LocalDateTime to) {
+		Node node = root;
+		// If the left subtree ends after the range starts, either it holds an overlap or its latest showing starts after the
+		// range ends, and so does everything to the right of it
+		while(node != null) {
+			if(node.start.isBefore(to) && node.end.isAfter(from)) {
+				return node.showing;
+			}
+			node = node.left != null && node.left.maxEnd.isAfter(from) ? node.left : node.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of showings in the tree
+	 * @return the size
+	 */
+	int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Returns the height of the tree, 0 if it is empty
+	 * @return the height
+	 */
+	int height() {
+		return height(root);
+	}
+
+	/**
+	 * Helper method to insert a node into a subtree.
+	 * @param subtree to insert into, or null
+	 * @param node to insert
+	 * @return the new root of the subtree
+	 */
+	private static Node insert(Node subtree, Node node) {
+		if(subtree == null) {
+			return node;
+		}
+		if(node.compareTo(subtree) < 0) {
+			subtree.left = insert(subtree.left, node);
+		} else {
+			subtree.right = insert(subtree.right, node);
+		}
+		return balance(subtree);
+	}
+
+	/**
+	 * Helper method to delete a node from a subtree.
+	 * @param subtree to delete from
+	 * @param node to delete
+	 * @return the new root of the subtree
+	 */
+	private static Node delete(Node subtree, Node node) {
+		int order = node.compareTo(subtree);
+		if(order < 0) {
+			subtree.left = delete(subtree.left, node);
+		} else if(order > 0) {
+			subtree.right = delete(subtree.right, node);
+		} else {
+			if(subtree.left == null) {
+				return subtree.right;
+			}
+			if(subtree.right == null) {
+				return subtree.left;
+			}
+			// Replace the node with the first node of its right subtree
+			Node successor = subtree.right;
+			while(successor.left != null) {
+				successor = successor.left;
+			}
+			successor.right = delete(subtree.right, successor);
+			successor.left = subtree.left;
+			subtree = successor;
+		}
+		return balance(subtree);
+	}
+
+	/**
+	 * Helper method to restore the AVL balance of a subtree whose children are balanced, and update its height and end time.
+	 * @param node root of the subtree
+	 * @return the new root of the subtree
+	 */
+	private static Node balance(Node node) {
+		int skew = height(node.left) - height(node.right);
+		if(skew > 1) {
+			if(height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if(skew < -1) {
+			if(height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		node.update();
+		return node;
+	}
+
+	/**
+	 * Helper method to rotate a subtree to the left.
+	 * @param node root of the subtree
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		node.update();
+		right.update();
+		return right;
+	}
+
+	/**
+	 * Helper method to rotate a subtree to the right.
+	 * @param node root of the subtree
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		node.update();
+		left.update();
+		return left;
+	}
+
+	/**
+	 * Helper method to return the height of a subtree.
+	 * @param node root of the subtree, or null
+	 * @return the height, 0 for an empty subtree
+	 */
+	private static int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+	/**
+	 * Node of the tree holding one showing.
+	 */
+	private static final class Node implements Comparable<Node> {
+		/** Showing of the node */
+		private final Showing showing;
+		/** Start time of the showing */
+		private final LocalDateTime start;
+		/** End time of the showing */
+		private final LocalDateTime end;
+		/** Orders nodes that start at the same time */
+		private final long order;
+		/** Latest end time of any showing in the subtree of the node */
+		private LocalDateTime maxEnd;
+		/** Height of the subtree of the node */
+		private int height;
+		/** Left child, starting earlier */
+		private Node left;
+		/** Right child, starting later */
+		private Node right;
+
+		/**
+		 * Constructs a leaf node.
+		 * @param showing of the node
+		 * @param order among nodes that start at the same time
+		 */
+		private Node(Showing showing, long order) {
+			this.showing = showing;
+			this.start = showing.getStartTime();
+			this.end = start.plus(showing.getMovie().getRunningTime());
+			this.order = order;
+			this.maxEnd = end;
+			this.height = 1;
+		}
+
+		/**
+		 * Recalculates the height and latest end time of the node from its children.
+		 */
+		private void update() {
+			height = 1 + Math.max(ShowingIntervalTree.height(left), ShowingIntervalTree.height(right));
+			maxEnd = end;
+			if(left != null && left.maxEnd.isAfter(maxEnd)) {
+				maxEnd = left.maxEnd;
+			}
+			if(right != null && right.maxEnd.isAfter(maxEnd)) {
+				maxEnd = right.maxEnd;
+			}
+		}
+
+		@Override
+		public int compareTo(Node other) {
+			int order = start.compareTo(other.start);
+			return order != 0 ? order : Long.compare(this.order, other.order);
+		}
+	}
+}
@@ -1,35 +1,179 @@
 package com.jpmc.theater;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class represents the Theater object. It has the schedule of movie showings and a list of reservations made. It also allows
- * the user to manage movie showings and reservations, as well as display the movie schedule to console.
+ * the user to manage movie showings and reservations, as well as display the movie schedule to console. Reservations can be
+ * made from many threads at once, and a showing is never oversold.
  * 
  * @author Ray Wang
  */
 public class Theater {
+	/** Instrumentation of the booking path */
+	private static final TheaterMetrics METRICS = TheaterMetrics.getInstance();
+	/** Granularity at which seat holds expire */
+	private static final long HOLD_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	
 	/** Singleton instance of the local date provider */
     LocalDateProvider provider;
-    /** List of movie showings for the day */
-    private List<Showing> schedule;
-    /** List of reservations made */
-    private List<Reservation> reservations;
+    /** Movie showings partitioned by date and screen */
+    private Schedule schedule;
+    /** Reservations made */
+    private ReservationStore reservations;
+    /** Discount rules applied to every showing in the schedule */
+    private volatile DiscountPolicy discountPolicy;
+    /** Demand based price adjustment applied to every showing in the schedule */
+    private volatile DemandPricing demandPricing;
+    /** Journal that reservations and cancellations are written to, or null if they are only kept in memory */
+    private volatile ReservationJournal journal;
+    /** Incremented every time the schedule changes */
+    private final AtomicLong scheduleVersion;
+    /** Most recently rendered schedule, or null if it has not been rendered yet */
+    private volatile ScheduleSnapshot scheduleSnapshot;
+    /** Running sales of every showing that has sold a ticket */
+    private final Map<Showing, SalesCounters> showingSales;
+    /** Running sales of every movie that has sold a ticket */
+    private final Map<Movie, SalesCounters> movieSales;
+    /** Feed the changes to the schedule and reservations are published on */
+    private final ChangeFeed changes;
+    /** Pending seat holds by id */
+    private final Map<Long, SeatHold> holds;
+    /** Expires the pending seat holds */
+    private final HoldTimerWheel holdTimer;
+    /** Time that must be left free on a screen before and after every showing */
+    private volatile Duration cleaningGap;
     
     /**
      * Constructs the theater object and initializes the provider, schedule, and reservation.
      */
     public Theater() {
+    	this(new IndexedReservationStore());
+    }
+    
+    /**
+     * Constructs the theater object with the given store for its reservations. The store should be empty and not shared with
+     * another theater.
+     * @param reservations store to keep the reservations in
+     */
+    public Theater(ReservationStore reservations) {
         this.provider = LocalDateProvider.getInstance();
-        this.schedule = new ArrayList<Showing>();
-        this.reservations = new ArrayList<Reservation>();
+        this.schedule = new Schedule();
+        this.reservations = reservations;
+        this.discountPolicy = DiscountPolicy.defaultPolicy();
+        this.demandPricing = DemandPricing.none();
+        this.scheduleVersion = new AtomicLong();
+        this.showingSales = new ConcurrentHashMap<Showing, SalesCounters>();
+        this.movieSales = new ConcurrentHashMap<Movie, SalesCounters>();
+        this.changes = new ChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+        this.holds = new ConcurrentHashMap<Long, SeatHold>();
+        this.holdTimer = new HoldTimerWheel(HOLD_TICK_NANOS, System.nanoTime());
+        this.cleaningGap = Duration.ZERO;
+    }
+    
+    /**
+     * Returns the discount rules applied to the showings in the schedule.
+     * @return the discount policy
+     */
+    public DiscountPolicy getDiscountPolicy() {
+    	return discountPolicy;
+    }
+    
+    /**
+     * Changes the discount rules applied to the showings in the schedule. The cached ticket price of every showing is invalidated.
+     * @param discountPolicy the new discount policy
+     */
+    public void setDiscountPolicy(DiscountPolicy discountPolicy) {
+    	if(discountPolicy == null) {
+    		throw new IllegalArgumentException("Invalid discount policy. Discount policy cannot be null");
+    	}
+    	this.discountPolicy = discountPolicy;
+    	for(Showing showing : schedule.showings()) {
+    		showing.setDiscountPolicy(discountPolicy);
+    	}
+    }
+    
+    /**
+     * Returns the demand based price adjustment applied to the showings in the schedule.
+     * @return the demand pricing
+     */
+    public DemandPricing getDemandPricing() {
+    	return demandPricing;
+    }
+    
+    /**
+     * Changes the demand based price adjustment applied to the showings in the schedule. Demand pricing is off until it is set,
+     * and can be turned off again with DemandPricing.none(). The cached ticket price of every showing is invalidated.
+     * @param demandPricing the new demand pricing
+     */
+    public void setDemandPricing(DemandPricing demandPricing) {
+    	if(demandPricing == null) {
+    		throw new IllegalArgumentException("Invalid demand pricing. Demand pricing cannot be null");
+    	}
+    	this.demandPricing = demandPricing;
+    	for(Showing showing : schedule.showings()) {
+    		showing.setDemandPricing(demandPricing);
+    	}
+    }
+    
+    /**
+     * Returns the time that must be left free on a screen before and after every showing.
+     * @return the cleaning gap
+     */
+    public Duration getCleaningGap() {
+    	return cleaningGap;
+    }
+    
+    /**
+     * Changes the time that must be left free on a screen before and after every showing. Only showings scheduled afterwards are
+     * checked against the new gap.
+     * @param cleaningGap the new cleaning gap
+     */
+    public void setCleaningGap(Duration cleaningGap) {
+    	if(cleaningGap == null || cleaningGap.isNegative()) {
+    		throw new IllegalArgumentException("Invalid cleaning gap. Cleaning gap cannot be null or negative: " + cleaningGap);
+    	}
+    	this.cleaningGap = cleaningGap;
+    }
+    
+    /**
+     * Returns the journal that reservations and cancellations are written to.
+     * @return the journal, or null if reservations are only kept in memory
+     */
+    public ReservationJournal getReservationJournal() {
+    	return journal;
+    }
+    
+    /**
+     * Changes the journal that reservations and cancellations are written to. Each booking and cancellation then waits for its
+     * record to be group committed before it takes effect. Existing reservations are not written to the new journal; replay the
+     * journal into the theater before setting it.
+     * @param journal to write to, or null to only keep reservations in memory
+     */
+    public void setReservationJournal(ReservationJournal journal) {
+    	this.journal = journal;
     }
     
     /**
@@ -52,169 +196,1251 @@ public class Theater {
      */
     public Showing addShowingToSchedule(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime) {
     	Showing toAdd = createShowing(movie, sequenceOfTheDay, showStartTime);
-    	schedule.add(toAdd);
+    	addShowingToSchedule(toAdd);
     	return toAdd;
     }
     
     /**
-     * Adds a movie showing that is already created to the schedule.
-     * @param showing
+     * Creates a movie showing with a limited number of seats and adds it to the schedule.
+     * @param movie
+     * @param sequenceOfTheDay
+     * @param showStartTime
+     * @param capacity maximum number of seats that can be reserved
+     * @return the movie showing that was added
+     */
+    public Showing addShowingToSchedule(Movie movie, int sequenceOfTheDay, LocalDateTime showStartTime, int capacity) {
+    	Showing toAdd = new Showing(movie, sequenceOfTheDay, showStartTime, capacity);
+    	addShowingToSchedule(toAdd);
+    	return toAdd;
+    }
+    
+    /**
+     * Creates a movie showing on the given screen and adds it to the schedule. The showing gets the next free sequence on its
+     * screen day, and the number of seats is the capacity of the screen.
+     * @param movie
+     * @param screen the showing plays on
+     * @param showStartTime
+     * @return the movie showing that was added
+     */
+    public Showing addShowingToSchedule(Movie movie, Screen screen, LocalDateTime showStartTime) {
+    	// Numbering and adding are done under the schedule's lock so two showings never get the same sequence
+    	synchronized(schedule) {
+    		int sequenceOfTheDay = schedule.nextSequence(new ScreenDay(showStartTime.toLocalDate(), screen.getNumber()));
+    		return addShowingToSchedule(movie, screen, sequenceOfTheDay, showStartTime);
+    	}
+    }
+    
+    /**
+     * Creates a movie showing on the given screen with the given sequence and adds it to the schedule. The number of seats is the
+     * capacity of the screen.
+     * @param movie
+     * @param screen the showing plays on
+     * @param sequenceOfTheDay sequence on the screen day
+     * @param showStartTime
      * @return the movie showing that was added
      */
+    public Showing addShowingToSchedule(Movie movie, Screen screen, int sequenceOfTheDay, LocalDateTime showStartTime) {
+    	Showing toAdd = new Showing(movie, screen, sequenceOfTheDay, showStartTime);
+    	addShowingToSchedule(toAdd);
+    	return toAdd;
+    }
+    
+    /**
+     * Adds a movie showing that is already created to the schedule. The showing is priced with the theater's discount policy
+     * and demand pricing.
+     * @param showing
+     */
     public void addShowingToSchedule(Showing showing) {
+    	applyPricing(showing);
     	schedule.add(showing);
+    	scheduleVersion.incrementAndGet();
+    	changes.publish(TheaterEvent.Type.SHOWING_ADDED, showing, null);
+    }
+    
+    /**
+     * Creates a movie showing on the given screen and adds it to the schedule if it does not overlap another showing on the
+     * screen, counting the running time of each movie and the cleaning gap. Every screen's showings are kept in an interval tree,
+     * so the check takes O(log n) however many showings are scheduled. The sequences of the screen day are then numbered in start
+     * time order: only the showings that start later than the new one move up by one, and each of them is published as
+     * SHOWING_RESEQUENCED.
+     * @param movie
+     * @param screen the showing plays on
+     * @param showStartTime
+     * @return the movie showing that was added
+     * @throws IllegalArgumentException if the showing would overlap another on its screen
+     */
+    public Showing scheduleShowing(Movie movie, Screen screen, LocalDateTime showStartTime) {
+    	Showing toAdd;
+    	List<Showing> resequenced;
+    	synchronized(schedule) {
+    		Duration gap = cleaningGap;
+    		Showing overlapping = schedule.findOverlap(screen.getNumber(), showStartTime.minus(gap),
+    				showStartTime.plus(movie.getRunningTime()).plus(gap));
+    		if(overlapping != null) {
+    			throw overlapError(movie, showStartTime, overlapping, screen.getNumber());
+    		}
+    		ScreenDay screenDay = new ScreenDay(showStartTime.toLocalDate(), screen.getNumber());
+    		// The showing is added after the last sequence, then moved into place with the showings that start after it
+    		toAdd = new Showing(movie, screen, schedule.nextSequence(screenDay), showStartTime);
+    		applyPricing(toAdd);
+    		schedule.add(toAdd);
+    		resequenced = schedule.resequence(screenDay);
+    		scheduleVersion.incrementAndGet();
+    	}
+    	changes.publish(TheaterEvent.Type.SHOWING_ADDED, toAdd, null);
+    	publishResequenced(resequenced, toAdd);
+    	return toAdd;
+    }
+    
+    /**
+     * Removes the movie showing with the given sequence on the given date and screen from the schedule, and numbers the remaining
+     * showings of the screen day in start time order, so showings that start later than it move down by one and are published as
+     * SHOWING_RESEQUENCED.
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @return the showing that was removed, or null if there was no such showing
+     */
+    public Showing unscheduleShowing(LocalDate date, int screenNumber, int sequence) {
+    	Showing removed;
+    	List<Showing> resequenced;
+    	synchronized(schedule) {
+    		ScreenDay screenDay = new ScreenDay(date, screenNumber);
+    		removed = schedule.remove(screenDay, sequence);
+    		if(removed == null) {
+    			return null;
+    		}
+    		resequenced = schedule.resequence(screenDay);
+    		scheduleVersion.incrementAndGet();
+    	}
+    	changes.publish(TheaterEvent.Type.SHOWING_REMOVED, removed, null);
+    	publishResequenced(resequenced, null);
+    	return removed;
+    }
+    
+    /**
+     * Helper method to publish the showings that were given a new sequence.
+     * @param resequenced showings that were given a new sequence
+     * @param added showing that was just added and published, or null
+     */
+    private void publishResequenced(List<Showing> resequenced, Showing added) {
+    	for(Showing showing : resequenced) {
+    		if(showing != added) {
+    			changes.publish(TheaterEvent.Type.SHOWING_RESEQUENCED, showing, null);
+    		}
+    	}
+    }
+    
+    /**
+     * Helper method to price a showing with the theater's discount policy and demand pricing.
+     * @param showing to price
+     */
+    private void applyPricing(Showing showing) {
+    	if(showing.getDiscountPolicy() != discountPolicy) {
+    		showing.setDiscountPolicy(discountPolicy);
+    	}
+    	if(showing.getDemandPricing() != demandPricing) {
+    		showing.setDemandPricing(demandPricing);
+    	}
+    }
+    
+    /**
+     * Adds a batch of showings to the schedule, all of them or none. The batch is checked under the schedule's lock, so no other
+     * showing can be added in between: no two showings on the same screen may overlap, counting existing showings, the running
+     * time of each movie and the cleaning gap, and no sequence may be used twice on a screen day. Readers see the schedule change
+     * once.
+     * @param showings to add
+     * @throws IllegalArgumentException if a showing overlaps another on its screen or reuses a sequence
+     */
+    public void addShowingsToSchedule(List<Showing> showings) {
+    	synchronized(schedule) {
+    		checkBatch(showings);
+    		for(Showing showing : showings) {
+    			applyPricing(showing);
+    			schedule.add(showing);
+    		}
+    		scheduleVersion.incrementAndGet();
+    	}
+    	for(Showing showing : showings) {
+    		changes.publish(TheaterEvent.Type.SHOWING_ADDED, showing, null);
+    	}
+    }
+    
+    /**
+     * Helper method to check that a batch of showings reuses no sequence and overlaps no other showing on its screen. Each showing
+     * is looked up in its screen's interval tree, which covers every day, so showings that run past midnight are caught. The
+     * showings of the batch are then checked against each other by sorting them.
+     * @param showings to check
+     * @throws IllegalArgumentException if the batch cannot be added
+     */
+    private void checkBatch(List<Showing> showings) {
+    	Map<ScreenDay, Set<Integer>> sequences = new HashMap<ScreenDay, Set<Integer>>();
+    	Map<Integer, List<Showing>> byScreen = new HashMap<Integer, List<Showing>>();
+    	for(Showing showing : showings) {
+    		ScreenDay screenDay = ScreenDay.of(showing);
+    		if(!sequences.computeIfAbsent(screenDay, key -> new HashSet<Integer>()).add(showing.getSequenceOfTheDay())
+    				|| schedule.get(screenDay, showing.getSequenceOfTheDay()) != null) {
+    			throw new IllegalArgumentException("Invalid schedule. Sequence " + showing.getSequenceOfTheDay() + " is used twice on screen "
+    					+ screenDay.getScreenNumber() + " on " + screenDay.getDate());
+    		}
+    		byScreen.computeIfAbsent(showing.getScreen().getNumber(), key -> new ArrayList<Showing>()).add(showing);
+    	}
+    	Duration gap = cleaningGap;
+    	for(Map.Entry<Integer, List<Showing>> entry : byScreen.entrySet()) {
+    		List<Showing> onScreen = entry.getValue();
+    		onScreen.sort(Comparator.comparing(Showing::getStartTime));
+    		// The showing of the batch that ends last so far, so a shorter showing in between does not hide an overlap with it
+    		Showing latest = null;
+    		for(Showing current : onScreen) {
+    			Showing previous = schedule.findOverlap(entry.getKey(), current.getStartTime().minus(gap), endTime(current).plus(gap));
+    			if(previous == null && latest != null && endTime(latest).plus(gap).isAfter(current.getStartTime())) {
+    				previous = latest;
+    			}
+    			if(previous != null) {
+    				throw overlapError(current.getMovie(), current.getStartTime(), previous, entry.getKey());
+    			}
+    			if(latest == null || endTime(current).isAfter(endTime(latest))) {
+    				latest = current;
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Helper method to create the error for a showing that would overlap another.
+     * @param movie of the new showing
+     * @param showStartTime of the new showing
+     * @param other showing it would overlap
+     * @param screenNumber of the screen
+     * @return the exception to throw
+     */
+    private static IllegalArgumentException overlapError(Movie movie, LocalDateTime showStartTime, Showing other, int screenNumber) {
+    	return new IllegalArgumentException("Invalid schedule. " + movie.getTitle() + " at " + showStartTime + " overlaps "
+    			+ other.getMovie().getTitle() + " at " + other.getStartTime() + " on screen " + screenNumber);
+    }
+    
+    /**
+     * Helper method to return the time a showing ends.
+     * @param showing
+     * @return the start time plus the running time of the movie
+     */
+    private static LocalDateTime endTime(Showing showing) {
+    	return showing.getStartTime().plus(showing.getMovie().getRunningTime());
+    }
+    
+    /**
+     * Returns the next free sequence on a screen day, one after the highest sequence in use.
+     * @param screenDay to number
+     * @return the next sequence
+     */
+    int nextSequence(ScreenDay screenDay) {
+    	return schedule.nextSequence(screenDay);
     }
     
     /**
      * Removes a movie showing from the schedule. Returns the showing that was removed.
      * @param sequence
      * @return the showing that was removed
+     * @throws IllegalArgumentException if more than one screen day has a showing with the sequence
      */
     public Showing removeShowingFromSchedule(int sequence) {
-    	Showing removed = null;
-    	for(Showing s : schedule) {
-    		if(s.getSequenceOfTheDay() == sequence) {
-    			removed = s;
-    			schedule.remove(s);
-    		}
+    	Showing toRemove = findUnique(sequence);
+    	if(toRemove == null) {
+    		return null;
+    	}
+    	return removeShowingFromSchedule(toRemove.getStartTime().toLocalDate(), toRemove.getScreen().getNumber(), sequence);
+    }
+    
+    /**
+     * Removes the movie showing with the given sequence on the given date and screen from the schedule.
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @return the showing that was removed, or null if there was no such showing
+     */
+    public Showing removeShowingFromSchedule(LocalDate date, int screenNumber, int sequence) {
+    	Showing removed = schedule.remove(new ScreenDay(date, screenNumber), sequence);
+    	if(removed != null) {
+    		scheduleVersion.incrementAndGet();
+    		changes.publish(TheaterEvent.Type.SHOWING_REMOVED, removed, null);
     	}
     	return removed;
     }
     
     /**
-     * Clears the schedule by making it an empty new schedule.
+     * Clears the schedule by removing every showing from it.
      */
     public void clearSchedule() {
-    	this.schedule = new ArrayList<Showing>();
+    	schedule.clear();
+    	scheduleVersion.incrementAndGet();
+    	changes.publish(TheaterEvent.Type.SCHEDULE_CLEARED, null, null);
+    }
+    
+    /**
+     * Returns the showing in the schedule with the given sequence.
+     * @param sequence
+     * @return the showing, or null if there is no showing with the sequence
+     * @throws IllegalArgumentException if more than one screen day has a showing with the sequence
+     */
+    public Showing getShowing(int sequence) {
+    	return findUnique(sequence);
+    }
+    
+    /**
+     * Returns the showing with the given sequence on the given date and screen. Only that screen day's partition is searched.
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @return the showing, or null if there is no such showing
+     */
+    public Showing getShowing(LocalDate date, int screenNumber, int sequence) {
+    	return schedule.get(new ScreenDay(date, screenNumber), sequence);
+    }
+    
+    /**
+     * Returns the showings in the schedule that start within the given time range, ordered by start time.
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @return the showings starting in the range
+     */
+    public List<Showing> getShowingsBetween(LocalDateTime from, LocalDateTime to) {
+    	return schedule.between(from, to);
+    }
+    
+    /**
+     * Returns every showing in the schedule, by date and screen and then by start time.
+     * @return the showings in the schedule
+     */
+    public List<Showing> getSchedule() {
+    	List<Showing> showings = new ArrayList<Showing>();
+    	for(Showing showing : schedule.showings()) {
+    		showings.add(showing);
+    	}
+    	return Collections.unmodifiableList(showings);
+    }
+    
+    /**
+     * Returns the showings of every screen on the given date ordered by start time.
+     * @param date to return
+     * @return the showings on the date
+     */
+    public List<Showing> getSchedule(LocalDate date) {
+    	return Collections.unmodifiableList(schedule.showings(date));
     }
     
     /**
-     * Creates a reservation with the given parameters and adds it to the reservations list.
+     * Returns the showings of one screen on the given date ordered by start time.
+     * @param date to return
+     * @param screenNumber of the screen
+     * @return the showings on the screen day
+     */
+    public List<Showing> getSchedule(LocalDate date, int screenNumber) {
+    	return Collections.unmodifiableList(new ArrayList<Showing>(schedule.showings(new ScreenDay(date, screenNumber))));
+    }
+    
+    /**
+     * Creates a reservation with the given parameters and adds it to the reservations list. The seats are claimed atomically, so
+     * a reservation that would exceed the capacity of the showing is rejected without changing anything.
      * @param customer
      * @param sequence
      * @param ticketCount
      * @return the reservation that was created.
+     * @throws IllegalArgumentException if there is no showing with the sequence, more than one screen day has a showing with the
+     * sequence, or the ticket count is not positive
+     * @throws IllegalStateException if the showing does not have enough seats left
      */
     public Reservation reserve(Customer customer, int sequence, int ticketCount) {
-        Showing showing = null;
+    	return reserve(customer, null, sequence, ticketCount, null);
+    }
+    
+    /**
+     * Creates a reservation for the showing with the given sequence on the given date and screen.
+     * @param customer
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @param ticketCount
+     * @return the reservation that was created.
+     * @throws IllegalArgumentException if there is no such showing or the ticket count is not positive
+     * @throws IllegalStateException if the showing does not have enough seats left
+     */
+    public Reservation reserve(Customer customer, LocalDate date, int screenNumber, int sequence, int ticketCount) {
+    	return reserve(customer, new ScreenDay(date, screenNumber), sequence, ticketCount, null);
+    }
+    
+    /**
+     * Creates a reservation for the given block of seats of the showing with the given sequence on the given date and screen.
+     * @param customer
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @param seats to reserve
+     * @return the reservation that was created.
+     * @throws IllegalArgumentException if there is no such showing, its screen has no seat layout or the seats are outside it
+     * @throws IllegalStateException if any of the seats is already taken
+     */
+    public Reservation reserveSeats(Customer customer, LocalDate date, int screenNumber, int sequence, SeatBlock seats) {
+    	return reserve(customer, new ScreenDay(date, screenNumber), sequence, seats.getCount(), seats);
+    }
+    
+    /**
+     * Helper method to find the showing to reserve and reserve it, recording the latency or failure of the booking in the
+     * theater metrics.
+     * @param customer
+     * @param screenDay of the showing, or null to find the only showing with the sequence
+     * @param sequence
+     * @param ticketCount
+     * @param seats to reserve, or null for the best seats if the showing has a seat map
+     * @return the reservation that was created.
+     */
+    private Reservation reserve(Customer customer, ScreenDay screenDay, int sequence, int ticketCount, SeatBlock seats) {
+    	long start = METRICS.start();
+    	try {
+    		Reservation reserved = reserve(customer, findShowingToReserve(screenDay, sequence, ticketCount), ticketCount, seats);
+    		METRICS.reserve.stop(start);
+    		return reserved;
+    	} catch (RuntimeException e) {
+    		METRICS.reserve.fail(start);
+    		throw e;
+    	}
+    }
+    
+    /**
+     * Helper method to claim the seats of a showing and record the reservation.
+     * @param customer
+     * @param showing to reserve
+     * @param ticketCount
+     * @param seats to reserve, or null for the best seats if the showing has a seat map
+     * @return the reservation that was created.
+     * @throws IllegalStateException if the showing does not have enough seats left
+     */
+    private Reservation reserve(Customer customer, Showing showing, int ticketCount, SeatBlock seats) {
+    	// The customer pays the price quoted before their own seats count towards the showing's sell-through
+    	long ticketPriceCents = showing.getTicketPriceCents();
+    	
+    	// Claim the seats before recording the reservation so concurrent bookings cannot oversell the showing. Seats of expired
+    	// holds may still be waiting for the timer wheel, so it is advanced before giving up.
+    	if(!showing.tryReserveSeats(ticketCount) && !(expireHolds() > 0 && showing.tryReserveSeats(ticketCount))) {
+    		throw notEnoughSeats(showing);
+    	}
+    	SeatBlock held;
+    	try {
+    		held = assignSeats(showing, ticketCount, seats);
+    	} catch (RuntimeException e) {
+    		showing.releaseSeats(ticketCount);
+    		throw e;
+    	}
+    	
+    	// Create a reservation with the given customer and ticket count, and the retrieved showing.
+        Reservation toAdd = new Reservation(customer, showing, ticketCount, held, ticketPriceCents);
         
-        // Find the showing in the schedule that has the given sequence and retrieves it.
-    	for(int i = 0; i < schedule.size(); i++) {
-    		if(schedule.get(i).isSequence(sequence)) {
-    			showing = schedule.get(i);
+        // Make the reservation durable before it is recorded, and return the seats if it cannot be written.
+        ReservationJournal current = journal;
+        if(current != null) {
+        	try {
+        		awaitJournal(current.recordReservation(toAdd));
+        	} catch (RuntimeException e) {
+        		releaseSeats(toAdd);
+        		throw e;
+        	}
+        }
+        reservations.add(toAdd);
+        recordSale(toAdd, 1);
+        changes.publish(TheaterEvent.Type.RESERVATION_MADE, showing, toAdd);
+        return toAdd;
+    }
+    
+    /**
+     * Creates the reservations for every request, or none of them. Each showing is looked up once and the seats for all requests
+     * on the same showing are claimed together. A showing that looks short first gets back the seats of holds that have expired.
+     * If any showing still does not have enough seats, every seat already claimed by the batch is returned and nothing is recorded.
+     * @param requests the reservations to make
+     * @return the reservations that were created, in the same order as the requests
+     * @throws IllegalArgumentException if a request has an invalid or ambiguous sequence, or an invalid ticket count
+     * @throws IllegalStateException if a showing does not have enough seats left for the batch
+     */
+    public List<Reservation> reserveBatch(List<ReservationRequest> requests) {
+    	// Resolve every showing, quote it and total the tickets per showing before claiming anything
+    	Showing[] showings = new Showing[requests.size()];
+    	long[] ticketPricesCents = new long[requests.size()];
+    	Map<Showing, Integer> ticketsPerShowing = new LinkedHashMap<Showing, Integer>();
+    	for(int i = 0; i < showings.length; i++) {
+    		ReservationRequest request = requests.get(i);
+    		showings[i] = findShowingToReserve(request.getScreenDay(), request.getSequence(), request.getTicketCount());
+    		ticketPricesCents[i] = showings[i].getTicketPriceCents();
+    		ticketsPerShowing.merge(showings[i], request.getTicketCount(), Integer::sum);
+    	}
+    	
+    	// Claim the seats showing by showing, returning the claimed seats if any showing is short. As for a single booking, seats
+    	// of expired holds may still be waiting for the timer wheel, so it is advanced before giving up.
+    	List<Showing> claimed = new ArrayList<Showing>(ticketsPerShowing.size());
+    	for(Map.Entry<Showing, Integer> entry : ticketsPerShowing.entrySet()) {
+    		Showing showing = entry.getKey();
+    		if(!showing.tryReserveSeats(entry.getValue()) && !(expireHolds() > 0 && showing.tryReserveSeats(entry.getValue()))) {
+    			for(Showing claimedShowing : claimed) {
+    				claimedShowing.releaseSeats(ticketsPerShowing.get(claimedShowing));
+    			}
+    			throw notEnoughSeats(showing);
+    		}
+    		claimed.add(showing);
+    	}
+    	
+    	// Hold a block of seats for every request on a showing with a seat map
+    	List<Reservation> created = new ArrayList<Reservation>(showings.length);
+    	try {
+    		for(int i = 0; i < showings.length; i++) {
+    			ReservationRequest request = requests.get(i);
+    			SeatBlock held = assignSeats(showings[i], request.getTicketCount(), null);
+    			created.add(new Reservation(request.getCustomer(), showings[i], request.getTicketCount(), held, ticketPricesCents[i]));
+    		}
+    		
+    		// The batch is journaled as one record, so it is recovered all together or not at all
+    		ReservationJournal current = journal;
+    		if(current != null) {
+    			awaitJournal(current.recordReservations(created));
+    		}
+    	} catch (RuntimeException e) {
+    		for(Reservation reservation : created) {
+    			if(reservation.getSeats() != null) {
+    				reservation.getShowing().getSeatMap().release(reservation.getSeats());
+    			}
+    		}
+    		for(Showing showing : claimed) {
+    			showing.releaseSeats(ticketsPerShowing.get(showing));
+    		}
+    		throw e;
+    	}
+    	for(Reservation toAdd : created) {
+    		reservations.add(toAdd);
+    		recordSale(toAdd, 1);
+    		changes.publish(TheaterEvent.Type.RESERVATION_MADE, toAdd.getShowing(), toAdd);
+    	}
+    	return created;
+    }
+    
+    /**
+     * Holds seats of the showing with the given sequence on the given date and screen for a customer until the timeout passes.
+     * The seats are taken from the showing right away, along with the best block of seats if the showing has a seat map, but
+     * nothing is reserved until the hold is confirmed.
+     * @param customer
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @param ticketCount
+     * @param timeout after which the hold expires
+     * @return the pending hold
+     * @throws IllegalArgumentException if there is no such showing, or the ticket count or timeout is not positive
+     * @throws IllegalStateException if the showing does not have enough seats left
+     */
+    public SeatHold holdSeats(Customer customer, LocalDate date, int screenNumber, int sequence, int ticketCount, Duration timeout) {
+    	return hold(customer, new ScreenDay(date, screenNumber), sequence, ticketCount, null, timeout);
+    }
+    
+    /**
+     * Holds the given block of seats of the showing with the given sequence on the given date and screen for a customer until
+     * the timeout passes.
+     * @param customer
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @param seats to hold
+     * @param timeout after which the hold expires
+     * @return the pending hold
+     * @throws IllegalArgumentException if there is no such showing, its screen has no seat layout or the seats are outside it, or
+     * the timeout is not positive
+     * @throws IllegalStateException if any of the seats is already taken
+     */
+    public SeatHold holdSeats(Customer customer, LocalDate date, int screenNumber, int sequence, SeatBlock seats, Duration timeout) {
+    	return hold(customer, new ScreenDay(date, screenNumber), sequence, seats.getCount(), seats, timeout);
+    }
+    
+    /**
+     * Helper method to claim the seats of a showing for a hold and add the hold to the timer wheel.
+     * @param customer
+     * @param screenDay of the showing
+     * @param sequence
+     * @param ticketCount
+     * @param seats to hold, or null for the best seats if the showing has a seat map
+     * @param timeout after which the hold expires
+     * @return the pending hold
+     */
+    private SeatHold hold(Customer customer, ScreenDay screenDay, int sequence, int ticketCount, SeatBlock seats, Duration timeout) {
+    	if(timeout.isNegative() || timeout.isZero()) {
+    		throw new IllegalArgumentException("Invalid timeout. Seats can only be held for a positive time: " + timeout);
+    	}
+    	long now = System.nanoTime();
+    	expireHolds(now);
+    	Showing showing = findShowingToReserve(screenDay, sequence, ticketCount);
+    	long ticketPriceCents = showing.getTicketPriceCents();
+    	if(!showing.tryReserveSeats(ticketCount)) {
+    		throw notEnoughSeats(showing);
+    	}
+    	SeatBlock held;
+    	try {
+    		held = assignSeats(showing, ticketCount, seats);
+    	} catch (RuntimeException e) {
+    		showing.releaseSeats(ticketCount);
+    		throw e;
+    	}
+    	SeatHold hold = new SeatHold(customer, showing, ticketCount, held, ticketPriceCents, now + timeout.toNanos());
+    	holds.put(hold.getId(), hold);
+    	holdTimer.add(hold);
+    	return hold;
+    }
+    
+    /**
+     * Confirms a pending hold into a reservation for the held seats. A hold whose timeout has passed cannot be confirmed, even if
+     * the timer wheel has not expired it yet.
+     * @param holdId id of the hold
+     * @return the reservation that was created, or null if there is no pending hold with the id
+     */
+    public Reservation confirmHold(long holdId) {
+    	long now = System.nanoTime();
+    	expireHolds(now);
+    	SeatHold hold = holds.get(holdId);
+    	if(hold == null) {
+    		return null;
+    	}
+    	if(now - hold.getDeadlineNanos() >= 0) {
+    		expired(hold);
+    		return null;
+    	}
+    	if(!hold.end(SeatHold.State.CONFIRMED)) {
+    		return null;
+    	}
+    	holds.remove(holdId);
+    	Reservation toAdd = new Reservation(hold.getCustomer(), hold.getShowing(), hold.getTicketCount(), hold.getSeats(),
+    			hold.getTicketPriceCents());
+    	
+    	// The hold has ended, so its seats are returned if the reservation cannot be written
+    	ReservationJournal current = journal;
+    	if(current != null) {
+    		try {
+    			awaitJournal(current.recordReservation(toAdd));
+    		} catch (RuntimeException e) {
+    			releaseSeats(toAdd);
+    			throw e;
     		}
     	}
+    	reservations.add(toAdd);
+    	recordSale(toAdd, 1);
+    	changes.publish(TheaterEvent.Type.RESERVATION_MADE, toAdd.getShowing(), toAdd);
+    	return toAdd;
+    }
+    
+    /**
+     * Releases a pending hold and returns its seats to the showing.
+     * @param holdId id of the hold
+     * @return true if the hold was pending and has been released
+     */
+    public boolean releaseHold(long holdId) {
+    	expireHolds();
+    	SeatHold hold = holds.get(holdId);
+    	if(hold == null || !hold.end(SeatHold.State.RELEASED)) {
+    		return false;
+    	}
+    	holds.remove(holdId);
+    	releaseSeats(hold.getShowing(), hold.getTicketCount(), hold.getSeats());
+    	return true;
+    }
+    
+    /**
+     * Returns a pending hold.
+     * @param holdId id of the hold
+     * @return the hold, or null if there is no pending hold with the id
+     */
+    public SeatHold getHold(long holdId) {
+    	return holds.get(holdId);
+    }
+    
+    /**
+     * Returns the number of pending holds.
+     * @return the number of holds
+     */
+    public int getHoldCount() {
+    	return holds.size();
+    }
+    
+    /**
+     * Expires every pending hold whose timeout has passed and returns its seats to the showing. Holds are kept in a hierarchical
+     * timer wheel that is also advanced whenever holds are made, confirmed or released and whenever a booking finds too few seats,
+     * so this only needs to be called on a schedule to return the seats of abandoned holds while the theater is idle.
+     * @return the number of holds that were expired
+     */
+    public int expireHolds() {
+    	return expireHolds(System.nanoTime());
+    }
+    
+    /**
+     * Expires every pending hold whose timeout has passed by the given time.
+     * @param nowNanos System.nanoTime to expire the holds at
+     * @return the number of holds that were expired
+     */
+    int expireHolds(long nowNanos) {
+    	return holdTimer.advance(nowNanos, this::expired);
+    }
+    
+    /**
+     * Helper method to expire a pending hold and return its seats to the showing.
+     * @param hold to expire
+     * @return true if the hold was pending and has been expired
+     */
+    private boolean expired(SeatHold hold) {
+    	if(!hold.end(SeatHold.State.EXPIRED)) {
+    		return false;
+    	}
+    	holds.remove(hold.getId());
+    	releaseSeats(hold.getShowing(), hold.getTicketCount(), hold.getSeats());
+    	return true;
+    }
+    
+    /**
+     * Helper method to check a ticket count and find the showing in the schedule that has the given sequence.
+     * @param screenDay of the showing, or null to find the only showing with the sequence
+     * @param sequence
+     * @param ticketCount
+     * @return the showing to reserve
+     * @throws IllegalArgumentException if there is no showing with the sequence, the sequence is ambiguous, or the ticket count
+     * is not positive
+     */
+    private Showing findShowingToReserve(ScreenDay screenDay, int sequence, int ticketCount) {
+    	if(ticketCount < 1) {
+    		throw new IllegalArgumentException("Invalid ticket count. At least one ticket must be reserved: " + ticketCount);
+    	}
+    	
+        // Find the showing in the schedule that has the given sequence and retrieves it.
+        Showing showing = screenDay == null ? findUnique(sequence) : schedule.get(screenDay, sequence);
         
     	// Check if the retrieved showing exists or not
     	if(showing == null) {
+    		METRICS.invalidSequence();
     		throw new IllegalArgumentException("Invalid sequence. There are no showings with the sequence: " + String.valueOf(sequence));
     	}
-    	
-    	// Create a reservation with the given customer and ticket count, and the retrieved showing.
-        Reservation toAdd = new Reservation(customer, showing, ticketCount);
-        reservations.add(toAdd);
-        return toAdd;
+    	return showing;
+    }
+    
+    /**
+     * Helper method to find the only showing with the given sequence across every screen day.
+     * @param sequence
+     * @return the showing, or null if there is no showing with the sequence
+     * @throws IllegalArgumentException if more than one screen day has a showing with the sequence
+     */
+    private Showing findUnique(int sequence) {
+    	List<Showing> found = schedule.find(sequence);
+    	if(found.isEmpty()) {
+    		return null;
+    	}
+    	if(found.size() > 1) {
+    		throw new IllegalArgumentException("Ambiguous sequence. " + found.size() + " showings have the sequence " + sequence
+    				+ ", so the date and screen must be given");
+    	}
+    	return found.get(0);
+    }
+    
+    /**
+     * Helper method to hold the seats of a reservation on a showing with a seat map. Without a requested block, the best block of
+     * seats next to each other is found for the party.
+     * @param showing to hold the seats of
+     * @param ticketCount number of seats
+     * @param requested block to hold, or null to find the best block
+     * @return the block that is now held, or null if the showing has no seat map
+     * @throws IllegalArgumentException if seats are requested on a showing without a seat map, or outside its seat map
+     * @throws IllegalStateException if a requested seat is taken, or no row has enough seats together for the party
+     */
+    private SeatBlock assignSeats(Showing showing, int ticketCount, SeatBlock requested) {
+    	SeatMap seatMap = showing.getSeatMap();
+    	if(seatMap == null) {
+    		if(requested != null) {
+    			throw new IllegalArgumentException("Invalid seats. " + showing.getScreen() + " has no seat layout");
+    		}
+    		return null;
+    	}
+    	if(requested != null) {
+    		if(!seatMap.hold(requested)) {
+    			METRICS.notEnoughSeats();
+    			throw new IllegalStateException("Seats taken. Some of the seats " + requested + " are already taken for the showing with the sequence "
+    					+ showing.getSequenceOfTheDay());
+    		}
+    		return requested;
+    	}
+    	SeatBlock held = seatMap.allocate(ticketCount);
+    	if(held == null) {
+    		METRICS.notEnoughSeats();
+    		throw new IllegalStateException("Not enough seats together. The showing with the sequence " + showing.getSequenceOfTheDay()
+    				+ " has no row with " + ticketCount + " seats available next to each other");
+    	}
+    	return held;
     }
     
     /**
-     * Removes a reservation from the reservations list.
+     * Helper method to return the seats of a reservation to its showing, and release its block of seats if it has one.
+     * @param reservation whose seats to return
+     */
+    private static void releaseSeats(Reservation reservation) {
+    	releaseSeats(reservation.getShowing(), reservation.getAudienceCount(), reservation.getSeats());
+    }
+    
+    /**
+     * Helper method to return seats to a showing, and release a block of seats if there is one.
+     * @param showing to return the seats to
+     * @param ticketCount number of seats
+     * @param seats block of seats to release, or null
+     */
+    private static void releaseSeats(Showing showing, int ticketCount, SeatBlock seats) {
+    	if(seats != null) {
+    		showing.getSeatMap().release(seats);
+    	}
+    	showing.releaseSeats(ticketCount);
+    }
+    
+    /**
+     * Helper method to create the exception thrown when a showing does not have enough seats left.
+     * @param showing that is short of seats
+     * @return the exception to throw
+     */
+    private IllegalStateException notEnoughSeats(Showing showing) {
+    	METRICS.notEnoughSeats();
+    	return new IllegalStateException("Not enough seats. The showing with the sequence " + showing.getSequenceOfTheDay() + " has "
+				+ showing.getSeatsAvailable() + " seats available");
+    }
+    
+    /**
+     * Removes a reservation from the reservations list and returns its seats to the showing. Only the reservations for the
+     * showing with the given sequence are searched.
      * @param customer
      * @param sequence
      * @param ticketCount
-     * @return the removed reservation
+     * @return the removed reservation, or null if no reservation matched
+     * @throws IllegalArgumentException if more than one screen day has a showing with the sequence
      */
     public Reservation removeReservation(Customer customer, int sequence, int ticketCount) {
-    	Reservation removed = null;
-    	for(int i = 0; i < reservations.size(); i++) {
-    		Reservation current = reservations.get(i);
-    		if(current.getCustomer().equals(customer) && current.getShowing().getSequenceOfTheDay() == sequence && current.getAudienceCount() == ticketCount) {
-    			removed = current;
-    			reservations.remove(reservations.get(i));
-    		}
+    	Showing showing = findUnique(sequence);
+    	if(showing == null) {
+    		return null;
+    	}
+    	// Only the thread that actually removes the reservation releases its seats
+    	Reservation removed = reservations.removeFirst(showing, customer, ticketCount);
+    	if(removed != null) {
+    		cancelled(removed);
     	}
     	return removed;
     }
     
     /**
-     * Helper method used to find the length of the longest movie title. Used for aligning the columns of the printed schedule.
-     * @return the number of characters in the longest movie title
+     * Removes a reservation for the showing with the given sequence on the given date and screen, and returns its seats to the
+     * showing.
+     * @param customer
+     * @param date of the showing
+     * @param screenNumber of the screen the showing plays on
+     * @param sequence on the screen day
+     * @param ticketCount
+     * @return the removed reservation, or null if there is no such showing or no reservation matched
      */
-    private int longestMovieTitle() {
-    	int longest = 0;
-        for (Showing s : schedule) {
-            int titleLength = s.getMovie().getTitle().length();
-            if (titleLength > longest) {
-            	longest = titleLength;
-            }
-        }
-    	return longest;
+    public Reservation removeReservation(Customer customer, LocalDate date, int screenNumber, int sequence, int ticketCount) {
+    	Showing showing = schedule.get(new ScreenDay(date, screenNumber), sequence);
+    	if(showing == null) {
+    		return null;
+    	}
+    	Reservation removed = reservations.removeFirst(showing, customer, ticketCount);
+    	if(removed != null) {
+    		cancelled(removed);
+    	}
+    	return removed;
+    }
+    
+    /**
+     * Removes the given reservation from the reservations list and returns its seats to the showing.
+     * @param reservation to remove
+     * @return true if the reservation was removed, false if it was not in the list
+     */
+    public boolean removeReservation(Reservation reservation) {
+    	if(!reservations.remove(reservation)) {
+    		return false;
+    	}
+    	cancelled(reservation);
+    	return true;
+    }
+    
+    /**
+     * Cancels the reservation with the given id and returns its seats to the showing.
+     * @param reservationId of the reservation
+     * @return the cancelled reservation, or null if there is no reservation with the id
+     */
+    public Reservation cancelReservation(long reservationId) {
+    	Reservation reservation = reservations.get(reservationId);
+    	return reservation != null && removeReservation(reservation) ? reservation : null;
     }
     
     /**
-     * Prints the movie schedule in text format with headers.
+     * Cancels the reservation with the given id if it was made by the given customer, and returns its seats to the showing. A
+     * reservation of another customer is treated as if it did not exist, so callers cannot tell which ids are in use.
+     * @param reservationId of the reservation
+     * @param customerId of the customer who made the reservation
+     * @return the cancelled reservation, or null if the customer has no reservation with the id
+     */
+    public Reservation cancelReservation(long reservationId, String customerId) {
+    	Reservation reservation = reservations.get(reservationId);
+    	if(reservation == null || !Objects.equals(reservation.getCustomer().getId(), customerId)) {
+    		return null;
+    	}
+    	return removeReservation(reservation) ? reservation : null;
+    }
+    
+    /**
+     * Helper method to journal the cancellation of a reservation that was just removed from the store and return its seats to the
+     * showing. If the cancellation cannot be journaled the reservation is put back.
+     * @param reservation that was removed
+     */
+    private void cancelled(Reservation reservation) {
+    	ReservationJournal current = journal;
+    	if(current != null) {
+    		try {
+    			awaitJournal(current.recordCancellation(reservation));
+    		} catch (RuntimeException e) {
+    			reservations.add(reservation);
+    			throw e;
+    		}
+    	}
+    	releaseSeats(reservation);
+    	recordSale(reservation, -1);
+    	changes.publish(TheaterEvent.Type.RESERVATION_CANCELLED, reservation.getShowing(), reservation);
+    }
+    
+    /**
+     * Helper method to add a reservation to the sales counters of its showing and movie, or take it away.
+     * @param reservation that was made or cancelled
+     * @param sign 1 for a reservation, -1 for a cancellation
+     */
+    private void recordSale(Reservation reservation, int sign) {
+    	int ticketCount = sign * reservation.getAudienceCount();
+    	long fullPriceCents = reservation.getShowing().getMovie().getTicketPriceCents();
+    	long belowFullPriceCents = fullPriceCents - reservation.getTicketPriceCents();
+    	// The same reservation always splits the same way, so a cancellation takes back exactly what was recorded
+    	recordSale(reservation.getShowing(), ticketCount, Math.max(0, belowFullPriceCents) * ticketCount,
+    			Math.max(0, -belowFullPriceCents) * ticketCount);
+    }
+    
+    /**
+     * Helper method to add tickets of a showing to the sales counters of the showing and its movie.
+     * @param showing the tickets are for
+     * @param ticketCount number of tickets, negative for a cancellation
+     * @param discountCents discount given on the tickets, negative for a cancellation
+     * @param surchargeCents surcharge added to the tickets, negative for a cancellation
+     */
+    private void recordSale(Showing showing, int ticketCount, long discountCents, long surchargeCents) {
+    	long grossCents = showing.getMovie().getTicketPriceCents() * ticketCount;
+    	showingSales.computeIfAbsent(showing, key -> new SalesCounters()).record(ticketCount, grossCents, discountCents, surchargeCents);
+    	movieSales.computeIfAbsent(showing.getMovie(), key -> new SalesCounters()).record(ticketCount, grossCents, discountCents, surchargeCents);
+    }
+    
+    /**
+     * Helper method to wait until a journal record is durable.
+     * @param written future of the record
+     * @throws UncheckedIOException if the record could not be written
+     * @throws IllegalStateException if the journal is closed
+     */
+    private static void awaitJournal(CompletableFuture<Void> written) {
+    	try {
+    		written.join();
+    	} catch (CompletionException e) {
+    		if(e.getCause() instanceof RuntimeException) {
+    			throw (RuntimeException) e.getCause();
+    		}
+    		throw e;
+    	}
+    }
+    
+    /**
+     * Restores a reservation read from a journal with the id it was made with. The reservation is not written to the journal again.
+     * On a showing with a seat map the reservation is given back the seats it was recorded with; if they are taken or no longer
+     * fit the seat map it is given the best seats instead, and if no row has enough seats together it is restored without assigned
+     * seats rather than lost. The reservation keeps the ticket price it was made at.
+     * @param reservationId the reservation was made with
+     * @param customer of the reservation
+     * @param showing of the reservation
+     * @param ticketCount of the reservation
+     * @param seats held by the reservation when it was made, or null
+     * @param ticketPriceCents price of a single ticket when the reservation was made
+     * @return true if the reservation was restored, false if its id is in use or the showing does not have enough seats left
+     */
+    boolean restoreReservation(long reservationId, Customer customer, Showing showing, int ticketCount, SeatBlock seats,
+    		long ticketPriceCents) {
+    	if(ticketCount < 1 || reservations.get(reservationId) != null || !showing.tryReserveSeats(ticketCount)) {
+    		return false;
+    	}
+    	Reservation restored = Reservation.restore(reservationId, customer, showing, ticketCount,
+    			restoreSeats(showing.getSeatMap(), ticketCount, seats), ticketPriceCents);
+    	reservations.add(restored);
+    	recordSale(restored, 1);
+    	return true;
+    }
+    
+    /**
+     * Helper method to hold the seats of a restored reservation, falling back to the best free seats.
+     * @param seatMap of the showing, or null
+     * @param ticketCount of the reservation
+     * @param seats recorded for the reservation, or null
+     * @return the seats now held, or null if the showing has no seat map or no row has enough seats together
+     */
+    private static SeatBlock restoreSeats(SeatMap seatMap, int ticketCount, SeatBlock seats) {
+    	if(seatMap == null) {
+    		return null;
+    	}
+    	if(seats != null && seats.getCount() == ticketCount && seats.getRow() < seatMap.getRows()
+    			&& seats.getFirstSeat() + ticketCount <= seatMap.getSeatsPerRow() && seatMap.hold(seats)) {
+    		return seats;
+    	}
+    	return seatMap.allocate(ticketCount);
+    }
+    
+    /**
+     * Restores a cancellation read from a journal by removing the reservation with the recorded id. The cancellation is not written
+     * to the journal again.
+     * @param reservationId of the cancelled reservation
+     * @return true if the reservation was removed
+     */
+    boolean restoreCancellation(long reservationId) {
+    	Reservation removed = reservations.get(reservationId);
+    	if(removed == null || !reservations.remove(removed)) {
+    		return false;
+    	}
+    	releaseSeats(removed);
+    	recordSale(removed, -1);
+    	return true;
+    }
+    
+    /**
+     * Restores a showing loaded from a snapshot into the schedule. The showing is priced like any other, but it is not published on
+     * the change feed, since it was published when it was first scheduled.
+     * @param showing that was loaded
+     */
+    void restoreShowing(Showing showing) {
+    	applyPricing(showing);
+    	schedule.add(showing);
+    }
+    
+    /**
+     * Restores the sales counters of a showing loaded from a snapshot, whose reservations are only read when they are needed.
+     * @param showing that was loaded
+     * @param ticketCount number of tickets sold for the showing
+     * @param discountCents discount given on the tickets
+     * @param surchargeCents surcharge added to the tickets
+     */
+    void restoreSales(Showing showing, int ticketCount, long discountCents, long surchargeCents) {
+    	if(ticketCount > 0) {
+    		recordSale(showing, ticketCount, discountCents, surchargeCents);
+    	}
+    }
+    
+    /**
+     * Returns the showing on the given screen that starts at the given time. Used to resolve the showings of journal records.
+     * @param screenNumber of the screen
+     * @param startTime of the showing
+     * @return the showing, or null if there is no such showing
+     */
+    Showing findShowing(int screenNumber, LocalDateTime startTime) {
+    	return schedule.get(screenNumber, startTime);
+    }
+    
+    /**
+     * Returns the reservations made for the showing with the given sequence.
+     * @param sequence
+     * @return the reservations for the showing
+     * @throws IllegalArgumentException if more than one screen day has a showing with the sequence
+     */
+    public List<Reservation> getReservations(int sequence) {
+    	Showing showing = findUnique(sequence);
+    	return showing == null ? Collections.<Reservation>emptyList() : getReservations(showing);
+    }
+    
+    /**
+     * Returns the reservations made for the given showing.
+     * @param showing
+     * @return the reservations for the showing
+     */
+    public List<Reservation> getReservations(Showing showing) {
+    	return Collections.unmodifiableList(reservations.reservations(showing));
+    }
+    
+    /**
+     * Returns the reservation with the given id.
+     * @param reservationId of the reservation
+     * @return the reservation, or null if there is no reservation with the id
+     */
+    public Reservation getReservation(long reservationId) {
+    	return reservations.get(reservationId);
+    }
+    
+    /**
+     * Returns the reservations made by the customer with the given id, in the order they were made.
+     * @param customerId of the customer
+     * @return the reservations of the customer
+     */
+    public List<Reservation> getCustomerReservations(String customerId) {
+    	return Collections.unmodifiableList(reservations.reservations(customerId));
+    }
+    
+    /**
+     * Returns the number of reservations made.
+     * @return the number of reservations
+     */
+    public int getReservationCount() {
+    	return reservations.size();
+    }
+    
+    /**
+     * Returns the running sales of the showing. The counters are updated on every reservation and cancellation, so reading them
+     * takes constant time and never blocks a booking.
+     * @param showing
+     * @return the sales of the showing
+     */
+    public SalesCounters getSales(Showing showing) {
+    	return showingSales.getOrDefault(showing, SalesCounters.NONE);
+    }
+    
+    /**
+     * Returns the running sales of every showing of the movie.
+     * @param movie
+     * @return the sales of the movie
+     */
+    public SalesCounters getSales(Movie movie) {
+    	return movieSales.getOrDefault(movie, SalesCounters.NONE);
+    }
+    
+    /**
+     * Returns the feed the changes to the schedule and reservations are published on. Every change is published after it takes
+     * effect. Showings and reservations restored from a journal or snapshot are not published again.
+     * @return the change feed
+     */
+    public ChangeFeed getChangeFeed() {
+    	return changes;
+    }
+    
+    /**
+     * Returns the store the reservations are kept in.
+     * @return the reservation store
+     */
+    public ReservationStore getReservationStore() {
+    	return reservations;
+    }
+
+    /**
+     * Returns the revenue, tickets sold and occupancy of the theater by showing, movie, time slot and discount rule. The report
+     * is built in parallel once the theater has more than TheaterReport.PARALLEL_THRESHOLD reservations and more than one core.
+     * @return the report
+     */
+    public TheaterReport getReport() {
+    	return TheaterReport.of(this);
+    }
+    
+    /**
+     * Writes a snapshot of the schedule and reservations to the given file. Bookings are not paused while the snapshot is written.
+     * @param path of the snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeSnapshot(Path path) throws IOException {
+    	TheaterSnapshot.write(this, path);
+    }
+    
+    /**
+     * Returns the rendered schedule, grouped by screen day. The cached snapshot is returned unless the schedule has changed since
+     * it was rendered. Readers never block: if the snapshot is stale the caller renders a new one and
+     * publishes it, and concurrent callers may each render a copy.
+     * @return the rendered schedule
+     */
+    public ScheduleSnapshot getScheduleSnapshot() {
+    	ScheduleSnapshot current = scheduleSnapshot;
+    	// The version is read before rendering, so a snapshot rendered during a change is replaced on the next read
+    	long version = scheduleVersion.get();
+    	if(current != null && current.getVersion() == version) {
+    		return current;
+    	}
+    	ScheduleSnapshot rendered = ScheduleSnapshot.render(version, schedule.showings());
+    	scheduleSnapshot = rendered;
+    	return rendered;
+    }
+    
+    /**
+     * Prints the movie schedule in text format with a header for every screen day.
      */
     public void printScheduleText() {
-        System.out.println("Showtimes for " + provider.currentDate());
-        System.out.println("==========================================================================");
-        System.out.printf("%-10s %-12s %-"+(longestMovieTitle() + 3)+"s %-14s %-10s\n", "Sequence", "Start Time", "Movie Title", "Runtime", "Price");
-        schedule.forEach(s ->
-        		System.out.printf("%-10d %-12s %-"+(longestMovieTitle() + 3)+"s %-14s $%.2f\n",
-        				s.getSequenceOfTheDay(),
-        				s.formatStartTime(s.getStartTime()),
-        				s.getMovie().getTitle(),
-        				humanReadableFormat(s.getMovie().getRunningTime()),
-        				s.getMovie().getTicketPrice())
-        );
-        System.out.println("==========================================================================");
+    	try {
+    		writeScheduleText(System.out);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
     }
     
     /**
      * Prints the movie schedule in json format.
      */
     public void printScheduleJson() {
-        System.out.println("Showtimes for " + provider.currentDate());
-        System.out.println("===================================================");
-        
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        
-        schedule.forEach(s -> {
-        		JsonObject scheduleObject = new JsonObject();
-                scheduleObject.addProperty("sequence", s.getSequenceOfTheDay());
-                scheduleObject.addProperty("startTime", s.formatStartTime(s.getStartTime()));
-                scheduleObject.addProperty("title", s.getMovie().getTitle());
-                scheduleObject.addProperty("runningTime", humanReadableFormat(s.getMovie().getRunningTime()));
-                scheduleObject.addProperty("ticketPrice", s.getMovie().getTicketPrice());
-                String json = gson.toJson(scheduleObject);
-                System.out.println(json);
-        });
-        
-        System.out.println("===================================================");
+    	try {
+    		writeScheduleJson(System.out);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
     }
-
+    
     /**
-     * Helper method to take the inputted duration and return a String that makes the duration length readable.
-     * @param duration
-     * @return the duration formatted into a string
+     * Writes the movie schedule in text format with a header for every screen day. The writer is flushed but not closed.
+     * @param out writer to write the schedule to
+     * @throws IOException if writing fails
      */
-    private String humanReadableFormat(Duration duration) {
-        long hour = duration.toHours();
-        long remainingMin = duration.toMinutes() - TimeUnit.HOURS.toMinutes(duration.toHours());
-
-        return String.format("%s hr%s %s min%s", hour, handlePlural(hour), remainingMin, handlePlural(remainingMin));
+    public void writeScheduleText(Writer out) throws IOException {
+    	ScheduleWriter.writeText(schedule.showings(), out);
     }
-
+    
     /**
-     * Helper method to return an s character if the value is plural.
-     * @param value
-     * @return empty string if singular value, "s" if plural
+     * Writes the schedule of one screen day in text format with headers. Only that screen day's partition is read. The writer is
+     * flushed but not closed.
+     * @param date of the schedule
+     * @param screenNumber of the screen
+     * @param out writer to write the schedule to
+     * @throws IOException if writing fails
      */
-    private String handlePlural(long value) {
-        if (value == 1) {
-            return "";
-        }
-        else {
-            return "s";
-        }
+    public void writeScheduleText(LocalDate date, int screenNumber, Writer out) throws IOException {
+    	ScheduleWriter.writeText(schedule.showings(new ScreenDay(date, screenNumber)), out);
+    }
+    
+    /**
+     * Writes the movie schedule in text format with a header for every screen day as UTF-8 from the cached snapshot. The stream is
+     * flushed but not closed.
+     * @param out stream to write the schedule to
+     * @throws IOException if writing fails
+     */
+    public void writeScheduleText(OutputStream out) throws IOException {
+    	getScheduleSnapshot().writeText(out);
+    }
+    
+    /**
+     * Writes the movie schedule in json format. The writer is flushed but not closed.
+     * @param out writer to write the schedule to
+     * @throws IOException if writing fails
+     */
+    public void writeScheduleJson(Writer out) throws IOException {
+    	ScheduleWriter.writeJson(schedule.showings(), out);
+    }
+    
+    /**
+     * Writes the schedule of one screen day in json format. Only that screen day's partition is read. The writer is flushed but
+     * not closed.
+     * @param date of the schedule
+     * @param screenNumber of the screen
+     * @param out writer to write the schedule to
+     * @throws IOException if writing fails
+     */
+    public void writeScheduleJson(LocalDate date, int screenNumber, Writer out) throws IOException {
+    	ScheduleWriter.writeJson(schedule.showings(new ScreenDay(date, screenNumber)), out);
+    }
+    
+    /**
+     * Writes the movie schedule in json format as UTF-8 from the cached snapshot. The stream is flushed but not closed.
+     * @param out stream to write the schedule to
+     * @throws IOException if writing fails
+     */
+    public void writeScheduleJson(OutputStream out) throws IOException {
+    	getScheduleSnapshot().writeJson(out);
     }
     
     // I did not think having a main method in this Theater class was right. I am assuming there will be a separate GUI or UI class that
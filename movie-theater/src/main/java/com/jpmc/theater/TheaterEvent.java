@@ -0,0 +1,90 @@
+package com.jpmc.theater;
+
+/**
+ * This class represents a change to a Theater's schedule or reservations, as published on its ChangeFeed. Every event has the
+ * offset it was published at, its type, and the showing or reservation it is about.
+ *
+ * @author Ray Wang
+ */
+public final class TheaterEvent {
+	/**
+	 * The kinds of change that are published.
+	 */
+	public enum Type {
+		/** A showing was added to the schedule */
+		SHOWING_ADDED,
+		/** A showing was removed from the schedule */
+		SHOWING_REMOVED,
+		/** A showing was given a new sequence of the day because a showing before it was scheduled or unscheduled */
+		SHOWING_RESEQUENCED,
+		/** Every showing was removed from the schedule */
+		SCHEDULE_CLEARED,
+		/** A reservation was made */
+		RESERVATION_MADE,
+		/** A reservation was cancelled */
+		RESERVATION_CANCELLED
+	}
+
+	/** Offset of the event in the feed */
+	private final long offset;
+	/** Type of the event */
+	private final Type type;
+	/** Showing that changed, or null if the event is not about one showing */
+	private final Showing showing;
+	/** Reservation that changed, or null if the event is about the schedule */
+	private final Reservation reservation;
+
+	/**
+	 * Constructs the event.
+	 * @param offset of the event in the feed
+	 * @param type of the event
+	 * @param showing that changed, or null
+	 * @param reservation that changed, or null
+	 */
+	TheaterEvent(long offset, Type type, Showing showing, Reservation reservation) {
+		this.offset = offset;
+		this.type = type;
+		this.showing = showing;
+		this.reservation = reservation;
+	}
+
+	/**
+	 * Returns the offset of the event in the feed
+	 * @return the offset
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Returns the type of the event
+	 * @return the type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the showing that changed, or the showing of the reservation that changed
+	 * @return the showing, or null for SCHEDULE_CLEARED
+	 */
+	public Showing getShowing() {
+		return showing;
+	}
+
+	/**
+	 * Returns the reservation that was made or cancelled
+	 * @return the reservation, or null for schedule events
+	 */
+	public Reservation getReservation() {
+		return reservation;
+	}
+
+	/**
+	 * Formats the offset and type of the event into a string.
+	 */
+	@Override
+	public String toString() {
+		return offset + ": " + type;
+	}
+}
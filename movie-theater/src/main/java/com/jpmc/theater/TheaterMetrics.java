@@ -0,0 +1,128 @@
+package com.jpmc.theater;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class represents the instrumentation of the theater's hot paths: Theater.reserve, ticket price calculations and schedule
+ * rendering. Each entry point has a LatencyTimer with a latency histogram and a failure count, and failed bookings are also
+ * counted by cause. The metrics can be read as a MetricsSnapshot or through JMX once registerMBean has been called.
+ *
+ * Metrics are disabled by default. While they are disabled an instrumented call reads one volatile flag and does nothing else,
+ * so leaving the instrumentation in place costs effectively nothing.
+ *
+ * @author Ray Wang
+ */
+public final class TheaterMetrics implements TheaterMetricsMXBean {
+	/** Name the metrics are registered under with JMX */
+	public static final String OBJECT_NAME = "com.jpmc.theater:type=TheaterMetrics";
+
+	/** Current instance of TheaterMetrics. Used to maintain singleton instance */
+	private static final TheaterMetrics INSTANCE = new TheaterMetrics();
+
+	/** Whether metrics are being recorded */
+	private volatile boolean enabled;
+	/** Latency of Theater.reserve */
+	final LatencyTimer reserve;
+	/** Latency of ticket price calculations */
+	final LatencyTimer ticketPricing;
+	/** Latency of schedule rendering */
+	final LatencyTimer scheduleRendering;
+	/** Number of bookings rejected because no showing had the sequence */
+	private final LongAdder invalidSequenceFailures;
+	/** Number of bookings rejected because the showing did not have enough seats */
+	private final LongAdder notEnoughSeatsFailures;
+
+	/** Private constructor to prevent other classes from creating instances of TheaterMetrics as it uses the singleton pattern */
+	private TheaterMetrics() {
+		this.reserve = new LatencyTimer("reserve");
+		this.ticketPricing = new LatencyTimer("ticketPricing");
+		this.scheduleRendering = new LatencyTimer("scheduleRendering");
+		this.invalidSequenceFailures = new LongAdder();
+		this.notEnoughSeatsFailures = new LongAdder();
+	}
+
+	/**
+	 * Returns the singleton instance of the class.
+	 * @return the singleton instance
+	 */
+	public static TheaterMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server under OBJECT_NAME. Registering more than once has no effect.
+	 * @throws IllegalStateException if the metrics cannot be registered
+	 */
+	public static synchronized void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(!server.isRegistered(name)) {
+				server.registerMBean(INSTANCE, name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("The theater metrics could not be registered", e);
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public MetricsSnapshot getSnapshot() {
+		return new MetricsSnapshot(enabled, reserve.stats(), ticketPricing.stats(), scheduleRendering.stats(),
+				invalidSequenceFailures.sum(), notEnoughSeatsFailures.sum());
+	}
+
+	@Override
+	public void reset() {
+		reserve.reset();
+		ticketPricing.reset();
+		scheduleRendering.reset();
+		invalidSequenceFailures.reset();
+		notEnoughSeatsFailures.reset();
+	}
+
+	/**
+	 * Returns the value to time a call with, which is passed to the stop or fail method of a timer when the call ends.
+	 * @return the current nano time, or 0 if metrics are disabled
+	 */
+	long start() {
+		if(!enabled) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		// 0 means disabled, so the rare nano time of 0 is moved by a nanosecond
+		return now == 0 ? 1 : now;
+	}
+
+	/**
+	 * Counts a booking rejected because no showing had the sequence.
+	 */
+	void invalidSequence() {
+		if(enabled) {
+			invalidSequenceFailures.increment();
+		}
+	}
+
+	/**
+	 * Counts a booking rejected because the showing did not have enough seats.
+	 */
+	void notEnoughSeats() {
+		if(enabled) {
+			notEnoughSeatsFailures.increment();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.jpmc.theater;
+
+/**
+ * This interface represents the management interface of TheaterMetrics, registered with JMX by TheaterMetrics.registerMBean.
+ *
+ * @author Ray Wang
+ */
+public interface TheaterMetricsMXBean {
+	/**
+	 * @return true if metrics are being recorded
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Starts or stops recording metrics.
+	 * @param enabled true to record metrics
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the metrics recorded so far
+	 */
+	MetricsSnapshot getSnapshot();
+
+	/**
+	 * Clears the metrics recorded so far.
+	 */
+	void reset();
+}
@@ -0,0 +1,363 @@
+package com.jpmc.theater;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents the revenue, tickets sold and occupancy of a theater, totalled by showing, movie, time slot and the
+ * discount rule the showing currently gets. The report is built in a single pass over the showings of the schedule and the
+ * reservations of each showing.
+ *
+ * Above PARALLEL_THRESHOLD reservations, and when there is more than one core to use, the pass is split into ranges of showings
+ * that are totalled on the common fork/join pool and merged in schedule order. Every total is a sum of longs and every map keeps
+ * the order in which its keys first appear in the schedule, so the sequential and parallel reports are identical.
+ *
+ * @author Ray Wang
+ */
+public final class TheaterReport {
+	/** Number of reservations above which the report is built in parallel. See ReportBenchmark for the crossover point */
+	public static final int PARALLEL_THRESHOLD = 50_000;
+	/** Name used to group tickets that were sold without a discount */
+	public static final String NO_DISCOUNT = "No discount";
+
+	/** Totals of the whole theater */
+	private final Totals total;
+	/** Totals of every showing */
+	private final Map<Showing, Totals> byShowing;
+	/** Totals of every movie */
+	private final Map<Movie, Totals> byMovie;
+	/** Totals of every hour long time slot, keyed by the start of the slot */
+	private final Map<LocalTime, Totals> byTimeSlot;
+	/** Totals of every discount rule, keyed by the name of the rule */
+	private final Map<String, Totals> byDiscountRule;
+
+	/**
+	 * Constructs the report from the totals of an accumulator.
+	 * @param accumulator holding the totals
+	 */
+	private TheaterReport(Accumulator accumulator) {
+		this.total = accumulator.total;
+		this.byShowing = Collections.unmodifiableMap(accumulator.byShowing);
+		this.byMovie = Collections.unmodifiableMap(accumulator.byMovie);
+		this.byTimeSlot = Collections.unmodifiableMap(accumulator.byTimeSlot);
+		this.byDiscountRule = Collections.unmodifiableMap(accumulator.byDiscountRule);
+	}
+
+	/**
+	 * Builds the report for every showing in the schedule of the theater, in parallel if the theater has more than
+	 * PARALLEL_THRESHOLD reservations and the common fork/join pool has more than one thread.
+	 * @param theater to report on
+	 * @return the report
+	 */
+	public static TheaterReport of(Theater theater) {
+		return of(theater, theater.getReservationCount() > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+	}
+
+	/**
+	 * Builds the report for every showing in the schedule of the theater.
+	 * @param theater to report on
+	 * @param parallel true to total ranges of showings on the common fork/join pool, false to total them on the calling thread
+	 * @return the report
+	 */
+	public static TheaterReport of(Theater theater, boolean parallel) {
+		List<Showing> showings = theater.getSchedule();
+		if(!parallel) {
+			return new TheaterReport(accumulate(theater, showings, 0, showings.size()));
+		}
+		int leafSize = Math.max(1, showings.size() / (ForkJoinPool.getCommonPoolParallelism() * 4));
+		return new TheaterReport(ForkJoinPool.commonPool().invoke(new ReportTask(theater, showings, 0, showings.size(), leafSize)));
+	}
+
+	/**
+	 * Returns the totals of the whole theater.
+	 * @return the totals
+	 */
+	public Totals getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the totals of every showing in schedule order. Showings without reservations are included.
+	 * @return unmodifiable map of the totals
+	 */
+	public Map<Showing, Totals> getByShowing() {
+		return byShowing;
+	}
+
+	/**
+	 * Returns the totals of every movie, in the order the movies first appear in the schedule.
+	 * @return unmodifiable map of the totals
+	 */
+	public Map<Movie, Totals> getByMovie() {
+		return byMovie;
+	}
+
+	/**
+	 * Returns the totals of every hour long time slot that has a showing, keyed by the start of the slot, in the order the slots
+	 * first appear in the schedule.
+	 * @return unmodifiable map of the totals
+	 */
+	public Map<LocalTime, Totals> getByTimeSlot() {
+		return byTimeSlot;
+	}
+
+	/**
+	 * Returns the totals of every discount rule applied to a showing, keyed by the name of the rule, in the order the rules first
+	 * appear in the schedule. Showings without a discount are totalled under NO_DISCOUNT.
+	 *
+	 * A showing is filed under the rule its discount policy applies when the report is built, not the rule in force when its
+	 * tickets were booked. Revenue is still counted at the price each reservation was booked at, so after a discount policy change
+	 * the revenue of reservations booked under the old policy is filed under the new rule.
+	 * @return unmodifiable map of the totals
+	 */
+	public Map<String, Totals> getByDiscountRule() {
+		return byDiscountRule;
+	}
+
+	/**
+	 * Checks if two reports have the same totals in the same order.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+		TheaterReport report = (TheaterReport) o;
+		return total.equals(report.total)
+				&& List.copyOf(byShowing.entrySet()).equals(List.copyOf(report.byShowing.entrySet()))
+				&& List.copyOf(byMovie.entrySet()).equals(List.copyOf(report.byMovie.entrySet()))
+				&& List.copyOf(byTimeSlot.entrySet()).equals(List.copyOf(report.byTimeSlot.entrySet()))
+				&& List.copyOf(byDiscountRule.entrySet()).equals(List.copyOf(report.byDiscountRule.entrySet()));
+	}
+
+	/**
+	 * Hashes the report.
+	 */
+	@Override
+	public int hashCode() {
+		return total.hashCode();
+	}
+
+	/**
+	 * Helper method to total a range of showings on the calling thread.
+	 * @param theater holding the reservations
+	 * @param showings of the schedule
+	 * @param from index of the first showing, inclusive
+	 * @param to index of the last showing, exclusive
+	 * @return the totals of the range
+	 */
+	private static Accumulator accumulate(Theater theater, List<Showing> showings, int from, int to) {
+		Accumulator accumulator = new Accumulator();
+		for(int i = from; i < to; i++) {
+			Showing showing = showings.get(i);
+			long revenueCents = 0;
+			long ticketsSold = 0;
+			for(Reservation reservation : theater.getReservations(showing)) {
+				revenueCents += reservation.totalFeeCents();
+				ticketsSold += reservation.getAudienceCount();
+			}
+			accumulator.add(showing, new Totals(revenueCents, ticketsSold, showing.getCapacity()));
+		}
+		return accumulator;
+	}
+
+	/**
+	 * This class represents the revenue, tickets sold and seat capacity of a group of showings. Capacities are summed as longs, so
+	 * showings with unlimited capacity keep the occupancy of a group close to 0.
+	 */
+	public static final class Totals {
+		/** Totals of nothing */
+		private static final Totals ZERO = new Totals(0, 0, 0);
+
+		/** Revenue in cents */
+		private final long revenueCents;
+		/** Number of tickets sold */
+		private final long ticketsSold;
+		/** Number of seats that could be sold */
+		private final long capacity;
+
+		/**
+		 * Constructs the totals.
+		 * @param revenueCents revenue in cents
+		 * @param ticketsSold number of tickets sold
+		 * @param capacity number of seats that could be sold
+		 */
+		private Totals(long revenueCents, long ticketsSold, long capacity) {
+			this.revenueCents = revenueCents;
+			this.ticketsSold = ticketsSold;
+			this.capacity = capacity;
+		}
+
+		/**
+		 * Returns the sum of these totals and the given totals.
+		 * @param other totals to add
+		 * @return the sum
+		 */
+		private Totals plus(Totals other) {
+			return new Totals(revenueCents + other.revenueCents, ticketsSold + other.ticketsSold, capacity + other.capacity);
+		}
+
+		/**
+		 * Returns the revenue in cents
+		 * @return the revenue in cents
+		 */
+		public long getRevenueCents() {
+			return revenueCents;
+		}
+
+		/**
+		 * Returns the revenue in dollars
+		 * @return the revenue in dollars
+		 */
+		public double getRevenue() {
+			return Money.toDollars(revenueCents);
+		}
+
+		/**
+		 * Returns the number of tickets sold
+		 * @return the number of tickets sold
+		 */
+		public long getTicketsSold() {
+			return ticketsSold;
+		}
+
+		/**
+		 * Returns the number of seats that could be sold
+		 * @return the capacity
+		 */
+		public long getCapacity() {
+			return capacity;
+		}
+
+		/**
+		 * Returns the fraction of the capacity that was sold
+		 * @return the occupancy between 0 and 1, or 0 if there is no capacity
+		 */
+		public double getOccupancy() {
+			return capacity == 0 ? 0 : (double) ticketsSold / capacity;
+		}
+
+		/**
+		 * Checks if the totals are equal by comparing their values.
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+			Totals totals = (Totals) o;
+			return revenueCents == totals.revenueCents && ticketsSold == totals.ticketsSold && capacity == totals.capacity;
+		}
+
+		/**
+		 * Hashes the totals.
+		 */
+		@Override
+		public int hashCode() {
+			return Long.hashCode(revenueCents) * 31 * 31 + Long.hashCode(ticketsSold) * 31 + Long.hashCode(capacity);
+		}
+
+		/**
+		 * Formats the totals for printing.
+		 */
+		@Override
+		public String toString() {
+			return String.format("%d tickets of %d seats, %s", ticketsSold, capacity, Money.format(revenueCents));
+		}
+	}
+
+	/**
+	 * Totals of a range of showings that are built up by one thread and merged in schedule order.
+	 */
+	private static final class Accumulator {
+		/** Totals of the range */
+		private Totals total = Totals.ZERO;
+		/** Totals of every showing */
+		private final Map<Showing, Totals> byShowing = new LinkedHashMap<Showing, Totals>();
+		/** Totals of every movie */
+		private final Map<Movie, Totals> byMovie = new LinkedHashMap<Movie, Totals>();
+		/** Totals of every time slot */
+		private final Map<LocalTime, Totals> byTimeSlot = new LinkedHashMap<LocalTime, Totals>();
+		/** Totals of every discount rule */
+		private final Map<String, Totals> byDiscountRule = new LinkedHashMap<String, Totals>();
+
+		/**
+		 * Adds the totals of a showing to every group it belongs to.
+		 * @param showing that was totalled
+		 * @param totals of the showing
+		 */
+		private void add(Showing showing, Totals totals) {
+			DiscountRule applied = showing.getDiscountPolicy().appliedRule(showing.getMovie(), showing);
+			total = total.plus(totals);
+			byShowing.merge(showing, totals, Totals::plus);
+			byMovie.merge(showing.getMovie(), totals, Totals::plus);
+			byTimeSlot.merge(showing.getStartTime().toLocalTime().truncatedTo(ChronoUnit.HOURS), totals, Totals::plus);
+			byDiscountRule.merge(applied == null ? NO_DISCOUNT : applied.getName(), totals, Totals::plus);
+		}
+
+		/**
+		 * Adds the totals of the range that follows this one in the schedule.
+		 * @param next range of showings
+		 * @return this accumulator
+		 */
+		private Accumulator merge(Accumulator next) {
+			total = total.plus(next.total);
+			next.byShowing.forEach((key, totals) -> byShowing.merge(key, totals, Totals::plus));
+			next.byMovie.forEach((key, totals) -> byMovie.merge(key, totals, Totals::plus));
+			next.byTimeSlot.forEach((key, totals) -> byTimeSlot.merge(key, totals, Totals::plus));
+			next.byDiscountRule.forEach((key, totals) -> byDiscountRule.merge(key, totals, Totals::plus));
+			return this;
+		}
+	}
+
+	/**
+	 * Fork/join task that splits a range of showings in half until it is no larger than the leaf size.
+	 */
+	private static final class ReportTask extends RecursiveTask<Accumulator> {
+		/** Serial version of the task */
+		private static final long serialVersionUID = 1L;
+
+		/** Theater holding the reservations */
+		private final transient Theater theater;
+		/** Showings of the schedule */
+		private final transient List<Showing> showings;
+		/** Index of the first showing, inclusive */
+		private final int from;
+		/** Index of the last showing, exclusive */
+		private final int to;
+		/** Largest range totalled without splitting */
+		private final int leafSize;
+
+		/**
+		 * Constructs the task for a range of showings.
+		 * @param theater holding the reservations
+		 * @param showings of the schedule
+		 * @param from index of the first showing, inclusive
+		 * @param to index of the last showing, exclusive
+		 * @param leafSize largest range totalled without splitting
+		 */
+		private ReportTask(Theater theater, List<Showing> showings, int from, int to, int leafSize) {
+			this.theater = theater;
+			this.showings = showings;
+			this.from = from;
+			this.to = to;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected Accumulator compute() {
+			if(to - from <= leafSize) {
+				return accumulate(theater, showings, from, to);
+			}
+			int middle = (from + to) >>> 1;
+			ReportTask second = new ReportTask(theater, showings, middle, to, leafSize);
+			second.fork();
+			Accumulator first = new ReportTask(theater, showings, from, middle, leafSize).compute();
+			return first.merge(second.join());
+		}
+	}
+}
@@ -0,0 +1,365 @@
+package com.jpmc.theater;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class represents a binary snapshot of a theater's schedule and reservations, written and read through a memory-mapped
+ * file. The layout is versioned and split into sections so it can be used in place:
+ *
+ * <pre>
+ * header        magic, format version, section counts and offsets
+ * movies        title, description, running time, ticket price in cents and special code of every movie
+ * showings      fixed width records: movie, screen, sequence, start time, capacity, seats reserved, reservation range, and the
+ *               discount and surcharge of its reservations
+ * customers     offset of every customer record, so any customer can be read on its own
+ * reservations  fixed width records: customer, audience count and ticket price in cents, grouped by showing
+ * strings       the name and id of every customer
+ * </pre>
+ *
+ * Loading a snapshot only rebuilds the movies and showings, which are few; seat counts come straight from the showing records.
+ * The reservations of a showing stay in the mapped file until they are first needed, and are then read from the showing's
+ * contiguous range of records, so a theater with millions of reservations starts almost instantly. Seat layouts and assigned
+ * seats are not part of the layout; a showing on a screen with a seat layout is loaded without a seat map, still limited to its
+ * capacity and seats reserved.
+ *
+ * Snapshots are written to a temporary file that is moved over the old snapshot once it is complete, so a crash while writing
+ * never leaves a partial snapshot behind. Writing does not lock the theater; each showing's seat count is taken from the
+ * reservations written for it, so the snapshot is consistent per showing even while bookings continue.
+ *
+ * @author Ray Wang
+ */
+public final class TheaterSnapshot {
+	/** Marks the start of a snapshot file */
+	private static final int MAGIC = 0x54534E50;
+	/** Version of the layout */
+	private static final int FORMAT_VERSION = 3;
+	/** Size of the header */
+	private static final int HEADER_BYTES = 36;
+	/** Size of a showing record */
+	private static final int SHOWING_BYTES = 60;
+	/** Size of a reservation record */
+	private static final int RESERVATION_BYTES = 16;
+
+	/** The mapped file */
+	private final ByteBuffer buffer;
+	/** Index of every loaded showing in the showings section */
+	private final Map<Showing, Integer> showingIndexes;
+	/** Offset of the showings section */
+	private final int showingsOffset;
+	/** Offset of the customers section */
+	private final int customersOffset;
+	/** Offset of the reservations section */
+	private final int reservationsOffset;
+	/** Customers read so far, shared by every reservation of the same customer */
+	private final AtomicReferenceArray<Customer> customers;
+
+	/**
+	 * Constructs the snapshot over a mapped file after its header has been checked.
+	 * @param buffer of the mapped file
+	 * @param customerCount number of customers in the snapshot
+	 */
+	private TheaterSnapshot(ByteBuffer buffer, int customerCount) {
+		this.buffer = buffer;
+		this.showingIndexes = new IdentityHashMap<Showing, Integer>();
+		this.showingsOffset = buffer.getInt(20);
+		this.customersOffset = buffer.getInt(24);
+		this.reservationsOffset = buffer.getInt(28);
+		this.customers = new AtomicReferenceArray<Customer>(customerCount);
+	}
+
+	/**
+	 * Writes a snapshot of the given theater's schedule and reservations to a file. The file is replaced atomically.
+	 * @param theater to write
+	 * @param path of the snapshot file
+	 * @throws IOException if the snapshot cannot be written
+	 * @throws IllegalStateException if the snapshot would be larger than 2 GB
+	 */
+	public static void write(Theater theater, Path path) throws IOException {
+		List<Showing> showings = theater.getSchedule();
+		Map<Movie, Integer> movieIndexes = new LinkedHashMap<Movie, Integer>();
+		Map<Customer, Integer> customerIndexes = new HashMap<Customer, Integer>();
+		List<byte[]> customerStrings = new ArrayList<byte[]>();
+		List<Reservation[]> reservations = new ArrayList<Reservation[]>(showings.size());
+		long reservationCount = 0;
+		long stringBytes = 0;
+		for(Showing showing : showings) {
+			movieIndexes.putIfAbsent(showing.getMovie(), movieIndexes.size());
+			Reservation[] forShowing = theater.getReservations(showing).toArray(new Reservation[0]);
+			reservations.add(forShowing);
+			reservationCount += forShowing.length;
+			for(Reservation reservation : forShowing) {
+				Customer customer = reservation.getCustomer();
+				if(customerIndexes.putIfAbsent(customer, customerIndexes.size()) == null) {
+					byte[] name = utf8(customer.getName());
+					byte[] id = utf8(customer.getId());
+					customerStrings.add(name);
+					customerStrings.add(id);
+					stringBytes += stringBytes(name) + stringBytes(id);
+				}
+			}
+		}
+
+		List<byte[]> movieStrings = new ArrayList<byte[]>();
+		long movieBytes = 0;
+		for(Movie movie : movieIndexes.keySet()) {
+			byte[] title = utf8(movie.getTitle());
+			byte[] description = utf8(movie.getDescription());
+			movieStrings.add(title);
+			movieStrings.add(description);
+			movieBytes += stringBytes(title) + stringBytes(description) + 8 + 4 + 8 + 4;
+		}
+
+		long showingsOffset = HEADER_BYTES + movieBytes;
+		long customersOffset = showingsOffset + (long) showings.size() * SHOWING_BYTES;
+		long reservationsOffset = customersOffset + 4L * customerIndexes.size();
+		long stringsOffset = reservationsOffset + reservationCount * RESERVATION_BYTES;
+		long size = stringsOffset + stringBytes;
+		if(size > Integer.MAX_VALUE) {
+			throw new IllegalStateException("The theater is too large for a snapshot: " + size + " bytes");
+		}
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(movieIndexes.size()).putInt(showings.size())
+					.putInt(customerIndexes.size()).putInt((int) showingsOffset).putInt((int) customersOffset)
+					.putInt((int) reservationsOffset).putInt((int) reservationCount);
+
+			int string = 0;
+			for(Movie movie : movieIndexes.keySet()) {
+				putString(out, movieStrings.get(string++));
+				putString(out, movieStrings.get(string++));
+				out.putLong(movie.getRunningTime().getSeconds()).putInt(movie.getRunningTime().getNano())
+						.putLong(movie.getTicketPriceCents()).putInt(movie.getSpecialCode());
+			}
+
+			int firstReservation = 0;
+			for(int i = 0; i < showings.size(); i++) {
+				Showing showing = showings.get(i);
+				Reservation[] forShowing = reservations.get(i);
+				int seatsReserved = 0;
+				long discountCents = 0;
+				long surchargeCents = 0;
+				for(Reservation reservation : forShowing) {
+					seatsReserved += reservation.getAudienceCount();
+					long belowFullPriceCents = (showing.getMovie().getTicketPriceCents() - reservation.getTicketPriceCents())
+							* reservation.getAudienceCount();
+					discountCents += Math.max(0, belowFullPriceCents);
+					surchargeCents += Math.max(0, -belowFullPriceCents);
+				}
+				LocalDateTime startTime = showing.getStartTime();
+				out.putInt(movieIndexes.get(showing.getMovie()))
+						.putInt(showing.getScreen().getNumber())
+						.putInt(showing.getScreen().getCapacity())
+						.putInt(showing.getSequenceOfTheDay())
+						.putLong(startTime.toEpochSecond(ZoneOffset.UTC))
+						.putInt(startTime.getNano())
+						.putInt(showing.getCapacity())
+						.putInt(seatsReserved)
+						.putInt(firstReservation)
+						.putInt(forShowing.length)
+						.putLong(discountCents)
+						.putLong(surchargeCents);
+				firstReservation += forShowing.length;
+			}
+
+			// Customer records are laid out in index order, so their offsets can be computed up front
+			int offset = (int) stringsOffset;
+			for(int i = 0; i < customerStrings.size(); i += 2) {
+				out.putInt(offset);
+				offset += stringBytes(customerStrings.get(i)) + stringBytes(customerStrings.get(i + 1));
+			}
+			for(Reservation[] forShowing : reservations) {
+				for(Reservation reservation : forShowing) {
+					out.putInt(customerIndexes.get(reservation.getCustomer())).putInt(reservation.getAudienceCount())
+							.putLong(reservation.getTicketPriceCents());
+				}
+			}
+			for(byte[] value : customerStrings) {
+				putString(out, value);
+			}
+			out.force();
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Loads a theater from a snapshot file. The movies and showings are rebuilt and added to the schedule, and the reservations
+	 * are read from the mapped file when they are first needed.
+	 * @param path of the snapshot file
+	 * @return the loaded theater
+	 * @throws IOException if the file cannot be read or is not a theater snapshot
+	 */
+	public static Theater load(Path path) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Not a theater snapshot: " + path);
+			}
+			// The mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if(buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a theater snapshot: " + path);
+		}
+		if(buffer.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Unsupported theater snapshot version " + buffer.getInt(4) + ": " + path);
+		}
+
+		int movieCount = buffer.getInt(8);
+		int showingCount = buffer.getInt(12);
+		TheaterSnapshot snapshot = new TheaterSnapshot(buffer, buffer.getInt(16));
+
+		ByteBuffer in = buffer.duplicate();
+		in.position(HEADER_BYTES);
+		Movie[] movies = new Movie[movieCount];
+		for(int i = 0; i < movieCount; i++) {
+			String title = getString(in);
+			String description = getString(in);
+			Duration runningTime = Duration.ofSeconds(in.getLong(), in.getInt());
+			long ticketPriceCents = in.getLong();
+			movies[i] = new Movie(title, runningTime, Money.toDollars(ticketPriceCents), in.getInt(), description);
+		}
+
+		Theater theater = new Theater(new IndexedReservationStore(snapshot));
+		Map<Screen, Screen> screens = new HashMap<Screen, Screen>();
+		for(int i = 0; i < showingCount; i++) {
+			int record = snapshot.showingsOffset + i * SHOWING_BYTES;
+			Screen screen = new Screen(buffer.getInt(record + 4), buffer.getInt(record + 8));
+			Screen shared = screens.putIfAbsent(screen, screen);
+			LocalDateTime startTime = LocalDateTime.ofEpochSecond(buffer.getLong(record + 16), buffer.getInt(record + 24), ZoneOffset.UTC);
+			Showing showing = new Showing(movies[buffer.getInt(record)], shared == null ? screen : shared, buffer.getInt(record + 12),
+					startTime, buffer.getInt(record + 28));
+			showing.tryReserveSeats(buffer.getInt(record + 32));
+			snapshot.showingIndexes.put(showing, i);
+			theater.restoreShowing(showing);
+			theater.restoreSales(showing, showing.getSeatsReserved(), buffer.getLong(record + 44), buffer.getLong(record + 52));
+		}
+		return theater;
+	}
+
+	/**
+	 * Returns the number of reservations in the snapshot
+	 * @return the number of reservations
+	 */
+	int getReservationCount() {
+		return buffer.getInt(32);
+	}
+
+	/**
+	 * Returns every showing that was loaded from the snapshot, in the order they were written
+	 * @return the showings
+	 */
+	List<Showing> getShowings() {
+		Showing[] showings = new Showing[showingIndexes.size()];
+		for(Map.Entry<Showing, Integer> entry : showingIndexes.entrySet()) {
+			showings[entry.getValue()] = entry.getKey();
+		}
+		return Arrays.asList(showings);
+	}
+
+	/**
+	 * Reads the reservations of a showing from the snapshot. Each call creates new reservations with new ids.
+	 * @param showing whose reservations to read
+	 * @return the reservations in the order they were written
+	 */
+	List<Reservation> loadReservations(Showing showing) {
+		Integer index = showingIndexes.get(showing);
+		if(index == null) {
+			return new ArrayList<Reservation>();
+		}
+		int record = showingsOffset + index * SHOWING_BYTES;
+		int first = buffer.getInt(record + 36);
+		int count = buffer.getInt(record + 40);
+		List<Reservation> loaded = new ArrayList<Reservation>(count);
+		for(int i = 0; i < count; i++) {
+			int reservation = reservationsOffset + (first + i) * RESERVATION_BYTES;
+			loaded.add(new Reservation(customer(buffer.getInt(reservation)), showing, buffer.getInt(reservation + 4), null,
+					buffer.getLong(reservation + 8)));
+		}
+		return loaded;
+	}
+
+	/**
+	 * Helper method to return the customer with the given index, reading it from the snapshot the first time it is needed.
+	 * @param index of the customer
+	 * @return the customer
+	 */
+	private Customer customer(int index) {
+		Customer customer = customers.get(index);
+		if(customer == null) {
+			ByteBuffer in = buffer.duplicate();
+			in.position(buffer.getInt(customersOffset + 4 * index));
+			customer = new Customer(getString(in), getString(in));
+			// Racing readers may each create a copy; any of them is equal to the others
+			customers.lazySet(index, customer);
+		}
+		return customer;
+	}
+
+	/**
+	 * Helper method to encode a string as UTF-8.
+	 * @param value to encode, may be null
+	 * @return the encoded bytes, or null if the value is null
+	 */
+	private static byte[] utf8(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Helper method to return the number of bytes an encoded string takes in the snapshot.
+	 * @param bytes of the string, may be null
+	 * @return the number of bytes including the length prefix
+	 */
+	private static int stringBytes(byte[] bytes) {
+		return 4 + (bytes == null ? 0 : bytes.length);
+	}
+
+	/**
+	 * Helper method to write a length prefixed string. Null is written with a length of -1.
+	 * @param out to write to
+	 * @param bytes of the string, may be null
+	 */
+	private static void putString(ByteBuffer out, byte[] bytes) {
+		if(bytes == null) {
+			out.putInt(-1);
+		} else {
+			out.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	/**
+	 * Helper method to read a length prefixed string.
+	 * @param in to read from
+	 * @return the string, or null if a null string was written
+	 */
+	private static String getString(ByteBuffer in) {
+		int length = in.getInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,106 @@
+package com.jpmc.theater;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents a background task that writes a TheaterSnapshot of a theater at a fixed interval. Snapshots are written
+ * on a single daemon thread without locking the theater, so bookings continue while a snapshot is taken. A failed snapshot does
+ * not stop later ones; the most recent failure is kept so it can be reported.
+ *
+ * @author Ray Wang
+ */
+public class TheaterSnapshotter implements Closeable {
+	/** Theater that is snapshotted */
+	private final Theater theater;
+	/** Path the snapshots are written to */
+	private final Path path;
+	/** Runs the snapshots */
+	private final ScheduledExecutorService executor;
+	/** Number of snapshots written */
+	private final AtomicLong snapshotsWritten;
+	/** Most recent failure, or null if no snapshot has failed */
+	private volatile IOException lastFailure;
+
+	/**
+	 * Constructs the snapshotter and schedules the first snapshot one interval from now.
+	 * @param theater to snapshot
+	 * @param path to write the snapshots to
+	 * @param interval between the end of one snapshot and the start of the next
+	 */
+	public TheaterSnapshotter(Theater theater, Path path, Duration interval) {
+		if(interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("Invalid interval. Interval must be positive: " + interval);
+		}
+		this.theater = theater;
+		this.path = path;
+		this.snapshotsWritten = new AtomicLong();
+		this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "theater-snapshotter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::snapshot, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Writes a snapshot right away on the calling thread.
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public synchronized void snapshotNow() throws IOException {
+		TheaterSnapshot.write(theater, path);
+		snapshotsWritten.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of snapshots written
+	 * @return the number of snapshots
+	 */
+	public long getSnapshotsWritten() {
+		return snapshotsWritten.get();
+	}
+
+	/**
+	 * Returns the most recent failure to write a snapshot in the background
+	 * @return the failure, or null if no snapshot has failed
+	 */
+	public IOException getLastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * Stops taking snapshots. A snapshot that is being written is allowed to finish.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		boolean interrupted = false;
+		while(!executor.isTerminated()) {
+			try {
+				executor.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Helper method run by the background thread to write one snapshot.
+	 */
+	private void snapshot() {
+		try {
+			snapshotNow();
+		} catch (IOException e) {
+			lastFailure = e;
+		}
+	}
+}
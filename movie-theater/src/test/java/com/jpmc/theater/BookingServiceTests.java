@@ -0,0 +1,227 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.gson.Gson;
+
+public class BookingServiceTests {
+	/** Gson instance used to read responses */
+	final Gson gson = new Gson();
+	/** Theater behind the service */
+	Theater theater;
+	/** Service used for testing */
+	BookingService service;
+
+	/** Movies used for testing */
+	final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+	/** Date of the showings */
+	final LocalDate day = LocalDate.of(2023, 4, 17);
+
+	/**
+	 * Disables Nagle's algorithm before the first service is started, as a launcher would with -Dsun.net.httpserver.nodelay=true.
+	 */
+	@BeforeAll
+	public static void disableNagle() {
+		if(System.getProperty(BookingService.NO_DELAY_PROPERTY) == null) {
+			System.setProperty(BookingService.NO_DELAY_PROPERTY, "true");
+		}
+	}
+
+	/**
+	 * Starts the service on a free port before each test.
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		theater = new Theater();
+		theater.addShowingToSchedule(spiderMan, new Screen(1, 100), LocalDateTime.of(day, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, new Screen(1, 100), LocalDateTime.of(day, LocalTime.of(12, 0)));
+		theater.addShowingToSchedule(turningRed, new Screen(2, 5), LocalDateTime.of(day, LocalTime.of(19, 0)));
+		service = new BookingService(theater, new InetSocketAddress("localhost", 0));
+	}
+
+	/**
+	 * Stops the service after each test.
+	 */
+	@AfterEach
+	public void tearDown() {
+		service.close();
+	}
+
+	/**
+	 * Testing the schedule and quote endpoints.
+	 */
+	@Test
+	public void testScheduleAndQuote() throws IOException {
+		Reply reply = send("GET", "/schedule?date=2023-04-17", null);
+		assertEquals(200, reply.status);
+		List<?> showings = gson.fromJson(reply.body, List.class);
+		assertEquals(3, showings.size());
+		Map<?, ?> first = (Map<?, ?>) showings.get(0);
+		assertEquals("Spider-Man: No Way Home", first.get("title"));
+		assertEquals("09:00", first.get("startTime"));
+		assertEquals(9.5, first.get("ticketPrice"));
+		assertEquals(1, gson.fromJson(send("GET", "/schedule?date=2023-04-17&screen=2", null).body, List.class).size());
+
+		reply = send("GET", "/quote?date=2023-04-17&screen=1&sequence=2&tickets=3", null);
+		assertEquals(200, reply.status);
+		Map<?, ?> quote = gson.fromJson(reply.body, Map.class);
+		assertEquals(8.25, quote.get("ticketPrice"));
+		assertEquals(24.75, quote.get("totalFee"));
+		assertEquals(DiscountPolicy.defaultPolicy().getRules().get(3).getName(), quote.get("discount"));
+
+		assertEquals(404, send("GET", "/quote?date=2023-04-17&screen=3&sequence=1&tickets=1", null).status);
+		assertEquals(400, send("GET", "/quote?date=2023-04-17&screen=1&sequence=x&tickets=1", null).status);
+		assertEquals(400, send("GET", "/quote?date=April&screen=1&sequence=1&tickets=1", null).status);
+		assertEquals(405, send("POST", "/schedule", "{}").status);
+		assertEquals(404, send("GET", "/unknown", null).status);
+	}
+
+	/**
+	 * Testing the reserve and cancel endpoints.
+	 */
+	@Test
+	public void testReserveAndCancel() throws IOException {
+		String booking = "{\"name\": \"John Doe\", \"id\": \"johndoe123\", \"date\": \"2023-04-17\", \"screen\": 2, \"sequence\": 1, \"tickets\": 4}";
+		Reply reply = send("POST", "/reserve", booking);
+		assertEquals(201, reply.status);
+		Map<?, ?> reservation = gson.fromJson(reply.body, Map.class);
+		assertEquals("John Doe", reservation.get("name"));
+		assertEquals(32.0, reservation.get("totalFee"));
+		assertEquals(4, theater.getShowing(day, 2, 1).getSeatsReserved());
+
+		reply = send("POST", "/reserve", booking);
+		assertEquals(409, reply.status);
+		assertEquals("Not enough seats. The showing with the sequence 1 has 1 seats available", gson.fromJson(reply.body, Map.class).get("error"));
+		assertEquals(400, send("POST", "/reserve", booking.replace("\"sequence\": 1", "\"sequence\": 7")).status);
+		assertEquals(400, send("POST", "/reserve", "not json").status);
+
+		assertEquals(200, send("POST", "/cancel", booking).status);
+		assertEquals(404, send("POST", "/cancel", booking).status);
+		assertEquals(0, theater.getShowing(day, 2, 1).getSeatsReserved());
+
+		// Reservations are listed by customer id and name, and cancelled by their reservation id and customer id.
+		send("POST", "/reserve", booking.replace("\"tickets\": 4", "\"tickets\": 2"));
+		reply = send("GET", "/reservations?customer=johndoe123&name=John%20Doe", null);
+		assertEquals(200, reply.status);
+		List<?> found = gson.fromJson(reply.body, List.class);
+		assertEquals(1, found.size());
+		assertEquals(0, gson.fromJson(send("GET", "/reservations?customer=johndoe123&name=Jane", null).body, List.class).size());
+		long reservationId = ((Number) ((Map<?, ?>) found.get(0)).get("reservationId")).longValue();
+
+		// Another customer's reservation is answered as if it did not exist
+		assertEquals(404, send("POST", "/cancel", "{\"reservationId\": " + reservationId + ", \"id\": \"janedoe456\"}").status);
+		assertEquals(400, send("POST", "/cancel", "{\"reservationId\": " + reservationId + "}").status);
+		assertEquals(2, theater.getShowing(day, 2, 1).getSeatsReserved());
+
+		String cancel = "{\"reservationId\": " + reservationId + ", \"id\": \"johndoe123\"}";
+		assertEquals(200, send("POST", "/cancel", cancel).status);
+		assertEquals(404, send("POST", "/cancel", cancel).status);
+		assertEquals(0, gson.fromJson(send("GET", "/reservations?customer=johndoe123&name=John%20Doe", null).body, List.class).size());
+		assertEquals(400, send("GET", "/reservations", null).status);
+		assertEquals(400, send("GET", "/reservations?customer=johndoe123", null).status);
+
+		// A reservation made without a customer id is not found by another customer's id
+		reply = send("POST", "/reserve", booking.replace("\"id\": \"johndoe123\", ", "").replace("\"tickets\": 4", "\"tickets\": 1"));
+		assertEquals(201, reply.status);
+		reservationId = ((Number) gson.fromJson(reply.body, Map.class).get("reservationId")).longValue();
+		assertEquals(404, send("POST", "/cancel", "{\"reservationId\": " + reservationId + ", \"id\": \"x\"}").status);
+	}
+
+	/**
+	 * Testing that concurrent clients never oversell a showing.
+	 */
+	@Test
+	public void testConcurrentClients() throws Exception {
+		ExecutorService clients = Executors.newFixedThreadPool(32);
+		try {
+			List<Future<Integer>> statuses = new ArrayList<Future<Integer>>();
+			for(int i = 0; i < 300; i++) {
+				String booking = "{\"name\": \"Customer " + i + "\", \"date\": \"2023-04-17\", \"screen\": 1, \"sequence\": 1, \"tickets\": 1}";
+				statuses.add(clients.submit(() -> send("POST", "/reserve", booking).status));
+			}
+			int reserved = 0;
+			int soldOut = 0;
+			for(Future<Integer> status : statuses) {
+				if(status.get() == 201) {
+					reserved++;
+				} else if(status.get() == 409) {
+					soldOut++;
+				}
+			}
+			assertEquals(100, reserved);
+			assertEquals(200, soldOut);
+			assertEquals(100, theater.getShowing(day, 1, 1).getSeatsReserved());
+			assertTrue(service.getPort() > 0);
+		} finally {
+			clients.shutdownNow();
+		}
+	}
+
+	/**
+	 * Helper method to send a request to the service.
+	 * @param method of the request
+	 * @param path and query of the request
+	 * @param body of the request, or null for none
+	 * @return the status and body of the reply
+	 */
+	private Reply send(String method, String path, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + service.getPort() + path).openConnection();
+		connection.setRequestMethod(method);
+		if(body != null) {
+			connection.setDoOutput(true);
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		int status = connection.getResponseCode();
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		try (InputStream reply = in) {
+			return new Reply(status, reply == null ? "" : new String(reply.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Status and body of a reply from the service.
+	 */
+	private static final class Reply {
+		/** HTTP status of the reply */
+		final int status;
+		/** Body of the reply */
+		final String body;
+
+		/**
+		 * Constructs the reply.
+		 * @param status of the reply
+		 * @param body of the reply
+		 */
+		Reply(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ChangeFeedTests {
+	/** Theater instance used for testing */
+	Theater theater;
+	/** Customer used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	/** Movie used for testing */
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+	/** Date of the showings */
+	final LocalDate day = LocalDate.of(2023, 4, 17);
+
+	/**
+	 * Sets up the theater before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		theater = new Theater();
+	}
+
+	/**
+	 * Testing that every schedule and reservation change is published in order with the showing and reservation it is about.
+	 */
+	@Test
+	public void testTheaterEvents() {
+		ChangeFeed.Subscription subscription = theater.getChangeFeed().subscribe();
+		Showing morning = theater.addShowingToSchedule(turningRed, 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, 2, LocalDateTime.of(day, LocalTime.of(12, 0)));
+		Reservation reservation = theater.reserve(john, 1, 2);
+		theater.reserveBatch(List.of(new ReservationRequest(john, 2, 1)));
+		theater.cancelReservation(reservation.getId());
+		theater.removeShowingFromSchedule(2);
+		assertNull(theater.removeShowingFromSchedule(2));
+		theater.clearSchedule();
+
+		List<TheaterEvent.Type> types = new ArrayList<TheaterEvent.Type>();
+		List<TheaterEvent> events = new ArrayList<TheaterEvent>();
+		for(TheaterEvent event = subscription.poll(); event != null; event = subscription.poll()) {
+			assertEquals(events.size(), event.getOffset());
+			types.add(event.getType());
+			events.add(event);
+		}
+		assertEquals(List.of(TheaterEvent.Type.SHOWING_ADDED, TheaterEvent.Type.SHOWING_ADDED, TheaterEvent.Type.RESERVATION_MADE,
+				TheaterEvent.Type.RESERVATION_MADE, TheaterEvent.Type.RESERVATION_CANCELLED, TheaterEvent.Type.SHOWING_REMOVED,
+				TheaterEvent.Type.SCHEDULE_CLEARED), types);
+		assertSame(morning, events.get(0).getShowing());
+		assertNull(events.get(0).getReservation());
+		assertSame(reservation, events.get(2).getReservation());
+		assertSame(morning, events.get(2).getShowing());
+		assertSame(reservation, events.get(4).getReservation());
+		assertNull(events.get(6).getShowing());
+		assertEquals(7, subscription.getOffset());
+		assertEquals(0, subscription.getMissed());
+	}
+
+	/**
+	 * Testing that a subscriber can resume from an offset, and that a subscriber that falls behind skips the overwritten events.
+	 */
+	@Test
+	public void testResumeAndOverflow() {
+		ChangeFeed feed = new ChangeFeed(4);
+		for(int i = 0; i < 3; i++) {
+			feed.publish(TheaterEvent.Type.SCHEDULE_CLEARED, null, null);
+		}
+		assertEquals(1, feed.subscribe(1).poll().getOffset());
+		assertNull(feed.subscribe().poll());
+		assertThrows(IllegalArgumentException.class, () -> feed.subscribe(4));
+		assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(6));
+
+		ChangeFeed.Subscription slow = feed.subscribe(0);
+		for(int i = 0; i < 7; i++) {
+			feed.publish(TheaterEvent.Type.SCHEDULE_CLEARED, null, null);
+		}
+		assertEquals(6, feed.getOldestOffset());
+		assertEquals(6, slow.poll().getOffset());
+		assertEquals(6, slow.getMissed());
+		assertEquals(7, slow.poll().getOffset());
+		assertEquals(8, slow.getOffset());
+
+		// Subscribing from an offset that was overwritten starts at the oldest event
+		ChangeFeed.Subscription late = feed.subscribe(2);
+		assertEquals(6, late.poll().getOffset());
+		assertEquals(4, late.getMissed());
+	}
+
+	/**
+	 * Testing that a blocked subscriber wakes up when an event is published, and times out when none is.
+	 */
+	@Test
+	public void testBlockingPoll() throws Exception {
+		ChangeFeed feed = theater.getChangeFeed();
+		ChangeFeed.Subscription subscription = feed.subscribe();
+		assertNull(subscription.poll(10, TimeUnit.MILLISECONDS));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<TheaterEvent> next = executor.submit(() -> subscription.poll(10, TimeUnit.SECONDS));
+			Thread.sleep(50);
+			theater.addShowingToSchedule(turningRed, 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+			assertEquals(TheaterEvent.Type.SHOWING_ADDED, next.get(5, TimeUnit.SECONDS).getType());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
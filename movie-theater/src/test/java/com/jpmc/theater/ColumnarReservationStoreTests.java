@@ -0,0 +1,179 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarReservationStoreTests {
+	/** Store used for testing */
+	ColumnarReservationStore store;
+
+	/** Customers used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	final Customer jane = new Customer("Jane Doe", "janedoe456");
+
+	/** Showings used for testing. The first showing costs $9.50 after the sequence discount, the second $12.50 */
+	final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 0);
+	final Showing morning = new Showing(spiderMan, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)));
+	final Showing evening = new Showing(spiderMan, 5, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(19, 0)));
+
+	/**
+	 * Sets up the store before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		store = new ColumnarReservationStore();
+		store.add(new Reservation(john, morning, 2));
+		store.add(new Reservation(jane, evening, 1));
+		store.add(new Reservation(jane, morning, 3));
+	}
+
+	/**
+	 * Testing that reservations are returned as views in the order they were added.
+	 */
+	@Test
+	public void testAddAndReservations() {
+		assertEquals(3, store.size());
+		List<Reservation> forMorning = store.reservations(morning);
+		assertEquals(2, forMorning.size());
+		assertEquals(john, forMorning.get(0).getCustomer());
+		assertSame(morning, forMorning.get(0).getShowing());
+		assertEquals(2, forMorning.get(0).getAudienceCount());
+		assertEquals(jane, forMorning.get(1).getCustomer());
+		assertEquals(1, store.reservations(evening).size());
+
+		// Customers should be interned, so equal customers share one entry.
+		store.add(new Reservation(new Customer("John Doe", "johndoe123"), evening, 1));
+		assertEquals(2, store.getCustomerCount());
+		assertSame(john, store.reservations(evening).get(1).getCustomer());
+	}
+
+	/**
+	 * Testing the remove and removeFirst methods, and that freed rows are reused without breaking the order of a showing.
+	 */
+	@Test
+	public void testRemove() {
+		// Views are interchangeable with the reservation that was added.
+		assertTrue(store.remove(store.reservations(morning).get(0)));
+		assertFalse(store.remove(new Reservation(john, morning, 2)));
+		assertNull(store.removeFirst(morning, john, 2));
+		assertEquals(2, store.size());
+
+		store.add(new Reservation(john, morning, 4));
+		List<Customer> customers = new ArrayList<Customer>();
+		for(Reservation reservation : store.reservations(morning)) {
+			customers.add(reservation.getCustomer());
+		}
+		assertEquals(List.of(jane, john), customers);
+
+		assertEquals(3, store.removeFirst(morning, jane, 3).getAudienceCount());
+		assertEquals(4, store.removeFirst(morning, john, 4).getAudienceCount());
+		assertTrue(store.reservations(morning).isEmpty());
+		store.add(new Reservation(jane, morning, 1));
+		assertEquals(1, store.reservations(morning).size());
+		assertEquals(2, store.size());
+	}
+
+	/**
+	 * Testing the id and customer id indexes, which must follow removals and reused rows.
+	 */
+	@Test
+	public void testIndexes() {
+		Reservation added = new Reservation(john, evening, 5);
+		store.add(added);
+		Reservation found = store.get(added.getId());
+		assertEquals(added.getId(), found.getId());
+		assertSame(john, found.getCustomer());
+		assertEquals(5, found.getAudienceCount());
+		assertNull(found.getSeats());
+		assertNull(store.get(0));
+		Reservation seated = new Reservation(jane, evening, new SeatBlock(3, 5, 2));
+		store.add(seated);
+		assertEquals(new SeatBlock(3, 5, 2), store.get(seated.getId()).getSeats());
+		store.remove(seated);
+
+		List<Reservation> forJohn = store.reservations("johndoe123");
+		assertEquals(2, forJohn.size());
+		assertSame(morning, forJohn.get(0).getShowing());
+		assertEquals(added.getId(), forJohn.get(1).getId());
+		assertTrue(store.reservations("nobody").isEmpty());
+		assertTrue(store.reservations((String) null).isEmpty());
+
+		// Removing by id unlinks the row from the middle of both chains.
+		Reservation middle = store.reservations(morning).get(0);
+		assertTrue(store.remove(middle));
+		assertFalse(store.remove(middle));
+		assertNull(store.get(middle.getId()));
+		assertEquals(1, store.reservations("johndoe123").size());
+		assertEquals(3, store.reservations(morning).get(0).getAudienceCount());
+
+		// The freed row is reused for a new reservation with its own id.
+		Reservation reused = new Reservation(jane, morning, 6);
+		store.add(reused);
+		assertEquals(6, store.get(reused.getId()).getAudienceCount());
+		assertEquals(3, store.reservations("janedoe456").size());
+		assertEquals(2, store.reservations(morning).size());
+		assertEquals(6, store.reservations(morning).get(1).getAudienceCount());
+		assertEquals(added.getId(), store.removeFirst(evening, john, 5).getId());
+		assertTrue(store.reservations("johndoe123").isEmpty());
+		assertEquals(3, store.size());
+	}
+
+	/**
+	 * Testing the fee totals, which use the fee charged when each reservation was added.
+	 */
+	@Test
+	public void testTotalFeeCents() {
+		assertEquals(1900 + 1250 + 2850, store.totalFeeCents());
+		assertEquals(4750, store.totalFeeCents(morning));
+		store.removeFirst(morning, john, 2);
+		assertEquals(1250 + 2850, store.totalFeeCents());
+
+		// Growing past the initial capacity should keep every row.
+		for(int i = 0; i < 5000; i++) {
+			store.add(new Reservation(new Customer("Customer " + i, "customer" + i), evening, 1));
+		}
+		assertEquals(5002, store.size());
+		assertEquals(2850 + 5001 * 1250L, store.totalFeeCents());
+		assertEquals(5001, store.reservations(evening).size());
+	}
+
+	/**
+	 * Testing that the store reports the same fees as the IndexedReservationStore after the price of a showing changes, both in
+	 * its totals and in the reservations it returns.
+	 */
+	@Test
+	public void testFeesMatchIndexedStoreAfterPriceChange() {
+		IndexedReservationStore indexed = new IndexedReservationStore();
+		for(Reservation reservation : store.reservations(morning)) {
+			indexed.add(reservation);
+		}
+		morning.setDiscountPolicy(DiscountPolicy.none());
+		assertEquals(1250, morning.getTicketPriceCents());
+
+		long indexedTotal = 0;
+		for(Reservation reservation : indexed.reservations(morning)) {
+			indexedTotal += reservation.totalFeeCents();
+		}
+		long viewTotal = 0;
+		for(Reservation reservation : store.reservations(morning)) {
+			viewTotal += reservation.totalFeeCents();
+		}
+		assertEquals(5 * 950, indexedTotal);
+		assertEquals(indexedTotal, viewTotal);
+		assertEquals(indexedTotal, store.totalFeeCents(morning));
+		assertEquals(950, store.reservations(john.getId()).get(0).getTicketPriceCents());
+	}
+}
@@ -0,0 +1,167 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+public class DemandPricingTests {
+	/** Start of the showings used for testing. Not in the 11:00 - 16:00 window nor on the 7th, so only sequence discounts apply */
+	private static final LocalDateTime START = LocalDateTime.of(2023, 4, 17, 19, 0);
+
+	/** Surge above half sold, and a markdown for showings less than 30% sold that start within two hours */
+	private final DemandPricing pricing = DemandPricing.of(List.of(DemandTier.surge(90, 40), DemandTier.surge(50, 20),
+			DemandTier.markdown(30, Duration.ofHours(2), 25)));
+
+	/** Movie used for testing */
+	private final Movie movie = new Movie("The Batman", Duration.ofMinutes(95), 10, 0);
+
+	/**
+	 * Puts back the system clock after each test case.
+	 */
+	@AfterEach
+	public void tearDown() {
+		LocalDateProvider.getInstance().setClock(Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Testing the adjustment of the first tier that applies, by sell-through and time to start.
+	 */
+	@Test
+	public void testAdjust() {
+		long hour = Duration.ofHours(1).toMillis();
+		assertEquals(1000, pricing.adjust(1000, 49, 100, 5 * hour));
+		assertEquals(1200, pricing.adjust(1000, 50, 100, 5 * hour));
+		assertEquals(1400, pricing.adjust(1000, 100, 100, 5 * hour));
+		assertEquals(1000, pricing.adjust(1000, 29, 100, 2 * hour + 1));
+		assertEquals(750, pricing.adjust(1000, 29, 100, 2 * hour));
+		assertEquals(750, pricing.adjust(1000, 0, 100, -hour));
+		assertEquals(1000, pricing.adjust(1000, 30, 100, hour));
+		assertEquals(750, pricing.adjust(1000, 0, 0, hour));
+		assertEquals(1000, DemandPricing.none().adjust(1000, 100, 100, 0));
+
+		// A seat count reaching or leaving a tier is a threshold, rounded up to whole seats
+		assertArrayEquals(new int[] { 3, 5, 9 }, pricing.seatThresholds(9));
+		assertEquals(0, pricing.seatThresholds(0).length);
+		assertEquals(hour, pricing.millisUntilChange(3 * hour));
+		assertEquals(Long.MAX_VALUE, pricing.millisUntilChange(hour));
+
+		assertThrows(IllegalArgumentException.class, () -> new DemandTier(50, 50, null, 10));
+		assertThrows(IllegalArgumentException.class, () -> DemandTier.markdown(30, Duration.ofHours(1), 101));
+		assertThrows(IllegalArgumentException.class, () -> DemandTier.surge(101, 10));
+	}
+
+	/**
+	 * Testing that the cached price of a showing changes only when the reserved seats cross a threshold, and that the largest
+	 * discount is taken off the adjusted price.
+	 */
+	@Test
+	public void testShowingPriceFollowsSellThrough() {
+		LocalDateProvider.getInstance().setClock(Clock.fixed(START.minusDays(1).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		Showing showing = new Showing(movie, 1, START, 10);
+		showing.setDemandPricing(pricing);
+		// The 3 dollar first showing discount applies to the adjusted price
+		assertEquals(700, showing.getTicketPriceCents());
+		assertTrue(showing.tryReserveSeats(4));
+		assertEquals(700, showing.getTicketPriceCents());
+		assertTrue(showing.tryReserveSeats(1));
+		assertEquals(900, showing.getTicketPriceCents());
+		assertTrue(showing.tryReserveSeats(5));
+		assertEquals(1100, showing.getTicketPriceCents());
+		showing.releaseSeats(6);
+		assertEquals(700, showing.getTicketPriceCents());
+
+		// A percentage discount is taken off the adjusted price
+		Showing special = new Showing(new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 10, 1), 4, START, 2);
+		special.setDemandPricing(pricing);
+		assertTrue(special.tryReserveSeats(1));
+		assertEquals(1200 - 240, special.getTicketPriceCents());
+		special.setDemandPricing(DemandPricing.none());
+		assertEquals(800, special.getTicketPriceCents());
+	}
+
+	/**
+	 * Testing that a reservation keeps the price it was booked at when a later booking moves the showing into a surge tier.
+	 */
+	@Test
+	public void testReservationKeepsBookedPrice() {
+		LocalDateProvider.getInstance().setClock(Clock.fixed(START.minusDays(1).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		Theater theater = new Theater();
+		theater.setDemandPricing(pricing);
+		Showing showing = theater.addShowingToSchedule(movie, 1, START, 10);
+		Customer john = new Customer("John Doe", "johndoe123");
+		Reservation early = theater.reserve(john, 1, 4);
+		assertEquals(4 * 700, early.totalFeeCents());
+
+		// Quoted before its own seats count, then takes the showing past half sold
+		Reservation late = theater.reserve(john, 1, 2);
+		assertEquals(900, showing.getTicketPriceCents());
+		assertEquals(4 * 700, early.totalFeeCents());
+		assertEquals(2 * 700, late.totalFeeCents());
+		assertEquals(900, theater.reserve(john, 1, 1).getTicketPriceCents());
+	}
+
+	/**
+	 * Testing that sales counters count every reservation at its booked price, keep demand surcharges apart from discounts, and
+	 * take back exactly what a reservation added when it is cancelled after the price changed.
+	 */
+	@Test
+	public void testSalesFollowBookedPrice() {
+		LocalDateProvider.getInstance().setClock(Clock.fixed(START.minusDays(1).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		Theater theater = new Theater();
+		theater.setDemandPricing(pricing);
+		// The third showing of the day gets no discount
+		Showing showing = theater.addShowingToSchedule(movie, 3, START, 10);
+		Customer john = new Customer("John Doe", "johndoe123");
+		Reservation first = theater.reserve(john, 3, 4);
+		theater.reserve(john, 3, 2);
+		Reservation surged = theater.reserve(john, 3, 1);
+		assertEquals(1200, surged.getTicketPriceCents());
+
+		SalesCounters sales = theater.getSales(showing);
+		assertEquals(7, sales.getTickets());
+		assertEquals(7000, sales.getGrossCents());
+		assertEquals(0, sales.getDiscountCents());
+		assertEquals(200, sales.getSurchargeCents());
+		assertEquals(7200, sales.getNetCents());
+
+		// Cancelling drops the showing back below the surge, but the cancellation is still counted at the booked prices
+		assertTrue(theater.removeReservation(first));
+		assertEquals(1000, showing.getTicketPriceCents());
+		assertEquals(3000, sales.getGrossCents());
+		assertEquals(3200, sales.getNetCents());
+		assertTrue(theater.removeReservation(surged));
+		assertEquals(0, sales.getSurchargeCents());
+		assertEquals(2000, sales.getNetCents());
+	}
+
+	/**
+	 * Testing that a cached price is discarded when the showing enters the time window of a markdown.
+	 */
+	@Test
+	public void testShowingPriceFollowsTimeToStart() {
+		LocalDateProvider provider = LocalDateProvider.getInstance();
+		provider.setClock(Clock.fixed(START.minusHours(3).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		Theater theater = new Theater();
+		theater.setDemandPricing(pricing);
+		Showing showing = theater.addShowingToSchedule(movie, 5, START);
+		assertEquals(pricing, showing.getDemandPricing());
+		assertEquals(1000, showing.getTicketPriceCents());
+		provider.setClock(Clock.fixed(START.minusHours(2).minusNanos(1_000_000).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		assertEquals(1000, showing.getTicketPriceCents());
+		provider.setClock(Clock.fixed(START.minusHours(2).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		assertEquals(750, showing.getTicketPriceCents());
+
+		theater.setDemandPricing(DemandPricing.none());
+		assertEquals(1000, showing.getTicketPriceCents());
+	}
+}
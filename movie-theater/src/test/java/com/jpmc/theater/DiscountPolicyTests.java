@@ -0,0 +1,164 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DiscountPolicyTests {
+	
+	/**
+	 * The discount rules as they were hard coded before the rule engine, used as a reference for the default policy. The result
+	 * is rounded to the nearest cent with half cents rounded up, as the theater's money representation does.
+	 */
+	private static long referenceDiscount(Movie movie, Showing showing) {
+		double ticketPrice = movie.getTicketPrice();
+		double largestDiscount = 0;
+		if(movie.getSpecialCode() == 1) {
+			largestDiscount = ticketPrice * 0.2;
+		}
+		int showSequence = showing.getSequenceOfTheDay();
+		if(showSequence == 1) {
+			largestDiscount = Math.max(largestDiscount, 3);
+		} else if(showSequence == 2) {
+			largestDiscount = Math.max(largestDiscount, 2);
+		}
+		LocalTime showingTime = showing.getStartTime().toLocalTime();
+		if(showingTime.isAfter(LocalTime.of(11, 0)) && showingTime.isBefore(LocalTime.of(16, 0))) {
+			largestDiscount = Math.max(largestDiscount, ticketPrice * 0.25);
+		}
+		if(showing.getStartTime().getDayOfMonth() == 7) {
+			largestDiscount = Math.max(largestDiscount, 1);
+		}
+		return Math.round(largestDiscount * 100);
+	}
+	
+	/**
+	 * Helper method to check a policy against the reference rules for many combinations of price, special code, sequence, time and day.
+	 */
+	private static void assertMatchesReference(DiscountPolicy policy) {
+		for(double price : new double[] { 0.5, 9, 11, 12.5, 15.99 }) {
+			for(int specialCode = 0; specialCode <= 1; specialCode++) {
+				Movie movie = new Movie("Turning Red", Duration.ofMinutes(85), price, specialCode);
+				for(int sequence = 1; sequence <= 4; sequence++) {
+					for(int day : new int[] { 6, 7, 17 }) {
+						for(int minute = 0; minute < 24 * 60; minute += 10) {
+							Showing showing = new Showing(movie, sequence, LocalDateTime.of(LocalDate.of(2023, 4, day), LocalTime.of(minute / 60, minute % 60)));
+							assertEquals(referenceDiscount(movie, showing), policy.discount(movie, showing), showing.getStartTime() + " " + movie.getTicketPrice());
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Testing that the default policy gives exactly the same discounts as the original hard coded rules.
+	 */
+	@Test
+	public void testDefaultPolicyMatchesReference() {
+		assertMatchesReference(DiscountPolicy.defaultPolicy());
+		assertEquals(5, DiscountPolicy.defaultPolicy().getRules().size());
+	}
+	
+	/**
+	 * Testing that the bundled configuration file loads into a policy that behaves like the default policy.
+	 */
+	@Test
+	public void testFromJsonBundledConfiguration() throws IOException {
+		try(Reader reader = new InputStreamReader(getClass().getResourceAsStream("/discount-rules.json"), StandardCharsets.UTF_8)) {
+			assertMatchesReference(DiscountPolicy.fromJson(reader));
+		}
+	}
+	
+	/**
+	 * Testing the fromJson method with custom and invalid configurations.
+	 */
+	@Test
+	public void testFromJson() throws IOException {
+		DiscountPolicy policy = DiscountPolicy.fromJson(new StringReader("[{\"type\": \"sequence\", \"sequence\": 3, \"amount\": 4, \"note\": \"ignored\"}]"));
+		Movie movie = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+		assertEquals(400, policy.discount(movie, new Showing(movie, 3, LocalDateTime.of(2023, 4, 17, 9, 0))));
+		assertEquals(0, policy.discount(movie, new Showing(movie, 1, LocalDateTime.of(2023, 4, 17, 9, 0))));
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> DiscountPolicy.fromJson(new StringReader("[{\"type\": \"weekend\"}]")));
+		assertEquals("Invalid discount rule. Unknown type: weekend", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountPolicy.fromJson(new StringReader("[{\"amount\": 1}]")));
+		assertEquals("Invalid discount rule. Every rule needs a type", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountPolicy.fromJson(new StringReader("[{\"type\": \"timeWindow\", \"start\": \"11:00\", \"percent\": 25}]")));
+		assertEquals("Invalid discount rule. A time window needs a start and an end", e.getMessage());
+	}
+	
+	/**
+	 * Testing that the largest discount wins and that the empty policy never discounts.
+	 */
+	@Test
+	public void testLargestDiscountWins() {
+		DiscountPolicy policy = DiscountPolicy.of(List.of(DiscountRules.sequence(1, 1), DiscountRules.sequence(1, 5), DiscountRules.sequence(1, 2)));
+		Movie movie = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+		Showing showing = new Showing(movie, 1, LocalDateTime.of(2023, 4, 17, 9, 0));
+		assertEquals(500, policy.discount(movie, showing));
+		assertEquals(4, movie.calculateTicketPrice(showing, policy));
+		assertEquals(9, movie.calculateTicketPrice(showing, DiscountPolicy.none()));
+		assertEquals(policy.getRules().get(1), policy.appliedRule(movie, showing));
+		assertEquals(null, policy.appliedRule(movie, new Showing(movie, 2, LocalDateTime.of(2023, 4, 17, 9, 0))));
+	}
+	
+	/**
+	 * Testing that pricing a schedule in bulk gives exactly the prices of calculateTicketPriceCents, for the standard rules and
+	 * for a custom rule that uses the default bulk evaluation.
+	 */
+	@Test
+	public void testPriceCentsMatchesCalculateTicketPrice() {
+		List<Showing> showings = new ArrayList<Showing>();
+		for(double price : new double[] { 0.5, 2, 9, 12.5, 15.99 }) {
+			for(int specialCode = 0; specialCode <= 2; specialCode++) {
+				Movie movie = new Movie("Turning Red", Duration.ofMinutes(85), price, specialCode);
+				for(int sequence = 1; sequence <= 4; sequence++) {
+					for(int day : new int[] { 1, 7, 31 }) {
+						for(int minute = 0; minute < 24 * 60; minute += 5) {
+							showings.add(new Showing(movie, sequence, LocalDateTime.of(LocalDate.of(2023, 1, day), LocalTime.of(minute / 60, minute % 60))));
+						}
+					}
+				}
+			}
+		}
+		DiscountRule lateShow = new DiscountRule() {
+			@Override
+			public long discount(long ticketPriceCents, int specialCode, int sequenceOfTheDay, long startNanoOfDay, int dayOfMonth) {
+				return startNanoOfDay >= LocalTime.of(22, 0).toNanoOfDay() ? 150 : 0;
+			}
+			
+			@Override
+			public String getName() {
+				return "Late show";
+			}
+		};
+		List<DiscountPolicy> policies = List.of(DiscountPolicy.defaultPolicy(), DiscountPolicy.none(),
+				DiscountPolicy.of(List.of(DiscountRules.timeWindow(LocalTime.MIDNIGHT, LocalTime.MAX, 100), DiscountRules.sequence(4, 20))),
+				DiscountPolicy.of(List.of(DiscountRules.specialMovie(2, 50), DiscountRules.dayOfMonth(31, 5), lateShow)));
+		for(DiscountPolicy policy : policies) {
+			long[] prices = policy.priceCents(showings);
+			assertEquals(showings.size(), prices.length);
+			for(int i = 0; i < prices.length; i++) {
+				Showing showing = showings.get(i);
+				assertEquals(showing.getMovie().calculateTicketPriceCents(showing, policy), prices[i], showing.getStartTime() + " " + policy.getRules());
+			}
+		}
+		assertEquals(0, DiscountPolicy.defaultPolicy().priceCents(PricingColumns.of(List.of())).length);
+	}
+}
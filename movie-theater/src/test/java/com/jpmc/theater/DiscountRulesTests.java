@@ -0,0 +1,79 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalTime;
+
+public class DiscountRulesTests {
+	/** Start time of 9 AM as nanoseconds since midnight */
+	static final long NINE_AM = LocalTime.of(9, 0).toNanoOfDay();
+	/** Start time of 1 PM as nanoseconds since midnight */
+	static final long ONE_PM = LocalTime.of(13, 0).toNanoOfDay();
+	
+	/**
+	 * Testing the specialMovie rule.
+	 */
+	@Test
+	public void testSpecialMovie() {
+		DiscountRule rule = DiscountRules.specialMovie(1, 20);
+		assertEquals(250, rule.discount(1250, 1, 5, NINE_AM, 17));
+		assertEquals(0, rule.discount(1250, 0, 5, NINE_AM, 17));
+	}
+	
+	/**
+	 * Testing the sequence rule.
+	 */
+	@Test
+	public void testSequence() {
+		DiscountRule rule = DiscountRules.sequence(2, 2);
+		assertEquals(200, rule.discount(1250, 0, 2, NINE_AM, 17));
+		assertEquals(0, rule.discount(1250, 0, 1, NINE_AM, 17));
+	}
+	
+	/**
+	 * Testing the timeWindow rule. Both ends of the window are exclusive and half cents are rounded up.
+	 */
+	@Test
+	public void testTimeWindow() {
+		DiscountRule rule = DiscountRules.timeWindow(LocalTime.of(11, 0), LocalTime.of(16, 0), 25);
+		assertEquals(313, rule.discount(1250, 0, 5, ONE_PM, 17));
+		assertEquals(0, rule.discount(1250, 0, 5, NINE_AM, 17));
+		assertEquals(0, rule.discount(1250, 0, 5, LocalTime.of(11, 0).toNanoOfDay(), 17));
+		assertEquals(313, rule.discount(1250, 0, 5, LocalTime.of(11, 0, 1).toNanoOfDay(), 17));
+		assertEquals(0, rule.discount(1250, 0, 5, LocalTime.of(16, 0).toNanoOfDay(), 17));
+	}
+	
+	/**
+	 * Testing the dayOfMonth rule.
+	 */
+	@Test
+	public void testDayOfMonth() {
+		DiscountRule rule = DiscountRules.dayOfMonth(7, 1);
+		assertEquals(100, rule.discount(1250, 0, 5, NINE_AM, 7));
+		assertEquals(0, rule.discount(1250, 0, 5, NINE_AM, 17));
+	}
+	
+	/**
+	 * Testing that invalid rules cannot be created.
+	 */
+	@Test
+	public void testInvalidRules() {
+		Exception e = assertThrows(IllegalArgumentException.class, () -> DiscountRules.specialMovie(1, 120));
+		assertEquals("Invalid percent. Percent must be between 0 and 100: 120.0", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountRules.specialMovie(1, Double.NaN));
+		assertEquals("Invalid percent. Percent must be between 0 and 100: NaN", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountRules.sequence(1, -3));
+		assertEquals("Invalid amount. Discount amount cannot be negative: -3.0", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountRules.timeWindow(LocalTime.of(16, 0), LocalTime.of(11, 0), 25));
+		assertEquals("Invalid time window. The start must be before the end: 16:00 - 11:00", e.getMessage());
+		
+		e = assertThrows(IllegalArgumentException.class, () -> DiscountRules.dayOfMonth(32, 1));
+		assertEquals("Invalid day of month: 32", e.getMessage());
+	}
+}
@@ -0,0 +1,71 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HoldTimerWheelTests {
+	/** Length of a tick used for testing */
+	private static final long TICK = 1000;
+	
+	/**
+	 * Testing that holds expire at the first tick at or after their deadline, across every level of the wheel.
+	 */
+	@Test
+	public void testExpireAtDeadline() {
+		HoldTimerWheel wheel = new HoldTimerWheel(TICK, 0);
+		Random random = new Random(22);
+		List<SeatHold> holds = new ArrayList<SeatHold>();
+		for(int i = 0; i < 2000; i++) {
+			// Deadlines from a fraction of a tick to past the four levels of the wheel
+			long deadline = 1 + (long) (Math.pow(random.nextDouble(), 4) * TICK * (1L << 25)) + random.nextInt((int) TICK);
+			SeatHold hold = new SeatHold(null, null, 1, null, 0, deadline);
+			holds.add(hold);
+			wheel.add(hold);
+		}
+		List<SeatHold> expired = new ArrayList<SeatHold>();
+		long now = 0;
+		while(expired.size() < holds.size()) {
+			// Advance by a varying number of ticks, and check nothing expired early or was missed
+			now += TICK * (1 + random.nextInt(1 << random.nextInt(16)));
+			final long at = now;
+			int count = wheel.advance(now, hold -> {
+				assertTrue(hold.getDeadlineNanos() <= at, hold + " expired early");
+				expired.add(hold);
+				return hold.end(SeatHold.State.EXPIRED);
+			});
+			for(SeatHold hold : holds) {
+				assertEquals(hold.getDeadlineNanos() <= now, hold.getState() == SeatHold.State.EXPIRED, "at " + now);
+			}
+			assertTrue(count >= 0);
+		}
+		assertEquals(holds.size(), expired.size());
+	}
+	
+	/**
+	 * Testing that holds that ended before their deadline are dropped, and that advancing before the next tick does nothing.
+	 */
+	@Test
+	public void testEndedHoldsAreDropped() {
+		HoldTimerWheel wheel = new HoldTimerWheel(TICK, 0);
+		SeatHold confirmed = new SeatHold(null, null, 1, null, 0, 5 * TICK);
+		SeatHold pending = new SeatHold(null, null, 1, null, 0, 5 * TICK);
+		wheel.add(confirmed);
+		wheel.add(pending);
+		assertEquals(0, wheel.advance(TICK - 1, hold -> hold.end(SeatHold.State.EXPIRED)));
+		assertEquals(0, wheel.advance(TICK, hold -> hold.end(SeatHold.State.EXPIRED)));
+		assertTrue(confirmed.end(SeatHold.State.CONFIRMED));
+		
+		List<SeatHold> expired = new ArrayList<SeatHold>();
+		assertEquals(1, wheel.advance(10 * TICK, hold -> expired.add(hold) && hold.end(SeatHold.State.EXPIRED)));
+		assertEquals(List.of(pending), expired);
+		assertEquals(SeatHold.State.CONFIRMED, confirmed.getState());
+		assertThrows(IllegalArgumentException.class, () -> new HoldTimerWheel(0, 0));
+	}
+}
@@ -0,0 +1,57 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntHashMapTests {
+	/**
+	 * Testing get, put and remove, including replacing a value and removing a missing key.
+	 */
+	@Test
+	public void testPutGetRemove() {
+		LongIntHashMap map = new LongIntHashMap();
+		assertEquals(LongIntHashMap.MISSING, map.get(1));
+		map.put(1, 10);
+		map.put(2, 20);
+		map.put(1, 11);
+		assertEquals(2, map.size());
+		assertEquals(11, map.get(1));
+		assertEquals(11, map.remove(1));
+		assertEquals(LongIntHashMap.MISSING, map.remove(1));
+		assertEquals(20, map.get(2));
+		assertEquals(1, map.size());
+		assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+	}
+
+	/**
+	 * Testing the map against a HashMap through random puts and removes, which exercises collisions, resizing and the shifting
+	 * of entries after a removal.
+	 */
+	@Test
+	public void testAgainstHashMap() {
+		LongIntHashMap map = new LongIntHashMap();
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		Random random = new Random(42);
+		for(int i = 0; i < 200_000; i++) {
+			long key = 1 + random.nextInt(5000);
+			if(random.nextInt(3) == 0) {
+				Integer removed = expected.remove(key);
+				assertEquals(removed == null ? LongIntHashMap.MISSING : removed, map.remove(key));
+			} else {
+				expected.put(key, i);
+				map.put(key, i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for(long key = 1; key <= 5000; key++) {
+			Integer value = expected.get(key);
+			assertEquals(value == null ? LongIntHashMap.MISSING : value, map.get(key));
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyTests {
+	
+	/**
+	 * Testing the conversions between dollars and cents.
+	 */
+	@Test
+	public void testDollarConversions() {
+		assertEquals(1250, Money.ofDollars(12.5));
+		assertEquals(1599, Money.ofDollars(15.99));
+		assertEquals(11, Money.ofDollars(0.105)); // 0.105 is slightly below 10.5 cents as a double
+		assertEquals(12.5, Money.toDollars(1250));
+		assertEquals(0.07, Money.toDollars(7));
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> Money.ofDollars(Double.NaN));
+		assertEquals("Invalid amount. Amount must be a finite number: NaN", e.getMessage());
+	}
+	
+	/**
+	 * Testing percentage calculations. Half cents should be rounded up.
+	 */
+	@Test
+	public void testPercentOf() {
+		assertEquals(2500, Money.percentToBasisPoints(25));
+		assertEquals(1250, Money.percentToBasisPoints(12.5));
+		assertEquals(313, Money.percentOf(1250, 2500)); // 312.5 cents
+		assertEquals(250, Money.percentOf(1250, 2000));
+		assertEquals(220, Money.percentOf(1100, 2000));
+		assertEquals(0, Money.percentOf(1250, 0));
+		assertEquals(1250, Money.percentOf(1250, 10_000));
+		
+		// Summing exact cents should not drift the way summing doubles does.
+		long total = 0;
+		for(int i = 0; i < 1000; i++) {
+			total += Money.ofDollars(0.1);
+		}
+		assertEquals(10000, total);
+	}
+	
+	/**
+	 * Testing the format method.
+	 */
+	@Test
+	public void testFormat() {
+		assertEquals("$12.50", Money.format(1250));
+		assertEquals("$9.37", Money.format(937));
+		assertEquals("$0.05", Money.format(5));
+		assertEquals("$0.00", Money.format(0));
+		assertEquals("-$3.10", Money.format(-310));
+		assertEquals("$1234567.89", Money.format(123456789));
+	}
+}
@@ -38,6 +38,7 @@ public class MovieTests {
 		assertEquals("Spider-Man: No Way Home", movie.getTitle());
 		assertEquals(Duration.ofMinutes(90), movie.getRunningTime());
 		assertEquals(12.5, movie.getTicketPrice());
+		assertEquals(1250, movie.getTicketPriceCents());
 		assertEquals("", movie.getDescription());
 		
 		// Check if description is correct when it is included in construction of movie.
@@ -87,8 +88,10 @@ public class MovieTests {
     @Test
     public void testCalculateTicketPriceTimeDiscount() {
     	// Create new showing with same values as setUp except time is between 11 AM and 4 PM . This should trigger a 25 percent discount.
+    	// 25 percent of $12.50 is 312.5 cents, and half cents are rounded up in the customer's favor.
 		showing = new Showing(movie, 5, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(13, 0)));
-        assertEquals(9.375, movie.calculateTicketPrice(showing));
+        assertEquals(9.37, movie.calculateTicketPrice(showing));
+        assertEquals(937, movie.calculateTicketPriceCents(showing, DiscountPolicy.defaultPolicy()));
     }
     
     /**
@@ -113,10 +116,20 @@ public class MovieTests {
     	// This should trigger a 3 dollar sequence discount as well as a 25 percent time discount
 		showing = new Showing(movie, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(12, 0)));
     	
-    	// The sequence discount is 3 dollars off, the special discount is 2.5 dollars off, and the time discount is 3.125 dollars off.
-    	// The final ticket price should choose the larger of the multiple discounts and subtract that from the
-    	// ticket price. In this case, the largest discount is the time discount so 3.125 should be subtracted from initial ticket price.
-        assertEquals(9.375, movie.calculateTicketPrice(showing));
+    	// The sequence discount is 3 dollars off, the special discount is 2.5 dollars off, and the time discount is 3.13 dollars off
+    	// (3.125 rounded up to the cent). The final ticket price should choose the larger of the multiple discounts and subtract that
+    	// from the ticket price. In this case, the largest discount is the time discount so 3.13 should be subtracted from initial ticket price.
+        assertEquals(9.37, movie.calculateTicketPrice(showing));
+    }
+    
+    /**
+	 * Testing that a discount larger than the ticket price makes the ticket free instead of negative.
+	 */
+    @Test
+    public void testCalculateTicketPriceNeverNegative() {
+    	movie = new Movie("Short Film", Duration.ofMinutes(10), 2.5, 0);
+		showing = new Showing(movie, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)));
+		assertEquals(0, movie.calculateTicketPrice(showing));
     }
     
     /**
@@ -0,0 +1,251 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class ReservationJournalTests {
+	/** Directory the journals are written to */
+	Path directory;
+	/** Journal file used for testing */
+	Path path;
+
+	/** Customers used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	final Customer jane = new Customer("Jane Doe", "janedoe456");
+
+	/** Movie and day used for testing */
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+	final LocalDate day = LocalDate.of(2023, 4, 17);
+
+	/**
+	 * Creates a new directory for the journal before each test.
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("journal");
+		path = directory.resolve("reservations.journal");
+	}
+
+	/**
+	 * Deletes the journal directory after each test.
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Helper method to create a theater with the same three screens of showings every time, as it would be after a restart.
+	 * @return the theater
+	 */
+	private Theater theater() {
+		Theater theater = new Theater();
+		Screen screen1 = new Screen(1, 5000);
+		Screen screen2 = new Screen(2, 10);
+		theater.addShowingToSchedule(turningRed, screen1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, screen1, LocalDateTime.of(day, LocalTime.of(12, 0)));
+		theater.addShowingToSchedule(turningRed, screen2, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, new Screen(3, 5, 10), LocalDateTime.of(day, LocalTime.of(9, 0)));
+		return theater;
+	}
+
+	/**
+	 * Testing that reservations and cancellations are restored by replaying the journal.
+	 */
+	@Test
+	public void testRecordAndReplay() throws IOException {
+		Theater theater = theater();
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(0, journal.replay(theater));
+			theater.setReservationJournal(journal);
+			theater.reserve(john, day, 1, 1, 4);
+			Reservation cancelled = theater.reserve(jane, day, 1, 2, 3);
+			theater.reserveBatch(List.of(new ReservationRequest(john, new ScreenDay(day, 2), 1, 2), new ReservationRequest(jane, new ScreenDay(day, 1), 2, 1)));
+			theater.removeReservation(cancelled);
+		}
+
+		Theater restarted = theater();
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(4, journal.getRecoveredRecords());
+			assertEquals(0, journal.getTruncatedBytes());
+			assertEquals(5, journal.replay(restarted));
+
+			// Appending is not allowed to be followed by a replay.
+			restarted.setReservationJournal(journal);
+			restarted.reserve(jane, day, 2, 1, 1);
+			assertThrows(IllegalStateException.class, () -> journal.replay(restarted));
+		}
+		assertEquals(4, restarted.getShowing(day, 1, 1).getSeatsReserved());
+		assertEquals(1, restarted.getShowing(day, 1, 2).getSeatsReserved());
+		assertEquals(1, restarted.getSales(restarted.getShowing(day, 1, 2)).getTickets());
+		assertEquals(List.of(jane), customers(restarted.getReservations(restarted.getShowing(day, 1, 2))));
+		assertEquals(List.of(john, jane), customers(restarted.getReservations(restarted.getShowing(day, 2, 1))));
+
+		// A closed journal should reject new records.
+		Exception e = assertThrows(IllegalStateException.class, () -> restarted.reserve(john, day, 1, 1, 1));
+		assertEquals("The journal is closed", e.getMessage());
+		assertEquals(4, restarted.getShowing(day, 1, 1).getSeatsReserved());
+	}
+
+	/**
+	 * Testing that a record torn by a crash is truncated and the records before it are kept.
+	 */
+	@Test
+	public void testTornRecordIsTruncated() throws IOException {
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			Theater theater = theater();
+			theater.setReservationJournal(journal);
+			theater.reserve(john, day, 1, 1, 2);
+			theater.reserve(jane, day, 1, 1, 3);
+		}
+
+		// Cut the last record short, as if the process died in the middle of writing it.
+		long size = Files.size(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(size - 5);
+		}
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(1, journal.getRecoveredRecords());
+			long recordBytes = (size - 8) / 2;
+			assertEquals(recordBytes - 5, journal.getTruncatedBytes());
+			assertEquals(size - recordBytes, Files.size(path));
+
+			// New records should be appended after the last good record.
+			Theater theater = theater();
+			assertEquals(1, journal.replay(theater));
+			theater.setReservationJournal(journal);
+			theater.reserve(jane, day, 1, 1, 1);
+		}
+
+		Theater restarted = theater();
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(2, journal.replay(restarted));
+		}
+		assertEquals(List.of(john, jane), customers(restarted.getReservations(restarted.getShowing(day, 1, 1))));
+
+		// A record whose checksum does not match should also end the journal.
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 42 }), Files.size(path) - 1);
+		}
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(1, journal.getRecoveredRecords());
+		}
+	}
+
+	/**
+	 * Testing that replayed reservations keep their ids and seats, and that a cancellation removes exactly the reservation that was
+	 * cancelled even when another reservation has the same customer and ticket count.
+	 */
+	@Test
+	public void testReplayKeepsIdsAndSeats() throws IOException {
+		Theater theater = theater();
+		Reservation back;
+		Reservation kept;
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			theater.setReservationJournal(journal);
+			back = theater.reserveSeats(john, day, 3, 1, new SeatBlock(4, 6, 3));
+			kept = theater.reserve(jane, day, 3, 1, 2);
+			Reservation cancelled = theater.reserve(jane, day, 3, 1, 2);
+			theater.removeReservation(cancelled);
+		}
+
+		Theater restarted = theater();
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(4, journal.replay(restarted));
+		}
+		Showing showing = restarted.getShowing(day, 3, 1);
+		assertEquals(5, showing.getSeatsReserved());
+		assertEquals(back.getSeats(), restarted.getReservation(back.getId()).getSeats());
+		assertEquals(kept.getSeats(), restarted.getReservation(kept.getId()).getSeats());
+		assertEquals(List.of(john, jane), customers(restarted.getReservations(showing)));
+
+		// Ids given out after a replay never collide with restored ids
+		assertTrue(restarted.reserve(john, day, 3, 1, 1).getId() > kept.getId());
+	}
+
+	/**
+	 * Testing that a file that is not a journal is rejected.
+	 */
+	@Test
+	public void testNotAJournal() throws IOException {
+		Files.write(path, "not a journal".getBytes(StandardCharsets.UTF_8));
+		Exception e = assertThrows(IOException.class, () -> new ReservationJournal(path));
+		assertEquals("Not a reservation journal: " + path, e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> new ReservationJournal(path, Duration.ofMillis(-1)));
+	}
+
+	/**
+	 * Testing that bookings from many threads are group committed and every one of them is recovered.
+	 */
+	@Test
+	public void testConcurrentGroupCommit() throws Exception {
+		int threads = 8;
+		int bookingsPerThread = 250;
+		Theater theater = theater();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (ReservationJournal journal = new ReservationJournal(path, Duration.ofMillis(2))) {
+			theater.setReservationJournal(journal);
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for(int i = 0; i < bookingsPerThread; i++) {
+						theater.reserve(john, day, 1, 2, 1);
+					}
+				}));
+			}
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Theater restarted = theater();
+		try (ReservationJournal journal = new ReservationJournal(path)) {
+			assertEquals(threads * bookingsPerThread, journal.getRecoveredRecords());
+			assertEquals(threads * bookingsPerThread, journal.replay(restarted));
+		}
+		assertEquals(threads * bookingsPerThread, restarted.getShowing(day, 1, 2).getSeatsReserved());
+	}
+
+	/**
+	 * Helper method to return the customers of the given reservations.
+	 * @param reservations to get the customers of
+	 * @return the customers in the same order
+	 */
+	private static List<Customer> customers(List<Reservation> reservations) {
+		List<Customer> customers = new ArrayList<Customer>();
+		for(Reservation reservation : reservations) {
+			customers.add(reservation.getCustomer());
+		}
+		return customers;
+	}
+}
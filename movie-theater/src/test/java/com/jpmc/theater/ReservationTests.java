@@ -39,6 +39,13 @@ public class ReservationTests {
     void testTotalFee() {
     	assertDoesNotThrow(() -> reservation.totalFee());
         assertEquals(50, reservation.totalFee()); // Showing and movie should not have any discount. Results is 12.5 price times 4 tickets.
+        assertEquals(5000, reservation.totalFeeCents());
+        
+        // 25 percent off $12.50 is $9.37 per ticket after rounding the discount, so 3 tickets are exactly $28.11.
+        showing = new Showing(movie, 5, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(13, 0)));
+        reservation = new Reservation(customer, showing, 3);
+        assertEquals(2811, reservation.totalFeeCents());
+        assertEquals(28.11, reservation.totalFee());
     }
     
     /**
@@ -0,0 +1,142 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+public class ScheduleImporterTests {
+	/** Theater instance used for testing */
+	Theater theater;
+	/** Date of the showings */
+	final LocalDate day = LocalDate.of(2023, 4, 17);
+	/** Header of the CSV files */
+	final String header = "date,start,screen,capacity,title,runningTime,ticketPrice,specialCode,description,sequence\n";
+
+	/**
+	 * Sets up the theater before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		theater = new Theater();
+	}
+
+	/**
+	 * Testing a CSV import. Quoted fields are read whole, identical movies and screens are shared, and showings without a sequence
+	 * are numbered in start time order after the sequences in use.
+	 */
+	@Test
+	public void testImportCsv() throws IOException {
+		Movie existing = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+		theater.addShowingToSchedule(existing, new Screen(1, 100), 1, LocalDateTime.of(day, LocalTime.of(8, 0)));
+		List<Showing> showings = ScheduleImporter.importCsv(theater, new StringReader(header
+				+ "2023-04-17,14:00,1,100,\"Spider-Man: No Way Home\",90,12.5,1,\"Peter, \"\"MJ\"\" and Ned\",\n"
+				+ "2023-04-17,10:00,1,100,Turning Red,85,11,0,,\n"
+				+ "\n"
+				+ "2023-04-17,12:00,2,50,\"Spider-Man: No Way Home\",90,12.5,1,\"Peter, \"\"MJ\"\" and Ned\",7\n"
+				+ "2023-04-17,16:00,2,50,Turning Red,85,11,0,,\n"));
+
+		assertEquals(4, showings.size());
+		assertEquals(5, theater.getSchedule().size());
+		Movie spiderMan = showings.get(0).getMovie();
+		assertEquals("Spider-Man: No Way Home", spiderMan.getTitle());
+		assertEquals("Peter, \"MJ\" and Ned", spiderMan.getDescription());
+		assertSame(spiderMan, showings.get(2).getMovie());
+		assertSame(existing, showings.get(1).getMovie());
+		assertSame(existing, showings.get(3).getMovie());
+		assertSame(showings.get(2).getScreen(), showings.get(3).getScreen());
+		assertEquals(50, showings.get(2).getScreen().getCapacity());
+
+		// Screen 1 already has sequence 1, so the 10:00 showing is 2 and the 14:00 showing is 3; screen 2 follows the explicit 7
+		assertEquals(3, showings.get(0).getSequenceOfTheDay());
+		assertEquals(2, showings.get(1).getSequenceOfTheDay());
+		assertEquals(7, showings.get(2).getSequenceOfTheDay());
+		assertEquals(8, showings.get(3).getSequenceOfTheDay());
+		assertSame(showings.get(3), theater.getShowing(day, 2, 8));
+	}
+
+	/**
+	 * Testing that the JSON format imports the same showings as the CSV format.
+	 */
+	@Test
+	public void testImportJson() throws IOException {
+		List<Showing> showings = ScheduleImporter.importJson(theater, new StringReader("["
+				+ "{\"date\": \"2023-04-17\", \"start\": \"09:00\", \"screen\": 3, \"title\": \"Up\", \"runningTime\": 96, \"ticketPrice\": 9.5},"
+				+ "{\"date\": \"2023-04-17\", \"start\": \"11:00\", \"screen\": 3, \"title\": \"Up\", \"runningTime\": 96, \"ticketPrice\": 9.5,"
+				+ " \"description\": null, \"tags\": [\"family\"]}]"));
+
+		Theater fromCsv = new Theater();
+		List<Showing> expected = ScheduleImporter.importCsv(fromCsv, new StringReader("date,start,screen,title,runningTime,ticketPrice\n"
+				+ "2023-04-17,09:00,3,Up,96,9.5\n"
+				+ "2023-04-17,11:00,3,Up,96,9.5\n"));
+		assertEquals(expected.size(), showings.size());
+		for(int i = 0; i < showings.size(); i++) {
+			assertEquals(expected.get(i).getMovie(), showings.get(i).getMovie());
+			assertEquals(expected.get(i).getScreen(), showings.get(i).getScreen());
+			assertEquals(expected.get(i).getSequenceOfTheDay(), showings.get(i).getSequenceOfTheDay());
+			assertEquals(expected.get(i).getStartTime(), showings.get(i).getStartTime());
+		}
+		assertSame(showings.get(0).getMovie(), showings.get(1).getMovie());
+		assertEquals(Showing.UNLIMITED_CAPACITY, showings.get(0).getScreen().getCapacity());
+	}
+
+	/**
+	 * Testing that a file with overlapping showings or a reused sequence adds nothing to the schedule.
+	 */
+	@Test
+	public void testInvalidSchedule() {
+		Movie existing = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+		theater.addShowingToSchedule(existing, new Screen(1), 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+
+		// Overlaps the existing showing, which runs until 10:25
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater,
+				new StringReader(header + "2023-04-17,12:00,1,,Up,96,9,0,,\n2023-04-17,10:00,1,,Up,96,9,0,,\n")));
+		assertTrue(e.getMessage().startsWith("Invalid schedule. Up at 2023-04-17T10:00 overlaps Turning Red"), e.getMessage());
+
+		// Overlaps another showing in the file, even though a shorter showing starts in between
+		assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater, new StringReader(header
+				+ "2023-04-17,12:00,1,,Long,240,9,0,,\n2023-04-17,13:00,1,,Short,30,9,0,,\n2023-04-17,15:00,1,,Short,30,9,0,,\n")));
+
+		// Runs past midnight into the next day's first showing
+		assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater, new StringReader(header
+				+ "2023-04-17,23:00,1,,Up,96,9,0,,\n2023-04-18,00:15,1,,Up,96,9,0,,\n")));
+
+		e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater,
+				new StringReader(header + "2023-04-17,12:00,1,,Up,96,9,0,,1\n")));
+		assertEquals("Invalid schedule. Sequence 1 is used twice on screen 1 on 2023-04-17", e.getMessage());
+		assertEquals(1, theater.getSchedule().size());
+	}
+
+	/**
+	 * Testing that malformed rows are reported with their line or position.
+	 */
+	@Test
+	public void testMalformedFile() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater,
+				new StringReader(header + "2023-04-17,09:00,1,,Up,96,9,0,,\n2023-04-17,9am,1,,Up,96,9,0,,\n")));
+		assertTrue(e.getMessage().startsWith("Invalid schedule. Line 3: "), e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater,
+				new StringReader(header + "2023-04-17,09:00,1,,\"Up,96,9,0,,\n")));
+		assertEquals("Invalid schedule. Line 2: a quoted field is not closed", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importCsv(theater,
+				new StringReader("date,start,title\n")));
+		assertEquals("Invalid schedule. The header has no screen column", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importJson(theater,
+				new StringReader("[{\"date\": \"2023-04-17\", \"start\": \"09:00\", \"screen\": 0, \"title\": \"Up\", \"runningTime\": 96,"
+						+ " \"ticketPrice\": 9}]")));
+		assertTrue(e.getMessage().startsWith("Invalid schedule. Showing 1: Invalid screen number."), e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> ScheduleImporter.importJson(theater, new StringReader("{}")));
+		assertEquals(0, theater.getSchedule().size());
+	}
+}
@@ -0,0 +1,120 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ScheduleIndexTests {
+	/** Schedule index used for testing */
+	ScheduleIndex index;
+
+	/** Movie used for testing */
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+
+	/** Showings used for testing, deliberately added out of start time order */
+	final Showing showing1 = new Showing(turningRed, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)));
+	final Showing showing2 = new Showing(turningRed, 2, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(11, 0)));
+	final Showing showing3 = new Showing(turningRed, 3, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(12, 50)));
+
+	/**
+	 * Sets up the schedule index before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		index = new ScheduleIndex();
+		index.add(showing3);
+		index.add(showing1);
+		index.add(showing2);
+	}
+
+	/**
+	 * Testing the add and get methods of the ScheduleIndex.
+	 */
+	@Test
+	public void testAddAndGet() {
+		assertEquals(3, index.size());
+		assertEquals(showing1, index.get(1));
+		assertEquals(showing3, index.get(3));
+		assertNull(index.get(4));
+
+		// Adding a showing with a sequence that is already in use should replace the old showing in both indexes.
+		Showing replacement = new Showing(turningRed, 2, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(14, 30)));
+		assertEquals(showing2, index.add(replacement));
+		assertEquals(3, index.size());
+		assertEquals(replacement, index.get(2));
+		assertEquals(Arrays.asList(showing1, showing3, replacement), List.copyOf(index.showings()));
+	}
+
+	/**
+	 * Testing that showings are ordered by start time regardless of the order they were added.
+	 */
+	@Test
+	public void testShowingsOrderedByStartTime() {
+		assertEquals(Arrays.asList(showing1, showing2, showing3), List.copyOf(index.showings()));
+	}
+
+	/**
+	 * Testing the between method of the ScheduleIndex.
+	 */
+	@Test
+	public void testBetween() {
+		LocalDate day = LocalDate.of(2023, 4, 17);
+
+		// Lower bound is inclusive and upper bound is exclusive.
+		assertEquals(Arrays.asList(showing2, showing3), index.between(LocalDateTime.of(day, LocalTime.of(11, 0)), LocalDateTime.of(day, LocalTime.of(13, 0))));
+		assertEquals(Arrays.asList(showing1), index.between(LocalDateTime.of(day, LocalTime.of(8, 0)), LocalDateTime.of(day, LocalTime.of(11, 0))));
+
+		// Empty and inverted ranges should return no showings.
+		assertTrue(index.between(LocalDateTime.of(day, LocalTime.of(20, 0)), LocalDateTime.of(day, LocalTime.of(22, 0))).isEmpty());
+		assertTrue(index.between(LocalDateTime.of(day, LocalTime.of(13, 0)), LocalDateTime.of(day, LocalTime.of(11, 0))).isEmpty());
+	}
+
+	/**
+	 * Testing that resequence numbers the showings in start time order into a new index, and leaves every showing in the old
+	 * index for readers that still use it.
+	 */
+	@Test
+	public void testResequence() {
+		List<Showing> changed = new ArrayList<Showing>();
+		assertSame(index, index.resequence(changed));
+		assertTrue(changed.isEmpty());
+
+		Showing early = new Showing(turningRed, 4, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(7, 0)));
+		index.add(early);
+		ScheduleIndex renumbered = index.resequence(changed);
+		assertEquals(Arrays.asList(early, showing1, showing2, showing3), changed);
+		assertEquals(early, renumbered.get(1));
+		assertEquals(showing3, renumbered.get(4));
+		assertEquals(4, showing3.getSequenceOfTheDay());
+		assertEquals(early, index.get(4));
+		assertEquals(showing3, index.get(3));
+		assertEquals(4, index.size());
+	}
+
+	/**
+	 * Testing the remove and clear methods of the ScheduleIndex.
+	 */
+	@Test
+	public void testRemoveAndClear() {
+		assertEquals(showing2, index.remove(2));
+		assertNull(index.get(2));
+		assertNull(index.remove(2));
+		assertEquals(Arrays.asList(showing1, showing3), List.copyOf(index.showings()));
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.showings().isEmpty());
+	}
+}
@@ -0,0 +1,62 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+public class ScheduleSnapshotTests {
+	/** Date of the showings */
+	final LocalDate date = LocalDate.of(2023, 4, 17);
+	/** Showings used for testing */
+	final List<Showing> showings = List.of(
+			new Showing(new Movie("Turning Red", Duration.ofMinutes(85), 11, 0), 1, LocalDateTime.of(date, LocalTime.of(9, 0))),
+			new Showing(new Movie("The Batman", Duration.ofMinutes(95), 9, 0), 2, LocalDateTime.of(date, LocalTime.of(12, 50))));
+	
+	/**
+	 * Testing that the rendered snapshot holds exactly what the schedule writer produces.
+	 */
+	@Test
+	public void testRender() throws IOException {
+		ScheduleSnapshot snapshot = ScheduleSnapshot.render(7, showings);
+		assertEquals(7, snapshot.getVersion());
+		
+		StringWriter text = new StringWriter();
+		ScheduleWriter.writeText(showings, text);
+		assertEquals(text.toString(), StandardCharsets.UTF_8.decode(snapshot.getText()).toString());
+		
+		StringWriter json = new StringWriter();
+		ScheduleWriter.writeJson(showings, json);
+		assertEquals(json.toString(), StandardCharsets.UTF_8.decode(snapshot.getJson()).toString());
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeText(out);
+		assertEquals(text.toString(), out.toString(StandardCharsets.UTF_8));
+		out.reset();
+		snapshot.writeJson(out);
+		assertEquals(json.toString(), out.toString(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Testing that the cached bytes cannot be changed through the returned buffers.
+	 */
+	@Test
+	public void testBuffersAreReadOnly() {
+		ScheduleSnapshot snapshot = ScheduleSnapshot.render(1, showings);
+		ByteBuffer text = snapshot.getText();
+		assertThrows(ReadOnlyBufferException.class, () -> text.put(0, (byte) 'x'));
+		assertEquals('S', snapshot.getText().get(0));
+	}
+}
@@ -0,0 +1,130 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScheduleTests {
+	/** Schedule used for testing */
+	Schedule schedule;
+
+	/** Movie and screens used for testing */
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+	final Screen screen1 = new Screen(1, 100);
+	final Screen screen2 = new Screen(2, 50);
+
+	/** Days used for testing */
+	final LocalDate monday = LocalDate.of(2023, 4, 17);
+	final LocalDate tuesday = LocalDate.of(2023, 4, 18);
+
+	/** Showings used for testing, numbered separately on every screen day */
+	final Showing monday1 = new Showing(turningRed, screen1, 1, LocalDateTime.of(monday, LocalTime.of(9, 0)));
+	final Showing monday2 = new Showing(turningRed, screen1, 2, LocalDateTime.of(monday, LocalTime.of(12, 0)));
+	final Showing mondayScreen2 = new Showing(turningRed, screen2, 1, LocalDateTime.of(monday, LocalTime.of(10, 0)));
+	final Showing tuesday1 = new Showing(turningRed, screen1, 1, LocalDateTime.of(tuesday, LocalTime.of(9, 0)));
+
+	/**
+	 * Sets up the schedule before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		schedule = new Schedule();
+		schedule.add(tuesday1);
+		schedule.add(monday2);
+		schedule.add(mondayScreen2);
+		schedule.add(monday1);
+	}
+
+	/**
+	 * Testing the add, get and find methods of the Schedule.
+	 */
+	@Test
+	public void testAddAndGet() {
+		assertEquals(4, schedule.size());
+		assertEquals(monday1, schedule.get(new ScreenDay(monday, 1), 1));
+		assertEquals(mondayScreen2, schedule.get(new ScreenDay(monday, 2), 1));
+		assertEquals(tuesday1, schedule.get(new ScreenDay(tuesday, 1), 1));
+		assertNull(schedule.get(new ScreenDay(tuesday, 2), 1));
+		assertNull(schedule.get(new ScreenDay(monday, 1), 3));
+
+		// The same sequence can be used once on every screen day.
+		assertEquals(List.of(monday1, mondayScreen2, tuesday1), schedule.find(1));
+		assertEquals(List.of(monday2), schedule.find(2));
+		assertTrue(schedule.find(3).isEmpty());
+	}
+
+	/**
+	 * Testing that sequences are numbered separately on every screen day.
+	 */
+	@Test
+	public void testNextSequence() {
+		assertEquals(3, schedule.nextSequence(new ScreenDay(monday, 1)));
+		assertEquals(2, schedule.nextSequence(new ScreenDay(monday, 2)));
+		assertEquals(1, schedule.nextSequence(new ScreenDay(tuesday, 2)));
+	}
+
+	/**
+	 * Testing the partition and range queries of the Schedule.
+	 */
+	@Test
+	public void testShowings() {
+		assertEquals(List.of(monday1, monday2), List.copyOf(schedule.showings(new ScreenDay(monday, 1))));
+		assertEquals(List.of(monday1, mondayScreen2, monday2), schedule.showings(monday));
+		assertTrue(schedule.showings(LocalDate.of(2023, 4, 19)).isEmpty());
+
+		// Every showing, partition by partition.
+		List<Showing> all = new ArrayList<Showing>();
+		schedule.showings().forEach(all::add);
+		assertEquals(List.of(monday1, monday2, mondayScreen2, tuesday1), all);
+
+		// A range spanning midnight should include showings on both days and no others.
+		assertEquals(List.of(monday2, tuesday1), schedule.between(LocalDateTime.of(monday, LocalTime.of(11, 0)), LocalDateTime.of(tuesday, LocalTime.of(10, 0))));
+		assertTrue(schedule.between(LocalDateTime.of(tuesday, LocalTime.of(10, 0)), LocalDateTime.of(monday, LocalTime.of(11, 0))).isEmpty());
+	}
+
+	/**
+	 * Testing the remove and clear methods of the Schedule.
+	 */
+	@Test
+	public void testRemove() {
+		assertEquals(mondayScreen2, schedule.remove(new ScreenDay(monday, 2), 1));
+		assertNull(schedule.remove(new ScreenDay(monday, 2), 1));
+		assertEquals(3, schedule.size());
+
+		// Partitions should be dropped once their last showing is removed.
+		assertEquals(List.of(new ScreenDay(monday, 1), new ScreenDay(tuesday, 1)), List.copyOf(schedule.screenDays()));
+
+		schedule.clear();
+		assertEquals(0, schedule.size());
+		assertTrue(schedule.screenDays().isEmpty());
+	}
+
+	/**
+	 * Testing the Screen and ScreenDay objects the schedule is partitioned by.
+	 */
+	@Test
+	public void testScreenAndScreenDay() {
+		assertEquals(2, mondayScreen2.getScreen().getNumber());
+		assertEquals(50, mondayScreen2.getCapacity());
+		assertEquals(Screen.DEFAULT, new Showing(turningRed, 1, LocalDateTime.of(monday, LocalTime.of(9, 0))).getScreen());
+		assertEquals(new ScreenDay(monday, 2), ScreenDay.of(mondayScreen2));
+		assertTrue(new ScreenDay(monday, 2).compareTo(new ScreenDay(tuesday, 1)) < 0);
+		assertTrue(new ScreenDay(monday, 2).compareTo(new ScreenDay(monday, 1)) > 0);
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new Screen(0));
+		assertEquals("Invalid screen number. Screen numbers start at 1: 0", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> new Screen(1, -1));
+		assertEquals("Invalid capacity. Capacity cannot be negative: -1", e.getMessage());
+	}
+}
@@ -0,0 +1,143 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+public class ScheduleWriterTests {
+	/** Date of the showings */
+	final LocalDate date = LocalDate.of(2023, 4, 17);
+	/** Movies used for testing */
+	final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+	final Movie shortFilm = new Movie("Up", Duration.ofMinutes(61), 9, 0);
+	/** Showings used for testing */
+	final List<Showing> showings = List.of(
+			new Showing(spiderMan, 1, LocalDateTime.of(date, LocalTime.of(9, 0))),
+			new Showing(shortFilm, 12, LocalDateTime.of(date, LocalTime.of(11, 30))));
+	
+	/**
+	 * Testing the writeText method. Columns should be aligned on the longest movie title.
+	 */
+	@Test
+	public void testWriteText() throws IOException {
+		StringWriter out = new StringWriter();
+		ScheduleWriter.writeText(showings, out);
+		assertEquals("Showtimes for 2023-04-17 on screen 1\n"
+				+ "==========================================================================\n"
+				+ "Sequence   Start Time   Movie Title                Runtime        Price     \n"
+				+ "1          09:00        Spider-Man: No Way Home    1 hr 30 mins   $12.50\n"
+				+ "12         11:30        Up                         1 hr 1 min     $9.00\n"
+				+ "==========================================================================\n", out.toString());
+	}
+	
+	/**
+	 * Testing the writeJson method. Every showing should be written as its own json object.
+	 */
+	@Test
+	public void testWriteJson() throws IOException {
+		StringWriter out = new StringWriter();
+		ScheduleWriter.writeJson(showings, out);
+		String[] lines = out.toString().split("\n", 3);
+		assertEquals("Showtimes for 2023-04-17 on screen 1", lines[0]);
+		assertEquals("===================================================", lines[1]);
+		assertTrue(lines[2].endsWith("}\n===================================================\n"));
+		
+		JsonReader reader = new JsonReader(new StringReader(lines[2].substring(0, lines[2].lastIndexOf('}') + 1)));
+		reader.setLenient(true);
+		List<JsonObject> objects = new ArrayList<JsonObject>();
+		while(reader.peek() != com.google.gson.stream.JsonToken.END_DOCUMENT) {
+			objects.add(JsonParser.parseReader(reader).getAsJsonObject());
+		}
+		assertEquals(2, objects.size());
+		assertEquals(1, objects.get(0).get("sequence").getAsInt());
+		assertEquals("09:00", objects.get(0).get("startTime").getAsString());
+		assertEquals("Spider-Man: No Way Home", objects.get(0).get("title").getAsString());
+		assertEquals("1 hr 30 mins", objects.get(0).get("runningTime").getAsString());
+		assertEquals(12.5, objects.get(0).get("ticketPrice").getAsDouble());
+		assertEquals("1 hr 1 min", objects.get(1).get("runningTime").getAsString());
+		
+		// Objects should be pretty printed with two space indentation.
+		assertTrue(lines[2].startsWith("{\n  \"sequence\": 1,\n"));
+	}
+	
+	/**
+	 * Testing that showings on different dates and screens are written under their own headers, with the columns still aligned
+	 * on the longest movie title of the whole schedule.
+	 */
+	@Test
+	public void testWriteScreenDays() throws IOException {
+		List<Showing> screenDays = List.of(
+				new Showing(spiderMan, new Screen(1), 1, LocalDateTime.of(date, LocalTime.of(9, 0))),
+				new Showing(shortFilm, new Screen(2), 1, LocalDateTime.of(date, LocalTime.of(10, 0))),
+				new Showing(shortFilm, new Screen(2), 1, LocalDateTime.of(date.plusDays(1), LocalTime.of(10, 0))));
+		StringWriter out = new StringWriter();
+		ScheduleWriter.writeText(screenDays, out);
+		assertEquals("Showtimes for 2023-04-17 on screen 1\n"
+				+ "==========================================================================\n"
+				+ "Sequence   Start Time   Movie Title                Runtime        Price     \n"
+				+ "1          09:00        Spider-Man: No Way Home    1 hr 30 mins   $12.50\n"
+				+ "==========================================================================\n"
+				+ "Showtimes for 2023-04-17 on screen 2\n"
+				+ "==========================================================================\n"
+				+ "Sequence   Start Time   Movie Title                Runtime        Price     \n"
+				+ "1          10:00        Up                         1 hr 1 min     $9.00\n"
+				+ "==========================================================================\n"
+				+ "Showtimes for 2023-04-18 on screen 2\n"
+				+ "==========================================================================\n"
+				+ "Sequence   Start Time   Movie Title                Runtime        Price     \n"
+				+ "1          10:00        Up                         1 hr 1 min     $9.00\n"
+				+ "==========================================================================\n", out.toString());
+
+		out = new StringWriter();
+		ScheduleWriter.writeJson(screenDays, out);
+		String json = out.toString();
+		assertTrue(json.startsWith("Showtimes for 2023-04-17 on screen 1\n===================================================\n{"));
+		assertTrue(json.contains("}\n===================================================\nShowtimes for 2023-04-17 on screen 2\n"));
+		assertTrue(json.contains("}\n===================================================\nShowtimes for 2023-04-18 on screen 2\n"));
+
+		// An empty schedule has no screen days to write
+		out = new StringWriter();
+		ScheduleWriter.writeText(List.of(), out);
+		assertEquals("", out.toString());
+	}
+
+	/**
+	 * Testing that a large schedule is written in full.
+	 */
+	@Test
+	public void testWriteLargeSchedule() throws IOException {
+		List<Showing> large = new ArrayList<Showing>();
+		for(int i = 0; i < 10_000; i++) {
+			large.add(new Showing(shortFilm, i + 1, LocalDateTime.of(date, LocalTime.of(9, 0)).plusMinutes(i)));
+		}
+		StringWriter out = new StringWriter();
+		ScheduleWriter.writeText(large, out);
+		// The showings run from 09:00 for almost a week, so they span 8 screen days with 4 header and separator lines each
+		assertEquals(10_000 + 4 * 8, out.toString().split("\n").length);
+	}
+	
+	/**
+	 * Testing the humanReadableFormat method.
+	 */
+	@Test
+	public void testHumanReadableFormat() {
+		assertEquals("1 hr 30 mins", ScheduleWriter.humanReadableFormat(Duration.ofMinutes(90)));
+		assertEquals("2 hrs 1 min", ScheduleWriter.humanReadableFormat(Duration.ofMinutes(121)));
+		assertEquals("0 hrs 45 mins", ScheduleWriter.humanReadableFormat(Duration.ofMinutes(45)));
+	}
+}
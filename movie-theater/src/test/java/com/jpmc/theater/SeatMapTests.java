@@ -0,0 +1,185 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SeatMapTests {
+	/**
+	 * Testing that parties are seated in the middle of the preferred row, then in the rows around it.
+	 */
+	@Test
+	public void testAllocate() {
+		SeatMap seatMap = new SeatMap(4, 10);
+		// The preferred row is two thirds of the way back, row C
+		SeatBlock first = seatMap.allocate(6);
+		assertEquals(new SeatBlock(2, 2, 6), first);
+		assertEquals("C3-C8", first.toString());
+		assertEquals(new SeatBlock(2, 0, 2), seatMap.allocate(2));
+		assertEquals(new SeatBlock(2, 8, 2), seatMap.allocate(2));
+		// Row C is full, so the next party goes behind it and then in front of it
+		assertEquals(new SeatBlock(3, 3, 4), seatMap.allocate(4));
+		assertEquals(new SeatBlock(1, 0, 10), seatMap.allocate(10));
+		assertEquals(new SeatBlock(3, 0, 3), seatMap.allocate(3));
+		assertNull(seatMap.allocate(11));
+		assertEquals(40 - 27, seatMap.getSeatsAvailable());
+		assertThrows(IllegalArgumentException.class, () -> seatMap.allocate(0));
+
+		// Row D is filled by the next party of three, so a pair goes to the front row
+		assertEquals(new SeatBlock(3, 7, 3), seatMap.allocate(3));
+		assertEquals(new SeatBlock(0, 4, 2), seatMap.allocate(2));
+	}
+
+	/**
+	 * Testing that a block is held completely or not at all, and that released seats are free again.
+	 */
+	@Test
+	public void testHoldAndRelease() {
+		SeatMap seatMap = new SeatMap(2, 150);
+		assertTrue(seatMap.hold(new SeatBlock(0, 60, 10)));
+		assertTrue(seatMap.isHeld(0, 60));
+		assertTrue(seatMap.isHeld(0, 69));
+		assertFalse(seatMap.isHeld(0, 70));
+
+		// Overlaps the held block in the second word, so the seats in the first word must be returned
+		assertFalse(seatMap.hold(new SeatBlock(0, 50, 20)));
+		assertFalse(seatMap.isHeld(0, 50));
+		assertEquals(290, seatMap.getSeatsAvailable());
+
+		// Spans three words
+		assertTrue(seatMap.hold(new SeatBlock(1, 10, 130)));
+		assertEquals(160, seatMap.getSeatsAvailable());
+		seatMap.release(new SeatBlock(1, 10, 130));
+		seatMap.release(new SeatBlock(0, 60, 10));
+		assertEquals(300, seatMap.getSeatsAvailable());
+		assertThrows(IllegalArgumentException.class, () -> seatMap.hold(new SeatBlock(2, 0, 1)));
+		assertThrows(IllegalArgumentException.class, () -> seatMap.hold(new SeatBlock(0, 145, 6)));
+	}
+
+	/**
+	 * Testing that the best block found with word operations matches a seat by seat search, for rows of one and several words.
+	 */
+	@Test
+	public void testFindBestMatchesSeatBySeatSearch() {
+		Random random = new Random(21);
+		for(int seatsPerRow : new int[] { 1, 7, 20, 63, 64, 65, 100, 200 }) {
+			for(int round = 0; round < 200; round++) {
+				int rows = 1 + random.nextInt(3);
+				SeatMap seatMap = new SeatMap(rows, seatsPerRow);
+				for(int i = 0; i < rows * seatsPerRow * random.nextInt(100) / 100; i++) {
+					seatMap.hold(new SeatBlock(random.nextInt(rows), random.nextInt(seatsPerRow), 1));
+				}
+				// Every tenth party may be longer than a word
+				int count = 1 + random.nextInt(round % 10 == 0 ? seatsPerRow : Math.min(seatsPerRow, 12));
+				assertEquals(expectedBest(seatMap, count), seatMap.findBest(count), seatsPerRow + " seats per row, party of " + count);
+			}
+		}
+	}
+
+	/**
+	 * Testing that concurrent allocations never hold the same seat twice and fill every row.
+	 */
+	@Test
+	public void testConcurrentAllocate() throws Exception {
+		SeatMap seatMap = new SeatMap(20, 20);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<SeatBlock>>> results = new ArrayList<Future<List<SeatBlock>>>();
+			for(int thread = 0; thread < 4; thread++) {
+				results.add(executor.submit(() -> {
+					List<SeatBlock> held = new ArrayList<SeatBlock>();
+					for(SeatBlock block = seatMap.allocate(4); block != null; block = seatMap.allocate(4)) {
+						held.add(block);
+					}
+					return held;
+				}));
+			}
+			boolean[] taken = new boolean[400];
+			int blocks = 0;
+			for(Future<List<SeatBlock>> result : results) {
+				for(SeatBlock block : result.get(10, TimeUnit.SECONDS)) {
+					for(int seat = block.getFirstSeat(); seat < block.getFirstSeat() + block.getCount(); seat++) {
+						assertFalse(taken[block.getRow() * 20 + seat]);
+						taken[block.getRow() * 20 + seat] = true;
+					}
+					blocks++;
+				}
+			}
+			assertEquals(100, blocks);
+			assertEquals(0, seatMap.getSeatsAvailable());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Testing the rendering of the seat map and the names of seat blocks.
+	 */
+	@Test
+	public void testRender() {
+		SeatMap seatMap = new SeatMap(3, 8);
+		seatMap.hold(new SeatBlock(0, 0, 2));
+		seatMap.hold(new SeatBlock(2, 3, 3));
+		assertEquals("   SCREEN\n"
+				+ "A XXOOOOOO\n"
+				+ "B OOOOOOOO\n"
+				+ "C OOOXXXOO\n", seatMap.render());
+		assertEquals("C4-C6", new SeatBlock(2, 3, 3).toString());
+		assertEquals("A1", new SeatBlock(0, 0, 1).toString());
+		assertEquals("Z", SeatBlock.rowName(25));
+		assertEquals("AA", SeatBlock.rowName(26));
+		assertEquals("BA", SeatBlock.rowName(52));
+		assertEquals(new SeatBlock(300, 40000, 4), SeatBlock.unpack(new SeatBlock(300, 40000, 4).pack(), 4));
+	}
+
+	/**
+	 * Helper method to find the best block seat by seat: the first row in preference order with a free block, and in that row
+	 * the block whose first seat is nearest the middle, the lower one on a tie.
+	 * @param seatMap to search
+	 * @param count number of seats
+	 * @return the best block, or null
+	 */
+	private static SeatBlock expectedBest(SeatMap seatMap, int count) {
+		int rows = seatMap.getRows();
+		int seatsPerRow = seatMap.getSeatsPerRow();
+		int preferred = (rows - 1) * 2 / 3;
+		List<Integer> order = new ArrayList<Integer>();
+		for(int distance = 0; order.size() < rows; distance++) {
+			if(preferred + distance < rows) {
+				order.add(preferred + distance);
+			}
+			if(distance > 0 && preferred - distance >= 0) {
+				order.add(preferred - distance);
+			}
+		}
+		int middle = (seatsPerRow - count) / 2;
+		for(int row : order) {
+			int best = -1;
+			for(int first = 0; first + count <= seatsPerRow; first++) {
+				boolean free = true;
+				for(int seat = first; seat < first + count && free; seat++) {
+					free = !seatMap.isHeld(row, seat);
+				}
+				if(free && (best < 0 || Math.abs(first - middle) < Math.abs(best - middle))) {
+					best = first;
+				}
+			}
+			if(best >= 0) {
+				return new SeatBlock(row, best, count);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,106 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ShowingIntervalTreeTests {
+	/** Start of the first day of showings used for testing */
+	private static final LocalDateTime DAY = LocalDateTime.of(2023, 4, 17, 0, 0);
+
+	/**
+	 * Testing that a range overlaps a showing exactly when the tree finds an overlapping showing, against checking every showing.
+	 */
+	@Test
+	public void testFindOverlapMatchesEveryShowing() {
+		Random random = new Random(25);
+		ShowingIntervalTree tree = new ShowingIntervalTree();
+		List<Showing> showings = new ArrayList<Showing>();
+		for(int i = 0; i < 2000; i++) {
+			if(!showings.isEmpty() && random.nextInt(4) == 0) {
+				Showing removed = showings.remove(random.nextInt(showings.size()));
+				assertTrue(tree.remove(removed));
+				assertFalse(tree.remove(removed));
+			} else {
+				Showing showing = showing(random);
+				tree.add(showing);
+				showings.add(showing);
+			}
+			assertEquals(showings.size(), tree.size());
+
+			LocalDateTime from = DAY.plusMinutes(random.nextInt(10 * 24 * 60));
+			LocalDateTime to = from.plusMinutes(random.nextInt(240));
+			Showing found = tree.findOverlap(from, to);
+			boolean expected = false;
+			for(Showing showing : showings) {
+				expected |= overlaps(showing, from, to);
+			}
+			if(expected) {
+				assertNotNull(found, from + " - " + to);
+				assertTrue(overlaps(found, from, to), found + " does not overlap " + from + " - " + to);
+			} else {
+				assertNull(found, from + " - " + to);
+			}
+		}
+	}
+
+	/**
+	 * Testing that the tree stays balanced when showings are added in start time order and then removed.
+	 */
+	@Test
+	public void testBalance() {
+		Random random = new Random(7);
+		ShowingIntervalTree tree = new ShowingIntervalTree();
+		List<Showing> showings = new ArrayList<Showing>();
+		for(int i = 0; i < 4096; i++) {
+			Showing showing = new Showing(new Movie("Movie " + i, Duration.ofMinutes(90), 10, 0), 1, DAY.plusHours(2L * i));
+			tree.add(showing);
+			showings.add(showing);
+		}
+		// An AVL tree is never taller than 1.44 log2(n + 2)
+		assertTrue(tree.height() <= 1.44 * Math.log(4096 + 2) / Math.log(2), "height " + tree.height());
+		Collections.shuffle(showings, random);
+		for(Showing showing : showings.subList(0, 4000)) {
+			tree.remove(showing);
+		}
+		assertEquals(96, tree.size());
+		assertTrue(tree.height() <= 1.44 * Math.log(96 + 2) / Math.log(2), "height " + tree.height());
+		for(Showing showing : showings.subList(4000, 4096)) {
+			tree.remove(showing);
+		}
+		assertEquals(0, tree.height());
+		assertNull(tree.findOverlap(DAY, DAY.plusYears(1)));
+	}
+
+	/**
+	 * Helper method to create a showing at a random time over ten days.
+	 * @param random numbers to use
+	 * @return the showing
+	 */
+	private static Showing showing(Random random) {
+		Movie movie = new Movie("Movie", Duration.ofMinutes(30 + random.nextInt(180)), 10, 0);
+		return new Showing(movie, 1, DAY.plusMinutes(random.nextInt(10 * 24 * 60)));
+	}
+
+	/**
+	 * Helper method to check if a showing runs at some point in a time range.
+	 * @param showing to check
+	 * @param from start of the range, inclusive
+	 * @param to end of the range, exclusive
+	 * @return true if the showing overlaps the range
+	 */
+	private static boolean overlaps(Showing showing, LocalDateTime from, LocalDateTime to) {
+		return showing.getStartTime().isBefore(to) && showing.getStartTime().plus(showing.getMovie().getRunningTime()).isAfter(from);
+	}
+}
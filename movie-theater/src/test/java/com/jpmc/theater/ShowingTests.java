@@ -0,0 +1,101 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+public class ShowingTests {
+	/** Movie used for testing */
+	Movie movie;
+	/** Showing with limited capacity used for testing */
+	Showing showing;
+
+	/**
+	 * Sets up the movie and showing that will be used for testing each method or constructor.
+	 */
+	@BeforeEach
+	public void setUp() {
+		movie = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 0);
+		showing = new Showing(movie, 5, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(16, 10)), 10);
+	}
+
+	/**
+	 * Testing the showing object constructors.
+	 */
+	@Test
+	public void testShowing() {
+		assertEquals(movie, showing.getMovie());
+		assertEquals(5, showing.getSequenceOfTheDay());
+		assertEquals(10, showing.getCapacity());
+		assertEquals(0, showing.getSeatsReserved());
+		assertEquals(10, showing.getSeatsAvailable());
+
+		// Showings constructed without a capacity should not limit the number of seats.
+		Showing unlimited = new Showing(movie, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)));
+		assertEquals(Showing.UNLIMITED_CAPACITY, unlimited.getCapacity());
+
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new Showing(movie, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)), -1));
+		assertEquals("Invalid capacity. Capacity cannot be negative: -1", e.getMessage());
+	}
+
+	/**
+	 * Testing the tryReserveSeats and releaseSeats methods of the Showing.
+	 */
+	@Test
+	public void testReserveAndReleaseSeats() {
+		assertTrue(showing.tryReserveSeats(4));
+		assertTrue(showing.tryReserveSeats(6));
+		assertEquals(10, showing.getSeatsReserved());
+		assertEquals(0, showing.getSeatsAvailable());
+
+		// A claim that does not fit should be rejected without changing the reserved seats.
+		assertFalse(showing.tryReserveSeats(1));
+		assertEquals(10, showing.getSeatsReserved());
+
+		showing.releaseSeats(4);
+		assertEquals(6, showing.getSeatsReserved());
+		assertFalse(showing.tryReserveSeats(5));
+		assertTrue(showing.tryReserveSeats(4));
+	}
+
+	/**
+	 * Testing the getTicketPrice method of the Showing and invalidation of the cached price.
+	 */
+	@Test
+	public void testGetTicketPrice() {
+		// 4:10 PM on the 17th with sequence 5 has no discount, and the cached price should be returned on later calls.
+		assertEquals(12.5, showing.getTicketPrice());
+		assertEquals(movie.calculateTicketPrice(showing), showing.getTicketPrice());
+		assertEquals(DiscountPolicy.defaultPolicy(), showing.getDiscountPolicy());
+		
+		// Changing the policy should invalidate the cached price.
+		showing.setDiscountPolicy(DiscountPolicy.of(List.of(DiscountRules.sequence(5, 4))));
+		assertEquals(8.5, showing.getTicketPrice());
+		showing.setDiscountPolicy(DiscountPolicy.none());
+		assertEquals(12.5, showing.getTicketPrice());
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> showing.setDiscountPolicy(null));
+		assertEquals("Invalid discount policy. Discount policy cannot be null", e.getMessage());
+	}
+	
+	/**
+	 * Testing the formatStartTime and isSequence methods of the Showing.
+	 */
+	@Test
+	public void testFormatStartTimeAndIsSequence() {
+		assertEquals("16:10", showing.formatStartTime(showing.getStartTime()));
+		assertEquals("09:00", showing.formatStartTime(LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0))));
+		assertTrue(showing.isSequence(5));
+		assertFalse(showing.isSequence(4));
+	}
+}
@@ -0,0 +1,147 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+public class TheaterMetricsTests {
+	/** Metrics instance used for testing */
+	final TheaterMetrics metrics = TheaterMetrics.getInstance();
+	/** Theater instance used for testing */
+	Theater theater;
+	/** Customer used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	/** Movie used for testing */
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+
+	/**
+	 * Sets up the theater and clears the metrics before each test.
+	 */
+	@BeforeEach
+	public void setUp() {
+		theater = new Theater();
+		theater.addShowingToSchedule(turningRed, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)), 5);
+		metrics.reset();
+		metrics.setEnabled(true);
+	}
+
+	/**
+	 * Disables and clears the metrics after each test so other tests are not affected.
+	 */
+	@AfterEach
+	public void tearDown() {
+		metrics.setEnabled(false);
+		metrics.reset();
+	}
+
+	/**
+	 * Testing that bookings, ticket pricing and schedule rendering are timed, and failed bookings are counted by cause.
+	 */
+	@Test
+	public void testRecording() throws IOException {
+		theater.reserve(john, 1, 2);
+		theater.reserve(john, 1, 3);
+		assertThrows(IllegalArgumentException.class, () -> theater.reserve(john, 2, 1));
+		assertThrows(IllegalStateException.class, () -> theater.reserve(john, 1, 1));
+		theater.writeScheduleText(new StringWriter());
+
+		MetricsSnapshot snapshot = metrics.getSnapshot();
+		assertTrue(snapshot.isEnabled());
+		LatencyStats reserve = snapshot.getReserve();
+		assertEquals("reserve", reserve.getName());
+		assertEquals(2, reserve.getCount());
+		assertEquals(2, reserve.getFailures());
+		assertTrue(reserve.getP50Nanos() <= reserve.getP99Nanos());
+		assertTrue(reserve.getP99Nanos() <= reserve.getMaxNanos());
+		assertTrue(reserve.getMaxNanos() > 0);
+		assertEquals(1, snapshot.getInvalidSequenceFailures());
+		assertEquals(1, snapshot.getNotEnoughSeatsFailures());
+		assertEquals(1, snapshot.getScheduleRendering().getCount());
+		assertTrue(snapshot.getTicketPricing().getCount() >= 1);
+
+		metrics.reset();
+		assertEquals(0, metrics.getSnapshot().getReserve().getCount());
+		assertEquals(0, metrics.getSnapshot().getReserve().getP99Nanos());
+	}
+
+	/**
+	 * Testing that nothing is recorded while metrics are disabled.
+	 */
+	@Test
+	public void testDisabled() {
+		metrics.setEnabled(false);
+		assertEquals(0, metrics.start());
+		theater.reserve(john, 1, 2);
+		assertThrows(IllegalArgumentException.class, () -> theater.reserve(john, 2, 1));
+		MetricsSnapshot snapshot = metrics.getSnapshot();
+		assertFalse(snapshot.isEnabled());
+		assertEquals(0, snapshot.getReserve().getCount());
+		assertEquals(0, snapshot.getReserve().getFailures());
+		assertEquals(0, snapshot.getInvalidSequenceFailures());
+	}
+
+	/**
+	 * Testing the latency buckets and the percentiles calculated from them.
+	 */
+	@Test
+	public void testLatencyTimer() {
+		int previous = -1;
+		for(long nanos = 0; nanos < 100_000; nanos++) {
+			int bucket = LatencyTimer.bucket(nanos);
+			assertTrue(bucket == previous || bucket == previous + 1, "bucket of " + nanos);
+			assertTrue(nanos <= LatencyTimer.upperBound(bucket));
+			// Every bucket is at most 12.5% wider than the latencies it holds
+			assertTrue(LatencyTimer.upperBound(bucket) - nanos <= nanos / 8, "upper bound of " + nanos);
+			previous = bucket;
+		}
+		assertEquals(Long.MAX_VALUE, LatencyTimer.upperBound(LatencyTimer.bucket(Long.MAX_VALUE)));
+
+		LatencyTimer timer = new LatencyTimer("test");
+		long now = System.nanoTime();
+		for(int i = 0; i < 100; i++) {
+			timer.stop(now);
+		}
+		timer.stop(0);
+		timer.fail(0);
+		LatencyStats stats = timer.stats();
+		assertEquals(100, stats.getCount());
+		assertEquals(0, stats.getFailures());
+		assertTrue(stats.getP50Nanos() <= stats.getP90Nanos());
+		assertTrue(stats.getP90Nanos() <= stats.getMaxNanos());
+	}
+
+	/**
+	 * Testing that the metrics can be read through JMX.
+	 */
+	@Test
+	public void testMBean() throws Exception {
+		TheaterMetrics.registerMBean();
+		TheaterMetrics.registerMBean();
+		theater.reserve(john, 1, 1);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(TheaterMetrics.OBJECT_NAME);
+		assertEquals(true, server.getAttribute(name, "Enabled"));
+		CompositeData snapshot = (CompositeData) server.getAttribute(name, "Snapshot");
+		assertEquals(1L, ((CompositeData) snapshot.get("reserve")).get("count"));
+		server.invoke(name, "reset", null, null);
+		assertEquals(0, metrics.getSnapshot().getReserve().getCount());
+	}
+}
@@ -0,0 +1,118 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+public class TheaterReportTests {
+	/** Theater instance used for testing */
+	Theater theater;
+
+	/** Customers used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	final Customer jane = new Customer("Jane Doe", "janedoe456");
+
+	/** Movies used for testing */
+	final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0);
+	final Movie theBatMan = new Movie("The Batman", Duration.ofMinutes(95), 9, 0);
+
+	/** Screens used for testing */
+	final Screen screen1 = new Screen(1, 100);
+	final Screen screen2 = new Screen(2, 50);
+
+	/** Date of the showings */
+	final LocalDate date = LocalDate.of(2023, 4, 17);
+
+	/**
+	 * Sets up the theater before each test. Ticket prices are $9.50 for the first showing, $8.25 for the second, $6.00 for the
+	 * third and $9.00 for the fourth.
+	 */
+	@BeforeEach
+	public void setUp() {
+		theater = new Theater();
+		theater.addShowingToSchedule(spiderMan, screen1, LocalDateTime.of(date, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, screen1, LocalDateTime.of(date, LocalTime.of(12, 0)));
+		theater.addShowingToSchedule(theBatMan, screen2, LocalDateTime.of(date, LocalTime.of(9, 30)));
+		theater.addShowingToSchedule(turningRed, screen2, LocalDateTime.of(date, LocalTime.of(19, 0)));
+		theater.reserve(john, date, 1, 1, 4);
+		theater.reserve(jane, date, 1, 2, 2);
+		theater.reserve(john, date, 2, 1, 1);
+	}
+
+	/**
+	 * Testing the totals of the whole theater and of every showing, movie, time slot and discount rule.
+	 */
+	@Test
+	public void testReport() {
+		TheaterReport report = theater.getReport();
+		assertEquals(6050, report.getTotal().getRevenueCents());
+		assertEquals(60.5, report.getTotal().getRevenue());
+		assertEquals(7, report.getTotal().getTicketsSold());
+		assertEquals(300, report.getTotal().getCapacity());
+
+		assertEquals(theater.getSchedule(), List.copyOf(report.getByShowing().keySet()));
+		TheaterReport.Totals first = report.getByShowing().get(theater.getShowing(date, 1, 1));
+		assertEquals(3800, first.getRevenueCents());
+		assertEquals(0.04, first.getOccupancy());
+		assertEquals(0, report.getByShowing().get(theater.getShowing(date, 2, 2)).getTicketsSold());
+
+		assertEquals(List.of(spiderMan, turningRed, theBatMan), List.copyOf(report.getByMovie().keySet()));
+		assertEquals(1650, report.getByMovie().get(turningRed).getRevenueCents());
+		assertEquals(150, report.getByMovie().get(turningRed).getCapacity());
+
+		assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(12, 0), LocalTime.of(19, 0)), List.copyOf(report.getByTimeSlot().keySet()));
+		assertEquals(4400, report.getByTimeSlot().get(LocalTime.of(9, 0)).getRevenueCents());
+		assertEquals(5, report.getByTimeSlot().get(LocalTime.of(9, 0)).getTicketsSold());
+
+		List<DiscountRule> rules = DiscountPolicy.defaultPolicy().getRules();
+		assertEquals(List.of(rules.get(1).getName(), rules.get(3).getName(), rules.get(2).getName()), List.copyOf(report.getByDiscountRule().keySet()));
+		assertEquals(4400, report.getByDiscountRule().get(rules.get(1).getName()).getRevenueCents());
+		assertEquals(1650, report.getByDiscountRule().get(rules.get(3).getName()).getRevenueCents());
+
+		theater.setDiscountPolicy(DiscountPolicy.none());
+		report = theater.getReport();
+		assertEquals(List.of(TheaterReport.NO_DISCOUNT), List.copyOf(report.getByDiscountRule().keySet()));
+		// Tickets already sold keep the price they were booked at
+		assertEquals(60.5, report.getTotal().getRevenue());
+	}
+
+	/**
+	 * Testing that the sequential and parallel reports are identical, including the order of every map.
+	 */
+	@Test
+	public void testParallelMatchesSequential() {
+		theater = new Theater();
+		Movie[] movies = { spiderMan, turningRed, theBatMan };
+		for(int day = 1; day <= 10; day++) {
+			for(int screen = 1; screen <= 4; screen++) {
+				for(int hour = 9; hour < 23; hour += 2) {
+					theater.addShowingToSchedule(movies[(day + screen + hour) % 3], new Screen(screen, 200), LocalDateTime.of(2023, 4, day, hour, 10 * screen));
+				}
+			}
+		}
+		List<Showing> showings = theater.getSchedule();
+		Random random = new Random(42);
+		for(int i = 0; i < 5000; i++) {
+			Showing showing = showings.get(random.nextInt(showings.size()));
+			if(showing.getSeatsAvailable() > 0) {
+				theater.reserve(i % 2 == 0 ? john : jane, showing.getStartTime().toLocalDate(), showing.getScreen().getNumber(), showing.getSequenceOfTheDay(), 1);
+			}
+		}
+
+		TheaterReport sequential = TheaterReport.of(theater, false);
+		TheaterReport parallel = TheaterReport.of(theater, true);
+		assertEquals(sequential, parallel);
+		assertEquals(sequential.getTotal(), parallel.getTotal());
+		assertEquals(List.copyOf(sequential.getByMovie().keySet()), List.copyOf(parallel.getByMovie().keySet()));
+		assertEquals(theater.getReservationCount(), sequential.getTotal().getTicketsSold());
+	}
+}
@@ -0,0 +1,194 @@
+package com.jpmc.theater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TheaterSnapshotTests {
+	/** Directory the snapshots are written to */
+	Path directory;
+	/** Snapshot file used for testing */
+	Path path;
+	/** Theater used for testing */
+	Theater theater;
+
+	/** Customers used for testing */
+	final Customer john = new Customer("John Doe", "johndoe123");
+	final Customer jane = new Customer("Jane Doe", null);
+
+	/** Movies and day used for testing */
+	final Movie spiderMan = new Movie("Spider-Man: No Way Home", Duration.ofMinutes(90), 12.5, 1);
+	final Movie turningRed = new Movie("Turning Red", Duration.ofMinutes(85), 11, 0, "Pixar");
+	final LocalDate day = LocalDate.of(2023, 4, 17);
+
+	/**
+	 * Sets up the theater and the snapshot directory before each test.
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("snapshot");
+		path = directory.resolve("theater.snapshot");
+		theater = new Theater();
+		theater.addShowingToSchedule(spiderMan, new Screen(1, 100), LocalDateTime.of(day, LocalTime.of(9, 0)));
+		theater.addShowingToSchedule(turningRed, new Screen(2, 10), LocalDateTime.of(day, LocalTime.of(11, 0)));
+		theater.addShowingToSchedule(turningRed, 5, LocalDateTime.of(day.plusDays(1), LocalTime.of(14, 30)), 20);
+		theater.reserve(john, day, 1, 1, 4);
+		theater.reserve(jane, day, 1, 1, 2);
+		theater.reserve(john, day, 2, 1, 3);
+	}
+
+	/**
+	 * Deletes the snapshot directory after each test.
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for(Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Testing that the schedule and reservations survive a round trip through a snapshot.
+	 */
+	@Test
+	public void testWriteAndLoad() throws IOException {
+		theater.writeSnapshot(path);
+		assertFalse(Files.exists(path.resolveSibling("theater.snapshot.tmp")));
+		Theater loaded = TheaterSnapshot.load(path);
+
+		assertEquals(3, loaded.getSchedule().size());
+		Showing first = loaded.getShowing(day, 1, 1);
+		assertEquals(spiderMan, first.getMovie());
+		assertEquals(new Screen(1, 100), first.getScreen());
+		assertEquals(LocalDateTime.of(day, LocalTime.of(9, 0)), first.getStartTime());
+		assertEquals(6, first.getSeatsReserved());
+		assertEquals(9.5, first.getTicketPrice());
+		assertEquals("Pixar", loaded.getShowing(day, 2, 1).getMovie().getDescription());
+		assertEquals(20, loaded.getShowing(5).getCapacity());
+		assertEquals(0, loaded.getShowing(5).getSeatsReserved());
+		assertEquals(6, loaded.getSales(first).getTickets());
+		assertEquals(5700, loaded.getSales(first).getNetCents());
+		assertEquals(3, loaded.getSales(turningRed).getTickets());
+
+		// Reservations are read from the snapshot, and share one customer object per customer.
+		List<Reservation> reservations = loaded.getReservations(first);
+		assertEquals(2, reservations.size());
+		assertEquals(john, reservations.get(0).getCustomer());
+		assertEquals(4, reservations.get(0).getAudienceCount());
+		assertEquals(jane, reservations.get(1).getCustomer());
+		assertNull(reservations.get(1).getCustomer().getId());
+		assertSame(reservations.get(0).getCustomer(), loaded.getReservations(loaded.getShowing(day, 2, 1)).get(0).getCustomer());
+	}
+
+	/**
+	 * Testing that a loaded theater can keep booking and cancelling, and that seat counts match the reservations.
+	 */
+	@Test
+	public void testBookAfterLoad() throws IOException {
+		theater.writeSnapshot(path);
+		Theater loaded = TheaterSnapshot.load(path);
+
+		// The seats are restored before the reservations are read, so capacity is enforced straight away.
+		Exception e = assertThrows(IllegalStateException.class, () -> loaded.reserve(jane, day, 2, 1, 8));
+		assertEquals("Not enough seats. The showing with the sequence 1 has 7 seats available", e.getMessage());
+
+		// Looking up a customer reads every showing still in the snapshot; jane has no id so is not indexed.
+		assertEquals(2, loaded.getCustomerReservations("johndoe123").size());
+		assertTrue(loaded.getCustomerReservations(null).isEmpty());
+		Reservation johns = loaded.getCustomerReservations("johndoe123").get(0);
+		if(johns.getShowing() != loaded.getShowing(day, 2, 1)) {
+			johns = loaded.getCustomerReservations("johndoe123").get(1);
+		}
+		assertSame(johns, loaded.cancelReservation(johns.getId()));
+		assertEquals(0, loaded.getShowing(day, 2, 1).getSeatsReserved());
+		loaded.reserve(john, day, 2, 1, 3);
+
+		assertTrue(loaded.removeReservation(loaded.getReservations(loaded.getShowing(day, 1, 1)).get(0)));
+		loaded.reserve(jane, day, 1, 1, 1);
+		assertEquals(3, loaded.getShowing(day, 1, 1).getSeatsReserved());
+		assertEquals(2, loaded.getReservations(loaded.getShowing(day, 1, 1)).size());
+
+		// Writing the loaded theater again should keep the changes.
+		loaded.writeSnapshot(path);
+		Theater reloaded = TheaterSnapshot.load(path);
+		assertEquals(3, reloaded.getShowing(day, 1, 1).getSeatsReserved());
+		assertEquals(List.of(jane, jane), List.of(reloaded.getReservations(reloaded.getShowing(day, 1, 1)).get(0).getCustomer(),
+				reloaded.getReservations(reloaded.getShowing(day, 1, 1)).get(1).getCustomer()));
+	}
+
+	/**
+	 * Testing that loading a snapshot does not publish the restored showings again, and that changes made afterwards are published.
+	 */
+	@Test
+	public void testLoadDoesNotPublish() throws IOException {
+		theater.writeSnapshot(path);
+		Theater loaded = TheaterSnapshot.load(path);
+		ChangeFeed.Subscription subscription = loaded.getChangeFeed().subscribe(0);
+		assertEquals(0, loaded.getChangeFeed().getNextOffset());
+		assertNull(subscription.poll());
+
+		loaded.reserve(john, day, 2, 1, 1);
+		assertEquals(TheaterEvent.Type.RESERVATION_MADE, subscription.poll().getType());
+		assertNull(subscription.poll());
+	}
+
+	/**
+	 * Testing that a file that is not a snapshot is rejected.
+	 */
+	@Test
+	public void testNotASnapshot() throws IOException {
+		Files.write(path, "this is not a theater snapshot".getBytes(StandardCharsets.UTF_8));
+		Exception e = assertThrows(IOException.class, () -> TheaterSnapshot.load(path));
+		assertEquals("Not a theater snapshot: " + path, e.getMessage());
+	}
+
+	/**
+	 * Testing that snapshots are written in the background while bookings continue.
+	 */
+	@Test
+	public void testTheaterSnapshotter() throws Exception {
+		try (TheaterSnapshotter snapshotter = new TheaterSnapshotter(theater, path, Duration.ofMillis(5))) {
+			for(int i = 0; i < 50; i++) {
+				theater.reserve(jane, day, 1, 1, 1);
+			}
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while(snapshotter.getSnapshotsWritten() < 2 && System.nanoTime() < deadline) {
+				Thread.sleep(5);
+			}
+			assertTrue(snapshotter.getSnapshotsWritten() >= 2);
+			assertNull(snapshotter.getLastFailure());
+		}
+
+		// Every loaded showing should have as many seats reserved as its reservations add up to.
+		Theater loaded = TheaterSnapshot.load(path);
+		for(Showing showing : loaded.getSchedule()) {
+			int seats = 0;
+			for(Reservation reservation : loaded.getReservations(showing)) {
+				seats += reservation.getAudienceCount();
+			}
+			assertEquals(seats, showing.getSeatsReserved());
+		}
+		assertThrows(IllegalArgumentException.class, () -> new TheaterSnapshotter(theater, path, Duration.ZERO));
+	}
+}
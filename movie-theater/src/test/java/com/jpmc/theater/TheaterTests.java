@@ -5,13 +5,29 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TheaterTests {
 	/** Theater instance used for testing */
@@ -68,6 +84,113 @@ public class TheaterTests {
 		// Reserve should throw IAE if attempting to reserve a sequence that is out of bounds.
 		Exception e = assertThrows(IllegalArgumentException.class, () -> theater.reserve(john, 20, 1));
 		assertEquals("Invalid sequence. There are no showings with the sequence: " + String.valueOf(20), e.getMessage());
+		
+		// Reserve should throw IAE if attempting to reserve less than one ticket.
+		e = assertThrows(IllegalArgumentException.class, () -> theater.reserve(john, 1, 0));
+		assertEquals("Invalid ticket count. At least one ticket must be reserved: 0", e.getMessage());
+	}
+	
+	/**
+	 * Testing that reserve enforces the capacity of a showing and that removing a reservation returns its seats.
+	 */
+	@Test
+	public void testReserveCapacity() {
+		Showing limited = theater.addShowingToSchedule(theBatMan, 10, LocalDateTime.of(LocalDate.of(2023, 4, 18), LocalTime.of(9, 0)), 5);
+		theater.reserve(john, 10, 3);
+		
+		// Reserve should throw ISE if the showing does not have enough seats left, and should not claim any seats.
+		Exception e = assertThrows(IllegalStateException.class, () -> theater.reserve(john, 10, 3));
+		assertEquals("Not enough seats. The showing with the sequence 10 has 2 seats available", e.getMessage());
+		assertEquals(3, limited.getSeatsReserved());
+		assertEquals(1, theater.getReservations(10).size());
+		
+		theater.removeReservation(john, 10, 3);
+		assertEquals(0, limited.getSeatsReserved());
+		assertEquals(3, theater.reserve(john, 10, 3).getAudienceCount());
+	}
+	
+	/**
+	 * Testing the reserveBatch method in Theater.
+	 */
+	@Test
+	public void testReserveBatch() {
+		Customer jane = new Customer("Jane Doe", "janedoe456");
+		Showing limited = theater.addShowingToSchedule(theBatMan, 10, LocalDateTime.of(LocalDate.of(2023, 4, 18), LocalTime.of(9, 0)), 10);
+		
+		List<Reservation> created = theater.reserveBatch(List.of(new ReservationRequest(john, 10, 4), new ReservationRequest(jane, 1, 2),
+				new ReservationRequest(jane, 10, 6)));
+		assertEquals(3, created.size());
+		assertEquals(john, created.get(0).getCustomer());
+		assertEquals(limited, created.get(0).getShowing());
+		assertEquals(showing1, created.get(1).getShowing());
+		assertEquals(6, created.get(2).getAudienceCount());
+		assertEquals(10, limited.getSeatsReserved());
+		assertEquals(2, theater.getReservations(10).size());
+		
+		// The showing is now full, so the whole batch should be rejected, including the request for showing 1.
+		Exception e = assertThrows(IllegalStateException.class, () -> theater.reserveBatch(List.of(new ReservationRequest(john, 1, 3),
+				new ReservationRequest(jane, 10, 1))));
+		assertEquals("Not enough seats. The showing with the sequence 10 has 0 seats available", e.getMessage());
+		assertEquals(2, showing1.getSeatsReserved());
+		assertEquals(1, theater.getReservations(1).size());
+		
+		// An invalid request should reject the batch before any seats are claimed.
+		e = assertThrows(IllegalArgumentException.class, () -> theater.reserveBatch(List.of(new ReservationRequest(john, 1, 3),
+				new ReservationRequest(jane, 20, 1))));
+		assertEquals("Invalid sequence. There are no showings with the sequence: 20", e.getMessage());
+		assertEquals(2, showing1.getSeatsReserved());
+		
+		assertTrue(theater.reserveBatch(List.of()).isEmpty());
+	}
+	
+	/**
+	 * Stress test for reserve. Many threads compete for the seats of the same showings and the showings should never be oversold.
+	 */
+	@Test
+	public void testConcurrentReserveNeverOversells() throws Exception {
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		int capacity = 5000;
+		theater.clearSchedule();
+		Showing first = theater.addShowingToSchedule(turningRed, 1, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(9, 0)), capacity);
+		Showing second = theater.addShowingToSchedule(spiderMan, 2, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(11, 0)), capacity);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger rejected = new AtomicInteger();
+		List<Future<?>> workers = new ArrayList<Future<?>>();
+		for(int t = 0; t < threads; t++) {
+			Customer customer = new Customer("Customer " + t, "customer" + t);
+			int sequence = t % 2 + 1;
+			workers.add(pool.submit(() -> {
+				start.await();
+				// Keep booking 1 to 3 tickets until the showing rejects the customer several times in a row.
+				int misses = 0;
+				for(int i = 0; misses < 10; i++) {
+					try {
+						theater.reserve(customer, sequence, i % 3 + 1);
+						misses = 0;
+					} catch (IllegalStateException ex) {
+						rejected.incrementAndGet();
+						misses++;
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for(Future<?> worker : workers) {
+			worker.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		
+		for(Showing showing : List.of(first, second)) {
+			int booked = theater.getReservations(showing.getSequenceOfTheDay()).stream().mapToInt(Reservation::getAudienceCount).sum();
+			assertTrue(showing.getSeatsReserved() <= capacity);
+			assertEquals(showing.getSeatsReserved(), booked);
+			// Threads only give up after even a single ticket was rejected, so the showing must be sold out exactly.
+			assertEquals(0, showing.getSeatsAvailable());
+		}
+		assertTrue(rejected.get() > 0);
 	}
 
     /**
@@ -80,6 +203,232 @@ public class TheaterTests {
 		// Reservation that is removed
 		Reservation removed = theater.removeReservation(john, 1, 4);
 		assertEquals(temp, removed);
+		
+		// Removing the same reservation again, or one that does not exist, should return null.
+		assertNull(theater.removeReservation(john, 1, 4));
+		assertNull(theater.removeReservation(john, 20, 4));
+	}
+
+	/**
+	 * Testing that reservations are listed by customer id and cancelled by reservation id.
+	 */
+	@Test
+	public void testCustomerReservations() {
+		Customer jane = new Customer("Jane Doe", "janedoe456");
+		Reservation first = theater.reserve(john, 1, 2);
+		Reservation second = theater.reserve(jane, 2, 1);
+		Reservation third = theater.reserve(john, 3, 4);
+		assertTrue(first.getId() != second.getId());
+		assertTrue(first.getId() < third.getId());
+		assertSame(second, theater.getReservation(second.getId()));
+		assertEquals(List.of(first, third), theater.getCustomerReservations("johndoe123"));
+		assertTrue(theater.getCustomerReservations("nobody").isEmpty());
+		assertTrue(theater.getCustomerReservations(null).isEmpty());
+
+		// Cancelling by id returns the seats and updates every index.
+		assertSame(first, theater.cancelReservation(first.getId()));
+		assertNull(theater.cancelReservation(first.getId()));
+		assertNull(theater.getReservation(first.getId()));
+		assertEquals(0, theater.getShowing(1).getSeatsReserved());
+		assertEquals(List.of(third), theater.getCustomerReservations("johndoe123"));
+		assertTrue(theater.getReservations(1).isEmpty());
+
+		// Cancelling by id for another customer leaves the reservation in place.
+		assertNull(theater.cancelReservation(second.getId(), "johndoe123"));
+		assertSame(second, theater.getReservation(second.getId()));
+
+		// A customer without an id only matches a cancellation without an id.
+		Reservation anonymous = theater.reserve(new Customer("Walk In", null), 2, 1);
+		assertNull(theater.cancelReservation(anonymous.getId(), "johndoe123"));
+		assertSame(anonymous, theater.cancelReservation(anonymous.getId(), null));
+
+		// Cancelling by customer and ticket count also leaves the customer index.
+		theater.removeReservation(jane, 2, 1);
+		assertTrue(theater.getCustomerReservations("janedoe456").isEmpty());
+		assertEquals(1, theater.getReservationCount());
+	}
+
+	/**
+	 * Testing that a theater keeps working the same way with the columnar reservation store.
+	 */
+	@Test
+	public void testColumnarReservationStore() {
+		ColumnarReservationStore store = new ColumnarReservationStore();
+		Theater columnar = new Theater(store);
+		columnar.addShowingToSchedule(theBatMan, 1, LocalDateTime.of(LocalDate.of(2023, 4, 18), LocalTime.of(9, 0)), 5);
+
+		columnar.reserve(john, 1, 3);
+		Exception e = assertThrows(IllegalStateException.class, () -> columnar.reserve(john, 1, 3));
+		assertEquals("Not enough seats. The showing with the sequence 1 has 2 seats available", e.getMessage());
+		assertEquals(1, columnar.getReservationCount());
+		assertEquals(3, columnar.getReservations(1).get(0).getAudienceCount());
+
+		// Reservations handed out by the store are views, but can still be removed.
+		assertTrue(columnar.removeReservation(columnar.getReservations(1).get(0)));
+		assertEquals(0, columnar.getShowing(1).getSeatsReserved());
+		assertEquals(0, store.totalFeeCents());
+		assertSame(store, columnar.getReservationStore());
+	}
+
+	/**
+	 * Testing that showings on a screen with a seat layout give every reservation seats next to each other, and that seats are
+	 * returned when a booking fails or is cancelled.
+	 */
+	@Test
+	public void testAssignedSeating() {
+		LocalDate day = LocalDate.of(2023, 4, 18);
+		Theater seated = new Theater();
+		Showing showing = seated.addShowingToSchedule(spiderMan, new Screen(2, 3, 4), 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		assertEquals(12, showing.getCapacity());
+		
+		// The preferred row of three is B, two thirds of the way back
+		Reservation party = seated.reserve(john, day, 2, 1, 4);
+		assertEquals("B1-B4", party.getSeats().toString());
+		assertEquals("C2-C3", seated.reserveSeats(john, day, 2, 1, new SeatBlock(2, 1, 2)).getSeats().toString());
+		Exception e = assertThrows(IllegalStateException.class, () -> seated.reserveSeats(john, day, 2, 1, new SeatBlock(2, 2, 2)));
+		assertTrue(e.getMessage().startsWith("Seats taken."), e.getMessage());
+		assertEquals("A1-A3", seated.reserve(john, day, 2, 1, 3).getSeats().toString());
+		
+		// A4, C1 and C4 are free, but no two of them are together
+		e = assertThrows(IllegalStateException.class, () -> seated.reserve(john, day, 2, 1, 2));
+		assertTrue(e.getMessage().startsWith("Not enough seats together."), e.getMessage());
+		assertEquals(3, showing.getSeatsAvailable());
+		assertThrows(IllegalStateException.class, () -> seated.reserveBatch(List.of(
+				new ReservationRequest(john, new ScreenDay(day, 2), 1, 1), new ReservationRequest(john, new ScreenDay(day, 2), 1, 2))));
+		assertEquals(3, showing.getSeatsAvailable());
+		assertEquals(3, showing.getSeatMap().getSeatsAvailable());
+		
+		// Cancelling returns the block
+		seated.cancelReservation(party.getId());
+		assertFalse(showing.getSeatMap().isHeld(1, 0));
+		assertEquals("B2-B3", seated.reserve(john, day, 2, 1, 2).getSeats().toString());
+		assertEquals("  SCREEN\n"
+				+ "A XXXO\n"
+				+ "B OXXO\n"
+				+ "C OXXO\n", showing.getSeatMap().render());
+		
+		// Showings on a screen without a seat layout sell unassigned seats
+		assertNull(theater.getShowing(1).getSeatMap());
+		assertNull(theater.reserve(john, 1, 2).getSeats());
+		assertThrows(IllegalArgumentException.class,
+				() -> theater.reserveSeats(john, LocalDate.of(2023, 4, 17), 1, 1, new SeatBlock(0, 0, 1)));
+	}
+	
+	/**
+	 * Testing that held seats are taken from the showing until the hold is confirmed, released or expires.
+	 */
+	@Test
+	public void testSeatHolds() {
+		LocalDate day = LocalDate.of(2023, 4, 18);
+		Showing showing = theater.addShowingToSchedule(spiderMan, new Screen(2, 2, 5), 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		SeatHold expired = theater.holdSeats(john, day, 2, 1, 5, Duration.ofMinutes(1));
+		SeatHold confirmed = theater.holdSeats(john, day, 2, 1, 4, Duration.ofMinutes(10));
+		SeatHold released = theater.holdSeats(john, day, 2, 1, new SeatBlock(1, 4, 1), Duration.ofMinutes(10));
+		assertEquals("A1-A5", expired.getSeats().toString());
+		assertEquals("B1-B4", confirmed.getSeats().toString());
+		assertEquals(0, showing.getSeatsAvailable());
+		assertEquals(3, theater.getHoldCount());
+		assertThrows(IllegalStateException.class, () -> theater.reserve(john, day, 2, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> theater.holdSeats(john, day, 2, 1, 1, Duration.ZERO));
+		
+		// Nothing is reserved until the hold is confirmed, and a hold ends only once
+		assertTrue(theater.getReservations(showing).isEmpty());
+		Reservation reservation = theater.confirmHold(confirmed.getId());
+		assertEquals(confirmed.getSeats(), reservation.getSeats());
+		assertEquals(SeatHold.State.CONFIRMED, confirmed.getState());
+		assertNull(theater.confirmHold(confirmed.getId()));
+		assertFalse(theater.releaseHold(confirmed.getId()));
+		assertEquals(10, showing.getSeatsReserved());
+		
+		assertTrue(theater.releaseHold(released.getId()));
+		assertEquals(SeatHold.State.RELEASED, released.getState());
+		assertEquals(1, showing.getSeatsAvailable());
+		assertNull(theater.confirmHold(released.getId()));
+		
+		// The timer wheel returns the seats of the hold once its timeout has passed
+		assertEquals(0, theater.expireHolds(System.nanoTime()));
+		assertEquals(1, theater.expireHolds(System.nanoTime() + TimeUnit.MINUTES.toNanos(2)));
+		assertEquals(SeatHold.State.EXPIRED, expired.getState());
+		assertNull(theater.getHold(expired.getId()));
+		assertEquals(0, theater.getHoldCount());
+		assertEquals(6, showing.getSeatsAvailable());
+		assertFalse(showing.getSeatMap().isHeld(0, 0));
+		assertEquals(1, theater.getReservations(showing).size());
+	}
+	
+	/**
+	 * Testing that a hold cannot be confirmed after its timeout, even before the timer wheel expires it.
+	 */
+	@Test
+	public void testConfirmExpiredHold() throws InterruptedException {
+		SeatHold hold = theater.holdSeats(john, LocalDate.of(2023, 4, 17), 1, 1, 3, Duration.ofMillis(1));
+		Thread.sleep(5);
+		assertNull(theater.confirmHold(hold.getId()));
+		assertEquals(SeatHold.State.EXPIRED, hold.getState());
+		assertEquals(0, showing1.getSeatsReserved());
+		assertTrue(theater.getReservations(1).isEmpty());
+	}
+
+	/**
+	 * Testing that a batch short of seats takes the seats of expired holds the timer wheel has not returned yet.
+	 */
+	@Test
+	public void testBatchTakesSeatsOfExpiredHolds() throws InterruptedException {
+		LocalDate day = LocalDate.of(2023, 4, 18);
+		Showing showing = theater.addShowingToSchedule(spiderMan, new Screen(2, 2, 5), 1, LocalDateTime.of(day, LocalTime.of(9, 0)));
+		Customer jane = new Customer("Jane Doe", "janedoe456");
+		theater.holdSeats(jane, day, 2, 1, 4, Duration.ofMinutes(10));
+		SeatHold hold = theater.holdSeats(john, day, 2, 1, 5, Duration.ofMillis(1));
+		// Long enough for the timeout and a tick of the timer wheel to pass
+		Thread.sleep(50);
+		assertEquals(SeatHold.State.PENDING, hold.getState());
+
+		List<Reservation> created = theater.reserveBatch(List.of(new ReservationRequest(jane, new ScreenDay(day, 2), 1, 1),
+				new ReservationRequest(john, new ScreenDay(day, 2), 1, 5)));
+		assertEquals(SeatHold.State.EXPIRED, hold.getState());
+		assertEquals(hold.getSeats(), created.get(1).getSeats());
+		assertEquals(10, showing.getSeatsReserved());
+	}
+
+	/**
+	 * Testing that changing the discount policy of the theater reprices the showings in the schedule, but not the reservations
+	 * already made.
+	 */
+	@Test
+	public void testSetDiscountPolicy() {
+		// Showing 1 gets the 3 dollar first showing discount under the default policy.
+		Reservation reservation = theater.reserve(john, 1, 2);
+		assertEquals(16, reservation.totalFee());
+		
+		theater.setDiscountPolicy(DiscountPolicy.none());
+		assertEquals(DiscountPolicy.none(), theater.getDiscountPolicy());
+		assertEquals(16, reservation.totalFee());
+		assertEquals(22, theater.reserve(john, 1, 2).totalFee());
+		
+		// Showings added later should also use the theater's policy.
+		Showing added = theater.addShowingToSchedule(spiderMan, 10, LocalDateTime.of(LocalDate.of(2023, 4, 18), LocalTime.of(13, 0)));
+		assertEquals(DiscountPolicy.none(), added.getDiscountPolicy());
+		assertEquals(12.5, added.getTicketPrice());
+	}
+	
+	/**
+	 * Testing the schedule lookup methods in Theater.
+	 */
+	@Test
+	public void testScheduleLookup() {
+		assertEquals(showing3, theater.getShowing(3));
+		assertNull(theater.getShowing(20));
+		assertEquals(9, theater.getSchedule().size());
+		assertEquals(showing1, theater.getSchedule().get(0));
+		
+		// Showings starting from 11 AM up to but not including 2:30 PM.
+		LocalDate day = LocalDate.of(2023, 4, 17);
+		assertEquals(List.of(showing2, showing3), theater.getShowingsBetween(LocalDateTime.of(day, LocalTime.of(11, 0)), LocalDateTime.of(day, LocalTime.of(14, 30))));
+		
+		// Removed showings should no longer be found by sequence or by time.
+		theater.removeShowingFromSchedule(2);
+		assertNull(theater.getShowing(2));
+		assertEquals(List.of(showing3), theater.getShowingsBetween(LocalDateTime.of(day, LocalTime.of(11, 0)), LocalDateTime.of(day, LocalTime.of(14, 30))));
 	}
 
 	/**
@@ -98,6 +447,195 @@ public class TheaterTests {
 		
 	}
 	
+	/**
+	 * Testing a schedule that spans several days and screens.
+	 */
+	@Test
+	public void testMultiDaySchedule() throws IOException {
+		Screen screen2 = new Screen(2, 4);
+		LocalDate monday = LocalDate.of(2023, 4, 17);
+		LocalDate tuesday = LocalDate.of(2023, 4, 18);
+
+		// Sequences are numbered separately on every screen day, so the first showing on each new screen day is sequence 1.
+		Showing mondayScreen2 = theater.addShowingToSchedule(spiderMan, screen2, LocalDateTime.of(monday, LocalTime.of(10, 0)));
+		Showing tuesdayScreen2 = theater.addShowingToSchedule(spiderMan, screen2, LocalDateTime.of(tuesday, LocalTime.of(16, 10)));
+		assertEquals(1, mondayScreen2.getSequenceOfTheDay());
+		assertEquals(1, tuesdayScreen2.getSequenceOfTheDay());
+		assertEquals(2, theater.addShowingToSchedule(turningRed, screen2, LocalDateTime.of(tuesday, LocalTime.of(19, 0))).getSequenceOfTheDay());
+		assertEquals(4, mondayScreen2.getCapacity());
+
+		// The per-partition sequence feeds the sequence discount: $3 off beats 20% off for the first showing.
+		assertEquals(9.5, mondayScreen2.getTicketPrice());
+
+		assertEquals(mondayScreen2, theater.getShowing(monday, 2, 1));
+		assertEquals(showing1, theater.getShowing(monday, Screen.DEFAULT_NUMBER, 1));
+		assertNull(theater.getShowing(tuesday, 1, 1));
+		assertEquals(10, theater.getSchedule(monday).size());
+		assertEquals(List.of(tuesdayScreen2, theater.getShowing(tuesday, 2, 2)), theater.getSchedule(tuesday, 2));
+
+		// Sequence-only lookups should refuse to guess once a sequence is used on more than one screen day.
+		Exception e = assertThrows(IllegalArgumentException.class, () -> theater.reserve(john, 1, 1));
+		assertEquals("Ambiguous sequence. 3 showings have the sequence 1, so the date and screen must be given", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> theater.getShowing(2));
+		assertEquals(showing5, theater.getShowing(5));
+
+		Reservation reservation = theater.reserve(john, tuesday, 2, 1, 4);
+		assertEquals(tuesdayScreen2, reservation.getShowing());
+		e = assertThrows(IllegalStateException.class, () -> theater.reserve(john, tuesday, 2, 1, 1));
+		assertEquals("Not enough seats. The showing with the sequence 1 has 0 seats available", e.getMessage());
+		assertEquals(List.of(reservation), theater.getReservations(tuesdayScreen2));
+		assertTrue(theater.getReservations(mondayScreen2).isEmpty());
+
+		// Batch requests can name the screen day of each showing.
+		List<Reservation> batch = theater.reserveBatch(List.of(new ReservationRequest(john, new ScreenDay(monday, 2), 1, 2)));
+		assertEquals(mondayScreen2, batch.get(0).getShowing());
+
+		assertTrue(theater.removeReservation(reservation));
+		assertFalse(theater.removeReservation(reservation));
+		assertEquals(0, tuesdayScreen2.getSeatsReserved());
+
+		// Rendering a screen day should only include the showings of that partition.
+		StringWriter text = new StringWriter();
+		theater.writeScheduleText(tuesday, 2, text);
+		assertTrue(text.toString().startsWith("Showtimes for 2023-04-18 on screen 2\n"));
+		assertTrue(text.toString().contains("16:10"));
+		assertFalse(text.toString().contains("09:00"));
+
+		assertEquals(tuesdayScreen2, theater.removeShowingFromSchedule(tuesday, 2, 1));
+		assertNull(theater.getShowing(tuesday, 2, 1));
+	}
+
+	/**
+	 * Testing that the schedule can be written to any writer in start time order.
+	 */
+	@Test
+	public void testWriteSchedule() throws IOException {
+		StringWriter text = new StringWriter();
+		theater.writeScheduleText(text);
+		assertTrue(text.toString().startsWith("Showtimes for 2023-04-17 on screen 1\n"));
+		assertTrue(text.toString().contains("1          09:00        Turning Red                1 hr 25 mins   $11.00\n"));
+		assertTrue(text.toString().indexOf("09:00") < text.toString().indexOf("23:00"));
+		
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		theater.writeScheduleJson(json);
+		assertTrue(json.toString(StandardCharsets.UTF_8).contains("\"title\": \"The Batman\""));
+	}
+	
+	/**
+	 * Testing that the schedule snapshot is cached until the schedule changes.
+	 */
+	@Test
+	public void testScheduleSnapshot() {
+		ScheduleSnapshot first = theater.getScheduleSnapshot();
+		assertSame(first, theater.getScheduleSnapshot());
+		assertTrue(StandardCharsets.UTF_8.decode(first.getText()).toString().startsWith("Showtimes for 2023-04-17 on screen 1\n"));
+		
+		// Every kind of schedule change should invalidate the snapshot.
+		theater.addShowingToSchedule(theBatMan, 10, LocalDateTime.of(LocalDate.of(2023, 4, 17), LocalTime.of(23, 50)));
+		ScheduleSnapshot second = theater.getScheduleSnapshot();
+		assertNotSame(first, second);
+		assertTrue(second.getVersion() > first.getVersion());
+		assertTrue(StandardCharsets.UTF_8.decode(second.getText()).toString().contains("23:50"));
+		
+		theater.removeShowingFromSchedule(10);
+		ScheduleSnapshot third = theater.getScheduleSnapshot();
+		assertNotSame(second, third);
+		assertFalse(StandardCharsets.UTF_8.decode(third.getText()).toString().contains("23:50"));
+		
+		// Removing a showing that does not exist does not change the schedule.
+		theater.removeShowingFromSchedule(20);
+		assertSame(third, theater.getScheduleSnapshot());
+		
+		theater.clearSchedule();
+		assertFalse(StandardCharsets.UTF_8.decode(theater.getScheduleSnapshot().getJson()).toString().contains("title"));
+	}
+	
+	/**
+	 * Testing that the sales counters of showings and movies follow reservations and cancellations.
+	 */
+	@Test
+	public void testSalesCounters() {
+		assertEquals(0, theater.getSales(showing1).getTickets());
+		assertEquals(0, theater.getSales(turningRed).getGrossCents());
+		
+		// Showing 1 sells $11.00 tickets for $8.00, showing 4 for $8.25.
+		theater.reserve(john, 1, 4);
+		theater.reserve(john, 4, 2);
+		SalesCounters first = theater.getSales(showing1);
+		assertEquals(4, first.getTickets());
+		assertEquals(4400, first.getGrossCents());
+		assertEquals(1200, first.getDiscountCents());
+		assertEquals(3200, first.getNetCents());
+		SalesCounters movie = theater.getSales(turningRed);
+		assertEquals(6, movie.getTickets());
+		assertEquals(4400 + 2200, movie.getGrossCents());
+		assertEquals(1200 + 550, movie.getDiscountCents());
+		
+		theater.removeReservation(john, 1, 4);
+		assertEquals(0, first.getTickets());
+		assertEquals(0, first.getNetCents());
+		assertEquals(2, movie.getTickets());
+		assertEquals(1650, movie.getNetCents());
+		assertEquals(0, theater.getSales(spiderMan).getTickets());
+	}
+	
+	/**
+	 * Testing that scheduled showings are checked for overlaps with the cleaning gap, and numbered in start time order as
+	 * showings are scheduled and unscheduled.
+	 */
+	@Test
+	public void testScheduleShowing() {
+		Screen screen = new Screen(2);
+		LocalDate day = LocalDate.of(2023, 4, 18);
+		theater.setCleaningGap(Duration.ofMinutes(15));
+		ChangeFeed.Subscription subscription = theater.getChangeFeed().subscribe();
+
+		Showing late = theater.scheduleShowing(theBatMan, screen, day.atTime(21, 0));
+		assertEquals(1, late.getSequenceOfTheDay());
+		assertEquals(600, late.getTicketPriceCents());
+		Reservation booked = theater.reserve(john, day, 2, 1, 2);
+		Showing early = theater.scheduleShowing(theBatMan, screen, day.atTime(17, 0));
+		// Ends at 18:35, so 18:50 keeps the cleaning gap
+		Showing middle = theater.scheduleShowing(turningRed, screen, day.atTime(18, 50));
+		assertEquals(1, early.getSequenceOfTheDay());
+		assertEquals(2, middle.getSequenceOfTheDay());
+		assertEquals(3, late.getSequenceOfTheDay());
+		assertSame(late, theater.getShowing(day, 2, 3));
+		// The sequence discount of later tickets follows the new sequence, but tickets already sold keep their price
+		assertEquals(900, late.getTicketPriceCents());
+		assertEquals(1200, booked.totalFeeCents());
+
+		assertThrows(IllegalArgumentException.class, () -> theater.scheduleShowing(spiderMan, screen, day.atTime(18, 40)));
+		assertThrows(IllegalArgumentException.class, () -> theater.scheduleShowing(spiderMan, screen, day.atTime(20, 30)));
+		assertThrows(IllegalArgumentException.class, () -> theater.setCleaningGap(Duration.ofMinutes(-1)));
+		assertEquals(3, theater.getSchedule(day, 2).size());
+
+		assertSame(early, theater.unscheduleShowing(day, 2, 1));
+		assertEquals(1, middle.getSequenceOfTheDay());
+		assertEquals(2, late.getSequenceOfTheDay());
+		assertEquals(700, late.getTicketPriceCents());
+		assertNull(theater.unscheduleShowing(day, 2, 3));
+
+		// Runs past midnight into the next day
+		theater.scheduleShowing(theBatMan, screen, day.atTime(23, 30));
+		assertThrows(IllegalArgumentException.class, () -> theater.scheduleShowing(turningRed, screen, day.plusDays(1).atTime(1, 0)));
+		assertEquals(1, theater.scheduleShowing(turningRed, screen, day.plusDays(1).atTime(1, 20)).getSequenceOfTheDay());
+
+		TheaterEvent.Type[] expected = { TheaterEvent.Type.SHOWING_ADDED, TheaterEvent.Type.RESERVATION_MADE, TheaterEvent.Type.SHOWING_ADDED,
+				TheaterEvent.Type.SHOWING_RESEQUENCED, TheaterEvent.Type.SHOWING_ADDED, TheaterEvent.Type.SHOWING_RESEQUENCED,
+				TheaterEvent.Type.SHOWING_REMOVED, TheaterEvent.Type.SHOWING_RESEQUENCED, TheaterEvent.Type.SHOWING_RESEQUENCED,
+				TheaterEvent.Type.SHOWING_ADDED, TheaterEvent.Type.SHOWING_ADDED };
+		Showing[] showings = { late, late, early, late, middle, late, early, middle, late };
+		for(int i = 0; i < expected.length; i++) {
+			TheaterEvent event = subscription.poll();
+			assertEquals(expected[i], event.getType());
+			if(i < showings.length) {
+				assertSame(showings[i], event.getShowing());
+			}
+		}
+		assertNull(subscription.poll());
+	}
+
 	/**
 	 * Print the movie schedule in text format. Comment out if not using.
 	 */